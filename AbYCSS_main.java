@@ -31,6 +31,8 @@ import jmetal.operators.mutation.MutationFactory;
 import jmetal.problems.ProblemFactory;
 import jmetal.problems.ZDT.ZDT4;
 import jmetal.problems.SSpamProblem2D;
+import jmetal.problems.SSpamProblem2DAbYCSS;
+import jmetal.problems.spam.PriorityExporter;
 import jmetal.qualityIndicator.QualityIndicator;
 import jmetal.util.Configuration;
 import jmetal.util.JMException;
@@ -147,6 +149,14 @@ public class AbYCSS_main {
     population.printVariablesToFile("VAR");    
     logger_.info("Objectives values have been writen to file FUN");
     population.printObjectivesToFile("FUN");
+
+    PriorityExporter exporter = null ;
+    if (problem instanceof SSpamProblem2D)
+      exporter = new PriorityExporter(((SSpamProblem2D) problem).getRules().getTable()) ;
+    else if (problem instanceof SSpamProblem2DAbYCSS)
+      exporter = new PriorityExporter(((SSpamProblem2DAbYCSS) problem).getRules().getTable()) ;
+    if ((exporter != null) && (exporter.writeKneePoint("PRIORITY.cf", population, 0) != null))
+      logger_.info("Rule priorities of the knee point have been writen to file PRIORITY.cf") ;
   
     if (indicators != null) {
       logger_.info("Quality indicators") ;
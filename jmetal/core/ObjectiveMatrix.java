@@ -0,0 +1,188 @@
+//  ObjectiveMatrix.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.core;
+
+/**
+ * This class keeps the objective values of the solutions of a
+ * <code>SolutionSet</code> in arrays of doubles, for the algorithms which
+ * go through the objectives of many solutions (non-dominated sorting,
+ * crowding distances, quality indicators). Two layouts are given: by
+ * columns, where the values of each objective are contiguous, and by rows,
+ * one array per solution, as in <code>writeObjectivesToMatrix</code>.
+ *
+ * The arrays are brought up to date each time they are requested, copying
+ * only the rows of the solutions which have been added, replaced or moved,
+ * or whose objectives have been set, since the previous request. They are
+ * reused between requests, so the callers must not modify them nor keep
+ * them after changing the solution set.
+ */
+public class ObjectiveMatrix {
+
+  private final SolutionSet solutionSet_ ;
+
+  /**
+   * Stores the solution copied in each row, and the version of its
+   * objectives when it was copied
+   */
+  private Solution [] solutions_ ;
+  private int [] versions_ ;
+
+  private int size_ ;
+  private int numberOfObjectives_ ;
+
+  /**
+   * Stores the values by columns: columns_[j][i] is the objective j of the
+   * solution i
+   */
+  private double [][] columns_ ;
+
+  /**
+   * Stores the values by rows, once they are requested; rows_ has one
+   * array per solution of the set, taken from rowBuffers_
+   */
+  private double [][] rowBuffers_ ;
+  private double [][] rows_ ;
+
+  /**
+   * Constructor
+   * @param solutionSet The solution set
+   */
+  ObjectiveMatrix(SolutionSet solutionSet) {
+    solutionSet_        = solutionSet ;
+    solutions_          = new Solution[0] ;
+    versions_           = new int[0] ;
+    size_               = 0 ;
+    numberOfObjectives_ = 0 ;
+    columns_            = new double[0][0] ;
+    rowBuffers_         = null ;
+    rows_               = null ;
+  } // ObjectiveMatrix
+
+  /**
+   * Returns the objective values by columns
+   * @return An array per objective, with the values of the solutions in the
+   * order of the set; the arrays may be longer than the set
+   */
+  public double [][] getColumns() {
+    update() ;
+    return columns_ ;
+  } // getColumns
+
+  /**
+   * Returns the objective values by rows
+   * @return An array per solution of the set, with its objective values
+   */
+  public double [][] getRows() {
+    if (rowBuffers_ == null) {
+      update() ;
+      rowBuffers_ = new double[solutions_.length][] ;
+      for (int i = 0; i < size_; i++) {
+        rowBuffers_[i] = new double[numberOfObjectives_] ;
+        for (int j = 0; j < numberOfObjectives_; j++)
+          rowBuffers_[i][j] = columns_[j][i] ;
+      }
+      rows_ = null ;
+    }
+    update() ;
+    if ((rows_ == null) || (rows_.length != size_)) {
+      rows_ = new double[size_][] ;
+      System.arraycopy(rowBuffers_, 0, rows_, 0, size_) ;
+    }
+    return rows_ ;
+  } // getRows
+
+  /**
+   * Returns the number of solutions
+   */
+  public int size() {
+    update() ;
+    return size_ ;
+  } // size
+
+  /**
+   * Returns the number of objectives, taken from the first solution
+   */
+  public int getNumberOfObjectives() {
+    update() ;
+    return numberOfObjectives_ ;
+  } // getNumberOfObjectives
+
+  /**
+   * Copies the rows which are not up to date
+   */
+  private void update() {
+    int size = solutionSet_.solutionsList_.size() ;
+    if (size > 0) {
+      int objectives = solutionSet_.solutionsList_.get(0).getNumberOfObjectives() ;
+      if (objectives != numberOfObjectives_) {
+        numberOfObjectives_ = objectives ;
+        solutions_  = new Solution[0] ;
+        versions_   = new int[0] ;
+        columns_    = new double[objectives][0] ;
+        rowBuffers_ = (rowBuffers_ == null) ? null : new double[0][] ;
+        rows_       = null ;
+      }
+    }
+    if (solutions_.length < size)
+      grow(Math.max(size, 2 * solutions_.length)) ;
+
+    for (int i = 0; i < size; i++) {
+      Solution solution = solutionSet_.solutionsList_.get(i) ;
+      int version = solution.getObjectivesVersion() ;
+      if ((solutions_[i] != solution) || (versions_[i] != version)) {
+        solutions_[i] = solution ;
+        versions_[i]  = version ;
+        for (int j = 0; j < numberOfObjectives_; j++)
+          columns_[j][i] = solution.getObjective(j) ;
+        if (rowBuffers_ != null) {
+          if (rowBuffers_[i] == null)
+            rowBuffers_[i] = new double[numberOfObjectives_] ;
+          for (int j = 0; j < numberOfObjectives_; j++)
+            rowBuffers_[i][j] = columns_[j][i] ;
+        }
+      }
+    }
+    // The solutions removed from the set are released
+    for (int i = size; i < size_; i++)
+      solutions_[i] = null ;
+    size_ = size ;
+  } // update
+
+  /**
+   * Enlarges the arrays
+   */
+  private void grow(int capacity) {
+    Solution [] solutions = new Solution[capacity] ;
+    System.arraycopy(solutions_, 0, solutions, 0, solutions_.length) ;
+    solutions_ = solutions ;
+
+    int [] versions = new int[capacity] ;
+    System.arraycopy(versions_, 0, versions, 0, versions_.length) ;
+    versions_ = versions ;
+
+    for (int j = 0; j < numberOfObjectives_; j++) {
+      double [] column = new double[capacity] ;
+      System.arraycopy(columns_[j], 0, column, 0, columns_[j].length) ;
+      columns_[j] = column ;
+    }
+
+    if (rowBuffers_ != null) {
+      double [][] rowBuffers = new double[capacity][] ;
+      System.arraycopy(rowBuffers_, 0, rowBuffers, 0, rowBuffers_.length) ;
+      rowBuffers_ = rowBuffers ;
+    }
+  } // grow
+} // ObjectiveMatrix
@@ -26,20 +26,68 @@ import jmetal.encodings.solutionType.RealSolutionType;
 import java.text.*;
 import java.util.Properties;
 import jmetal.util.JMException;
+import jmetal.util.Configuration;
+import jmetal.problems.spam.SpamSnapshot;
 import jmetal.core.*;
 
+/**
+ * Loads the rules of the spam problems. The rules are read from the snapshot
+ * <code>SNAPSHOT_FILE</code> if it exists (see <code>SpamSnapshot</code>)
+ * and is not older than <code>RULES_FILE</code> and <code>COSTS_FILE</code>;
+ * otherwise they are parsed from <code>RULES_FILE</code>, taking the measured
+ * costs of <code>COSTS_FILE</code> if it exists (see
+ * <code>RuleCostProfiler</code>), and a stale snapshot is reported. They are
+ * loaded once and shared by all the instances; the source loaded is logged.
+ */
 public class ParseRules {
 
-  int numberOfRules = 900;
+  public static final String RULES_FILE    = "files/50_scores.cf";
+  public static final String SNAPSHOT_FILE = "files/50_scores.bin";
+  public static final String COSTS_FILE    = "files/50_costs.cf";
+
+  private static SpamAssassinRules sharedRules = null;
+
   int iteration = 1;
   private SpamAssassinRules rules;
   
-  public ParseRules() {
-    try{
-      this.rules = new SpamAssassinRules("files/50_scores.cf");
-    } catch(Exception e) {
-      
-    } 
+  public ParseRules() throws IOException {
+    this.rules = load();
+  }
+
+  private static synchronized SpamAssassinRules load() throws IOException {
+    if (sharedRules == null) {
+      File snapshot = new File(SNAPSHOT_FILE);
+      File costs    = new File(COSTS_FILE);
+      String newer  = null;
+      if (snapshot.exists()) {
+        if (new File(RULES_FILE).lastModified() > snapshot.lastModified())
+          newer = RULES_FILE;
+        else if (costs.lastModified() > snapshot.lastModified())
+          newer = COSTS_FILE;
+      }
+
+      if (snapshot.exists() && (newer == null)) {
+        sharedRules = new SpamAssassinRules(SpamSnapshot.open(SNAPSHOT_FILE).getTable());
+        Configuration.logger_.info("ParseRules: rules loaded from " + SNAPSHOT_FILE);
+      } else {
+        if (newer != null)
+          Configuration.logger_.warning("ParseRules: " + newer + " is newer than " + SNAPSHOT_FILE +
+                                        ", the snapshot is ignored");
+        try {
+          if (costs.exists()) {
+            sharedRules = new SpamAssassinRules(RULES_FILE, COSTS_FILE);
+            Configuration.logger_.info("ParseRules: rules loaded from " + RULES_FILE + " and " + COSTS_FILE);
+          } else {
+            sharedRules = new SpamAssassinRules(RULES_FILE);
+            Configuration.logger_.info("ParseRules: rules loaded from " + RULES_FILE);
+          }
+        } catch (Exception e) {
+          Configuration.logger_.severe("ParseRules: error reading " + RULES_FILE + ": " + e);
+          throw new IOException("ParseRules: error reading " + RULES_FILE, e);
+        }
+      }
+    }
+    return sharedRules;
   }
 
   public SpamAssassinRules getRules()
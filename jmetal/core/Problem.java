@@ -147,6 +147,31 @@ public abstract class Problem implements Serializable {
    * @param solution The <code>Solution</code> to evaluate.
    */    
   public abstract void evaluate(Solution solution) throws JMException ;    
+
+  /**
+   * Evaluates a <code>Solution</code> object and returns the number of
+   * evaluations to charge to the budget of the algorithm. The default
+   * behavior is to call <code>evaluate</code> and to charge one evaluation;
+   * problems caching their evaluations return 0 when the objectives are
+   * taken from the cache.
+   * @param solution The <code>Solution</code> to evaluate.
+   * @return The number of evaluations carried out (0 or 1).
+   */
+  public int evaluateCharged(Solution solution) throws JMException {
+    evaluate(solution) ;
+    return 1 ;
+  } // evaluateCharged
+
+  /**
+   * Returns true if the problem caches its evaluations, so that
+   * <code>evaluateCharged</code> may charge less than one evaluation per
+   * call, depending on the solutions evaluated before. The default behavior
+   * is to return false.
+   * @return true if the evaluations are cached.
+   */
+  public boolean hasEvaluationCache() {
+    return false ;
+  } // hasEvaluationCache
     
   /**
    * Gets the number of side constraints in the problem.
@@ -0,0 +1,173 @@
+package jmetal.core;
+
+import java.util.HashMap;
+
+/**
+ * Compact table of SpamAssassin rules stored as a structure of primitive
+ * arrays. The cost of a rule (CPU + IO time) is precomputed, and the rules
+ * whose score is out of [MIN_SCORE, MAX_SCORE] are flagged as excluded in a
+ * bitset. In the arrays used by the scoring kernel the score and cost of the
+ * excluded rules are zero, so that the kernel only reads contiguous
+ * primitive arrays and does not branch on them.
+ */
+public class RuleTable {
+
+  /**
+   * Rules whose score is above this value or below <code>MIN_SCORE</code> are
+   * excluded from the evaluation
+   */
+  public static final double MAX_SCORE = 99  ;
+  public static final double MIN_SCORE = -30 ;
+
+  private String [] name_ ;
+  private double [] score_ ;
+  private double [] cpu_   ;
+  private double [] io_    ;
+
+  /**
+   * Stores the score and cost of the rules, being zero for excluded rules
+   */
+  private double [] effectiveScore_ ;
+  private double [] effectiveCost_  ;
+
+  /**
+   * Bitset of excluded rules
+   */
+  private long [] excluded_ ;
+
+  /**
+   * Constructor
+   * @param name Names of the rules
+   * @param score Scores of the rules
+   * @param cpu CPU time of the rules
+   * @param io IO time of the rules
+   */
+  public RuleTable(String [] name, double [] score, double [] cpu, double [] io) {
+    int size = name.length ;
+    name_  = name  ;
+    score_ = score ;
+    cpu_   = cpu   ;
+    io_    = io    ;
+
+    effectiveScore_ = new double[size] ;
+    effectiveCost_  = new double[size] ;
+    excluded_       = new long[(size + 63) >>> 6] ;
+    for (int i = 0; i < size; i++) {
+      if ((score[i] > MAX_SCORE) || (score[i] < MIN_SCORE)) {
+        excluded_[i >>> 6] |= 1L << i ;
+      } else {
+        effectiveScore_[i] = score[i] ;
+        effectiveCost_[i]  = cpu[i] + io[i] ;
+      }
+    } // for
+  } // RuleTable
+
+  /**
+   * Scoring kernel: visits the rules in the given order until the accumulated
+   * score exceeds the required score. It does not allocate memory.
+   * @param order The order of the rules
+   * @param length Number of positions of the order to take into account
+   * @param scoreRequired The score to exceed
+   * @param result Array receiving the total time, the number of executed
+   * rules (0 if the score is never exceeded) and the total score
+   */
+  public void scan(int [] order, int length, double scoreRequired, double [] result) {
+    double [] score = effectiveScore_ ;
+    double [] cost  = effectiveCost_  ;
+    double totalScore = 0.0 ;
+    double totalTime  = 0.0 ;
+    int x ;
+
+    for (int i = 0; i < length; i++) {
+      x = order[i] ;
+      totalTime  += cost[x]  ;
+      totalScore += score[x] ;
+      if ((totalScore > scoreRequired) && !isExcluded(x)) {
+        result[0] = totalTime  ;
+        result[1] = i + 1      ;
+        result[2] = totalScore ;
+        return ;
+      }
+    } // for
+    result[0] = totalTime  ;
+    result[1] = 0          ;
+    result[2] = totalScore ;
+  } // scan
+
+  /**
+   * Returns true if a rule is excluded from the evaluation
+   * @param rule The index of the rule
+   */
+  public boolean isExcluded(int rule) {
+    return (excluded_[rule >>> 6] & (1L << rule)) != 0 ;
+  } // isExcluded
+
+  /**
+   * Returns the number of rules
+   */
+  public int size() {
+    return name_.length ;
+  } // size
+
+  public String getName(int rule) {
+    return name_[rule] ;
+  } // getName
+
+  public double getScore(int rule) {
+    return score_[rule] ;
+  } // getScore
+
+  public double getCPU(int rule) {
+    return cpu_[rule] ;
+  } // getCPU
+
+  public double getIO(int rule) {
+    return io_[rule] ;
+  } // getIO
+
+  /**
+   * Returns the scores of the rules, zero for the excluded ones. The array is
+   * shared and must not be modified.
+   */
+  public double [] getEffectiveScores() {
+    return effectiveScore_ ;
+  } // getEffectiveScores
+
+  /**
+   * Returns the costs (CPU + IO time) of the rules, zero for the excluded
+   * ones. The array is shared and must not be modified.
+   */
+  public double [] getEffectiveCosts() {
+    return effectiveCost_ ;
+  } // getEffectiveCosts
+
+  /**
+   * Maps an ordering of the rules of another table (e.g., read from an older
+   * scores file) to the rules of this table, by name. The rules which are
+   * not in this table are dropped, and the rules of this table missing from
+   * the ordering are appended in index order.
+   * @param table The table the ordering refers to
+   * @param order The ordering
+   * @return The ordering of all the rules of this table
+   */
+  public int [] remap(RuleTable table, int [] order) {
+    HashMap<String, Integer> index = new HashMap<String, Integer>() ;
+    for (int i = 0; i < size(); i++)
+      index.put(name_[i], i) ;
+
+    int [] remapped = new int[size()] ;
+    boolean [] used = new boolean[size()] ;
+    int n = 0 ;
+    for (int rule : order) {
+      Integer i = (rule < table.size()) ? index.get(table.getName(rule)) : null ;
+      if ((i != null) && !used[i]) {
+        remapped[n++] = i ;
+        used[i] = true ;
+      }
+    } // for
+    for (int i = 0; i < used.length; i++)
+      if (!used[i])
+        remapped[n++] = i ;
+    return remapped ;
+  } // remap
+} // RuleTable
@@ -24,6 +24,7 @@
 package jmetal.core;
 
 import jmetal.encodings.variable.Binary;
+import jmetal.encodings.variable.Permutation;
 
 import java.io.Serializable;
 
@@ -51,6 +52,12 @@ public class Solution implements Serializable {
    */
   private final double [] objective_ ;
 
+  /**
+   * Counts the changes of the objective values, to know when the copies kept
+   * by <code>ObjectiveMatrix</code> are out of date
+   */
+  private int objectivesVersion_ ;
+
   /**
    * Stores the number of objective values of the solution
    */
@@ -204,6 +211,45 @@ public class Solution implements Serializable {
     location_             = solution.getLocation();
   } // Solution
 
+  /**
+   * Copies this solution into another one of the same problem, reusing its
+   * variables when possible instead of allocating new ones.
+   * @param target The solution overwritten with the contents of this one
+   */
+  public void copyInto(Solution target) {
+    if (target.numberOfObjectives_ != numberOfObjectives_)
+      throw new IllegalArgumentException("Solution.copyInto: the solutions " +
+          "have a different number of objectives") ;
+
+    target.problem_ = problem_ ;
+    target.type_    = type_ ;
+    System.arraycopy(objective_, 0, target.objective_, 0, numberOfObjectives_) ;
+    target.objectivesVersion_++ ;
+
+    if (variable_ == null)
+      target.variable_ = null ;
+    else {
+      if ((target.variable_ == null) || (target.variable_.length != variable_.length))
+        target.variable_ = new Variable[variable_.length] ;
+      for (int i = 0; i < variable_.length; i++) {
+        if ((variable_[i] instanceof Permutation) && (target.variable_[i] instanceof Permutation))
+          ((Permutation)variable_[i]).copyInto((Permutation)target.variable_[i]) ;
+        else
+          target.variable_[i] = variable_[i].deepCopy() ;
+      } // for
+    } // else
+
+    target.overallConstraintViolation_  = overallConstraintViolation_ ;
+    target.numberOfViolatedConstraints_ = numberOfViolatedConstraints_ ;
+    target.distanceToSolutionSet_       = distanceToSolutionSet_ ;
+    target.crowdingDistance_            = crowdingDistance_ ;
+    target.kDistance_                   = kDistance_ ;
+    target.fitness_                     = fitness_ ;
+    target.marked_                      = marked_ ;
+    target.rank_                        = rank_ ;
+    target.location_                    = location_ ;
+  } // copyInto
+
   /**
    * Sets the distance between this solution and a <code>SolutionSet</code>.
    * The value is stored in <code>distanceToSolutionSet_</code>.
@@ -292,8 +338,16 @@ public class Solution implements Serializable {
    */
   public void setObjective(int i, double value) {
     objective_[i] = value;
+    objectivesVersion_++;
   } // setObjective
 
+  /**
+   * Returns the number of changes of the objective values
+   */
+  int getObjectivesVersion() {
+    return objectivesVersion_;
+  } // getObjectivesVersion
+
   /**
    * Returns the value of the i-th objective.
    * @param i The value of the objective.
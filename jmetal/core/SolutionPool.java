@@ -0,0 +1,106 @@
+//  SolutionPool.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.core;
+
+import java.util.ArrayDeque;
+
+/**
+ * This class keeps solutions that are no longer used, so that the copies of
+ * other solutions can be made into them (see <code>Solution.copyInto</code>)
+ * instead of allocating new solutions and variables. A solution must only
+ * be released when no other object refers to it. The methods are
+ * synchronized, so a pool can be shared by operators running concurrently.
+ */
+public class SolutionPool {
+
+  private ArrayDeque<Solution> free_ ;
+  private int capacity_ ;
+
+  private long reused_ ;
+  private long allocated_ ;
+
+  /**
+   * Constructor
+   * @param capacity Maximum number of solutions kept
+   */
+  public SolutionPool(int capacity) {
+    free_      = new ArrayDeque<Solution>() ;
+    capacity_  = capacity ;
+    reused_    = 0 ;
+    allocated_ = 0 ;
+  } // SolutionPool
+
+  /**
+   * Returns a copy of a solution, made into a released solution if any
+   * @param solution The solution to copy
+   * @return The copy
+   */
+  public Solution copy(Solution solution) {
+    Solution target ;
+    synchronized (this) {
+      target = free_.pollLast() ;
+      if (target == null)
+        allocated_++ ;
+      else
+        reused_++ ;
+    }
+    if (target == null)
+      return new Solution(solution) ;
+    solution.copyInto(target) ;
+    return target ;
+  } // copy
+
+  /**
+   * Returns a solution to the pool. The solution must not be referenced by
+   * any other object.
+   * @param solution The solution
+   */
+  public synchronized void release(Solution solution) {
+    if (free_.size() < capacity_)
+      free_.addLast(solution) ;
+  } // release
+
+  /**
+   * Returns a copy of a solution, taken from the pool if it is not null
+   * @param pool The pool, or null
+   * @param solution The solution to copy
+   */
+  public static Solution copy(SolutionPool pool, Solution solution) {
+    return (pool == null) ? new Solution(solution) : pool.copy(solution) ;
+  } // copy
+
+  /**
+   * Returns a solution to a pool, if it is not null
+   * @param pool The pool, or null
+   * @param solution The solution
+   */
+  public static void release(SolutionPool pool, Solution solution) {
+    if (pool != null)
+      pool.release(solution) ;
+  } // release
+
+  public synchronized long getReused() {
+    return reused_ ;
+  } // getReused
+
+  public synchronized long getAllocated() {
+    return allocated_ ;
+  } // getAllocated
+
+  public synchronized int size() {
+    return free_.size() ;
+  } // size
+} // SolutionPool
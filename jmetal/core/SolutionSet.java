@@ -41,6 +41,11 @@ public class SolutionSet implements Serializable {
    */
   private int capacity_ = 0; 
 
+  /**
+   * Stores the view of the objectives as arrays, once it is requested
+   */
+  private transient ObjectiveMatrix objectiveMatrix_;
+
   /**
    * Constructor.
    * Creates an unbounded solution set.
@@ -418,6 +423,26 @@ public class SolutionSet implements Serializable {
       System.out.println(""+ solutionsList_.get(i)) ;
   }
 
+  /**
+   * Returns a view of the objectives of the solutions as arrays of doubles,
+   * which is kept up to date with the solutions. It is created the first
+   * time; from then on, the crowding distances and the non-dominated sorting
+   * of the solution set use it instead of copying the objectives.
+   * @return The view of the objectives
+   */
+  public ObjectiveMatrix getObjectiveMatrix() {
+    if (objectiveMatrix_ == null)
+      objectiveMatrix_ = new ObjectiveMatrix(this);
+    return objectiveMatrix_;
+  } // getObjectiveMatrix
+
+  /**
+   * Returns true if the view of the objectives has been created
+   */
+  public boolean hasObjectiveMatrix() {
+    return objectiveMatrix_ != null;
+  } // hasObjectiveMatrix
+
   public void setCapacity(int capacity) {
     capacity_ = capacity ;
   }
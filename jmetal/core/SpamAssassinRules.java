@@ -3,11 +3,14 @@ package jmetal.core;
 import java.util.ArrayList;
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.util.HashMap;
 import jmetal.core.Rule;
+import jmetal.core.RuleTable;
+import jmetal.util.Configuration;
 
 public class SpamAssassinRules extends ArrayList {
   
-  private ArrayList<Rule> _rules;
+  private RuleTable _table;
   private String _line;
   private BufferedReader _in;
   private String _fileName;
@@ -19,31 +22,108 @@ public class SpamAssassinRules extends ArrayList {
   public SpamAssassinRules(String fileName) throws Exception
   {
     this._fileName = fileName;
-    this._rules = new ArrayList<Rule>();
     this._open();
     this._line = "";
     this._parse();
     this._close();
   }
+
+  /**
+   * Constructor. The CPU time of the rules is read from a cost file written
+   * by <code>jmetal.problems.spam.RuleCostProfiler</code> (mean time in ns
+   * per message) and their IO time is zero. The rules not found in the cost
+   * file take the mean cost of the measured rules.
+   * @param fileName The file of scores
+   * @param costFile The file of costs
+   */
+  public SpamAssassinRules(String fileName, String costFile) throws Exception
+  {
+    this(fileName);
+    this._readCosts(costFile);
+  }
+
+  /**
+   * Constructor
+   * @param table The table of the rules
+   */
+  public SpamAssassinRules(RuleTable table)
+  {
+    this._table = table;
+  }
    
   private void _parse() throws Exception
   {
-    int pair = 0;
+    ArrayList<String> names = new ArrayList<String>();
+    ArrayList<Double> scores = new ArrayList<Double>();
     while ((this._line = this._in.readLine()) != null) {
-      String parts[] = this._line.split(" ");
-      Rule _rule = new Rule();
-      _rule.setName(parts[1]);
-      _rule.setScore(Double.parseDouble(parts[2]));
-      if ( (_rules.size() & 1) == 0)
+      String parts[] = this._line.trim().split("\\s+");
+      if ((parts.length < 3) || !parts[0].equals("score"))
+        continue;
+      names.add(parts[1]);
+      scores.add(Double.parseDouble(parts[2]));
+    }
+
+    int size = names.size();
+    String[] name = names.toArray(new String[size]);
+    double[] score = new double[size];
+    double[] cpu = new double[size];
+    double[] io = new double[size];
+    for (int i = 0; i < size; i++) {
+      score[i] = scores.get(i);
+      if ( (i & 1) == 0)
       { 
-        _rule.setCPU(_evenCpuTime);
-        _rule.setIO(_evenIOTime);
+        cpu[i] = _evenCpuTime;
+        io[i] = _evenIOTime;
       } else {
-        _rule.setCPU(_oddCpuTime);
-        _rule.setIO(_oddIOTime);
+        cpu[i] = _oddCpuTime;
+        io[i] = _oddIOTime;
       }
-      this._rules.add(_rule);
     }
+    this._table = new RuleTable(name, score, cpu, io);
+  }
+
+  private void _readCosts(String costFile) throws Exception
+  {
+    HashMap<String, Double> costs = new HashMap<String, Double>();
+    BufferedReader in = new BufferedReader(new FileReader(costFile));
+    try {
+      while ((this._line = in.readLine()) != null) {
+        String parts[] = this._line.trim().split("\\s+");
+        if ((parts.length < 3) || !parts[0].equals("cost"))
+          continue;
+        costs.put(parts[1], Double.parseDouble(parts[2]));
+      }
+    } finally {
+      in.close();
+    }
+
+    int size = this._table.size();
+    String[] name = new String[size];
+    double[] score = new double[size];
+    double[] cpu = new double[size];
+    double[] io = new double[size];
+    double sum = 0;
+    int measured = 0;
+    for (int i = 0; i < size; i++) {
+      name[i] = this._table.getName(i);
+      score[i] = this._table.getScore(i);
+      Double cost = costs.get(name[i]);
+      cpu[i] = (cost == null) ? -1 : cost;
+      if (cost != null) {
+        sum += cost;
+        measured++;
+      }
+    }
+
+    double mean = (measured > 0) ? sum / measured : 0;
+    for (int i = 0; i < size; i++) {
+      if (cpu[i] < 0)
+        cpu[i] = mean;
+    }
+    if (measured < size)
+      Configuration.logger_.warning("SpamAssassinRules: " + (size - measured) + " rules without cost in " +
+                                    costFile + " take the mean cost");
+    this._table = new RuleTable(name, score, cpu, io);
   }
 
   private void _open() throws Exception
@@ -58,21 +138,19 @@ public class SpamAssassinRules extends ArrayList {
 
   public void out()
   {  
-    for ( Rule r : this._rules )
+    for (int i = 0; i < this._table.size(); i++)
     {
-      System.out.println("Name:" + r.getName() + " | Score " + r.getScore() + " | CPU:" + r.getCPU() + " | IO:" + r.getIO());
+      System.out.println("Name:" + _table.getName(i) + " | Score " + _table.getScore(i) + " | CPU:" + _table.getCPU(i) + " | IO:" + _table.getIO(i));
     }
   }
 
   public double[] getScore()
   {
-    double[] _score = new double[this._rules.size()];
+    double[] _score = new double[this._table.size()];
 
-    int i = 0;
-    for ( Rule r : this._rules )
+    for (int i = 0; i < _score.length; i++)
     {
-      _score[i] = r.getScore();
-      i++;
+      _score[i] = this._table.getScore(i);
     }
     
     return _score;
@@ -80,12 +158,29 @@ public class SpamAssassinRules extends ArrayList {
 
   public int getSize()
   {
-    return this._rules.size();
+    return this._table.size();
   }
 
+  /**
+   * Returns a rule. The object is created on each call from the rule table;
+   * the hot loops should use <code>getTable()</code> instead.
+   */
   public Rule getRule(int index)
   {
-    return this._rules.get(index);
+    Rule rule = new Rule();
+    rule.setName(this._table.getName(index));
+    rule.setScore(this._table.getScore(index));
+    rule.setCPU(this._table.getCPU(index));
+    rule.setIO(this._table.getIO(index));
+    return rule;
+  }
+
+  /**
+   * Returns the primitive table of the rules, built once when they are loaded
+   */
+  public RuleTable getTable()
+  {
+    return this._table;
   }
   
 }
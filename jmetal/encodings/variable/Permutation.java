@@ -22,6 +22,7 @@
 package jmetal.encodings.variable;
 
 import jmetal.core.Variable;
+import jmetal.util.PseudoRandom;
 
 /**
  * Class implementing a permutation of integer decision encodings.variable
@@ -38,12 +39,43 @@ public class Permutation extends Variable {
    */
   public int size_;
 
+  /**
+   * Stores the lowest and highest positions of <code>vector_</code> modified
+   * since the evaluation state was attached. The range is empty when
+   * <code>modifiedFrom_ > modifiedTo_</code>. Code modifying
+   * <code>vector_</code> directly must report it with
+   * <code>markModified</code>.
+   */
+  private int modifiedFrom_;
+  private int modifiedTo_;
+
+  /**
+   * Stores the state attached by problems supporting incremental evaluation
+   * (e.g. prefix sums of the permutation). It is shared among copies, so it
+   * must never be modified once attached.
+   */
+  private transient Object evaluationState_;
+
+  /**
+   * Stores a Zobrist-style hash of the permutation: the exclusive or of a
+   * random-looking key for each pair (position, value). It is updated by
+   * <code>swap</code> and <code>insert</code> for the positions they move,
+   * and recomputed after
+   * <code>markModified</code>, since the previous values are not known.
+   */
+  private long hash_;
+  private boolean hashValid_;
+
   /**
    * Constructor
    */
   public Permutation() {
     size_   = 0;
     vector_ = null;
+    evaluationState_ = null;
+    modifiedFrom_    = 0;
+    modifiedTo_      = -1;
+    hashValid_       = false;
 
   } //Permutation
 
@@ -86,22 +118,27 @@ public class Permutation extends Variable {
   /**
    * Constructor
    * @param size Length of the permutation
-   * This constructor has been contributed by Madan Sathe
+   * The permutation is shuffled with the Fisher-Yates algorithm, drawing the
+   * random numbers from PseudoRandom so that it can be reproduced.
    */
   public Permutation(int size) {
     size_   = size;
     vector_ = new int[size_];
 
-    java.util.ArrayList<Integer> randomSequence = new
-            java.util.ArrayList<Integer>(size_);
-
     for(int i = 0; i < size_; i++)
-      randomSequence.add(i);
+      vector_[i] = i;
 
-    java.util.Collections.shuffle(randomSequence);
+    for(int i = size_ - 1; i > 0; i--) {
+      int j = Math.min(i, (int)(PseudoRandom.randDouble() * (i + 1)));
+      int temp   = vector_[i];
+      vector_[i] = vector_[j];
+      vector_[j] = temp;
+    }
 
-    for(int j = 0; j < randomSequence.size(); j++)
-      vector_[j] = randomSequence.get(j);
+    evaluationState_ = null;
+    modifiedFrom_    = 0;
+    modifiedTo_      = -1;
+    hashValid_       = false;
   } // Constructor
 
 
@@ -114,8 +151,33 @@ public class Permutation extends Variable {
     vector_ = new int[size_];
 
     System.arraycopy(permutation.vector_, 0, vector_, 0, size_);
+
+    evaluationState_ = permutation.evaluationState_;
+    modifiedFrom_    = permutation.modifiedFrom_;
+    modifiedTo_      = permutation.modifiedTo_;
+    hash_            = permutation.hash_;
+    hashValid_       = permutation.hashValid_;
   } //Permutation
 
+  /**
+   * Copies this permutation into another one, reusing its vector if it has
+   * the same length.
+   * @param target The permutation overwritten with the contents of this one
+   */
+  public void copyInto(Permutation target) {
+    if ((target.vector_ == null) || (target.vector_.length != size_))
+      target.vector_ = new int[size_];
+    target.size_ = size_;
+
+    System.arraycopy(vector_, 0, target.vector_, 0, size_);
+
+    target.evaluationState_ = evaluationState_;
+    target.modifiedFrom_    = modifiedFrom_;
+    target.modifiedTo_      = modifiedTo_;
+    target.hash_            = hash_;
+    target.hashValid_       = hashValid_;
+  } // copyInto
+
 
   /**
    * Create an exact copy of the <code>Permutation</code> object.
@@ -133,6 +195,135 @@ public class Permutation extends Variable {
     return size_;
   } //getNumberOfBits
 
+  /**
+   * Swaps the values stored in two positions of the permutation, recording
+   * the move for incremental evaluation.
+   * @param pos1 The first position
+   * @param pos2 The second position
+   */
+  public void swap(int pos1, int pos2) {
+    int temp = vector_[pos1];
+    vector_[pos1] = vector_[pos2];
+    vector_[pos2] = temp;
+
+    if (hashValid_ && (pos1 != pos2))
+      hash_ ^= key(pos1, vector_[pos2]) ^ key(pos2, vector_[pos1])
+             ^ key(pos1, vector_[pos1]) ^ key(pos2, vector_[pos2]);
+    extendModified(Math.min(pos1, pos2), Math.max(pos1, pos2));
+  } // swap
+
+  /**
+   * Moves the value stored in a position to another one, shifting the values
+   * in between, and records the move for incremental evaluation.
+   * @param from The position of the value to move
+   * @param to The position the value is moved to
+   */
+  public void insert(int from, int to) {
+    int first = Math.min(from, to);
+    int last  = Math.max(from, to);
+    if (hashValid_)
+      for (int i = first; i <= last; i++)
+        hash_ ^= key(i, vector_[i]);
+
+    int value = vector_[from];
+    if (from < to)
+      System.arraycopy(vector_, from + 1, vector_, from, to - from);
+    else if (from > to)
+      System.arraycopy(vector_, to, vector_, to + 1, from - to);
+    vector_[to] = value;
+
+    if (hashValid_)
+      for (int i = first; i <= last; i++)
+        hash_ ^= key(i, vector_[i]);
+    extendModified(first, last);
+  } // insert
+
+  /**
+   * Records that the positions in [from, to] of <code>vector_</code> have been
+   * modified since the evaluation state was attached.
+   * @param from The first modified position
+   * @param to The last modified position
+   */
+  public void markModified(int from, int to) {
+    hashValid_ = false;
+    extendModified(from, to);
+  } // markModified
+
+  /**
+   * Extends the range of modified positions
+   */
+  private void extendModified(int from, int to) {
+    if (modifiedFrom_ > modifiedTo_) {
+      modifiedFrom_ = from;
+      modifiedTo_   = to;
+    } else {
+      modifiedFrom_ = Math.min(modifiedFrom_, from);
+      modifiedTo_   = Math.max(modifiedTo_, to);
+    }
+  } // extendModified
+
+  /**
+   * Returns a hash of the permutation, e.g., to detect duplicates before
+   * evaluating them. Equal permutations have equal hashes; different ones
+   * have the same hash with probability 2^-64.
+   * @return The hash
+   */
+  public long hash() {
+    if (!hashValid_) {
+      long hash = 0;
+      for (int i = 0; i < size_; i++)
+        hash ^= key(i, vector_[i]);
+      hash_      = hash;
+      hashValid_ = true;
+    }
+    return hash_;
+  } // hash
+
+  /**
+   * Returns the key of a value in a position, mixing both with the
+   * finalizer of SplitMix64 instead of reading a table of random keys
+   */
+  private static long key(int position, int value) {
+    long z = (((long) position) << 32) + value + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  } // key
+
+  /**
+   * Returns the first position modified since the evaluation state was
+   * attached, or <code>size_</code> if none has been modified.
+   */
+  public int getModifiedFrom() {
+    return (modifiedFrom_ > modifiedTo_) ? size_ : modifiedFrom_;
+  } // getModifiedFrom
+
+  /**
+   * Returns the last position modified since the evaluation state was
+   * attached, or -1 if none has been modified.
+   */
+  public int getModifiedTo() {
+    return (modifiedFrom_ > modifiedTo_) ? -1 : modifiedTo_;
+  } // getModifiedTo
+
+  /**
+   * Returns the state attached by the last incremental evaluation, or null.
+   */
+  public Object getEvaluationState() {
+    return evaluationState_;
+  } // getEvaluationState
+
+  /**
+   * Attaches an evaluation state describing the current permutation, and
+   * clears the range of modified positions.
+   * @param state The state; it must not be modified afterwards
+   */
+  public void setEvaluationState(Object state) {
+    evaluationState_ = state;
+    modifiedFrom_    = 0;
+    modifiedTo_      = -1;
+  } // setEvaluationState
+
   /**
    * Returns a string representing the object
    * @return The string
@@ -0,0 +1,162 @@
+//  CrowdingDistanceBenchmark.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.experiments.benchmarks;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Distance;
+import jmetal.util.comparators.ObjectiveComparator;
+
+import java.util.Random;
+
+/**
+ * Compares the crowding distance of <code>Distance</code>, computed on
+ * primitive arrays, with the original implementation, which sorted copies
+ * of the front with comparators. For each size of front and number of
+ * objectives, it checks that both give the same distances and prints the
+ * time per front of each one.
+ * Usage: jmetal.experiments.benchmarks.CrowdingDistanceBenchmark [milliseconds [size...]]
+ */
+public class CrowdingDistanceBenchmark {
+
+  public static void main(String [] args) throws Exception {
+    long time = (args.length > 0) ? Long.parseLong(args[0]) : 1000 ;
+    int [] sizes = {100, 1000, 10000} ;
+    if (args.length > 1) {
+      sizes = new int[args.length - 1] ;
+      for (int i = 1; i < args.length; i++)
+        sizes[i - 1] = Integer.parseInt(args[i]) ;
+    }
+
+    System.out.printf("%8s %4s %14s %14s %8s%n", "size", "M", "original(us)", "arrays(us)", "speedup") ;
+    for (int objectives = 2; objectives <= 3; objectives++)
+      for (int size : sizes) {
+        final SolutionSet front = front(size, objectives) ;
+        final int nObjs = objectives ;
+        final Distance distance = new Distance() ;
+
+        double [] expected = new double[size] ;
+        crowdingDistanceAssignment(front, nObjs) ;
+        for (int i = 0; i < size; i++)
+          expected[i] = front.get(i).getCrowdingDistance() ;
+        distance.crowdingDistanceAssignment(front, nObjs) ;
+        for (int i = 0; i < size; i++)
+          if (Double.compare(expected[i], front.get(i).getCrowdingDistance()) != 0)
+            throw new IllegalStateException("CrowdingDistanceBenchmark: different distance for solution " +
+                i + ": " + expected[i] + " " + front.get(i).getCrowdingDistance()) ;
+
+        double original = microseconds(time, new Runnable() {
+          public void run() {
+            crowdingDistanceAssignment(front, nObjs) ;
+          }
+        }) ;
+        double arrays = microseconds(time, new Runnable() {
+          public void run() {
+            distance.crowdingDistanceAssignment(front, nObjs) ;
+          }
+        }) ;
+        System.out.printf("%8d %4d %14.2f %14.2f %8.2f%n", size, objectives, original, arrays, original / arrays) ;
+      } // for
+  } // main
+
+  /**
+   * Runs an operation repeatedly, after a warm-up of the same duration
+   * @return The time per operation, in microseconds
+   */
+  private static double microseconds(long time, Runnable operation) {
+    for (int phase = 0; phase < 2; phase++) {
+      long count = 0 ;
+      long start = System.nanoTime() ;
+      long end   = start + time * 1000000L ;
+      long now ;
+      do {
+        operation.run() ;
+        count++ ;
+        now = System.nanoTime() ;
+      } while (now < end) ;
+      if (phase == 1)
+        return (now - start) / 1000.0 / count ;
+    } // for
+    return 0 ;
+  } // microseconds
+
+  /**
+   * Returns a non-dominated front with some repeated values
+   */
+  private static SolutionSet front(int size, int objectives) {
+    Random random = new Random(size) ;
+    SolutionSet front = new SolutionSet(size) ;
+    for (int i = 0; i < size; i++) {
+      Solution solution = new Solution(objectives) ;
+      double x = random.nextInt(size / 2 + 1) / (double) size ;
+      solution.setObjective(0, x) ;
+      solution.setObjective(1, 1.0 - Math.sqrt(x)) ;
+      for (int j = 2; j < objectives; j++)
+        solution.setObjective(j, random.nextDouble()) ;
+      front.add(solution) ;
+    }
+    return front ;
+  } // front
+
+  /**
+   * The original implementation of Distance.crowdingDistanceAssignment
+   */
+  private static void crowdingDistanceAssignment(SolutionSet solutionSet, int nObjs) {
+    int size = solutionSet.size();
+
+    if (size == 0)
+      return;
+
+    if (size == 1) {
+      solutionSet.get(0).setCrowdingDistance(Double.POSITIVE_INFINITY);
+      return;
+    } // if
+
+    if (size == 2) {
+      solutionSet.get(0).setCrowdingDistance(Double.POSITIVE_INFINITY);
+      solutionSet.get(1).setCrowdingDistance(Double.POSITIVE_INFINITY);
+      return;
+    } // if
+
+    SolutionSet front = new SolutionSet(size);
+    for (int i = 0; i < size; i++){
+      front.add(solutionSet.get(i));
+    }
+
+    for (int i = 0; i < size; i++)
+      front.get(i).setCrowdingDistance(0.0);
+
+    double objetiveMaxn;
+    double objetiveMinn;
+    double distance;
+
+    for (int i = 0; i<nObjs; i++) {
+      front.sort(new ObjectiveComparator(i));
+      objetiveMinn = front.get(0).getObjective(i);
+      objetiveMaxn = front.get(front.size()-1).getObjective(i);
+
+      front.get(0).setCrowdingDistance(Double.POSITIVE_INFINITY);
+      front.get(size-1).setCrowdingDistance(Double.POSITIVE_INFINITY);
+
+      for (int j = 1; j < size-1; j++) {
+        distance = front.get(j+1).getObjective(i) - front.get(j-1).getObjective(i);
+        distance = distance / (objetiveMaxn - objetiveMinn);
+        distance += front.get(j).getCrowdingDistance();
+        front.get(j).setCrowdingDistance(distance);
+      } // for
+    } // for
+  } // crowdingDistanceAssignment
+} // CrowdingDistanceBenchmark
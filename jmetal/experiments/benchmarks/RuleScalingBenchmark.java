@@ -0,0 +1,148 @@
+//  RuleScalingBenchmark.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.experiments.benchmarks;
+
+import jmetal.core.Operator;
+import jmetal.core.RuleTable;
+import jmetal.core.Solution;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.operators.crossover.CrossoverFactory;
+import jmetal.operators.mutation.MutationFactory;
+import jmetal.problems.SSpamProblem2DAbYCSS;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Measures how the operations of AbYCSS on SSpamProblem2DAbYCSS scale with
+ * the number of rules, on synthetic rule tables: the creation of random
+ * solutions, the evaluation from scratch of a copy of a solution (which
+ * stops at the cut-off), the two points crossover followed by the
+ * evaluation of the offspring, and the swap mutation followed by the
+ * incremental evaluation. The throughput of each operation is printed for
+ * each number of rules.
+ * Usage: jmetal.experiments.benchmarks.RuleScalingBenchmark [milliseconds [numberOfRules...]]
+ */
+public class RuleScalingBenchmark {
+
+  public static void main(String [] args) throws Exception {
+    long time = (args.length > 0) ? Long.parseLong(args[0]) : 1000 ;
+    int [] sizes = {1000, 10000, 100000} ;
+    if (args.length > 1) {
+      sizes = new int[args.length - 1] ;
+      for (int i = 1; i < args.length; i++)
+        sizes[i - 1] = Integer.parseInt(args[i]) ;
+    }
+
+    PseudoRandom.setRandomGenerator(new RandomGenerator(0L, 0)) ;
+    System.out.printf("%8s %14s %14s %14s %14s%n", "rules", "create/s", "evaluate/s",
+        "crossover/s", "swap/s") ;
+    for (final int size : sizes) {
+      SSpamProblem2DAbYCSS problem =
+          new SSpamProblem2DAbYCSS("Permutation", new SpamAssassinRules(table(size))) ;
+
+      HashMap<String, Object> parameters = new HashMap<String, Object>() ;
+      parameters.put("probability", 1.0) ;
+      final Operator crossover = CrossoverFactory.getCrossoverOperator("TwoPointsCrossover", parameters) ;
+      final Operator mutation  = MutationFactory.getMutationOperator("SwapMutation", parameters) ;
+
+      final Solution [] parents = {new Solution(problem), new Solution(problem)} ;
+      problem.evaluate(parents[0]) ;
+      problem.evaluate(parents[1]) ;
+
+      double create = throughput(time, new Step() {
+        public void run(SSpamProblem2DAbYCSS problem) throws Exception {
+          new Solution(problem) ;
+        }
+      }, problem) ;
+      double evaluate = throughput(time, new Step() {
+        public void run(SSpamProblem2DAbYCSS problem) throws Exception {
+          Solution copy = new Solution(parents[0]) ;
+          ((Permutation) copy.getDecisionVariables()[0]).markModified(0, size - 1) ;
+          problem.evaluate(copy) ;
+        }
+      }, problem) ;
+      double cross = throughput(time, new Step() {
+        public void run(SSpamProblem2DAbYCSS problem) throws Exception {
+          Solution [] offspring = (Solution []) crossover.execute(parents) ;
+          problem.evaluate(offspring[0]) ;
+          problem.evaluate(offspring[1]) ;
+        }
+      }, problem) ;
+      double swap = throughput(time, new Step() {
+        public void run(SSpamProblem2DAbYCSS problem) throws Exception {
+          Solution mutant = new Solution(parents[0]) ;
+          mutation.execute(mutant) ;
+          problem.evaluate(mutant) ;
+        }
+      }, problem) ;
+
+      System.out.printf("%8d %14.0f %14.0f %14.0f %14.0f%n", size, create, evaluate, cross, swap) ;
+    } // for
+  } // main
+
+  /**
+   * Operation measured
+   */
+  private interface Step {
+    void run(SSpamProblem2DAbYCSS problem) throws Exception ;
+  } // Step
+
+  /**
+   * Runs an operation repeatedly, after a warm-up of the same duration
+   * @return The number of operations per second
+   */
+  private static double throughput(long time, Step step, SSpamProblem2DAbYCSS problem) throws Exception {
+    for (int phase = 0; phase < 2; phase++) {
+      long count = 0 ;
+      long start = System.nanoTime() ;
+      long end   = start + time * 1000000L ;
+      long now ;
+      do {
+        for (int i = 0; i < 16; i++)
+          step.run(problem) ;
+        count += 16 ;
+        now = System.nanoTime() ;
+      } while (now < end) ;
+      if (phase == 1)
+        return count * 1e9 / (now - start) ;
+    } // for
+    return 0 ;
+  } // throughput
+
+  /**
+   * Returns a synthetic rule table: most rules have small scores, and one in
+   * a hundred rules has a high score
+   * @param size Number of rules
+   */
+  private static RuleTable table(int size) {
+    Random random = new Random(size) ;
+    String [] name  = new String[size] ;
+    double [] score = new double[size] ;
+    double [] cpu   = new double[size] ;
+    double [] io    = new double[size] ;
+    for (int i = 0; i < size; i++) {
+      name[i]  = "RULE_" + i ;
+      score[i] = (random.nextInt(100) == 0) ? 20 + random.nextDouble() * 10 : random.nextDouble() * 2 - 0.5 ;
+      cpu[i]   = random.nextDouble() ;
+      io[i]    = (random.nextInt(10) == 0) ? random.nextDouble() * 10 : 0.0 ;
+    }
+    return new RuleTable(name, score, cpu, io) ;
+  } // table
+} // RuleScalingBenchmark
@@ -0,0 +1,95 @@
+//  SolutionPoolBenchmark.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.experiments.benchmarks;
+
+import jmetal.core.Algorithm;
+import jmetal.experiments.settings.AbYCSS_Settings;
+import jmetal.util.Configuration;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+
+/**
+ * Measures the memory allocated by AbYCSS, and the garbage collections it
+ * causes, with and without recycling the discarded solutions (input
+ * parameter "solutionPool"). The runs alternate between both settings after
+ * some warm-up runs, and the mean of the measured runs is printed. The
+ * allocated bytes are those of the main thread, so the algorithm runs with
+ * one thread.
+ * Usage: jmetal.experiments.benchmarks.SolutionPoolBenchmark [problemName [maxEvaluations [runs]]]
+ */
+public class SolutionPoolBenchmark {
+
+  public static void main(String [] args) throws Exception {
+    String problemName = (args.length > 0) ? args[0] : "SSpamProblem2DAbYCSS" ;
+    int maxEvaluations = (args.length > 1) ? Integer.parseInt(args[1]) : 25000 ;
+    int runs           = (args.length > 2) ? Integer.parseInt(args[2]) : 5 ;
+    int warmup         = 2 ;
+
+    Configuration.logger_.setLevel(Level.WARNING) ;
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() ;
+    long threadId = Thread.currentThread().getId() ;
+
+    double [][] totals = new double[2][4] ; // bytes, collections, gc ms, ms
+    for (int run = 0; run < warmup + runs; run++) {
+      for (int setting = 0; setting < 2; setting++) {
+        boolean pool = (setting == 1) ;
+        AbYCSS_Settings settings = new AbYCSS_Settings(problemName) ;
+        settings.maxEvaluations_ = maxEvaluations ;
+        Algorithm algorithm = settings.configure() ;
+        algorithm.setInputParameter("solutionPool", pool) ;
+
+        long bytes       = threads.getThreadAllocatedBytes(threadId) ;
+        long collections = collections() ;
+        long gcTime      = collectionTime() ;
+        long time        = System.currentTimeMillis() ;
+        algorithm.execute() ;
+        time        = System.currentTimeMillis() - time ;
+        gcTime      = collectionTime() - gcTime ;
+        collections = collections() - collections ;
+        bytes       = threads.getThreadAllocatedBytes(threadId) - bytes ;
+
+        if (run >= warmup) {
+          totals[setting][0] += bytes ;
+          totals[setting][1] += collections ;
+          totals[setting][2] += gcTime ;
+          totals[setting][3] += time ;
+        }
+      } // for
+    } // for
+
+    for (int setting = 0; setting < 2; setting++)
+      System.out.printf("solutionPool=%-5s allocated %8.1f MB  collections %6.1f  gc %7.1f ms  time %8.1f ms%n",
+          (setting == 1), totals[setting][0] / runs / 1e6, totals[setting][1] / runs,
+          totals[setting][2] / runs, totals[setting][3] / runs) ;
+  } // main
+
+  private static long collections() {
+    long count = 0 ;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+      count += Math.max(0, collector.getCollectionCount()) ;
+    return count ;
+  } // collections
+
+  private static long collectionTime() {
+    long time = 0 ;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+      time += Math.max(0, collector.getCollectionTime()) ;
+    return time ;
+  } // collectionTime
+} // SolutionPoolBenchmark
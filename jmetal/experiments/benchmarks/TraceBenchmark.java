@@ -0,0 +1,140 @@
+//  TraceBenchmark.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.experiments.benchmarks;
+
+import jmetal.core.RuleTable;
+import jmetal.core.Solution;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.problems.SSpamProblem2DAbYCSS;
+import jmetal.problems.spam.ITraceSink;
+import jmetal.problems.spam.RingBufferTraceSink;
+import jmetal.problems.spam.SampledTraceSink;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * Measures the cost of tracing the evaluations of SSpamProblem2DAbYCSS, on
+ * a synthetic rule table: the throughput of the evaluation from scratch of
+ * random orderings is measured with tracing off, with a
+ * <code>RingBufferTraceSink</code> dropping the records when its buffer is
+ * full or waiting for the writer, and with one out of a hundred evaluations
+ * traced. The throughput of each setting and its overhead with respect to
+ * tracing off are printed; the settings are measured in turns, several
+ * times, and the best throughput of each one is kept. The first round is not
+ * kept, so that all the settings are measured once the evaluation has been
+ * compiled with every sink.
+ * Usage: jmetal.experiments.benchmarks.TraceBenchmark [milliseconds [numberOfRules [bufferSize]]]
+ */
+public class TraceBenchmark {
+
+  public static void main(String [] args) throws Exception {
+    long time     = (args.length > 0) ? Long.parseLong(args[0]) : 1000 ;
+    int size      = (args.length > 1) ? Integer.parseInt(args[1]) : 1000 ;
+    int capacity  = (args.length > 2) ? Integer.parseInt(args[2]) : 1 << 22 ;
+    int rounds    = 4 ;
+    String [] settings = {"off", "ring buffer, drop", "ring buffer, wait", "sampled 1/100"} ;
+
+    PseudoRandom.setRandomGenerator(new RandomGenerator(0L, 0)) ;
+    SSpamProblem2DAbYCSS problem =
+        new SSpamProblem2DAbYCSS("Permutation", new SpamAssassinRules(table(size))) ;
+    Solution [] solutions = new Solution[64] ;
+    for (int i = 0; i < solutions.length; i++)
+      solutions[i] = new Solution(problem) ;
+
+    File traceFile = File.createTempFile("trace", ".bin") ;
+    double [] best    = new double[settings.length] ;
+    long [] dropped   = new long[settings.length] ;
+    try {
+      for (int round = 0; round < rounds; round++) {
+        for (int setting = 0; setting < settings.length; setting++) {
+          ITraceSink sink = null ;
+          RingBufferTraceSink ringBuffer = null ;
+          if (setting > 0) {
+            ringBuffer = new RingBufferTraceSink(traceFile.getPath(), capacity, setting != 2) ;
+            sink = (setting == 3) ? new SampledTraceSink(ringBuffer, 100) : ringBuffer ;
+          }
+          problem.setTraceSink(sink) ;
+          double throughput = throughput(time, problem, solutions) ;
+          problem.setTraceSink(null) ;
+          if (sink != null)
+            sink.close() ;
+          if (round > 0) {
+            best[setting] = Math.max(best[setting], throughput) ;
+            if (ringBuffer != null)
+              dropped[setting] += ringBuffer.getDroppedRecords() ;
+          }
+        } // for
+      } // for
+    } finally {
+      traceFile.delete() ;
+    }
+
+    System.out.printf("%-20s %14s %10s %14s%n", "tracing", "evaluate/s", "overhead", "dropped") ;
+    for (int setting = 0; setting < settings.length; setting++)
+      System.out.printf("%-20s %14.0f %9.1f%% %14d%n", settings[setting], best[setting],
+          100.0 * (best[0] - best[setting]) / best[0], dropped[setting]) ;
+  } // main
+
+  /**
+   * Evaluates the solutions from scratch repeatedly, after a warm-up of the
+   * same duration
+   * @return The number of evaluations per second
+   */
+  private static double throughput(long time, SSpamProblem2DAbYCSS problem, Solution [] solutions) throws Exception {
+    for (int phase = 0; phase < 2; phase++) {
+      long count = 0 ;
+      long start = System.nanoTime() ;
+      long end   = start + time * 1000000L ;
+      long now ;
+      do {
+        for (Solution solution : solutions) {
+          Permutation permutation = (Permutation) solution.getDecisionVariables()[0] ;
+          permutation.markModified(0, permutation.getLength() - 1) ;
+          problem.evaluate(solution) ;
+        }
+        count += solutions.length ;
+        now = System.nanoTime() ;
+      } while (now < end) ;
+      if (phase == 1)
+        return count * 1e9 / (now - start) ;
+    } // for
+    return 0 ;
+  } // throughput
+
+  /**
+   * Returns a synthetic rule table: most rules have small scores, and one in
+   * a hundred rules has a high score
+   * @param size Number of rules
+   */
+  private static RuleTable table(int size) {
+    Random random = new Random(size) ;
+    String [] name  = new String[size] ;
+    double [] score = new double[size] ;
+    double [] cpu   = new double[size] ;
+    double [] io    = new double[size] ;
+    for (int i = 0; i < size; i++) {
+      name[i]  = "RULE_" + i ;
+      score[i] = (random.nextInt(100) == 0) ? 20 + random.nextDouble() * 10 : random.nextDouble() * 2 - 0.5 ;
+      cpu[i]   = random.nextDouble() ;
+      io[i]    = (random.nextInt(10) == 0) ? random.nextDouble() * 10 : 0.0 ;
+    }
+    return new RuleTable(name, score, cpu, io) ;
+  } // table
+} // TraceBenchmark
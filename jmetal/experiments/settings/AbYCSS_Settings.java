@@ -23,14 +23,17 @@ package jmetal.experiments.settings;
 
 import jmetal.core.Algorithm;
 import jmetal.core.Operator;
+import jmetal.core.Problem;
 import jmetal.experiments.Settings;
 import jmetal.metaheuristics.abycss.AbYCSS;
 import jmetal.operators.crossover.Crossover;
 import jmetal.operators.crossover.CrossoverFactory;
 import jmetal.operators.localSearch.MutationLocalSearch;
 import jmetal.operators.mutation.MutationFactory;
+import jmetal.operators.seeding.RuleOrderSeeding;
 import jmetal.problems.ProblemFactory;
 import jmetal.util.JMException;
+import jmetal.util.parallel.MultithreadedEvaluator;
 import jmetal.problems.*;
 import java.util.HashMap;
 import java.util.Properties;
@@ -50,6 +53,14 @@ public class AbYCSS_Settings extends Settings {
   public double crossoverDistributionIndex_ ;
   public double mutationDistributionIndex_  ;
   public int improvementRounds_ ;
+  public boolean seeding_ ;
+  public int numberOfThreads_ ;
+  public String checkpointFile_ ;
+  public int checkpointInterval_ ;
+  public long maxTime_ ;
+  public double targetHypervolume_ ;
+  public double [] referencePoint_ ;
+  public int maxStagnantRounds_ ;
   
   /**
    * Constructor
@@ -65,7 +76,24 @@ public class AbYCSS_Settings extends Settings {
 	    // TODO Auto-generated catch block
 	    e.printStackTrace();
     }
+    setDefaults();
+  } // AbYCSS_Settings
 
+  /**
+   * Constructor
+   * @param problem Problem to solve, e.g., a spam problem built with rules
+   * other than the default ones
+   */
+  public AbYCSS_Settings(Problem problem) {
+    super(problem.getName());
+    problem_ = problem;
+    setDefaults();
+  } // AbYCSS_Settings
+
+  /**
+   * Sets the default values of the parameters
+   */
+  private void setDefaults() {
     populationSize_ = 300;
     maxEvaluations_ = 2500;
     archiveSize_ = 100;
@@ -76,8 +104,42 @@ public class AbYCSS_Settings extends Settings {
     crossoverDistributionIndex_ = 20.0  ;
     mutationDistributionIndex_  = 20.0  ;
     improvementRounds_ = 1;
-    
-  } // AbYCSS_Settings
+    seeding_ = false; // true - initial solutions built by RuleOrderSeeding (spam problems only)
+    numberOfThreads_ = 1; // 1 - sequential evaluation, 0 - number of available cores
+    checkpointFile_ = null; // null - no checkpoints
+    checkpointInterval_ = 1;
+    maxTime_ = 0; // milliseconds; 0 - no time limit
+    targetHypervolume_ = 0.0; // used if referencePoint_ is not null
+    referencePoint_ = null;
+    maxStagnantRounds_ = 0; // 0 - no limit
+  } // setDefaults
+
+  /**
+   * Returns the seeding operator for the problem, or null if the initial
+   * solutions must be random
+   */
+  private Operator seeding() {
+    HashMap<String, Object> parameters ;
+
+    if (!seeding_ || !(problem_ instanceof SSpamProblem2DAbYCSS))
+      return null ;
+
+    parameters = new HashMap<String, Object>() ;
+    parameters.put("problem", problem_) ;
+    parameters.put("ruleTable", ((SSpamProblem2DAbYCSS)problem_).getRules().getTable()) ;
+    return new RuleOrderSeeding(parameters) ;
+  } // seeding
+
+  /**
+   * Returns the algorithm, evaluating the offspring in parallel unless
+   * numberOfThreads_ is 1 (the improvement method is also run concurrently
+   * on numberOfThreads_ threads)
+   */
+  protected AbYCSS abycss() {
+    if (numberOfThreads_ == 1)
+      return new AbYCSS(problem_) ;
+    return new AbYCSS(problem_, new MultithreadedEvaluator(numberOfThreads_)) ;
+  } // abycss
 
   /**
    * Configure the AbYCSS algorithm with default parameter experiments.settings
@@ -89,11 +151,12 @@ public class AbYCSS_Settings extends Settings {
     Operator crossover;
     Operator mutation;
     Operator improvement; // Operator for improvement
+    Operator seeding;     // Operator building the initial solutions
 
     HashMap  parameters ; // Operator parameters
 
     // Creating the problem
-    algorithm = new AbYCSS(problem_);
+    algorithm = abycss();
 
     // Algorithm parameters
     algorithm.setInputParameter("populationSize", populationSize_);
@@ -101,6 +164,17 @@ public class AbYCSS_Settings extends Settings {
     algorithm.setInputParameter("refSet2Size", refSet2Size_);
     algorithm.setInputParameter("archiveSize", archiveSize_);
     algorithm.setInputParameter("maxEvaluations", maxEvaluations_);
+    algorithm.setInputParameter("improvementThreads", numberOfThreads_);
+    if (checkpointFile_ != null) {
+      algorithm.setInputParameter("checkpointFile", checkpointFile_);
+      algorithm.setInputParameter("checkpointInterval", checkpointInterval_);
+    }
+    algorithm.setInputParameter("maxTime", maxTime_);
+    algorithm.setInputParameter("maxStagnantRounds", maxStagnantRounds_);
+    if (referencePoint_ != null) {
+      algorithm.setInputParameter("targetHypervolume", targetHypervolume_);
+      algorithm.setInputParameter("referencePoint", referencePoint_);
+    }
 
     parameters = new HashMap() ;
     parameters.put("probability", crossoverProbability_) ;
@@ -121,6 +195,9 @@ public class AbYCSS_Settings extends Settings {
     // Adding the operators to the algorithm
     algorithm.addOperator("crossover", crossover);
     algorithm.addOperator("improvement", improvement);
+    seeding = seeding();
+    if (seeding != null)
+      algorithm.addOperator("seeding", seeding);
 
     return algorithm;
   } // Constructor
@@ -135,12 +212,10 @@ public class AbYCSS_Settings extends Settings {
     Operator improvement; // Operator for improvement
     Crossover crossover ;
     Operator mutation;
+    Operator seeding;
 
     HashMap  parameters ; // Operator parameters
 
-    // Creating the algorithm.
-    algorithm = new AbYCSS(problem_) ;
-
     // Algorithm parameters
     populationSize_ = Integer.parseInt(configuration.getProperty("populationSize",String.valueOf(populationSize_)));
     maxEvaluations_  = Integer.parseInt(configuration.getProperty("maxEvaluations",String.valueOf(maxEvaluations_)));
@@ -148,26 +223,55 @@ public class AbYCSS_Settings extends Settings {
     refSet1Size_  = Integer.parseInt(configuration.getProperty("refSet1Size",String.valueOf(refSet1Size_)));
     refSet2Size_ = Integer.parseInt(configuration.getProperty("refSet2Size",String.valueOf(refSet2Size_)));
     improvementRounds_ = Integer.parseInt(configuration.getProperty("improvementRounds",String.valueOf(improvementRounds_)));
+    seeding_ = Boolean.parseBoolean(configuration.getProperty("seeding",String.valueOf(seeding_)));
+    numberOfThreads_ = Integer.parseInt(configuration.getProperty("numberOfThreads",String.valueOf(numberOfThreads_)));
+    checkpointFile_ = configuration.getProperty("checkpointFile",checkpointFile_);
+    checkpointInterval_ = Integer.parseInt(configuration.getProperty("checkpointInterval",String.valueOf(checkpointInterval_)));
+    maxTime_ = Long.parseLong(configuration.getProperty("maxTime",String.valueOf(maxTime_)));
+    targetHypervolume_ = Double.parseDouble(configuration.getProperty("targetHypervolume",String.valueOf(targetHypervolume_)));
+    maxStagnantRounds_ = Integer.parseInt(configuration.getProperty("maxStagnantRounds",String.valueOf(maxStagnantRounds_)));
+    String referencePoint = configuration.getProperty("referencePoint"); // e.g., "1.0,1.0"
+    if (referencePoint != null) {
+      String [] coordinates = referencePoint.split(",");
+      referencePoint_ = new double[coordinates.length];
+      for (int i = 0; i < coordinates.length; i++)
+        referencePoint_[i] = Double.parseDouble(coordinates[i].trim());
+    }
+
+    // Creating the algorithm.
+    algorithm = abycss() ;
+
     algorithm.setInputParameter("populationSize", populationSize_);
     algorithm.setInputParameter("refSet1Size", refSet1Size_);
     algorithm.setInputParameter("refSet2Size", refSet2Size_);
     algorithm.setInputParameter("archiveSize", archiveSize_);
     algorithm.setInputParameter("maxEvaluations", maxEvaluations_);
+    algorithm.setInputParameter("improvementThreads", numberOfThreads_);
+    if (checkpointFile_ != null) {
+      algorithm.setInputParameter("checkpointFile", checkpointFile_);
+      algorithm.setInputParameter("checkpointInterval", checkpointInterval_);
+    }
+    algorithm.setInputParameter("maxTime", maxTime_);
+    algorithm.setInputParameter("maxStagnantRounds", maxStagnantRounds_);
+    if (referencePoint_ != null) {
+      algorithm.setInputParameter("targetHypervolume", targetHypervolume_);
+      algorithm.setInputParameter("referencePoint", referencePoint_);
+    }
 
-    // Crossover for Real codification
+    // Same operators as configure(): the rules are ordered by permutations
     crossoverProbability_ = Double.parseDouble(configuration.getProperty("crossoverProbability",String.valueOf(crossoverProbability_)));
     crossoverDistributionIndex_ = Double.parseDouble(configuration.getProperty("crossoverDistributionIndex",String.valueOf(crossoverDistributionIndex_)));
     parameters = new HashMap() ;
     parameters.put("probability", crossoverProbability_) ;
     parameters.put("distributionIndex", crossoverDistributionIndex_) ;
-    crossover = CrossoverFactory.getCrossoverOperator("SBXCrossover", parameters);
+    crossover = CrossoverFactory.getCrossoverOperator("TwoPointsCrossover", parameters);
 
     mutationProbability_ = Double.parseDouble(configuration.getProperty("mutationProbability",String.valueOf(mutationProbability_)));
     mutationDistributionIndex_ = Double.parseDouble(configuration.getProperty("mutationDistributionIndex",String.valueOf(mutationDistributionIndex_)));
     parameters = new HashMap() ;
     parameters.put("probability", mutationProbability_) ;
     parameters.put("distributionIndex", mutationDistributionIndex_) ;
-    mutation = MutationFactory.getMutationOperator("PolynomialMutation", parameters);
+    mutation = MutationFactory.getMutationOperator("SwapMutation", parameters);
 
     parameters = new HashMap() ;
     parameters.put("improvementRounds", improvementRounds_) ;
@@ -178,6 +282,9 @@ public class AbYCSS_Settings extends Settings {
     // Add the operators to the algorithm
     algorithm.addOperator("crossover",crossover);
     algorithm.addOperator("improvement",improvement);
+    seeding = seeding();
+    if (seeding != null)
+      algorithm.addOperator("seeding",seeding);
 
     return algorithm ;
   }
@@ -0,0 +1,119 @@
+//  pAbYCSS_Settings.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.experiments.settings;
+
+import jmetal.core.Algorithm;
+import jmetal.core.Problem;
+import jmetal.metaheuristics.abycss.AbYCSS;
+import jmetal.metaheuristics.abycss.pAbYCSS;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+
+import java.util.Properties;
+
+/**
+ * Settings class of algorithm pAbYCSS. The islands are configured as
+ * AbYCSS, and the evaluations are divided among them. The islands run in
+ * parallel, one per thread, so each island evaluates and improves its
+ * solutions sequentially whatever the value of numberOfThreads_.
+ */
+public class pAbYCSS_Settings extends AbYCSS_Settings {
+
+  public int numberOfIslands_ ;
+  public int migrationInterval_ ;
+  public int migrants_ ;
+
+  /**
+   * Constructor
+   * @param problemName Problem to solve
+   */
+  public pAbYCSS_Settings(String problemName) {
+    super(problemName) ;
+
+    numberOfIslands_   = 0 ; // 0 - number of available cores
+    migrationInterval_ = 1 ;
+    migrants_          = 5 ;
+  } // pAbYCSS_Settings
+
+  /**
+   * Constructor
+   * @param problem Problem to solve
+   */
+  public pAbYCSS_Settings(Problem problem) {
+    super(problem) ;
+
+    numberOfIslands_   = 0 ; // 0 - number of available cores
+    migrationInterval_ = 1 ;
+    migrants_          = 5 ;
+  } // pAbYCSS_Settings
+
+  /**
+   * Configure the pAbYCSS algorithm with default parameter experiments.settings
+   * @return an algorithm object
+   * @throws jmetal.util.JMException
+   */
+  public Algorithm configure() throws JMException {
+    return islands(null) ;
+  } // configure
+
+  /**
+   * Configure pAbYCSS with user-defined parameter experiments.settings
+   * @return A pAbYCSS algorithm object
+   */
+  @Override
+  public Algorithm configure(Properties configuration) throws JMException {
+    numberOfIslands_   = Integer.parseInt(configuration.getProperty("numberOfIslands",String.valueOf(numberOfIslands_)));
+    migrationInterval_ = Integer.parseInt(configuration.getProperty("migrationInterval",String.valueOf(migrationInterval_)));
+    migrants_          = Integer.parseInt(configuration.getProperty("migrants",String.valueOf(migrants_)));
+    return islands(configuration) ;
+  } // configure
+
+  /**
+   * Returns an island, evaluating sequentially
+   */
+  @Override
+  protected AbYCSS abycss() {
+    return new AbYCSS(problem_) ;
+  } // abycss
+
+  /**
+   * Builds the islands with the settings of AbYCSS, and the algorithm
+   * @param configuration User-defined settings, or null
+   */
+  private Algorithm islands(Properties configuration) throws JMException {
+    int numberOfIslands = numberOfIslands_ ;
+    if (numberOfIslands <= 0)
+      numberOfIslands = Runtime.getRuntime().availableProcessors() ;
+
+    AbYCSS [] islands = new AbYCSS[numberOfIslands] ;
+    for (int i = 0; i < numberOfIslands; i++)
+      islands[i] = (AbYCSS) ((configuration == null) ? super.configure() : super.configure(configuration)) ;
+    for (int i = 0; i < numberOfIslands; i++) {
+      islands[i].setInputParameter("maxEvaluations", Math.max(1, maxEvaluations_ / numberOfIslands)) ;
+      islands[i].setInputParameter("improvementThreads", 1) ;
+    }
+    if (numberOfThreads_ != 1)
+      Configuration.logger_.warning("pAbYCSS_Settings: numberOfThreads is ignored, " +
+          "the " + numberOfIslands + " islands run in parallel") ;
+
+    Algorithm algorithm = new pAbYCSS(problem_, islands) ;
+    algorithm.setInputParameter("archiveSize", archiveSize_);
+    algorithm.setInputParameter("migrationInterval", migrationInterval_);
+    algorithm.setInputParameter("migrants", migrants_);
+
+    return algorithm ;
+  } // islands
+} // pAbYCSS_Settings
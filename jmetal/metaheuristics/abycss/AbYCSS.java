@@ -23,10 +23,15 @@ package jmetal.metaheuristics.abycss;
 
 import jmetal.core.*;
 import jmetal.operators.localSearch.LocalSearch;
+import jmetal.operators.localSearch.MutationLocalSearch;
+import jmetal.util.Configuration;
 import jmetal.util.Distance;
+import jmetal.util.IRandomGenerator;
 import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
 import jmetal.util.Spea2Fitness;
+import jmetal.util.archive.BiObjectiveCrowdingArchive;
 import jmetal.util.archive.CrowdingArchive;
 import jmetal.util.comparators.CrowdingDistanceComparator;
 import jmetal.util.comparators.DominanceComparator;
@@ -34,9 +39,25 @@ import jmetal.util.comparators.ObjectiveComparator;
 import jmetal.util.comparators.EqualSolutions;
 import jmetal.util.comparators.FitnessComparator;
 import jmetal.util.wrapper.XReal;
+import jmetal.encodings.solutionType.PermutationSolutionType;
+import jmetal.encodings.variable.Permutation;
+import jmetal.qualityIndicator.fastHypervolume.FastHypervolume;
 import jmetal.core.ParseRules;
+import jmetal.problems.SSpamProblem2D;
+import jmetal.problems.SSpamProblem2DAbYCSS;
 import jmetal.util.comparators.DistanceToPopulationComparator;
+import jmetal.util.parallel.IParallelEvaluator;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * This class implements the AbYCSS algorithm. This algorithm is an adaptation
@@ -143,16 +164,149 @@ public class AbYCSS extends Algorithm {
    */
   private LocalSearch improvementOperator_;
 
+  /**
+   * Stores the seeding operator building the initial solutions; if it is
+   * not given, the initial solutions are random
+   */
+  private Operator seedingOperator_;
+
   /**
    * Stores a <code>Distance</code> object
    */
   private Distance distance_;
 
+  /**
+   * Stores the distances between solutions normalized by the reference sets
+   */
+  private ReferenceSetDistances refSetDistances_;
+
+  /**
+   * Stores the solutions discarded by the algorithm and its operators, to
+   * be reused by the copies of solutions; null if they are not recycled
+   */
+  private SolutionPool pool_;
+
+  /**
+   * Stores the migration between islands when the algorithm is an island
+   * of pAbYCSS (null otherwise), the index of the island, and the number of
+   * restarts carried out
+   */
+  private Migration migration_;
+  private int island_;
+  private int restarts_;
+
+  /**
+   * Stores the permutations seen in the current subset generation step, to
+   * skip the duplicated offspring without evaluating them (null if they are
+   * not skipped), and the number of offspring skipped
+   */
+  private DuplicateFilter duplicates_;
+  private int skippedDuplicates_;
+
+  /**
+   * Stores the parallel evaluator given to the constructor, and the one
+   * evaluating the offspring of the subset generation method in the current
+   * run; if it is null, the offspring are evaluated sequentially
+   */
+  private IParallelEvaluator parallelEvaluator_ ;
+  private IParallelEvaluator subSetEvaluator_ ;
+
+  /**
+   * Stores the pool running the improvement method concurrently when the
+   * reference set is updated; if it is null, the solutions are improved
+   * sequentially
+   */
+  private ForkJoinPool improvementPool_ ;
+
+  /**
+   * Stores the checkpoint file the state of the algorithm is saved to every
+   * <code>checkpointInterval_</code> restarts, and resumed from; null if
+   * there are no checkpoints
+   */
+  private Checkpoint checkpoint_ ;
+  private int checkpointInterval_ ;
+
+  /**
+   * Stores the wall-clock time the search started at; when it is resumed,
+   * the time spent before the checkpoint is subtracted
+   */
+  private long startTime_ ;
+
+  /**
+   * Stores the stop conditions besides the number of evaluations: the
+   * wall-clock deadline, the hypervolume of the archive to reach with
+   * respect to a reference point (null if there is no target), and the
+   * number of rounds without improving the archive (0 if there is no limit)
+   */
+  private long deadline_ ;
+  private double targetHypervolume_ ;
+  private Solution referencePoint_ ;
+  private int maxStagnantRounds_ ;
+
+  /**
+   * Stores the state of the stop conditions: the number of rounds without
+   * improving the archive, the objectives of the archive at the end of the
+   * last round, whether the target hypervolume has been reached, and the
+   * condition which stopped the search
+   */
+  private int stagnantRounds_ ;
+  private double [][] lastFront_ ;
+  private boolean targetReached_ ;
+  private String stopCondition_ ;
+
+  /**
+   * Stores a copy of the archive taken at the end of the last round, to be
+   * read by other threads while the search goes on
+   */
+  private volatile SolutionSet archiveSnapshot_ ;
+
+  /**
+   * Task improving a solution of the subset with its own random generator.
+   * The non-dominated solutions found are kept in a local archive, to be
+   * merged in the archive of the algorithm in the order of the subset.
+   */
+  private class Improvement implements Callable<Solution> {
+    private Solution solution_ ;
+    private long seed_ ;
+    private int stream_ ;
+    private SolutionSet candidates_ ;
+    private int taskEvaluations_ ;
+
+    public Improvement(Solution solution, long seed, int stream) {
+      solution_   = solution ;
+      seed_       = seed ;
+      stream_     = stream ;
+      candidates_ = new SolutionSet(Integer.MAX_VALUE) ;
+    }
+
+    public Solution call() throws JMException {
+      PseudoRandom.setThreadRandomGenerator(new RandomGenerator(seed_, stream_)) ;
+      try {
+        MutationLocalSearch localSearch = (MutationLocalSearch)improvementOperator_ ;
+        Solution improved = localSearch.improve(solution_, candidates_) ;
+        taskEvaluations_ = localSearch.getEvaluations() ;
+        return improved ;
+      } finally {
+        PseudoRandom.setThreadRandomGenerator(null) ;
+      }
+    }
+  } // Improvement
+
   /**
    * Constructor.
    * @param problem Problem to solve
    */
   public AbYCSS(Problem problem){
+    this(problem, null) ;
+  } // AbYCSS
+
+  /**
+   * Constructor. The offspring created in each subset generation step are
+   * evaluated as a batch with the parallel evaluator.
+   * @param problem Problem to solve
+   * @param evaluator Parallel evaluator; null to evaluate sequentially
+   */
+  public AbYCSS(Problem problem, IParallelEvaluator evaluator){
     super (problem) ;
     //Initialize the fields 
 
@@ -161,8 +315,22 @@ public class AbYCSS extends Algorithm {
     refSet1_     = null ;
     refSet2_     = null ;
     subSet_      = null ;    
+    parallelEvaluator_ = evaluator ;
+    subSetEvaluator_   = null ;
+    migration_         = null ;
+    archiveSnapshot_   = new SolutionSet(0) ;
   } // AbYCSS
 
+  /**
+   * Makes the algorithm an island of pAbYCSS
+   * @param migration The migration between the islands
+   * @param island The index of this island
+   */
+  void setMigration(Migration migration, int island) {
+    migration_ = migration ;
+    island_    = island ;
+  } // setMigration
+
   /**
    * Reads the parameter from the parameter list using the
    * <code>getInputParameter</code> method.
@@ -177,11 +345,15 @@ public class AbYCSS extends Algorithm {
 
     //Initialize the variables
     solutionSet_ = new SolutionSet(solutionSetSize_);     
-    archive_     = new CrowdingArchive(archiveSize_,problem_.getNumberOfObjectives());        
+    if (problem_.getNumberOfObjectives() == 2)
+      archive_   = new BiObjectiveCrowdingArchive(archiveSize_);
+    else
+      archive_   = new CrowdingArchive(archiveSize_,problem_.getNumberOfObjectives());
     refSet1_     = new SolutionSet(refSet1Size_);        
     refSet2_     = new SolutionSet(refSet2Size_);        
     subSet_      = new SolutionSet(solutionSetSize_*1000);
     evaluations_       = 0 ;
+    restarts_          = 0 ;
 
     numberOfSubranges_ = 5 ; 
 
@@ -192,6 +364,7 @@ public class AbYCSS extends Algorithm {
     fitness_   = new FitnessComparator();
     crowdingDistance_ = new CrowdingDistanceComparator();
     distance_  = new Distance();
+    refSetDistances_ = new ReferenceSetDistances(refSet1_, refSet2_);
     sumOfFrequencyValues_        = new int[problem_.getNumberOfVariables()] ;
     sumOfReverseFrequencyValues_ = new int[problem_.getNumberOfVariables()] ;
     frequency_        = new int[numberOfSubranges_][problem_.getNumberOfVariables()] ;
@@ -201,6 +374,96 @@ public class AbYCSS extends Algorithm {
     crossoverOperator_   =  operators_.get("crossover");
     improvementOperator_ = (LocalSearch) operators_.get("improvement");
     improvementOperator_.setParameter("archive",archive_);        
+    seedingOperator_     = operators_.get("seeding");
+
+    // The discarded offspring and candidates are recycled unless the
+    // parameter "solutionPool" is false
+    pool_ = null;
+    if (!Boolean.FALSE.equals(getInputParameter("solutionPool"))) {
+      pool_ = new SolutionPool(Math.max(solutionSetSize_,
+          refSet1Size_ * refSet1Size_ + refSet2Size_ * refSet2Size_));
+      crossoverOperator_.setParameter("pool", pool_);
+      improvementOperator_.setParameter("pool", pool_);
+    }
+
+    // The duplicated offspring of permutation problems are skipped unless
+    // the parameter "duplicateDetection" is false
+    duplicates_ = null;
+    skippedDuplicates_ = 0;
+    if (!Boolean.FALSE.equals(getInputParameter("duplicateDetection")) &&
+        (problem_.getSolutionType() instanceof PermutationSolutionType))
+      duplicates_ = new DuplicateFilter(refSet1Size_ * refSet1Size_ +
+          refSet2Size_ * refSet2Size_ + refSet1Size_ + refSet2Size_);
+
+    // The improvement method runs concurrently if "improvementThreads" is
+    // given and is not 1 (0 means the number of available cores)
+    improvementPool_ = null;
+    Integer threads = (Integer)getInputParameter("improvementThreads");
+    if ((threads != null) && (threads != 1)) {
+      if (improvementOperator_ instanceof MutationLocalSearch)
+        improvementPool_ = (threads == 0) ? new ForkJoinPool() : new ForkJoinPool(threads);
+      else
+        Configuration.logger_.warning("AbYCSS: the improvement method runs " +
+            "sequentially, as it is not a MutationLocalSearch");
+    }
+
+    // The offspring are evaluated with the parallel evaluator, unless the
+    // problem caches its evaluations: the evaluations found in the cache are
+    // not charged, and which ones are found would depend on the scheduling
+    // of the threads
+    subSetEvaluator_ = parallelEvaluator_;
+    if ((parallelEvaluator_ != null) && problem_.hasEvaluationCache()) {
+      subSetEvaluator_ = null;
+      Configuration.logger_.warning("AbYCSS: the offspring are evaluated " +
+          "sequentially, as the problem caches its evaluations");
+    }
+
+    // The state is saved to "checkpointFile" every "checkpointInterval"
+    // restarts (1 by default)
+    checkpoint_ = null;
+    String checkpointFile = (String)getInputParameter("checkpointFile");
+    if (checkpointFile != null) {
+      if (migration_ == null) {
+        Integer interval = (Integer)getInputParameter("checkpointInterval");
+        checkpoint_         = new Checkpoint(checkpointFile);
+        checkpointInterval_ = (interval == null) ? 1 : Math.max(1, interval);
+      } else
+        Configuration.logger_.warning("AbYCSS: the islands of pAbYCSS " +
+            "are not checkpointed");
+    }
+
+    // The search also stops after "maxTime" milliseconds, when the
+    // hypervolume of the archive with respect to "referencePoint" reaches
+    // "targetHypervolume", or after "maxStagnantRounds" rounds without
+    // improving the archive, if these parameters are given
+    Number maxTime = (Number)getInputParameter("maxTime");
+    startTime_ = System.currentTimeMillis();
+    deadline_  = Long.MAX_VALUE;
+    if ((maxTime != null) && (maxTime.longValue() > 0))
+      deadline_ = startTime_ + maxTime.longValue();
+
+    referencePoint_ = null;
+    Number target = (Number)getInputParameter("targetHypervolume");
+    if (target != null) {
+      double [] point = (double [])getInputParameter("referencePoint");
+      if ((point != null) && (point.length == problem_.getNumberOfObjectives())) {
+        targetHypervolume_ = target.doubleValue();
+        referencePoint_    = new Solution(point.length);
+        for (int i = 0; i < point.length; i++)
+          referencePoint_.setObjective(i, point[i]);
+      } else
+        Configuration.logger_.warning("AbYCSS: the target hypervolume is " +
+            "ignored, as there is no valid reference point");
+    }
+
+    Integer maxStagnantRounds = (Integer)getInputParameter("maxStagnantRounds");
+    maxStagnantRounds_ = (maxStagnantRounds == null) ? 0 : maxStagnantRounds;
+
+    stagnantRounds_  = 0;
+    lastFront_       = null;
+    targetReached_   = false;
+    stopCondition_   = null;
+    archiveSnapshot_ = new SolutionSet(0);
   } // initParam
 
   /**
@@ -213,13 +476,29 @@ public class AbYCSS extends Algorithm {
 
     Solution solution = new Solution(problem_);
     SolutionSet solutionLocal_ = new SolutionSet(solutionSetSize_);
+    SolutionSet seeds = null;
+    if (seedingOperator_ != null)
+      seeds = (SolutionSet)seedingOperator_.execute(solutionSetSize_);
+
+    // Warm start: up to half of the solutions are taken from the
+    // "initialSolutions" (e.g., the archive of a previous run), as in the
+    // restarts
+    SolutionSet initial = (SolutionSet)getInputParameter("initialSolutions");
+    int warm = 0;
+    if (initial != null)
+      warm = Math.min(initial.size(), solutionSetSize_ / 2);
     
     for ( int i = 0; i < solutionSetSize_; i++ )
     {
-      solution = new Solution(problem_);
-      problem_.evaluate(solution);            
+      solution = (i < warm) ? restate(problem_, initial.get(i)) : null;
+      if (solution == null) {
+        if (seeds != null)
+          solution = seeds.get(i);
+        else
+          solution = new Solution(problem_);
+      }
+      evaluations_ += problem_.evaluateCharged(solution);            
       problem_.evaluateConstraints(solution);
-      evaluations_++;
       solution = (Solution)improvementOperator_.execute(solution);         
       evaluations_ += improvementOperator_.getEvaluations();
       solutionLocal_.add(solution);
@@ -283,6 +562,53 @@ public class AbYCSS extends Algorithm {
     return solution ;
   } // diversificationGeneration
 
+  /**
+   * Copies a solution of another instance of a problem (e.g., with other
+   * rule statistics) to be evaluated in the given one. When both instances
+   * order SpamAssassin rules, the permutations are mapped by rule name, so
+   * the rules added, removed or reordered in the scores file are taken into
+   * account (see RuleTable.remap).
+   * @param problem The problem
+   * @param solution The solution
+   * @return The copy, not evaluated, or null if the variables do not fit the
+   * problem
+   */
+  public static Solution restate(Problem problem, Solution solution) {
+    Variable [] variables = new Variable[solution.getDecisionVariables().length];
+    if (variables.length != problem.getNumberOfVariables())
+      return null;
+    RuleTable table    = ruleTable(problem);
+    RuleTable previous = ruleTable(solution.getProblem());
+    for (int k = 0; k < variables.length; k++) {
+      variables[k] = solution.getDecisionVariables()[k].deepCopy();
+      if (variables[k] instanceof Permutation) {
+        Permutation permutation = (Permutation) variables[k];
+        if ((table != null) && (previous != null) && (table != previous)) {
+          permutation.vector_ = table.remap(previous, permutation.vector_);
+          permutation.size_   = permutation.vector_.length;
+          permutation.markModified(0, permutation.size_ - 1);
+        }
+        if (permutation.getLength() != problem.getLength(k))
+          return null;
+        // The evaluation state refers to the previous instance
+        permutation.setEvaluationState(null);
+      }
+    }
+    return new Solution(problem, variables);
+  } // restate
+
+  /**
+   * Returns the table of the rules ordered by a problem, or null if the
+   * problem does not order SpamAssassin rules
+   */
+  private static RuleTable ruleTable(Problem problem) {
+    if (problem instanceof SSpamProblem2DAbYCSS)
+      return ((SSpamProblem2DAbYCSS) problem).getRules().getTable();
+    if (problem instanceof SSpamProblem2D)
+      return ((SSpamProblem2D) problem).getRules().getTable();
+    return null;
+  } // ruleTable
+
 
   /** 
    * Implements the referenceSetUpdate method.
@@ -337,6 +663,7 @@ public class AbYCSS extends Algorithm {
         solutionSet_.remove(0);
         individual.unMarked();
         refSet1_.add(individual);                 
+        refSetDistances_.invalidate();
       }
       // STEP 3. Calcular distância com base nos dois objectivos 
       for (int i = 0; i < solutionSet_.size(); i++) {
@@ -366,27 +693,77 @@ public class AbYCSS extends Algorithm {
 
     } else { // Update the reference set from the subset generation result
       Solution individual;
-      for (int i = 0; i < subSet_.size();i++){
-        individual = (Solution)improvementOperator_.execute(subSet_.get(i));
-        evaluations_ += improvementOperator_.getEvaluations();
-
-
-        if (refSet1Test(individual)){ //Update distance of RefSet2
-          for (int indSet2 = 0; indSet2 < refSet2_.size(); indSet2++) {
-            double aux = distance_.distanceBetweenSolutionsAbYCSS(individual,
-                refSet2_.get(indSet2), refSet1_, refSet2_);
-            if (aux < refSet2_.get(indSet2).getDistanceToSolutionSet()) {
-              refSet2_.get(indSet2).setDistanceToSolutionSet(aux);
-            } // if */ 
-          } // for                 
-        }  else {
-          refSet2Test(individual);
-        } // if 
+      if (improvementPool_ != null) {
+        for (Improvement task : improveConcurrently(subSet_)) {
+          for (int i = 0; i < task.candidates_.size(); i++)
+            archive_.add(task.candidates_.get(i));
+          evaluations_ += task.taskEvaluations_;
+          referenceSetTest(task.solution_);
+        }
+      } else {
+        for (int i = 0; i < subSet_.size();i++){
+          individual = (Solution)improvementOperator_.execute(subSet_.get(i));
+          evaluations_ += improvementOperator_.getEvaluations();
+          referenceSetTest(individual);
+        }
       }
+      // MutationLocalSearch returns new solutions, so the ones of the subset
+      // are not referenced anymore
+      if (improvementOperator_ instanceof MutationLocalSearch)
+        for (int i = 0; i < subSet_.size(); i++)
+          SolutionPool.release(pool_, subSet_.get(i));
       subSet_.clear();
     }
   } // referenceSetUpdate
 
+  /**
+   * Tries to insert an improved solution in the reference sets
+   * @param individual The solution
+   * @throws JMException 
+   */
+  private void referenceSetTest(Solution individual) throws JMException{
+    if (refSet1Test(individual)){ //Update distance of RefSet2
+      for (int indSet2 = 0; indSet2 < refSet2_.size(); indSet2++) {
+        double aux = refSetDistances_.between(individual, refSet2_.get(indSet2));
+        if (aux < refSet2_.get(indSet2).getDistanceToSolutionSet()) {
+          refSet2_.get(indSet2).setDistanceToSolutionSet(aux);
+        } // if */ 
+      } // for                 
+    }  else {
+      refSet2Test(individual);
+    } // if 
+  } // referenceSetTest
+
+  /**
+   * Improves the solutions of a set on the improvement pool. The generator
+   * of each task is derived from a single seed drawn from the random
+   * generator and from the position of its solution in the set, so the
+   * results do not depend on the number of threads.
+   * @param solutions The solutions to improve
+   * @return The tasks, in the order of the set; the improved solution of
+   * each task replaces the original one
+   * @throws JMException 
+   */
+  private List<Improvement> improveConcurrently(SolutionSet solutions) throws JMException{
+    List<Improvement> tasks = new ArrayList<Improvement>(solutions.size());
+    long seed = PseudoRandom.randLong();
+    for (int i = 0; i < solutions.size(); i++)
+      tasks.add(new Improvement(solutions.get(i), seed, i));
+
+    try {
+      List<Future<Solution>> results = improvementPool_.invokeAll(tasks);
+      for (int i = 0; i < tasks.size(); i++)
+        tasks.get(i).solution_ = results.get(i).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JMException("AbYCSS: improvement interrupted");
+    } catch (ExecutionException e) {
+      Configuration.logger_.severe("AbYCSS.improveConcurrently: " + e.getCause());
+      throw new JMException("AbYCSS.improveConcurrently: " + e.getCause());
+    }
+    return tasks;
+  } // improveConcurrently
+
   /** 
    * Tries to update the reference set 2 with a <code>Solution</code>
    * @param solution The <code>Solution</code>
@@ -426,7 +803,7 @@ public class AbYCSS extends Algorithm {
       refSet2_.remove(index);
       //Update distances in REFSET2
       for (int j = 0; j < refSet2_.size();j++){
-        aux = distance_.distanceBetweenSolutionsAbYCSS(refSet2_.get(j),solution, refSet1_, refSet2_);
+        aux = refSetDistances_.between(refSet2_.get(j),solution);
         if (aux < refSet2_.get(j).getDistanceToSolutionSet()){
           refSet2_.get(j).setDistanceToSolutionSet(aux);
         }
@@ -454,6 +831,7 @@ public class AbYCSS extends Algorithm {
       flag2 = dominance2_.compare(solution,refSet1_.get(i));
       if (flag == -1 && flag2 == -1) { //This is: solution dominates 
         refSet1_.remove(i);
+        refSetDistances_.invalidate();
       } else if (flag == 1 || flag2 == 1) {
         dominated = true;
         i++;
@@ -470,6 +848,7 @@ public class AbYCSS extends Algorithm {
       solution.unMarked();
       if (refSet1_.size() < refSet1Size_) { //refSet1 isn't full
         refSet1_.add(solution);
+        refSetDistances_.invalidate();
       } else {
         archive_.add(solution);                
       } // if
@@ -490,6 +869,15 @@ public class AbYCSS extends Algorithm {
     Solution [] offSpring;
 
     subSet_.clear();                                                                                        
+    if (duplicates_ != null) {
+      duplicates_.clear();
+      for (int i = 0; i < refSet1_.size(); i++)
+        duplicates_.add(refSet1_.get(i));
+      for (int i = 0; i < refSet2_.size(); i++)
+        duplicates_.add(refSet2_.get(i));
+    }
+    if (subSetEvaluator_ != null)
+      return parallelSubSetGeneration();
 
     //All pairs from refSet1
     for (int i = 0; i < refSet1_.size();i++){
@@ -499,15 +887,7 @@ public class AbYCSS extends Algorithm {
         if (!parents[0].isMarked() || !parents[1].isMarked()){
           //offSpring = parent1.crossover(1.0,parent2);
           offSpring = (Solution [])crossoverOperator_.execute(parents);
-          problem_.evaluate(offSpring[0]);
-          problem_.evaluate(offSpring[1]);    
-          problem_.evaluateConstraints(offSpring[0]);
-          problem_.evaluateConstraints(offSpring[1]);                    
-          evaluations_ += 2;                                        
-          if (evaluations_ < maxEvaluations){
-            subSet_.add(offSpring[0]);
-            subSet_.add(offSpring[1]);    
-          }
+          addOffspring(offSpring);
           parents[0].marked();
           parents[1].marked();
         }                
@@ -522,15 +902,7 @@ public class AbYCSS extends Algorithm {
         if (!parents[0].isMarked() || !parents[1].isMarked()){
           //offSpring = parents[0].crossover(1.0,parent2);                    
           offSpring = (Solution []) crossoverOperator_.execute(parents);
-          problem_.evaluateConstraints(offSpring[0]);
-          problem_.evaluateConstraints(offSpring[1]);                    
-          problem_.evaluate(offSpring[0]);
-          problem_.evaluate(offSpring[1]);
-          evaluations_+=2;                                        
-          if (evaluations_ < maxEvaluations){
-            subSet_.add(offSpring[0]);
-            subSet_.add(offSpring[1]);
-          }
+          addOffspring(offSpring);
           parents[0].marked();
           parents[1].marked();
         }                
@@ -540,6 +912,110 @@ public class AbYCSS extends Algorithm {
     return subSet_.size();
   } // subSetGeneration
 
+  /**
+   * Evaluates the offspring of a pair, and adds them to the subset if the
+   * budget of evaluations is not exhausted. The offspring duplicating a
+   * reference solution or a previous offspring are discarded without being
+   * evaluated.
+   * @param offSpring The offspring
+   * @throws JMException
+   */
+  private void addOffspring(Solution [] offSpring) throws JMException{
+    boolean [] duplicated = duplicated(offSpring);
+    for (int k = 0; k < offSpring.length; k++)
+      if (!duplicated[k]) {
+        evaluations_ += problem_.evaluateCharged(offSpring[k]);
+        problem_.evaluateConstraints(offSpring[k]);
+      }
+    for (int k = 0; k < offSpring.length; k++)
+      if (!duplicated[k] && (evaluations_ < maxEvaluations))
+        subSet_.add(offSpring[k]);
+      else
+        SolutionPool.release(pool_, offSpring[k]);
+  } // addOffspring
+
+  /**
+   * Checks which offspring of a pair have been seen in the current subset
+   * generation step, and counts them as skipped
+   * @param offSpring The offspring
+   * @return Whether each offspring is a duplicate
+   */
+  private boolean [] duplicated(Solution [] offSpring) {
+    boolean [] duplicated = new boolean[offSpring.length];
+    if (duplicates_ != null)
+      for (int k = 0; k < offSpring.length; k++)
+        if (!duplicates_.add(offSpring[k])) {
+          duplicated[k] = true;
+          skippedDuplicates_++;
+        }
+    return duplicated;
+  } // duplicated
+
+  /**
+   * Implements the subset generation method evaluating the offspring in
+   * parallel. The offspring of all the pairs are created first, in the order
+   * of <code>subSetGeneration</code>, and then evaluated as a batch. Each
+   * offspring which is not a duplicate is charged as an evaluation, and the
+   * duplicates and the offspring exceeding the budget are discarded without
+   * being evaluated, so the number of evaluations and the solutions kept do
+   * not depend on the scheduling of the threads. If the problem does not use random numbers
+   * when evaluating, the results are the ones of the sequential method; the
+   * problems caching their evaluations are always evaluated sequentially
+   * (see <code>initParam</code>).
+   * @return  Number of solutions created by the method
+   * @throws JMException 
+   */
+  private int parallelSubSetGeneration() throws JMException{
+    List<Solution []> pairs = new ArrayList<Solution []>();
+    pairs(refSet1_, pairs);
+    pairs(refSet2_, pairs);
+
+    List<Solution> offSpring = new ArrayList<Solution>();
+    for (int p = 0; p < pairs.size(); p++) {
+      Solution [] pair = pairs.get(p);
+      boolean [] duplicated = duplicated(pair);
+      for (int k = 0; k < pair.length; k++)
+        if (!duplicated[k])
+          evaluations_++;
+      for (int k = 0; k < pair.length; k++)
+        if (!duplicated[k] && (evaluations_ < maxEvaluations)) {
+          subSetEvaluator_.addSolutionForEvaluation(pair[k]);
+          offSpring.add(pair[k]);
+        } else
+          SolutionPool.release(pool_, pair[k]);
+    }
+
+    if (offSpring.size() > 0) {
+      subSetEvaluator_.parallelEvaluation();
+      for (Solution solution : offSpring)
+        subSet_.add(solution);
+    }
+
+    return subSet_.size();
+  } // parallelSubSetGeneration
+
+  /**
+   * Applies the crossover to the pairs of a reference set with an unmarked
+   * solution, marking the parents
+   * @param refSet The reference set
+   * @param offSpring List receiving the offspring of each pair
+   * @throws JMException 
+   */
+  private void pairs(SolutionSet refSet, List<Solution []> offSpring) throws JMException{
+    Solution [] parents = new Solution[2];
+    for (int i = 0; i < refSet.size();i++){
+      parents[0] = refSet.get(i);
+      for (int j = i+1; j < refSet.size();j++){                
+        parents[1] = refSet.get(j);
+        if (!parents[0].isMarked() || !parents[1].isMarked()){
+          offSpring.add((Solution [])crossoverOperator_.execute(parents));
+          parents[0].marked();
+          parents[1].marked();
+        }                
+      }
+    }
+  } // pairs
+
   /**   
    * Runs of the AbYCSS algorithm.
    * @return a <code>SolutionSet</code> that is a set of non dominated solutions
@@ -549,24 +1025,229 @@ public class AbYCSS extends Algorithm {
   public SolutionSet execute() throws JMException, ClassNotFoundException {
     // STEP 1. Initialize parameters
     initParam();
-    // STEP 2. Build the initial solutionSet
+    if (subSetEvaluator_ != null)
+      subSetEvaluator_.startEvaluator(problem_);
+    try {
+      SolutionSet result = search();
+      publishArchive();
+      setOutputParameter("evaluations", evaluations_);
+      setOutputParameter("stopCondition", stopCondition_);
+      setOutputParameter("skippedDuplicates", skippedDuplicates_);
+      return result;
+    } finally {
+      if (subSetEvaluator_ != null)
+        subSetEvaluator_.stopEvaluator();
+      if (improvementPool_ != null)
+        improvementPool_.shutdown();
+      if (checkpoint_ != null)
+        checkpoint_.close();
+    }
+  } // execute
+
+  /**
+   * Returns a copy of the archive taken at the end of the last round of the
+   * search (or at the end of the search). It can be called from any thread
+   * without pausing the search, and must not be modified.
+   * @return The copy of the archive; empty before the first round ends
+   */
+  public SolutionSet getArchiveSnapshot() {
+    return archiveSnapshot_;
+  } // getArchiveSnapshot
+
+  /**
+   * Copies the archive, and makes the copy visible to
+   * <code>getArchiveSnapshot</code>
+   * @return The copy
+   */
+  private SolutionSet publishArchive() {
+    SolutionSet snapshot = new SolutionSet(archive_.size());
+    for (int i = 0; i < archive_.size(); i++)
+      snapshot.add(new Solution(archive_.get(i)));
+    archiveSnapshot_ = snapshot;
+    return snapshot;
+  } // publishArchive
+
+  /**
+   * Checks whether the search must stop, and records the condition which
+   * stopped it
+   * @return true if the search must stop
+   */
+  private boolean stop() {
+    if (evaluations_ >= maxEvaluations)
+      stopCondition_ = "maxEvaluations";
+    else if ((deadline_ != Long.MAX_VALUE) && (System.currentTimeMillis() >= deadline_))
+      stopCondition_ = "maxTime";
+    else if (targetReached_)
+      stopCondition_ = "targetHypervolume";
+    else if ((maxStagnantRounds_ > 0) && (stagnantRounds_ >= maxStagnantRounds_))
+      stopCondition_ = "maxStagnantRounds";
+    else
+      return false;
+    return true;
+  } // stop
+
+  /**
+   * Updates the stop conditions checked at the end of each round, i.e.,
+   * when no new solutions enter the reference sets, and publishes the
+   * archive. The archive improves in a round if it has a solution not
+   * weakly dominated by the archive at the end of the previous round.
+   */
+  private void roundCompleted() {
+    int objectives = problem_.getNumberOfObjectives();
+    double [][] front = new double[archive_.size()][objectives];
+    for (int i = 0; i < archive_.size(); i++)
+      for (int k = 0; k < objectives; k++)
+        front[i][k] = archive_.get(i).getObjective(k);
+
+    boolean improved = (lastFront_ == null);
+    for (int i = 0; (i < front.length) && !improved; i++) {
+      improved = true;
+      for (int j = 0; (j < lastFront_.length) && improved; j++) {
+        int k = 0;
+        while ((k < objectives) && (lastFront_[j][k] <= front[i][k]))
+          k++;
+        improved = (k < objectives);
+      }
+    } // for
+    stagnantRounds_ = improved ? 0 : stagnantRounds_ + 1;
+    lastFront_      = front;
+
+    SolutionSet snapshot = publishArchive();
+    if (referencePoint_ != null) {
+      // Only the solutions dominating the reference point contribute
+      SolutionSet dominating = new SolutionSet(snapshot.size());
+      for (int i = 0; i < snapshot.size(); i++) {
+        int k = 0;
+        while ((k < objectives) && (snapshot.get(i).getObjective(k) < referencePoint_.getObjective(k)))
+          k++;
+        if (k == objectives)
+          dominating.add(snapshot.get(i));
+      }
+      double hypervolume = new FastHypervolume().computeHypervolume(dominating, referencePoint_);
+      targetReached_ = (hypervolume >= targetHypervolume_);
+    }
+  } // roundCompleted
+
+  /**
+   * Saves the state of the algorithm if a checkpoint is due. It is called
+   * when the reference sets are empty, i.e., before they are built from
+   * the initial solution set, so they are not saved. The state is encoded
+   * here, and written to the file in the background.
+   * @throws JMException
+   */
+  private void checkpoint() throws JMException {
+    if ((checkpoint_ == null) || ((restarts_ % checkpointInterval_) != 0))
+      return;
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    try {
+      out.writeLong(Checkpoint.MAGIC);
+      out.writeInt(Checkpoint.VERSION);
+      out.writeUTF(problem_.getName());
+      out.writeInt(evaluations_);
+      out.writeInt(restarts_);
+      Checkpoint.writeMatrix(out, frequency_);
+      Checkpoint.writeMatrix(out, reverseFrequency_);
+      Checkpoint.writeMatrix(out, new int[][] {sumOfFrequencyValues_, sumOfReverseFrequencyValues_});
+      Checkpoint.writeSolutionSets(out, solutionSet_, refSet1_, refSet2_, archive_);
+      if (!Checkpoint.writeRandomGenerator(out, PseudoRandom.getRandomGenerator()))
+        Configuration.logger_.warning("AbYCSS: the random generator is not " +
+            "serializable, the run cannot be resumed exactly");
+      out.writeInt(stagnantRounds_);
+      Checkpoint.writeDoubleMatrix(out, lastFront_);
+      out.writeBoolean(targetReached_);
+      out.writeLong(System.currentTimeMillis() - startTime_);
+      out.close();
+    } catch (IOException e) {
+      Configuration.logger_.severe("AbYCSS.checkpoint: " + e);
+      throw new JMException("AbYCSS.checkpoint: " + e);
+    }
+    checkpoint_.write(bytes.toByteArray());
+  } // checkpoint
+
+  /**
+   * Restores the state of the algorithm from the checkpoint file, if any
+   * @return true if the state has been restored
+   * @throws JMException
+   */
+  private boolean resume() throws JMException {
+    if ((checkpoint_ == null) || !checkpoint_.exists())
+      return false;
+
+    try {
+      DataInputStream in = checkpoint_.open();
+      if (in.readLong() != Checkpoint.MAGIC)
+        throw new JMException("AbYCSS.resume: not a checkpoint file");
+      int version = in.readInt();
+      if ((version < 1) || (version > Checkpoint.VERSION))
+        throw new JMException("AbYCSS.resume: version " + version + " of the checkpoint not supported");
+      String problemName = in.readUTF();
+      if (!problemName.equals(problem_.getName()))
+        throw new JMException("AbYCSS.resume: checkpoint of problem " + problemName);
+      evaluations_ = in.readInt();
+      restarts_    = in.readInt();
+      Checkpoint.readMatrix(in, frequency_);
+      Checkpoint.readMatrix(in, reverseFrequency_);
+      Checkpoint.readMatrix(in, new int[][] {sumOfFrequencyValues_, sumOfReverseFrequencyValues_});
+      Checkpoint.readSolutionSets(in, problem_, solutionSet_, refSet1_, refSet2_, archive_);
+      refSetDistances_.invalidate();
+      // Restored to the generator it was saved from (see checkpoint())
+      IRandomGenerator generator = Checkpoint.readRandomGenerator(in);
+      if (generator != null)
+        PseudoRandom.setCurrentRandomGenerator(generator);
+
+      // The files of version 1 do not have the state of the stop
+      // conditions, which starts again as in a new run
+      if (version >= 2) {
+        stagnantRounds_ = in.readInt();
+        lastFront_      = Checkpoint.readDoubleMatrix(in);
+        targetReached_  = in.readBoolean();
+        long elapsed    = in.readLong();
+        startTime_ -= elapsed;
+        if (deadline_ != Long.MAX_VALUE)
+          deadline_ -= elapsed;
+      } else
+        Configuration.logger_.warning("AbYCSS: checkpoint of version 1, the " +
+            "time, stagnation and target hypervolume conditions start again");
+    } catch (IOException e) {
+      Configuration.logger_.severe("AbYCSS.resume: " + e);
+      throw new JMException("AbYCSS.resume: " + e);
+    }
+    Configuration.logger_.info("AbYCSS: resumed after " + evaluations_ + " evaluations");
+    return true;
+  } // resume
+
+  /**
+   * Runs the main loop of the algorithm
+   * @return The archive
+   * @throws JMException 
+   */
+  private SolutionSet search() throws JMException, ClassNotFoundException {
+    // STEP 2. Build the initial solutionSet, or restore the checkpoint
     Solution solution; 
-    diversificationGeneration();
+    boolean resumed = resume();
+    if (!resumed)
+      diversificationGeneration();
 
     // STEP 3. Main loop
     int newSolutions = 0;
-    while (evaluations_ < maxEvaluations) {                       
+    while (!stop()) {                       
+      if (!resumed)
+        checkpoint();
+      resumed = false;
       referenceSetUpdate(true);
       newSolutions = subSetGeneration();        
       while (newSolutions > 0) { // New solutions are created           
         referenceSetUpdate(false);
-        if (evaluations_ >= maxEvaluations)                                        
+        if (stop())
           return archive_;                
         newSolutions = subSetGeneration();                
       } // while
+      roundCompleted();
 
       // RE-START
-      if (evaluations_ < maxEvaluations){
+      if (!stop()){
         solutionSet_.clear();
         // Add refSet1 to SolutionSet
         for (int i = 0; i < refSet1_.size();i++){
@@ -578,12 +1259,22 @@ public class AbYCSS extends Algorithm {
         }
         // Remove refSet1 and refSet2
         refSet1_.clear();        
+        refSetDistances_.invalidate();
         refSet2_.clear();
 
+        // Take the solutions sent by the other islands
+        restarts_++;
+        boolean migrate = (migration_ != null) && migration_.isMigrationRound(restarts_);
+        if (migrate)
+          for (Solution immigrant : migration_.immigrate(island_))
+            archive_.add(immigrant);
+
         // Sort the archive and insert the best solutions
         distance_.crowdingDistanceAssignment(archive_,
             problem_.getNumberOfObjectives());                                
         archive_.sort(crowdingDistance_);                
+        if (migrate)
+          migration_.emigrate(island_, archive_);
 
         int insert = solutionSetSize_  / 2;
         if (insert > archive_.size())
@@ -609,19 +1300,22 @@ public class AbYCSS extends Algorithm {
          // solution = diversificationGeneration();                    
           solution = new Solution(problem_);                    
           problem_.evaluateConstraints(solution);                                         
-          problem_.evaluate(solution);
-          evaluations_++;
+          evaluations_ += problem_.evaluateCharged(solution);
+          Solution random = solution;
           solution = (Solution)improvementOperator_.execute(solution);
           evaluations_ += improvementOperator_.getEvaluations();
+          if (improvementOperator_ instanceof MutationLocalSearch)
+            SolutionPool.release(pool_, random);
           solution.unMarked();
           solutionSet_.add(solution);
         } // while
       } // if   
     } // while       
 
-    archive_.printFeasibleFUN("FUN_AbYCSS") ;
+    if (migration_ == null) // the islands of pAbYCSS share the directory
+      archive_.printFeasibleFUN("FUN_AbYCSS") ;
 
     // STEP 4. Return the archive
     return archive_;                
-  } // execute
+  } // search
 } // AbYCSS
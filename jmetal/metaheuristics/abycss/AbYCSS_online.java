@@ -0,0 +1,275 @@
+//  AbYCSS_online.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.abycss;
+
+import jmetal.core.Algorithm;
+import jmetal.core.ParseRules;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.core.SpamAssassinRules;
+import jmetal.experiments.settings.AbYCSS_Settings;
+import jmetal.problems.SSpamProblem2DAbYCSS;
+import jmetal.problems.spam.CorpusHitMatrix;
+import jmetal.problems.spam.PriorityExporter;
+import jmetal.problems.spam.SpamSnapshot;
+import jmetal.util.Configuration;
+import jmetal.util.Distance;
+import jmetal.util.JMException;
+import jmetal.util.comparators.CrowdingDistanceComparator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * This class is a long-running service reordering the SpamAssassin rules as
+ * their statistics drift. It watches a directory where the statistics are
+ * dropped:
+ *   - scores.cf: the scores of the rules (ParseRules.RULES_FILE if absent)
+ *   - costs.cf: the costs of the rules, as written by RuleCostProfiler
+ *   - corpus.bin or *.log: the hits of a corpus, as a snapshot written by
+ *     SpamSnapshot or as mass-check logs
+ * When the files change and then stay unchanged for a polling interval,
+ * AbYCSS is run on the problem they define, starting from the archive of
+ * the previous run. The knee point of the new archive is published as a
+ * priority file if it improves the ordering published before, evaluated
+ * with the new statistics, by a margin: the mean relative reduction of the
+ * objectives must reach the margin.
+ *
+ * The settings of AbYCSS can be given in a properties file (see
+ * AbYCSS_Settings.configure).
+ * Usage: jmetal.metaheuristics.abycss.AbYCSS_online dropDirectory priorityFile [margin [pollInterval [settingsFile]]]
+ */
+public class AbYCSS_online {
+  private File dropDirectory_ ;
+  private String priorityFile_ ;
+  private double margin_ ;
+  private Properties configuration_ ;
+
+  /**
+   * Stores the modification time of the statistics of the last run, the
+   * archive of the last run, and the ordering published
+   */
+  private long lastModified_ ;
+  private SolutionSet archive_ ;
+  private Solution published_ ;
+
+  /**
+   * Constructor
+   * @param dropDirectory Directory where the statistics are dropped
+   * @param priorityFile File the orderings are published to
+   * @param margin Minimum improvement to publish a new ordering (e.g., 0.01)
+   * @param configuration Settings of AbYCSS
+   */
+  public AbYCSS_online(String dropDirectory, String priorityFile, double margin, Properties configuration) {
+    dropDirectory_ = new File(dropDirectory) ;
+    priorityFile_  = priorityFile ;
+    margin_        = margin ;
+    configuration_ = configuration ;
+    lastModified_  = 0 ;
+    archive_       = null ;
+    published_     = null ;
+  } // AbYCSS_online
+
+  /**
+   * Polls the drop directory until the thread is interrupted, and
+   * re-optimizes the ordering after each change of the statistics. A failed
+   * re-optimization (e.g., malformed statistics) is logged, and the
+   * statistics are tried again when they change.
+   * @param pollInterval Milliseconds between polls
+   */
+  public void run(long pollInterval) throws Exception {
+    long pending = 0 ;
+    while (!Thread.currentThread().isInterrupted()) {
+      long modified = lastModified() ;
+      if ((modified != 0) && (modified != lastModified_)) {
+        if (modified == pending) { // the files are complete
+          lastModified_ = modified ;
+          try {
+            reoptimize() ;
+          } catch (Exception e) {
+            Configuration.logger_.severe("AbYCSS_online: re-optimization failed, " +
+                "waiting for new statistics: " + e) ;
+          }
+        } else
+          pending = modified ;
+      }
+      try {
+        Thread.sleep(pollInterval) ;
+      } catch (InterruptedException e) {
+        return ;
+      }
+    } // while
+  } // run
+
+  /**
+   * Runs AbYCSS with the statistics of the drop directory, and publishes the
+   * knee point of the archive if it improves the published ordering
+   * @return true if a new ordering has been published
+   */
+  public boolean reoptimize() throws Exception {
+    SSpamProblem2DAbYCSS problem = problem() ;
+    Algorithm algorithm = new AbYCSS_Settings(problem).configure(configuration_) ;
+    if (archive_ != null)
+      algorithm.setInputParameter("initialSolutions", archive_) ;
+    long time = System.currentTimeMillis() ;
+    SolutionSet front = algorithm.execute() ;
+    time = System.currentTimeMillis() - time ;
+
+    // The extreme solutions of the archive start the next run first
+    (new Distance()).crowdingDistanceAssignment(front, problem.getNumberOfObjectives()) ;
+    front.sort(new CrowdingDistanceComparator()) ;
+    archive_ = front ;
+
+    int knee = PriorityExporter.kneePoint(front) ;
+    if (knee < 0)
+      return false ;
+    Solution candidate = front.get(knee) ;
+
+    // The published ordering, mapped to the rules of the new statistics, is
+    // evaluated again before deciding
+    if (published_ != null) {
+      Solution current = AbYCSS.restate(problem, published_) ;
+      if (current == null) {
+        Configuration.logger_.severe("AbYCSS_online.reoptimize: the published " +
+            "ordering cannot be evaluated with the new statistics") ;
+        throw new JMException("Exception in AbYCSS_online.reoptimize()") ;
+      }
+      problem.evaluate(current) ;
+      double improvement = improvement(current, candidate) ;
+      Configuration.logger_.info("AbYCSS_online: run of " + time + " ms, improvement " + improvement) ;
+      if (improvement < margin_)
+        return false ;
+    }
+
+    // The file is replaced atomically, so it is never read half written
+    File temporary = new File(priorityFile_ + ".tmp") ;
+    new PriorityExporter(problem.getRules().getTable()).write(temporary.getPath(), candidate, 0) ;
+    Files.move(temporary.toPath(), new File(priorityFile_).toPath(),
+               StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE) ;
+    published_ = new Solution(candidate) ;
+    Configuration.logger_.info("AbYCSS_online: published ordering with objectives " +
+        candidate.getObjective(0) + " " + candidate.getObjective(1)) ;
+    return true ;
+  } // reoptimize
+
+  /**
+   * Returns the mean relative reduction of the objectives of a solution with
+   * respect to another one; the objectives which are 0 in the reference
+   * solution are not taken into account
+   * @param reference The reference solution
+   * @param solution The solution
+   */
+  public static double improvement(Solution reference, Solution solution) {
+    double sum = 0 ;
+    int objectives = 0 ;
+    for (int j = 0; j < reference.getNumberOfObjectives(); j++)
+      if (reference.getObjective(j) != 0) {
+        sum += (reference.getObjective(j) - solution.getObjective(j)) / Math.abs(reference.getObjective(j)) ;
+        objectives++ ;
+      }
+    return (objectives == 0) ? 0 : sum / objectives ;
+  } // improvement
+
+  /**
+   * Builds the problem defined by the statistics of the drop directory
+   */
+  private SSpamProblem2DAbYCSS problem() throws Exception {
+    File scores = new File(dropDirectory_, "scores.cf") ;
+    File costs  = new File(dropDirectory_, "costs.cf") ;
+    String scoresFile = scores.isFile() ? scores.getPath() : ParseRules.RULES_FILE ;
+    SpamAssassinRules rules = costs.isFile() ?
+        new SpamAssassinRules(scoresFile, costs.getPath()) : new SpamAssassinRules(scoresFile) ;
+
+    SSpamProblem2DAbYCSS problem = new SSpamProblem2DAbYCSS("Permutation", rules) ;
+    String corpus = corpus() ;
+    if (corpus != null)
+      problem.setCorpus(SpamSnapshot.loadCorpus(rules.getTable(), CorpusHitMatrix.DEFAULT_THRESHOLD, corpus)) ;
+    return problem ;
+  } // problem
+
+  /**
+   * Returns the corpus files of the drop directory, separated by commas, or
+   * null if there are none
+   */
+  private String corpus() {
+    File snapshot = new File(dropDirectory_, "corpus.bin") ;
+    if (snapshot.isFile())
+      return snapshot.getPath() ;
+
+    List<String> logs = new ArrayList<String>() ;
+    for (File file : files())
+      if (file.getName().endsWith(".log"))
+        logs.add(file.getPath()) ;
+    if (logs.isEmpty())
+      return null ;
+    StringBuilder files = new StringBuilder() ;
+    for (String log : logs)
+      files.append((files.length() == 0) ? "" : ",").append(log) ;
+    return files.toString() ;
+  } // corpus
+
+  /**
+   * Returns the latest modification time of the statistics of the drop
+   * directory, or 0 if there are none
+   */
+  private long lastModified() {
+    long modified = 0 ;
+    for (File file : files()) {
+      String name = file.getName() ;
+      if (name.equals("scores.cf") || name.equals("costs.cf") ||
+          name.equals("corpus.bin") || name.endsWith(".log"))
+        modified = Math.max(modified, file.lastModified()) ;
+    }
+    return modified ;
+  } // lastModified
+
+  /**
+   * Returns the files of the drop directory, sorted by name
+   */
+  private File [] files() {
+    File [] files = dropDirectory_.listFiles() ;
+    if (files == null)
+      return new File[0] ;
+    Arrays.sort(files) ;
+    return files ;
+  } // files
+
+  public static void main(String [] args) throws Exception {
+    if (args.length < 2) {
+      System.out.println("Usage: jmetal.metaheuristics.abycss.AbYCSS_online dropDirectory priorityFile [margin [pollInterval [settingsFile]]]") ;
+      return ;
+    }
+    double margin     = (args.length > 2) ? Double.parseDouble(args[2]) : 0.01 ;
+    long pollInterval = (args.length > 3) ? Long.parseLong(args[3]) : 60000 ;
+    Properties configuration = new Properties() ;
+    if (args.length > 4) {
+      InputStream in = new FileInputStream(args[4]) ;
+      try {
+        configuration.load(in) ;
+      } finally {
+        in.close() ;
+      }
+    }
+    new AbYCSS_online(args[0], args[1], margin, configuration).run(pollInterval) ;
+  } // main
+} // AbYCSS_online
@@ -0,0 +1,384 @@
+//  Checkpoint.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.abycss;
+
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.core.Variable;
+import jmetal.encodings.variable.Permutation;
+import jmetal.util.Configuration;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.JMException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class writes the checkpoints of AbYCSS to a file and reads them back.
+ * A checkpoint is encoded in memory by the algorithm (see
+ * <code>writeSolutionSets</code> and <code>writeRandomGenerator</code>),
+ * and written to disk by a background thread: the file is first written
+ * with the suffix ".tmp" and then renamed, so a crash while writing leaves
+ * the previous checkpoint intact.
+ */
+class Checkpoint {
+
+  /**
+   * Identifies the checkpoint files and their version. Version 2 adds the
+   * state of the stop conditions; the files of version 1 are still read.
+   */
+  static final long MAGIC   = 0x41625943534B5054L ; // "AbYCSKPT"
+  static final int  VERSION = 2 ;
+
+  private File file_ ;
+  private ExecutorService writer_ ;
+  private Future<?> pending_ ;
+
+  /**
+   * Constructor
+   * @param path The checkpoint file
+   */
+  public Checkpoint(String path) {
+    file_    = new File(path) ;
+    writer_  = null ;
+    pending_ = null ;
+  } // Checkpoint
+
+  /**
+   * Returns true if there is a checkpoint to resume from
+   */
+  public boolean exists() {
+    return file_.isFile() ;
+  } // exists
+
+  /**
+   * Opens the checkpoint file
+   * @return A stream with the contents of the file
+   * @throws IOException
+   */
+  public DataInputStream open() throws IOException {
+    byte [] bytes = new byte[(int) file_.length()] ;
+    DataInputStream in = new DataInputStream(new FileInputStream(file_)) ;
+    try {
+      in.readFully(bytes) ;
+    } finally {
+      in.close() ;
+    }
+    return new DataInputStream(new ByteArrayInputStream(bytes)) ;
+  } // open
+
+  /**
+   * Writes a checkpoint in the background. If the previous one is still
+   * being written, waits for it first, so that at most one checkpoint is
+   * pending.
+   * @param state The encoded checkpoint
+   */
+  public void write(final byte [] state) {
+    await() ;
+    if (writer_ == null)
+      writer_ = Executors.newSingleThreadExecutor() ;
+    pending_ = writer_.submit(new Runnable() {
+      public void run() {
+        File temporary = new File(file_.getPath() + ".tmp") ;
+        try {
+          FileOutputStream out = new FileOutputStream(temporary) ;
+          try {
+            out.write(state) ;
+            out.getFD().sync() ;
+          } finally {
+            out.close() ;
+          }
+          Files.move(temporary.toPath(), file_.toPath(),
+                     StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE) ;
+        } catch (IOException e) {
+          Configuration.logger_.severe("Checkpoint: cannot write " + file_ + ": " + e) ;
+        }
+      }
+    }) ;
+  } // write
+
+  /**
+   * Waits until the pending checkpoint, if any, has been written
+   */
+  public void await() {
+    if (pending_ == null)
+      return ;
+    try {
+      pending_.get() ;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+    } catch (ExecutionException e) {
+      Configuration.logger_.severe("Checkpoint: " + e.getCause()) ;
+    }
+    pending_ = null ;
+  } // await
+
+  /**
+   * Waits for the pending checkpoint and stops the writer thread
+   */
+  public void close() {
+    await() ;
+    if (writer_ != null)
+      writer_.shutdown() ;
+    writer_ = null ;
+  } // close
+
+  /**
+   * Writes solution sets. A solution found in several sets, or several
+   * times in a set, is written once, so that it is shared again when read.
+   * @param out The stream
+   * @param sets The solution sets
+   * @throws IOException
+   * @throws JMException
+   */
+  static void writeSolutionSets(DataOutputStream out, SolutionSet... sets) throws IOException, JMException {
+    IdentityHashMap<Solution, Integer> index = new IdentityHashMap<Solution, Integer>() ;
+    List<Solution> solutions = new ArrayList<Solution>() ;
+    for (SolutionSet set : sets)
+      for (int i = 0; i < set.size(); i++)
+        if (!index.containsKey(set.get(i))) {
+          index.put(set.get(i), solutions.size()) ;
+          solutions.add(set.get(i)) ;
+        }
+
+    out.writeInt(solutions.size()) ;
+    for (Solution solution : solutions)
+      writeSolution(out, solution) ;
+
+    out.writeInt(sets.length) ;
+    for (SolutionSet set : sets) {
+      out.writeInt(set.size()) ;
+      for (int i = 0; i < set.size(); i++)
+        out.writeInt(index.get(set.get(i))) ;
+    }
+  } // writeSolutionSets
+
+  /**
+   * Reads the solution sets written by <code>writeSolutionSets</code>,
+   * appending the solutions to the given sets without checking them (e.g.,
+   * for dominance in archives)
+   * @param in The stream
+   * @param problem The problem of the solutions
+   * @param sets The solution sets, in the order they were written
+   * @throws IOException
+   * @throws JMException
+   */
+  static void readSolutionSets(DataInputStream in, Problem problem, SolutionSet... sets) throws IOException, JMException {
+    Solution [] solutions = new Solution[in.readInt()] ;
+    for (int i = 0; i < solutions.length; i++)
+      solutions[i] = readSolution(in, problem) ;
+
+    if (in.readInt() != sets.length)
+      throw new JMException("Checkpoint: wrong number of solution sets") ;
+    for (SolutionSet set : sets) {
+      set.clear() ;
+      int size = in.readInt() ;
+      for (int i = 0; i < size; i++)
+        set.add(set.size(), solutions[in.readInt()]) ;
+    }
+  } // readSolutionSets
+
+  private static void writeSolution(DataOutputStream out, Solution solution) throws IOException, JMException {
+    out.writeInt(solution.getNumberOfObjectives()) ;
+    for (int i = 0; i < solution.getNumberOfObjectives(); i++)
+      out.writeDouble(solution.getObjective(i)) ;
+
+    Variable [] variables = solution.getDecisionVariables() ;
+    out.writeInt(variables.length) ;
+    for (Variable variable : variables) {
+      if (variable instanceof Permutation) {
+        int [] vector = ((Permutation) variable).vector_ ;
+        out.writeInt(vector.length) ;
+        for (int value : vector)
+          out.writeInt(value) ;
+      } else
+        out.writeDouble(variable.getValue()) ;
+    } // for
+
+    out.writeDouble(solution.getOverallConstraintViolation()) ;
+    out.writeInt(solution.getNumberOfViolatedConstraint()) ;
+    out.writeDouble(solution.getDistanceToSolutionSet()) ;
+    out.writeDouble(solution.getCrowdingDistance()) ;
+    out.writeDouble(solution.getFitness()) ;
+    out.writeBoolean(solution.isMarked()) ;
+    out.writeInt(solution.getRank()) ;
+    out.writeInt(solution.getLocation()) ;
+  } // writeSolution
+
+  private static Solution readSolution(DataInputStream in, Problem problem) throws IOException, JMException {
+    int objectives = in.readInt() ;
+    if (objectives != problem.getNumberOfObjectives())
+      throw new JMException("Checkpoint: wrong number of objectives " + objectives) ;
+    double [] objective = new double[objectives] ;
+    for (int i = 0; i < objectives; i++)
+      objective[i] = in.readDouble() ;
+
+    Variable [] variables ;
+    try {
+      variables = problem.getSolutionType().createVariables() ;
+    } catch (ClassNotFoundException e) {
+      throw new JMException("Checkpoint: " + e) ;
+    }
+    if (in.readInt() != variables.length)
+      throw new JMException("Checkpoint: wrong number of variables") ;
+    for (Variable variable : variables) {
+      if (variable instanceof Permutation) {
+        int [] vector = ((Permutation) variable).vector_ ;
+        if (in.readInt() != vector.length)
+          throw new JMException("Checkpoint: wrong permutation length") ;
+        for (int i = 0; i < vector.length; i++)
+          vector[i] = in.readInt() ;
+        ((Permutation) variable).markModified(0, vector.length - 1) ;
+      } else
+        variable.setValue(in.readDouble()) ;
+    } // for
+
+    Solution solution = new Solution(problem, variables) ;
+    for (int i = 0; i < objectives; i++)
+      solution.setObjective(i, objective[i]) ;
+    solution.setOverallConstraintViolation(in.readDouble()) ;
+    solution.setNumberOfViolatedConstraint(in.readInt()) ;
+    solution.setDistanceToSolutionSet(in.readDouble()) ;
+    solution.setCrowdingDistance(in.readDouble()) ;
+    solution.setFitness(in.readDouble()) ;
+    if (in.readBoolean())
+      solution.marked() ;
+    else
+      solution.unMarked() ;
+    solution.setRank(in.readInt()) ;
+    solution.setLocation(in.readInt()) ;
+    return solution ;
+  } // readSolution
+
+  /**
+   * Writes a matrix of integers, e.g., the frequency memory of AbYCSS
+   */
+  static void writeMatrix(DataOutputStream out, int [][] matrix) throws IOException {
+    out.writeInt(matrix.length) ;
+    for (int [] row : matrix) {
+      out.writeInt(row.length) ;
+      for (int value : row)
+        out.writeInt(value) ;
+    }
+  } // writeMatrix
+
+  /**
+   * Reads a matrix of integers written by <code>writeMatrix</code> into a
+   * matrix of the same dimensions
+   */
+  static void readMatrix(DataInputStream in, int [][] matrix) throws IOException, JMException {
+    if (in.readInt() != matrix.length)
+      throw new JMException("Checkpoint: wrong matrix dimensions") ;
+    for (int [] row : matrix) {
+      if (in.readInt() != row.length)
+        throw new JMException("Checkpoint: wrong matrix dimensions") ;
+      for (int i = 0; i < row.length; i++)
+        row[i] = in.readInt() ;
+    }
+  } // readMatrix
+
+  /**
+   * Writes a matrix of doubles, e.g., the objectives of a front, or null
+   */
+  static void writeDoubleMatrix(DataOutputStream out, double [][] matrix) throws IOException {
+    if (matrix == null) {
+      out.writeInt(-1) ;
+      return ;
+    }
+    out.writeInt(matrix.length) ;
+    for (double [] row : matrix) {
+      out.writeInt(row.length) ;
+      for (double value : row)
+        out.writeDouble(value) ;
+    }
+  } // writeDoubleMatrix
+
+  /**
+   * Reads a matrix of doubles written by <code>writeDoubleMatrix</code>
+   * @return The matrix, or null
+   */
+  static double [][] readDoubleMatrix(DataInputStream in) throws IOException {
+    int rows = in.readInt() ;
+    if (rows < 0)
+      return null ;
+    double [][] matrix = new double[rows][] ;
+    for (int i = 0; i < rows; i++) {
+      matrix[i] = new double[in.readInt()] ;
+      for (int j = 0; j < matrix[i].length; j++)
+        matrix[i][j] = in.readDouble() ;
+    }
+    return matrix ;
+  } // readDoubleMatrix
+
+  /**
+   * Writes the state of a random generator, if it is serializable
+   * @return true if the state has been written
+   * @throws IOException
+   */
+  static boolean writeRandomGenerator(DataOutputStream out, IRandomGenerator generator) throws IOException {
+    if (!(generator instanceof Serializable)) {
+      out.writeInt(0) ;
+      return false ;
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream() ;
+    ObjectOutputStream objects = new ObjectOutputStream(bytes) ;
+    objects.writeObject(generator) ;
+    objects.close() ;
+    out.writeInt(bytes.size()) ;
+    bytes.writeTo(out) ;
+    return true ;
+  } // writeRandomGenerator
+
+  /**
+   * Reads the state of a random generator
+   * @return The generator, or null if its state was not written
+   * @throws IOException
+   */
+  static IRandomGenerator readRandomGenerator(DataInputStream in) throws IOException {
+    int length = in.readInt() ;
+    if (length == 0)
+      return null ;
+    byte [] bytes = new byte[length] ;
+    in.readFully(bytes) ;
+    ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes)) ;
+    try {
+      return (IRandomGenerator) objects.readObject() ;
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Checkpoint: " + e) ;
+    } finally {
+      objects.close() ;
+    }
+  } // readRandomGenerator
+} // Checkpoint
@@ -0,0 +1,90 @@
+//  DuplicateFilter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.abycss;
+
+import jmetal.core.Solution;
+import jmetal.core.Variable;
+import jmetal.encodings.variable.Permutation;
+
+import java.util.Arrays;
+
+/**
+ * This class remembers the permutations seen in a subset generation step of
+ * AbYCSS (the reference solutions and the offspring created so far), to
+ * detect the duplicated offspring before evaluating them. The permutations
+ * are stored by their hashes in an open addressing table of bounded size;
+ * once it is full, new permutations are not remembered. Two different
+ * permutations are taken as duplicates with probability 2^-64.
+ */
+class DuplicateFilter {
+  private long [] table_ ;
+  private boolean [] used_ ;
+  private int size_ ;
+  private int maxSize_ ;
+
+  /**
+   * Constructor
+   * @param maxSize Maximum number of permutations remembered
+   */
+  public DuplicateFilter(int maxSize) {
+    int capacity = Integer.highestOneBit(Math.max(2, 2 * maxSize - 1)) << 1 ;
+    table_   = new long[capacity] ;
+    used_    = new boolean[capacity] ;
+    size_    = 0 ;
+    maxSize_ = maxSize ;
+  } // DuplicateFilter
+
+  /**
+   * Forgets all the permutations
+   */
+  public void clear() {
+    if (size_ > 0)
+      Arrays.fill(used_, false) ;
+    size_ = 0 ;
+  } // clear
+
+  /**
+   * Remembers the permutation of a solution
+   * @param solution The solution
+   * @return false if the permutation has already been seen, true otherwise
+   */
+  public boolean add(Solution solution) {
+    long hash = hash(solution) ;
+    int mask  = table_.length - 1 ;
+    int i     = (int) (hash ^ (hash >>> 32)) & mask ;
+    while (used_[i]) {
+      if (table_[i] == hash)
+        return false ;
+      i = (i + 1) & mask ;
+    }
+    if (size_ < maxSize_) {
+      table_[i] = hash ;
+      used_[i]  = true ;
+      size_++ ;
+    }
+    return true ;
+  } // add
+
+  /**
+   * Returns a hash of the permutations of a solution
+   */
+  static long hash(Solution solution) {
+    long hash = 0 ;
+    for (Variable variable : solution.getDecisionVariables())
+      hash = hash * 0x9E3779B97F4A7C15L + ((Permutation) variable).hash() ;
+    return hash ;
+  } // hash
+} // DuplicateFilter
@@ -0,0 +1,81 @@
+//  Migration.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.abycss;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * This class exchanges solutions between the islands of pAbYCSS, which are
+ * connected in a ring: island i sends its migrants to island i + 1. Each
+ * island has a lock-free queue with the solutions sent to it, which it
+ * collects at its next migration.
+ */
+public class Migration {
+  private List<ConcurrentLinkedQueue<Solution>> queues_ ;
+  private int interval_ ;
+  private int migrants_ ;
+
+  /**
+   * Constructor
+   * @param islands Number of islands
+   * @param interval Number of restarts of an island between migrations
+   * @param migrants Number of solutions sent by an island at each migration
+   */
+  public Migration(int islands, int interval, int migrants) {
+    queues_ = new ArrayList<ConcurrentLinkedQueue<Solution>>(islands) ;
+    for (int i = 0; i < islands; i++)
+      queues_.add(new ConcurrentLinkedQueue<Solution>()) ;
+    interval_ = Math.max(1, interval) ;
+    migrants_ = migrants ;
+  } // Migration
+
+  /**
+   * Returns true if an island migrates after a given number of restarts
+   */
+  public boolean isMigrationRound(int restarts) {
+    return (restarts % interval_) == 0 ;
+  } // isMigrationRound
+
+  /**
+   * Sends copies of the first solutions of a set to the next island
+   * @param island The island sending the solutions
+   * @param solutions The solutions, best first
+   */
+  public void emigrate(int island, SolutionSet solutions) {
+    ConcurrentLinkedQueue<Solution> queue = queues_.get((island + 1) % queues_.size()) ;
+    int migrants = Math.min(migrants_, solutions.size()) ;
+    for (int i = 0; i < migrants; i++)
+      queue.offer(new Solution(solutions.get(i))) ;
+  } // emigrate
+
+  /**
+   * Returns the solutions sent to an island since its last migration
+   * @param island The island
+   */
+  public List<Solution> immigrate(int island) {
+    List<Solution> immigrants = new ArrayList<Solution>() ;
+    ConcurrentLinkedQueue<Solution> queue = queues_.get(island) ;
+    Solution solution ;
+    while ((solution = queue.poll()) != null)
+      immigrants.add(solution) ;
+    return immigrants ;
+  } // immigrate
+} // Migration
@@ -0,0 +1,115 @@
+//  ReferenceSetDistances.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.abycss;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Distance;
+
+/**
+ * This class computes the distances between solutions used by AbYCSS to
+ * maintain the reference sets, which are normalized by the objective values
+ * of the reference set one and of the last solution of the reference set
+ * two. The normalization terms are kept in arrays and refreshed only when
+ * the reference set one changes (AbYCSS calls <code>invalidate</code>) or
+ * when the last solution of the reference set two is a different one. The
+ * results are those of <code>Distance.distanceBetweenSolutionsAbYCSS</code>.
+ */
+class ReferenceSetDistances {
+  private SolutionSet refSet1_ ;
+  private SolutionSet refSet2_ ;
+
+  /**
+   * Normalization terms of the first objective, one per solution of the
+   * reference set one, and of the second objective
+   */
+  private double [] denominator0_ ;
+  private double denominator1_ ;
+
+  /**
+   * Solutions the normalization terms were computed from
+   */
+  private boolean valid_ ;
+  private Solution last_ ;
+
+  /**
+   * Constructor
+   * @param refSet1 The reference set one
+   * @param refSet2 The reference set two
+   */
+  public ReferenceSetDistances(SolutionSet refSet1, SolutionSet refSet2) {
+    refSet1_      = refSet1 ;
+    refSet2_      = refSet2 ;
+    denominator0_ = new double[16] ;
+    valid_        = false ;
+    last_         = null ;
+  } // ReferenceSetDistances
+
+  /**
+   * Notifies that the reference set one has changed
+   */
+  public void invalidate() {
+    valid_ = false ;
+  } // invalidate
+
+  /**
+   * Returns the distance between two solutions, as
+   * <code>Distance.distanceBetweenSolutionsAbYCSS(solutionI, solutionJ, refSet1, refSet2)</code>
+   * @param solutionI The first solution
+   * @param solutionJ The second solution
+   */
+  public double between(Solution solutionI, Solution solutionJ) {
+    int size = refSet1_.size() ;
+    double distance = Double.MAX_VALUE ;
+    if (size == 0)
+      return distance ;
+
+    refresh() ;
+    double fit  = Distance.square(solutionI.getObjective(0) - solutionJ.getObjective(0)) ;
+    double aux2 = Distance.square(solutionI.getObjective(1) - solutionJ.getObjective(1)) / denominator1_ ;
+    double [] denominator0 = denominator0_ ;
+    for (int i = 0; i < size; i++) {
+      double aux = fit / denominator0[i] ;
+      if (aux < distance)
+        distance = aux ;
+      if (aux2 < distance)
+        distance += aux2 ;
+    } // for
+    return distance ;
+  } // between
+
+  /**
+   * Recomputes the normalization terms if the solutions they depend on have
+   * changed
+   */
+  private void refresh() {
+    Solution last = refSet2_.get(refSet2_.size() - 1) ;
+    if (valid_ && (last == last_))
+      return ;
+
+    int size = refSet1_.size() ;
+    if (denominator0_.length < size)
+      denominator0_ = new double[Math.max(size, 2 * denominator0_.length)] ;
+
+    double objective0 = last.getObjective(0) ;
+    for (int i = 0; i < size; i++)
+      denominator0_[i] = Distance.square(refSet1_.get(i).getObjective(0) - objective0) ;
+    denominator1_ = Distance.square(refSet1_.get(0).getObjective(1) - last.getObjective(1)) ;
+
+    last_  = last ;
+    valid_ = true ;
+  } // refresh
+} // ReferenceSetDistances
@@ -0,0 +1,141 @@
+//  pAbYCSS.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.abycss;
+
+import jmetal.core.Algorithm;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
+import jmetal.util.archive.BiObjectiveCrowdingArchive;
+import jmetal.util.archive.CrowdingArchive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class implements an island model of AbYCSS. Each island is an AbYCSS
+ * instance, with its own operators, running on its own thread with its own
+ * random generator. The islands are connected in a ring: every
+ * "migrationInterval" restarts, an island sends the first "migrants"
+ * solutions of its archive (sorted by crowding distance) to the next island,
+ * and inserts the solutions received from the previous one into its
+ * archive. The archives of the islands are merged into a
+ * <code>CrowdingArchive</code> of size "archiveSize" at the end.
+ *
+ * The budget of evaluations is the "maxEvaluations" input parameter of each
+ * island.
+ */
+public class pAbYCSS extends Algorithm {
+
+  private static final long serialVersionUID = 1L ;
+
+  private AbYCSS [] islands_ ;
+
+  /**
+   * Constructor
+   * @param problem Problem to solve
+   * @param islands The islands; they must not share operators
+   */
+  public pAbYCSS(Problem problem, AbYCSS [] islands) {
+    super (problem) ;
+    islands_ = islands ;
+  } // pAbYCSS
+
+  /**
+   * Returns the islands
+   */
+  public AbYCSS [] getIslands() {
+    return islands_ ;
+  } // getIslands
+
+  /**
+   * Runs the islands
+   * @return The non-dominated solutions found by the islands
+   * @throws JMException
+   */
+  public SolutionSet execute() throws JMException, ClassNotFoundException {
+    int archiveSize       = ((Integer)getInputParameter("archiveSize")).intValue() ;
+    int migrationInterval = ((Integer)getInputParameter("migrationInterval")).intValue() ;
+    int migrants          = ((Integer)getInputParameter("migrants")).intValue() ;
+
+    Migration migration = new Migration(islands_.length, migrationInterval, migrants) ;
+    List<Callable<SolutionSet>> tasks = new ArrayList<Callable<SolutionSet>>() ;
+    long seed = PseudoRandom.randLong() ;
+    for (int i = 0; i < islands_.length; i++) {
+      islands_[i].setMigration(migration, i) ;
+      tasks.add(new Island(islands_[i], seed, i)) ;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(islands_.length) ;
+    CrowdingArchive archive = (problem_.getNumberOfObjectives() == 2) ?
+        new BiObjectiveCrowdingArchive(archiveSize) :
+        new CrowdingArchive(archiveSize, problem_.getNumberOfObjectives()) ;
+    int evaluations = 0 ;
+    try {
+      List<Future<SolutionSet>> results = executor.invokeAll(tasks) ;
+      for (int i = 0; i < islands_.length; i++) {
+        SolutionSet front = results.get(i).get() ;
+        for (int j = 0; j < front.size(); j++)
+          archive.add(new Solution(front.get(j))) ;
+        evaluations += (Integer)islands_[i].getOutputParameter("evaluations") ;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+      throw new JMException("pAbYCSS: interrupted") ;
+    } catch (ExecutionException e) {
+      Configuration.logger_.severe("pAbYCSS.execute: " + e.getCause()) ;
+      throw new JMException("pAbYCSS.execute: " + e.getCause()) ;
+    } finally {
+      executor.shutdown() ;
+    }
+
+    setOutputParameter("evaluations", evaluations) ;
+    return archive ;
+  } // execute
+
+  /**
+   * Task running an island with its own random generator
+   */
+  private static class Island implements Callable<SolutionSet> {
+    private AbYCSS algorithm_ ;
+    private long seed_ ;
+    private int stream_ ;
+
+    public Island(AbYCSS algorithm, long seed, int stream) {
+      algorithm_ = algorithm ;
+      seed_      = seed ;
+      stream_    = stream ;
+    }
+
+    public SolutionSet call() throws Exception {
+      PseudoRandom.setThreadRandomGenerator(new RandomGenerator(seed_, stream_)) ;
+      try {
+        return algorithm_.execute() ;
+      } finally {
+        PseudoRandom.setThreadRandomGenerator(null) ;
+      }
+    }
+  } // Island
+} // pAbYCSS
@@ -26,6 +26,7 @@ import jmetal.util.Distance;
 import jmetal.util.JMException;
 import jmetal.util.Neighborhood;
 import jmetal.util.Ranking;
+import jmetal.util.archive.BiObjectiveCrowdingArchive;
 import jmetal.util.archive.CrowdingArchive;
 import jmetal.util.comparators.CrowdingComparator;
 import jmetal.util.comparators.DominanceComparator;
@@ -72,7 +73,10 @@ public class MOCell extends Algorithm{
 
     // Initialize the variables    
     currentPopulation  = new SolutionSet(populationSize);        
-    archive            = new CrowdingArchive(archiveSize,problem_.getNumberOfObjectives());                
+    if (problem_.getNumberOfObjectives() == 2)
+      archive          = new BiObjectiveCrowdingArchive(archiveSize);
+    else
+      archive          = new CrowdingArchive(archiveSize,problem_.getNumberOfObjectives());
     evaluations        = 0;                        
     neighborhood       = new Neighborhood(populationSize);
     neighbors          = new SolutionSet[populationSize];
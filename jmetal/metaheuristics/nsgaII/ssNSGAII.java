@@ -23,13 +23,14 @@ package jmetal.metaheuristics.nsgaII;
 
 import jmetal.core.*;
 import jmetal.qualityIndicator.QualityIndicator;
-import jmetal.util.Distance;
 import jmetal.util.JMException;
-import jmetal.util.Ranking;
-import jmetal.util.comparators.CrowdingComparator;
+import jmetal.util.ranking.IncrementalRanking;
 
 /**
- * This class implements a steady-state version of NSGA-II.
+ * This class implements a steady-state version of NSGA-II. The fronts of the
+ * population are kept by an <code>IncrementalRanking</code>, so inserting
+ * each offspring and removing the worst solution only updates the fronts
+ * they affect, instead of ranking the whole population again.
  */
 public class ssNSGAII extends Algorithm {
 
@@ -57,15 +58,12 @@ public class ssNSGAII extends Algorithm {
     // indicators object (see below)
 
     SolutionSet population;
-    SolutionSet offspringPopulation;
-    SolutionSet union;
+    IncrementalRanking ranking;
 
     Operator mutationOperator;
     Operator crossoverOperator;
     Operator selectionOperator;
 
-    Distance distance = new Distance();
-
     //Read the parameters
     populationSize = ((Integer) getInputParameter("populationSize")).intValue();
     maxEvaluations = ((Integer) getInputParameter("maxEvaluations")).intValue();
@@ -91,12 +89,11 @@ public class ssNSGAII extends Algorithm {
       evaluations++;
       population.add(newSolution);
     } //for       
+    ranking = new IncrementalRanking(population, problem_.getNumberOfObjectives(), populationSize + 1);
 
     // Generations ...
     while (evaluations < maxEvaluations) {
 
-      // Create the offSpring solutionSet      
-      offspringPopulation = new SolutionSet(populationSize);
       Solution[] parents = new Solution[2];
 
       //obtain parents
@@ -113,53 +110,13 @@ public class ssNSGAII extends Algorithm {
       problem_.evaluate(offSpring[0]);
       problem_.evaluateConstraints(offSpring[0]);
 
-      // insert child into the offspring population
-      offspringPopulation.add(offSpring[0]);
-
       evaluations ++;
 
-      // Create the solutionSet union of solutionSet and offSpring
-      union = ((SolutionSet) population).union(offspringPopulation);
-
-      // Ranking the union
-      Ranking ranking = new Ranking(union);
-
-      int remain = populationSize;
-      int index = 0;
-      SolutionSet front = null;
-      population.clear();
-
-      // Obtain the next front
-      front = ranking.getSubfront(index);
-
-      while ((remain > 0) && (remain >= front.size())) {
-        //Assign crowding distance to individuals
-        distance.crowdingDistanceAssignment(front, problem_.getNumberOfObjectives());
-        //Add the individuals of this front
-        for (int k = 0; k < front.size(); k++) {
-          population.add(front.get(k));
-        } // for
-
-        //Decrement remain
-        remain = remain - front.size();
-
-        //Obtain the next front
-        index++;
-        if (remain > 0) {
-          front = ranking.getSubfront(index);
-        } // if        
-      } // while
-
-      // Remain is less than front(index).size, insert only the best one
-      if (remain > 0) {  // front contains individuals to insert                        
-        distance.crowdingDistanceAssignment(front, problem_.getNumberOfObjectives());
-        front.sort(new CrowdingComparator());
-        for (int k = 0; k < remain; k++) {
-          population.add(front.get(k));
-        } // for
-
-        remain = 0;
-      } // if                               
+      // Insert the child and remove the solution of the last front with the
+      // lowest crowding distance
+      ranking.add(offSpring[0]);
+      ranking.removeWorst();
+      ranking.copyTo(population);
 
       // This piece of code shows how to use the indicator object into the code
       // of NSGA-II. In particular, it finds the number of evaluations required
@@ -178,7 +135,6 @@ public class ssNSGAII extends Algorithm {
     setOutputParameter("evaluations", requiredEvaluations);
 
     // Return the first non-dominated front
-    Ranking ranking = new Ranking(population);
     return ranking.getSubfront(0);
   } // execute
 } // NSGA-II
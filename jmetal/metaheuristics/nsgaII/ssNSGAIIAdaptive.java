@@ -2,22 +2,19 @@ package jmetal.metaheuristics.nsgaII;
 
 import jmetal.core.*;
 import jmetal.qualityIndicator.QualityIndicator;
-import jmetal.util.Distance;
 import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
-import jmetal.util.Ranking;
 import jmetal.util.comparators.CrowdingComparator;
 import jmetal.util.comparators.DominanceComparator;
 import jmetal.util.offspring.Offspring;
 import jmetal.util.offspring.PolynomialMutationOffspring;
+import jmetal.util.ranking.IncrementalRanking;
 
 import java.util.Comparator;
 
 public class ssNSGAIIAdaptive extends Algorithm {
   public int populationSize_            ;
   public SolutionSet population_        ;
-  public SolutionSet offspringPopulation_;
-  public SolutionSet union_              ;
 
   int maxEvaluations_                   ;
   int evaluations_                      ;
@@ -60,7 +57,6 @@ public class ssNSGAIIAdaptive extends Algorithm {
 
     Comparator dominance = new DominanceComparator();
     Comparator crowdingComparator = new CrowdingComparator();
-    Distance distance = new Distance();
 
     Operator selectionOperator;
 
@@ -101,12 +97,10 @@ public class ssNSGAIIAdaptive extends Algorithm {
       newSolution.setLocation(i);
       population_.add(newSolution);
     } //for       
+    IncrementalRanking ranking = new IncrementalRanking(population_, problem_.getNumberOfObjectives(), populationSize_ + 1);
 
     while (evaluations_ < maxEvaluations_) {
 
-      // Create the offSpring solutionSet      
-      // Create the offSpring solutionSet      
-      offspringPopulation_ = new SolutionSet(2);
       Solution[] parents = new Solution[2];
 
       int selectedSolution = PseudoRandom.randInt(0, populationSize_-1) ;
@@ -142,51 +136,13 @@ public class ssNSGAIIAdaptive extends Algorithm {
       } // for
 
       problem_.evaluate(offSpring) ;
-      offspringPopulation_.add(offSpring);
       evaluations_ +=1 ; 
 
-      // Create the solutionSet union of solutionSet and offSpring
-      union_ = ((SolutionSet) population_).union(offspringPopulation_);
-
-      // Ranking the union
-      Ranking ranking = new Ranking(union_);
-
-      int remain = populationSize_;
-      int index = 0;
-      SolutionSet front = null;
-      population_.clear();
-
-      // Obtain the next front
-      front = ranking.getSubfront(index);
-
-      while ((remain > 0) && (remain >= front.size())) {
-        //Assign crowding distance to individuals
-        distance.crowdingDistanceAssignment(front, problem_.getNumberOfObjectives());
-        //Add the individuals of this front
-        for (int k = 0; k < front.size(); k++) {
-          population_.add(front.get(k));
-        } // for
-
-        //Decrement remain
-        remain = remain - front.size();
-
-        //Obtain the next front
-        index++;
-        if (remain > 0) {
-          front = ranking.getSubfront(index);
-        } // if        
-      } // while
-
-      // Remain is less than front(index).size, insert only the best one
-      if (remain > 0) {  // front contains individuals to insert                        
-        distance.crowdingDistanceAssignment(front, problem_.getNumberOfObjectives());
-        front.sort(new CrowdingComparator());
-        for (int k = 0; k < remain; k++) {
-          population_.add(front.get(k));
-        } // for
-
-        remain = 0;
-      } // if                 
+      // Insert the offspring and remove the solution of the last front with
+      // the lowest crowding distance
+      ranking.add(offSpring);
+      ranking.removeWorst();
+      ranking.copyTo(population_);
 
       // CONTRIBUTION CALCULATING PHASE
       if ((evaluations_ % populationSize_) == 0) {
@@ -226,7 +182,6 @@ public class ssNSGAIIAdaptive extends Algorithm {
 
 
     // Return the first non-dominated front
-    Ranking ranking = new Ranking(population_);
     return ranking.getSubfront(0);
   }
 }
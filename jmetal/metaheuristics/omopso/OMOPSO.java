@@ -27,6 +27,7 @@ import jmetal.util.Distance;
 import jmetal.util.JMException;
 import jmetal.util.NonDominatedSolutionList;
 import jmetal.util.PseudoRandom;
+import jmetal.util.archive.BiObjectiveCrowdingArchive;
 import jmetal.util.archive.CrowdingArchive;
 import jmetal.util.comparators.CrowdingDistanceComparator;
 import jmetal.util.comparators.DominanceComparator;
@@ -138,7 +139,10 @@ public class OMOPSO extends Algorithm {
     
     particles_     = new SolutionSet(particlesSize_);        
     best_          = new Solution[particlesSize_];
-    leaders_       = new CrowdingArchive(archiveSize_,problem_.getNumberOfObjectives());
+    if (problem_.getNumberOfObjectives() == 2)
+      leaders_     = new BiObjectiveCrowdingArchive(archiveSize_);
+    else
+      leaders_     = new CrowdingArchive(archiveSize_,problem_.getNumberOfObjectives());
     eArchive_      = new NonDominatedSolutionList(new EpsilonDominanceComparator(eta_));
     
     uniformMutation_ = (Mutation)operators_.get("uniformMutation") ;
@@ -22,6 +22,7 @@
 package jmetal.operators.crossover;
 
 import jmetal.core.Solution;
+import jmetal.core.SolutionPool;
 import jmetal.encodings.solutionType.PermutationSolutionType;
 import jmetal.encodings.variable.Permutation;
 import jmetal.util.Configuration;
@@ -37,6 +38,8 @@ import java.util.List;
  * solutions.
  * NOTE: the operator is applied to the first encodings.variable of the solutions, and
  * the type of those variables must be VariableType_.Permutation.
+ * If the parameter "pool" (a SolutionPool) is given, the offspring are
+ * copied into solutions taken from it.
  */
 public class PMXCrossover extends Crossover {
 
@@ -72,8 +75,9 @@ public class PMXCrossover extends Crossover {
 
     Solution[] offspring = new Solution[2];
 
-    offspring[0] = new Solution(parent1);
-    offspring[1] = new Solution(parent2);
+    SolutionPool pool = (SolutionPool) getParameter("pool");
+    offspring[0] = SolutionPool.copy(pool, parent1);
+    offspring[1] = SolutionPool.copy(pool, parent2);
 
     int permutationLength;
 
@@ -137,6 +141,9 @@ public class PMXCrossover extends Crossover {
         offspring1Vector[i] = n1;
         offspring2Vector[i] = n2;
       } // for
+
+      ((Permutation) offspring[0].getDecisionVariables()[0]).markModified(0, permutationLength - 1);
+      ((Permutation) offspring[1].getDecisionVariables()[0]).markModified(0, permutationLength - 1);
     } // if
 
     return offspring;
@@ -22,6 +22,7 @@
 package jmetal.operators.crossover;
 
 import jmetal.core.Solution;
+import jmetal.core.SolutionPool;
 import jmetal.encodings.solutionType.PermutationSolutionType;
 import jmetal.encodings.variable.Permutation;
 import jmetal.util.Configuration;
@@ -36,6 +37,8 @@ import java.util.List;
  * This class allows to apply a two points crossover operator using two parent
  * solutions. 
  * NOTE: the type of the solutions must be Permutation..
+ * If the parameter "pool" (a SolutionPool) is given, the offspring are
+ * copied into solutions taken from it.
  */
 public class TwoPointsCrossover extends Crossover {
 
@@ -82,8 +85,9 @@ public class TwoPointsCrossover extends Crossover {
 
 		Solution [] offspring = new Solution[2];
 
-		offspring[0] = new Solution(parent1);
-		offspring[1] = new Solution(parent2);
+		SolutionPool pool = (SolutionPool)getParameter("pool");
+		offspring[0] = SolutionPool.copy(pool, parent1);
+		offspring[1] = SolutionPool.copy(pool, parent2);
 
 		if (parent1.getType().getClass() == PermutationSolutionType.class) {
 				if (PseudoRandom.randDouble() < probability) {
@@ -115,18 +119,20 @@ public class TwoPointsCrossover extends Crossover {
 						crosspoint2 = swap          ;
 					} // if
 
+					// The values kept between the cutting points of each child are
+					// marked, so that the children are obtained in O(n)
+					boolean [] inSegment1 = new boolean[permutationLength] ;
+					boolean [] inSegment2 = new boolean[permutationLength] ;
+					for (int k = crosspoint1; k <= crosspoint2; k++) {
+						inSegment1[offspring1Vector[k]] = true ;
+						inSegment2[offspring2Vector[k]] = true ;
+					} // for
+
 					// STEP 2: Obtain the first child
 					int m = 0;
 					for(int j = 0; j < permutationLength; j++) {
-						boolean exist = false;
 						int temp = parent2Vector[j];
-						for(int k = crosspoint1; k <= crosspoint2; k++) {
-							if (temp == offspring1Vector[k]) {
-								exist = true;
-								break;
-							} // if
-						} // for
-						if (!exist) {
+						if (!inSegment1[temp]) {
 							if (m == crosspoint1)
 								m = crosspoint2 + 1;
 							offspring1Vector[m++] = temp;
@@ -136,20 +142,16 @@ public class TwoPointsCrossover extends Crossover {
 					// STEP 3: Obtain the second child
 					m = 0;
 					for(int j = 0; j < permutationLength; j++) {
-						boolean exist = false;
 						int temp = parent1Vector[j];
-						for(int k = crosspoint1; k <= crosspoint2; k++) {
-							if (temp == offspring2Vector[k]) {
-								exist = true;
-								break;
-							} // if
-						} // for
-						if(!exist) {
+						if(!inSegment2[temp]) {
 							if (m == crosspoint1)
 								m = crosspoint2 + 1;
 							offspring2Vector[m++] = temp;
 						} // if
 					} // for
+
+					((Permutation)offspring[0].getDecisionVariables()[0]).markModified(0, permutationLength - 1) ;
+					((Permutation)offspring[1].getDecisionVariables()[0]).markModified(0, permutationLength - 1) ;
 				} // if 
 			} // if
 			else
@@ -24,6 +24,7 @@ package jmetal.operators.localSearch;
 import jmetal.core.Operator;
 import jmetal.core.Problem;
 import jmetal.core.Solution;
+import jmetal.core.SolutionPool;
 import jmetal.core.SolutionSet;
 import jmetal.operators.mutation.Mutation;
 import jmetal.util.JMException;
@@ -66,9 +67,10 @@ public class MutationLocalSearch extends LocalSearch {
   private Operator mutationOperator_;
   
   /**
-   * Stores the number of evaluations_ carried out
+   * Stores the number of evaluations_ carried out by the last execution in
+   * each thread, so that the operator can be executed concurrently
    */
-  int evaluations_ ;  
+  private ThreadLocal<Integer> evaluations_ ;  
   
   /**
   * Constructor. 
@@ -85,7 +87,7 @@ public class MutationLocalSearch extends LocalSearch {
   	if (parameters.get("mutation") != null)
   	  mutationOperator_ = (Mutation) parameters.get("mutation") ;  		
 
-    evaluations_          = 0      ;
+    evaluations_          = new ThreadLocal<Integer>() ;
     archive_              = null;
     dominanceComparator_  = new DominanceComparator();
     constraintComparator_ = new OverallConstraintViolationComparator();
@@ -116,21 +118,40 @@ public class MutationLocalSearch extends LocalSearch {
  * @throws JMException 
    */
   public Object execute(Object object) throws JMException {
+    return improve((Solution)object, (SolutionSet)getParameter("archive"));
+  } // execute
+
+  /**
+   * Executes the local search, inserting the non-dominated solutions found
+   * in a given archive. The method can be called concurrently if the problem
+   * and the mutation operator are thread-safe and each thread uses its own
+   * archive; the number of evaluations is then returned by
+   * <code>getEvaluations</code> in the calling thread. If the parameter
+   * "pool" is given, the rejected candidates are returned to it, and the
+   * candidates are copied into solutions taken from it.
+   * @param solution The solution to improve
+   * @param archive The archive, or null
+   * @return The improved solution
+   * @throws JMException 
+   */
+  public Solution improve(Solution solution, SolutionSet archive) throws JMException {
     int i = 0;
     int best = 0;
-    evaluations_ = 0;        
-    Solution solution = (Solution)object;
+    int evaluations = 0;        
+    Solution original = solution;
+    SolutionPool pool = (SolutionPool)getParameter("pool");
 
     int rounds = improvementRounds_;
-    archive_ = (SolutionSet)getParameter("archive");
 
-    if (rounds <= 0)
-      return new Solution(solution);
+    if (rounds <= 0) {
+      evaluations_.set(0);
+      return SolutionPool.copy(pool, solution);
+    }
         
     do 
     {
       i++;
-      Solution mutatedSolution = new Solution(solution);
+      Solution mutatedSolution = SolutionPool.copy(pool, solution);
       mutationOperator_.execute(mutatedSolution);
             
       // Evaluate the getNumberOfConstraints
@@ -140,44 +161,47 @@ public class MutationLocalSearch extends LocalSearch {
         best = constraintComparator_.compare(mutatedSolution,solution);
         if (best == 0) //none of then is better that the other one
         {
-          problem_.evaluate(mutatedSolution);
-          evaluations_++;
+          evaluations += problem_.evaluateCharged(mutatedSolution);
           best = dominanceComparator_.compare(mutatedSolution,solution);
         } 
         else if (best == -1) //mutatedSolution is best
         {
-          problem_.evaluate(mutatedSolution);
-          evaluations_++;
+          evaluations += problem_.evaluateCharged(mutatedSolution);
         }
       }
       else
       {
-        problem_.evaluate(mutatedSolution);
-        evaluations_++;
+        evaluations += problem_.evaluateCharged(mutatedSolution);
         best = dominanceComparator_.compare(mutatedSolution,solution);
       }
-      if (best == -1) // This is: Mutated is best
+      if (best == -1) { // This is: Mutated is best
+        if (solution != original) // a previous candidate, referenced nowhere else
+          SolutionPool.release(pool, solution);
         solution = mutatedSolution;
+      }
       else if (best == 1) // This is: Original is best
-        //delete mutatedSolution
-        ;
+        SolutionPool.release(pool, mutatedSolution);
       else // This is mutatedSolution and original are non-dominated
       {
         //this.archive_.addIndividual(new Solution(solution));                
         //solution = mutatedSolution;
-        if (archive_ != null)
-          archive_.add(mutatedSolution);
+        if (archive != null)
+          archive.add(mutatedSolution);
       }                            
     }
     while (i < rounds);
-    return new Solution(solution);
-  } // execute
+    evaluations_.set(evaluations);
+    // The candidates are not referenced by other objects, so they need not
+    // be copied
+    return (solution == original) ? SolutionPool.copy(pool, solution) : solution;
+  } // improve
   
    
   /** 
    * Returns the number of evaluations maded
    */
   public int getEvaluations() {
-    return evaluations_;
+    Integer evaluations = evaluations_.get();
+    return (evaluations == null) ? 0 : evaluations;
   } // evaluations
 } // MutationLocalSearch
@@ -0,0 +1,170 @@
+//  RuleOrderSeeding.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.operators.seeding;
+
+import jmetal.core.Problem;
+import jmetal.core.RuleTable;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.encodings.variable.Permutation;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * This class builds orderings of SpamAssassin rules with greedy heuristics.
+ * The rules are sorted by decreasing score / cost^alpha, for a number of
+ * values of alpha evenly spaced in [0, 1]: alpha = 0 sorts the rules by
+ * score (few rules executed) and alpha = 1 by score per unit of cost (low
+ * time). The excluded rules are placed at the end. The first solutions are
+ * the constructed orderings, and the rest are perturbations of them obtained
+ * by swapping random positions near the beginning of the ordering.
+ *
+ * Parameters: "problem" (the problem, whose solution type must be
+ * Permutation), "ruleTable" (the rules), and optionally "numberOfWeights"
+ * (number of values of alpha, default 5), "perturbationSwaps" (default 5)
+ * and "perturbationWindow" (number of leading positions perturbed, default
+ * 100).
+ */
+public class RuleOrderSeeding extends Seeding {
+
+  private static final long serialVersionUID = 1L ;
+
+  private Problem problem_ ;
+  private RuleTable table_ ;
+  private int numberOfWeights_    = 5   ;
+  private int perturbationSwaps_  = 5   ;
+  private int perturbationWindow_ = 100 ;
+
+  /**
+   * Constructor
+   */
+  public RuleOrderSeeding(HashMap<String, Object> parameters) {
+    super(parameters) ;
+
+    problem_ = (Problem) parameters.get("problem") ;
+    table_   = (RuleTable) parameters.get("ruleTable") ;
+    if (parameters.get("numberOfWeights") != null)
+      numberOfWeights_ = (Integer) parameters.get("numberOfWeights") ;
+    if (parameters.get("perturbationSwaps") != null)
+      perturbationSwaps_ = (Integer) parameters.get("perturbationSwaps") ;
+    if (parameters.get("perturbationWindow") != null)
+      perturbationWindow_ = (Integer) parameters.get("perturbationWindow") ;
+  } // RuleOrderSeeding
+
+  /**
+   * Builds an ordering of the rules
+   * @param alpha Exponent of the cost in the sorting key
+   * @return The ordering
+   */
+  public int [] construct(double alpha) {
+    int size = table_.size() ;
+    final double [] key = new double[size] ;
+    Integer [] order = new Integer[size] ;
+    for (int i = 0; i < size; i++) {
+      order[i] = i ;
+      if (table_.isExcluded(i))
+        key[i] = Double.NEGATIVE_INFINITY ;
+      else {
+        double cost = table_.getCPU(i) + table_.getIO(i) ;
+        double score = table_.getScore(i) ;
+        key[i] = (cost > 0) ? score / Math.pow(cost, alpha) :
+                 (score > 0) ? Double.POSITIVE_INFINITY : score ;
+      }
+    } // for
+
+    Arrays.sort(order, new Comparator<Integer>() {
+      public int compare(Integer a, Integer b) {
+        return Double.compare(key[b], key[a]) ;
+      }
+    }) ;
+
+    int [] result = new int[size] ;
+    for (int i = 0; i < size; i++)
+      result[i] = order[i] ;
+    return result ;
+  } // construct
+
+  /**
+   * Copies an ordering of the rules into a permutation. The problem may order
+   * only the first rules of the table, so the rules out of the permutation
+   * are skipped; if the table has fewer rules than the permutation, the
+   * missing indexes are placed at the end in increasing order
+   * @param vector The permutation
+   * @param length The length of the permutation
+   * @param order The ordering of the rules
+   */
+  static void fill(int [] vector, int length, int [] order) {
+    boolean [] used = new boolean[length] ;
+    int n = 0 ;
+    for (int rule : order)
+      if ((rule < length) && !used[rule]) {
+        used[rule] = true ;
+        vector[n++] = rule ;
+      }
+    for (int index = 0; index < length; index++)
+      if (!used[index])
+        vector[n++] = index ;
+  } // fill
+
+  /**
+   * Executes the operation
+   * @param object The number of solutions to build (Integer)
+   * @return A SolutionSet with the solutions, not evaluated
+   * @throws JMException
+   */
+  public Object execute(Object object) throws JMException {
+    int numberOfSeeds = (Integer) object ;
+    if ((problem_ == null) || (table_ == null)) {
+      Configuration.logger_.severe("RuleOrderSeeding.execute: the problem " +
+          "and the rule table must be given as parameters") ;
+      Class<String> cls = java.lang.String.class;
+      String name = cls.getName();
+      throw new JMException("Exception in " + name + ".execute()") ;
+    }
+
+    int weights = Math.max(1, Math.min(numberOfWeights_, numberOfSeeds)) ;
+    int [][] constructed = new int[weights][] ;
+    for (int k = 0; k < weights; k++)
+      constructed[k] = construct((weights == 1) ? 0.0 : (double) k / (weights - 1)) ;
+
+    SolutionSet seeds = new SolutionSet(numberOfSeeds) ;
+    for (int i = 0; i < numberOfSeeds; i++) {
+      Solution solution ;
+      try {
+        solution = new Solution(problem_) ;
+      } catch (ClassNotFoundException e) {
+        throw new JMException("RuleOrderSeeding.execute: " + e) ;
+      }
+      Permutation permutation = (Permutation) solution.getDecisionVariables()[0] ;
+      int length = permutation.getLength() ;
+      fill(permutation.vector_, length, constructed[i % weights]) ;
+      permutation.markModified(0, length - 1) ;
+
+      if (i >= weights) {
+        int window = Math.min(perturbationWindow_, length) ;
+        for (int s = 0; s < perturbationSwaps_; s++)
+          permutation.swap(PseudoRandom.randInt(0, window - 1), PseudoRandom.randInt(0, window - 1)) ;
+      }
+      seeds.add(solution) ;
+    } // for
+    return seeds ;
+  } // execute
+} // RuleOrderSeeding
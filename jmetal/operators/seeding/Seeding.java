@@ -0,0 +1,36 @@
+//  Seeding.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+// 
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.operators.seeding;
+
+import jmetal.core.Operator;
+
+import java.util.HashMap;
+
+/**
+ * This class represents the super class of the seeding operators, which
+ * build solutions for the initial population of an algorithm. The
+ * <code>execute</code> method receives the number of solutions to build
+ * (<code>Integer</code>) and returns them, not evaluated, in a
+ * <code>SolutionSet</code>.
+ */
+public abstract class Seeding extends Operator {
+
+  private static final long serialVersionUID = 1L;
+
+  public Seeding(HashMap<String, Object> parameters) {
+    super(parameters);
+  }
+} // Seeding
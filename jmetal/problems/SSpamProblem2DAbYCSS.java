@@ -58,21 +58,44 @@ import jmetal.util.JMException;
 import java.sql.*;
 import java.text.*;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 import jmetal.core.ParseRules;
 import jmetal.core.SpamAssassinRules;
+import jmetal.problems.spam.CorpusHitMatrix;
+import jmetal.problems.spam.ITraceSink;
+import jmetal.problems.spam.PrefixCache;
+import jmetal.problems.spam.RuleOrderEvaluator;
+import jmetal.problems.spam.SpamSnapshot;
 
 /** 
- * Class representing problem SpamProblem
+ * Class representing problem SpamProblem. The evaluation is reentrant: the
+ * solutions can be evaluated concurrently (e.g., with a
+ * MultithreadedEvaluator), provided that a solution is not evaluated by two
+ * threads at the same time and that the trace sink, if any, is thread-safe.
  */
 public class SSpamProblem2DAbYCSS extends Problem {
 
-  int numberOfRules = 900;
-  int iteration = 1;
+  int numberOfRules;
+  AtomicLong iteration = new AtomicLong(1);
+  double scoreRequired = 50D;
   SpamAssassinRules rules;
+  RuleOrderEvaluator evaluator;
+  ITraceSink traceSink = null;
+  CorpusHitMatrix corpus = null;
+  PrefixCache cache = null;
   public SSpamProblem2DAbYCSS(String solutionType) throws ClassNotFoundException, IOException {
+    this(solutionType, new ParseRules().getRules());
+  } //Spam
 
-    ParseRules parse = new ParseRules();
-    this.rules = parse.getRules();
+  /**
+   * Constructor
+   * @param solutionType The solution type must "Permutation"
+   * @param rules The rules to order
+   */
+  public SSpamProblem2DAbYCSS(String solutionType, SpamAssassinRules rules) {
+    this.rules = rules;
+    this.evaluator = new RuleOrderEvaluator(this.rules, scoreRequired);
+    this.numberOfRules = rules.getSize();
     
     numberOfVariables_ = 1; // vbasto
     numberOfObjectives_ = 2;
@@ -91,6 +114,60 @@ public class SSpamProblem2DAbYCSS extends Problem {
 
   } //Spam
 
+  /**
+   * Constructor. The orderings are evaluated over a corpus of messages, read
+   * from mass-check logs or from a snapshot: the objectives are the mean time
+   * and the mean number of rules run per message
+   * @param solutionType The solution type must "Permutation"
+   * @param corpusFiles The mass-check logs, separated by commas, or a
+   * snapshot file (.bin) written by <code>SpamSnapshot</code>
+   */
+  public SSpamProblem2DAbYCSS(String solutionType, String corpusFiles) throws ClassNotFoundException, IOException {
+    this(solutionType);
+    this.corpus = SpamSnapshot.loadCorpus(this.rules.getTable(), CorpusHitMatrix.DEFAULT_THRESHOLD, corpusFiles);
+  } //Spam
+
+  /**
+   * Returns the rules to order
+   */
+  public SpamAssassinRules getRules() {
+    return this.rules ;
+  } // getRules
+
+  /**
+   * Sets the corpus used to evaluate the orderings. If the corpus is null
+   * (default), the rules are visited once until the required score is
+   * exceeded.
+   * @param corpus The corpus hit matrix
+   */
+  public void setCorpus(CorpusHitMatrix corpus) {
+    this.corpus = corpus ;
+  } // setCorpus
+
+  /**
+   * Sets the cache of evaluations; caching is off when the cache is null
+   * (default). The evaluations found in the cache are not charged to the
+   * budget of the algorithms using <code>evaluateCharged</code>.
+   * @param cache The cache
+   */
+  public void setEvaluationCache(PrefixCache cache) {
+    this.cache = cache ;
+  } // setEvaluationCache
+
+  public boolean hasEvaluationCache() {
+    return cache != null ;
+  } // hasEvaluationCache
+
+  /**
+   * Sets the sink receiving the traces of the evaluations; tracing is off
+   * when the sink is null (default). The text files with one line per visited
+   * rule (results/abycss/&lt;evaluation&gt;.txt) are obtained by decoding the
+   * file of a <code>RingBufferTraceSink</code> with <code>TraceDecoder</code>.
+   * @param sink The trace sink
+   */
+  public void setTraceSink(ITraceSink sink) {
+    traceSink = sink ;
+  } // setTraceSink
 
   /** 
    * Evaluates a solution 
@@ -98,41 +175,51 @@ public class SSpamProblem2DAbYCSS extends Problem {
    * @throws JMException 
    */        
   public void evaluate(Solution solution) throws JMException {
+    evaluateCharged(solution) ;
+  } // evaluate
 
-    double scoreRequired = 50D;
-    double totalScore = 0D;
-    double totalTime = 0D;
-    int executedRules = 0;
-    int x ;
-    try {
-      
-      PrintWriter writer = new PrintWriter(new FileOutputStream( new File("results/abycss/" + iteration + ".txt"), true));
-      
-      for (int i = 0; i < numberOfRules; i++) 
-      {
-        x = ((Permutation)solution.getDecisionVariables()[0]).vector_[i] ;
-        if ( this.rules.getRule(x).getScore() > 99 || this.rules.getRule(x).getScore() < -30 ) continue;
-        totalTime += this.rules.getRule(x).getCPU() + this.rules.getRule(x).getIO();
-        writer.println(i + 1 + " [" + x + "] " + this.rules.getRule(x).getName() + " has a score of " + this.rules.getRule(x).getScore());
-
-        totalScore += this.rules.getRule(x).getScore();
-        if (totalScore > scoreRequired)
-        {
-          executedRules = i + 1; 
-          break;
-        }
-      } // for
-
-      solution.setObjective(0, totalTime);      
-      solution.setObjective(1, executedRules);
-        writer.println("totalTime: " + totalTime + " | executedRules: " + executedRules + " | totalScore: " + totalScore + "\n");
-        writer.close();
-        iteration++;
-    } catch (Exception e) {
-      System.out.println("File not found." + e.toString());  
+  /** 
+   * Evaluates a solution, taking the objectives from the cache if possible
+   * @param solution The solution to evaluate
+   * @return 0 if the objectives are found in the cache, 1 otherwise
+   * @throws JMException 
+   */        
+  public int evaluateCharged(Solution solution) throws JMException {
+
+    double [] result = new double[3] ;
+    Permutation permutation = (Permutation)solution.getDecisionVariables()[0] ;
+    int charged = 1 ;
+
+    if ((cache != null) && cache.lookup(permutation.vector_, cutOff(permutation), result))
+      charged = 0 ;
+    else if (corpus != null) {
+      int scanned = corpus.evaluate(permutation.vector_, numberOfRules, result) ;
+      if (cache != null)
+        cache.store(permutation.vector_, scanned, result) ;
+    } else {
+      evaluator.evaluate(permutation, numberOfRules, result) ;
+      if (cache != null)
+        cache.store(permutation.vector_, (result[1] > 0) ? (int)result[1] : numberOfRules, result) ;
     }
 
-  } // evaluate
-} // Spam
-
+    solution.setObjective(0, result[0]);      
+    solution.setObjective(1, result[1]);
 
+    long evaluation = iteration.getAndIncrement();
+    if (traceSink != null) {
+      int scanned = ((corpus == null) && (result[1] > 0)) ? (int)result[1] : numberOfRules ;
+      traceSink.trace(evaluation, permutation.vector_, scanned, result[0], (int)result[1], result[2]) ;
+    }
+    return charged ;
+  } // evaluateCharged
+
+  /**
+   * Returns the number of positions of the ordering of a solution worth
+   * looking up in the cache: the cut-off known from the prefix sums attached
+   * to it, or the number of rules when it is evaluated against a corpus
+   * @param permutation The ordering of the rules
+   */
+  private int cutOff(Permutation permutation) {
+    return (corpus == null) ? evaluator.getCutOff(permutation, numberOfRules) : numberOfRules ;
+  } // cutOff
+} // Spam
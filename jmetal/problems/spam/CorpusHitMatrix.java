@@ -0,0 +1,287 @@
+package jmetal.problems.spam;
+
+import jmetal.core.RuleTable;
+import jmetal.util.Configuration;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class evaluates orderings of SpamAssassin rules against a corpus of
+ * messages. The corpus is given as the rules hit by each message, read from
+ * logs in the format of the SpamAssassin <code>mass-check</code> tool:
+ * <pre>
+ *   Y  12 /path/to/message  RULE_A,RULE_B,... [time=...]
+ * </pre>
+ * where the first field is "Y" for spam and "." for ham, and the list of
+ * rules may be prefixed by "tests=". Lines starting with '#' are ignored.
+ *
+ * The hits are stored as bitmaps: bit m of the bitmap of a rule is set if
+ * message m hits the rule. The bitmaps are packed in a single buffer in word
+ * major order (word w of rule x is at w * numberOfRules + x), so that the
+ * words of all the rules for a batch of 64 messages are contiguous. The
+ * buffer is on the heap when the matrix is read from the logs, and mapped
+ * from the file when it is read from a <code>SpamSnapshot</code>.
+ *
+ * A rule listed more than once in a line is counted once.
+ *
+ * Given an ordering, each message runs the rules in that order until its
+ * accumulated score reaches the threshold; the cost of a rule is charged to
+ * every message still running when the rule is reached. A message stops
+ * when its score is greater than or equal to the threshold, as SpamAssassin
+ * classifies it as spam; without a corpus, <code>RuleOrderEvaluator</code>
+ * stops when the score is strictly greater than the required score. The messages are
+ * processed 64 at a time: the messages still running in a batch are kept in
+ * a mask, and the score is only updated for the messages hitting the rule.
+ */
+public class CorpusHitMatrix {
+
+  /**
+   * Default score a message has to reach to be classified as spam
+   */
+  public static final double DEFAULT_THRESHOLD = 5.0 ;
+
+  private RuleTable table_ ;
+  private int numberOfRules_ ;
+  private int numberOfMessages_ ;
+  private int numberOfWords_ ;
+
+  /**
+   * Stores the bitmaps of hits, in word major order
+   */
+  private LongBuffer hits_ ;
+
+  /**
+   * Bitmap of the messages labelled as spam in the logs
+   */
+  private LongBuffer spam_ ;
+
+  /**
+   * Stores the score a message has to reach to stop running rules
+   */
+  private double threshold_ ;
+
+  /**
+   * Stores the number of hits of rules not found in the rule table
+   */
+  private long unknownHits_ ;
+
+  /**
+   * Constructor
+   * @param table The rules
+   * @param threshold Score a message has to reach to stop running rules
+   * @param logFiles The mass-check logs
+   * @throws IOException
+   */
+  public CorpusHitMatrix(RuleTable table, double threshold, String ... logFiles) throws IOException {
+    table_         = table ;
+    numberOfRules_ = table.size() ;
+    threshold_     = threshold ;
+    unknownHits_   = 0 ;
+
+    HashMap<String, Integer> index = new HashMap<String, Integer>() ;
+    for (int i = 0; i < numberOfRules_; i++)
+      index.put(table.getName(i), i) ;
+
+    ArrayList<int []> messages = new ArrayList<int []>() ;
+    ArrayList<Boolean> labels = new ArrayList<Boolean>() ;
+    for (String logFile : logFiles)
+      read(logFile, index, messages, labels) ;
+
+    numberOfMessages_ = messages.size() ;
+    numberOfWords_    = (numberOfMessages_ + 63) >>> 6 ;
+    if ((long) numberOfWords_ * numberOfRules_ > Integer.MAX_VALUE - 8) {
+      Configuration.logger_.severe("CorpusHitMatrix: " + numberOfMessages_ + " messages and " +
+                                   numberOfRules_ + " rules do not fit in a hit matrix") ;
+      throw new IOException("CorpusHitMatrix: corpus too large") ;
+    }
+    long [] hits = new long[numberOfWords_ * numberOfRules_] ;
+    long [] spam = new long[numberOfWords_] ;
+    for (int m = 0; m < numberOfMessages_; m++) {
+      int base = (m >>> 6) * numberOfRules_ ;
+      for (int rule : messages.get(m))
+        hits[base + rule] |= 1L << m ;
+      if (labels.get(m))
+        spam[m >>> 6] |= 1L << m ;
+    } // for
+    hits_ = LongBuffer.wrap(hits) ;
+    spam_ = LongBuffer.wrap(spam) ;
+
+    if (unknownHits_ > 0)
+      Configuration.logger_.warning("CorpusHitMatrix: " + unknownHits_ +
+                                    " hits of unknown rules ignored") ;
+  } // CorpusHitMatrix
+
+  /**
+   * Constructor used by <code>SpamSnapshot</code>
+   * @param table The rules
+   * @param threshold Score a message has to reach to stop running rules
+   * @param numberOfMessages The number of messages
+   * @param spam The labels of the messages
+   * @param hits The bitmaps of hits, in word major order
+   */
+  CorpusHitMatrix(RuleTable table, double threshold, int numberOfMessages, LongBuffer spam, LongBuffer hits) {
+    table_            = table ;
+    numberOfRules_    = table.size() ;
+    threshold_        = threshold ;
+    numberOfMessages_ = numberOfMessages ;
+    numberOfWords_    = (numberOfMessages + 63) >>> 6 ;
+    spam_             = spam ;
+    hits_             = hits ;
+    unknownHits_      = 0 ;
+  } // CorpusHitMatrix
+
+  /**
+   * Reads a mass-check log
+   */
+  private void read(String logFile, HashMap<String, Integer> index,
+                    ArrayList<int []> messages, ArrayList<Boolean> labels) throws IOException {
+    BufferedReader in = new BufferedReader(new FileReader(logFile)) ;
+    try {
+      String line ;
+      int [] rules = new int[numberOfRules_] ;
+      boolean [] seen = new boolean[numberOfRules_] ;
+      while ((line = in.readLine()) != null) {
+        line = line.trim() ;
+        if ((line.length() == 0) || (line.charAt(0) == '#'))
+          continue ;
+
+        String [] fields = line.split("\\s+") ;
+        if ((fields.length < 3) || (!fields[0].equals("Y") && !fields[0].equals(".")))
+          throw new IOException("CorpusHitMatrix: invalid line in " + logFile + ": " + line) ;
+
+        int count = 0 ;
+        if (fields.length > 3) {
+          String tests = fields[3] ;
+          if (tests.startsWith("tests="))
+            tests = tests.substring(6) ;
+          for (String name : tests.split(",")) {
+            if (name.length() == 0)
+              continue ;
+            Integer rule = index.get(name) ;
+            if (rule == null)
+              unknownHits_++ ;
+            else if (!seen[rule]) {
+              seen[rule] = true ;
+              rules[count++] = rule ;
+            }
+          } // for
+        } // if
+        for (int i = 0; i < count; i++)
+          seen[rules[i]] = false ;
+        messages.add(Arrays.copyOf(rules, count)) ;
+        labels.add(fields[0].equals("Y")) ;
+      } // while
+    } finally {
+      in.close() ;
+    }
+  } // read
+
+  /**
+   * Evaluates an ordering of the rules over the corpus
+   * @param order The order of the rules
+   * @param length Number of positions of the order to take into account
+   * @param result Array receiving the mean time per message, the mean number
+   * of rules run per message and the fraction of messages reaching the
+   * threshold, in this order
+   * @return The number of positions scanned by at least one message
+   */
+  public int evaluate(int [] order, int length, double [] result) {
+    double [] score = table_.getEffectiveScores() ;
+    double [] cost  = table_.getEffectiveCosts() ;
+    double [] accumulated = new double[64] ;
+    double totalTime  = 0.0 ;
+    long executed     = 0 ;
+    long reached      = 0 ;
+    int scanned       = 0 ;
+
+    for (int w = 0; w < numberOfWords_; w++) {
+      int base = w * numberOfRules_ ;
+      long messages = (w == numberOfWords_ - 1) ? lastWordMask() : -1L ;
+      long active = messages ;
+      Arrays.fill(accumulated, 0.0) ;
+
+      int i ;
+      for (i = 0; (i < length) && (active != 0); i++) {
+        int x = order[i] ;
+        if (table_.isExcluded(x))
+          continue ;
+
+        int running = Long.bitCount(active) ;
+        totalTime += running * cost[x] ;
+        executed  += running ;
+
+        long hit = hits_.get(base + x) & active ;
+        while (hit != 0) {
+          int m = Long.numberOfTrailingZeros(hit) ;
+          hit &= hit - 1 ;
+          accumulated[m] += score[x] ;
+          if (accumulated[m] >= threshold_)
+            active &= ~(1L << m) ;
+        } // while
+      } // for
+      reached += Long.bitCount(messages & ~active) ;
+      scanned  = Math.max(scanned, i) ;
+    } // for
+
+    int n = Math.max(numberOfMessages_, 1) ;
+    result[0] = totalTime / n ;
+    result[1] = (double) executed / n ;
+    result[2] = (double) reached / n ;
+    return scanned ;
+  } // evaluate
+
+  /**
+   * Returns the mask of the valid messages in the last word
+   */
+  private long lastWordMask() {
+    int remainder = numberOfMessages_ & 63 ;
+    return (remainder == 0) ? -1L : (1L << remainder) - 1 ;
+  } // lastWordMask
+
+  /**
+   * Returns true if a message hits a rule
+   * @param message The index of the message
+   * @param rule The index of the rule
+   */
+  public boolean hits(int message, int rule) {
+    return (hits_.get((message >>> 6) * numberOfRules_ + rule) & (1L << message)) != 0 ;
+  } // hits
+
+  /**
+   * Returns true if a message is labelled as spam in the logs
+   * @param message The index of the message
+   */
+  public boolean isSpam(int message) {
+    return (spam_.get(message >>> 6) & (1L << message)) != 0 ;
+  } // isSpam
+
+  public int getNumberOfMessages() {
+    return numberOfMessages_ ;
+  } // getNumberOfMessages
+
+  public double getThreshold() {
+    return threshold_ ;
+  } // getThreshold
+
+  /**
+   * Returns the bitmaps of hits, in word major order. Only absolute reads
+   * may be done on the buffer, which is shared.
+   */
+  LongBuffer getHitWords() {
+    return hits_ ;
+  } // getHitWords
+
+  /**
+   * Returns the bitmap of the messages labelled as spam. Only absolute
+   * reads may be done on the buffer, which is shared.
+   */
+  LongBuffer getSpamWords() {
+    return spam_ ;
+  } // getSpamWords
+} // CorpusHitMatrix
@@ -0,0 +1,13 @@
+package jmetal.problems.spam;
+
+/**
+ * Interface representing destinations for the traces of the evaluations of
+ * rule orderings. A trace contains the rules visited by an evaluation and its
+ * results; implementations must not keep a reference to the order array,
+ * and must be thread-safe, as the problems may be evaluated concurrently.
+ */
+public interface ITraceSink {
+	public void trace(long evaluation, int [] order, int scanned,
+	                  double totalTime, int executedRules, double totalScore) ;
+	public void close() ;
+}
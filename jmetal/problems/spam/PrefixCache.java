@@ -0,0 +1,206 @@
+package jmetal.problems.spam;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of evaluations of rule orderings. The evaluation of an ordering only
+ * depends on its effective prefix: the positions scanned until the required
+ * score is exceeded (or until every message of the corpus has stopped). The
+ * cache stores the results of the evaluations keyed by a hash of their
+ * effective prefix, together with a copy of the prefix to verify the hits.
+ * An ordering hits the cache if it starts with a stored prefix.
+ *
+ * The entries are evicted in least recently used order when their estimated
+ * size exceeds the memory budget. The cache can be shared by concurrent
+ * evaluations: the prefixes are hashed outside its monitor, which only
+ * guards the probes and updates of the map. The lookups only walk the
+ * positions up to the cut-off given by the caller, so a long prefix stored
+ * does not slow down the lookup of orderings stopping earlier.
+ */
+public class PrefixCache {
+
+  /**
+   * Estimated size in bytes of an entry, besides its prefix
+   */
+  private static final long ENTRY_OVERHEAD = 128 ;
+
+  static class Entry {
+    int [] prefix ;
+    double [] result ;
+
+    Entry(int [] prefix, double [] result) {
+      this.prefix = prefix ;
+      this.result = result ;
+    } // Entry
+
+    long size() {
+      return ENTRY_OVERHEAD + 4L * prefix.length + 8L * result.length ;
+    } // size
+  } // Entry
+
+  private LinkedHashMap<Long, Entry> entries_ ;
+
+  /**
+   * Stores the number of entries of each prefix length, so that only the
+   * lengths present in the cache are looked up
+   */
+  private int [] entriesOfLength_ ;
+  private volatile int maxLength_ ;
+
+  private long maxBytes_ ;
+  private long bytes_ ;
+
+  private long hits_ ;
+  private long misses_ ;
+
+  /**
+   * Constructor
+   * @param maxBytes Memory budget of the cache, in bytes
+   */
+  public PrefixCache(long maxBytes) {
+    entries_         = new LinkedHashMap<Long, Entry>(1024, 0.75f, true) ;
+    entriesOfLength_ = new int[64] ;
+    maxLength_       = 0 ;
+    maxBytes_        = maxBytes ;
+    bytes_           = 0 ;
+    hits_            = 0 ;
+    misses_          = 0 ;
+  } // PrefixCache
+
+  /**
+   * Looks for the evaluation of an ordering
+   * @param order The order of the rules
+   * @param length Number of positions of the order to take into account;
+   * only the stored prefixes not longer than it are found, so the cut-off of
+   * the ordering, when known, bounds the work of the lookup
+   * @param result Array receiving the results stored, if found
+   * @return true if the evaluation is found
+   */
+  public boolean lookup(int [] order, int length, double [] result) {
+    int last = Math.min(length, maxLength_) ;
+    long [] hashes = new long[last] ;
+    long hash = 0 ;
+    for (int i = 0; i < last; i++) {
+      hash = next(hash, order[i]) ;
+      hashes[i] = hash ;
+    } // for
+
+    synchronized (this) {
+      for (int i = 0; i < last; i++) {
+        if (entriesOfLength_[i + 1] == 0)
+          continue ;
+
+        Entry entry = entries_.get(key(hashes[i], i + 1)) ;
+        if ((entry != null) && matches(entry.prefix, order)) {
+          System.arraycopy(entry.result, 0, result, 0, entry.result.length) ;
+          hits_++ ;
+          return true ;
+        }
+      } // for
+      misses_++ ;
+    } // synchronized
+    return false ;
+  } // lookup
+
+  /**
+   * Stores the evaluation of an ordering
+   * @param order The order of the rules
+   * @param prefixLength Length of the effective prefix of the order
+   * @param result The results of the evaluation
+   */
+  public void store(int [] order, int prefixLength, double [] result) {
+    long hash = 0 ;
+    for (int i = 0; i < prefixLength; i++)
+      hash = next(hash, order[i]) ;
+
+    Entry entry = new Entry(Arrays.copyOf(order, prefixLength), result.clone()) ;
+    if (entry.size() > maxBytes_)
+      return ;
+
+    synchronized (this) {
+      add(key(hash, prefixLength), entry) ;
+    }
+  } // store
+
+  /**
+   * Adds an entry to the map, evicting the least recently used entries if
+   * the memory budget is exceeded
+   */
+  private void add(long key, Entry entry) {
+    int prefixLength = entry.prefix.length ;
+    Entry previous = entries_.put(key, entry) ;
+    if (previous != null)
+      remove(previous) ;
+
+    if (prefixLength >= entriesOfLength_.length)
+      entriesOfLength_ = Arrays.copyOf(entriesOfLength_, Math.max(prefixLength + 1, 2 * entriesOfLength_.length)) ;
+    entriesOfLength_[prefixLength]++ ;
+    maxLength_ = Math.max(maxLength_, prefixLength) ;
+    bytes_ += entry.size() ;
+
+    Iterator<Map.Entry<Long, Entry>> iterator = entries_.entrySet().iterator() ;
+    while (bytes_ > maxBytes_) {
+      Entry eldest = iterator.next().getValue() ;
+      iterator.remove() ;
+      remove(eldest) ;
+    } // while
+  } // add
+
+  /**
+   * Updates the accounting of the cache when an entry is removed
+   */
+  private void remove(Entry entry) {
+    entriesOfLength_[entry.prefix.length]-- ;
+    bytes_ -= entry.size() ;
+  } // remove
+
+  private static long next(long hash, int value) {
+    return hash * 0x100000001B3L + value + 1 ;
+  } // next
+
+  private static long key(long hash, int length) {
+    return hash ^ (length * 0x9E3779B97F4A7C15L) ;
+  } // key
+
+  private static boolean matches(int [] prefix, int [] order) {
+    for (int i = 0; i < prefix.length; i++)
+      if (prefix[i] != order[i])
+        return false ;
+    return true ;
+  } // matches
+
+  public synchronized long getHits() {
+    return hits_ ;
+  } // getHits
+
+  public synchronized long getMisses() {
+    return misses_ ;
+  } // getMisses
+
+  /**
+   * Returns the fraction of lookups found in the cache
+   */
+  public synchronized double getHitRate() {
+    long lookups = hits_ + misses_ ;
+    return (lookups == 0) ? 0.0 : (double) hits_ / lookups ;
+  } // getHitRate
+
+  public synchronized int size() {
+    return entries_.size() ;
+  } // size
+
+  /**
+   * Returns the estimated size of the entries, in bytes
+   */
+  public synchronized long getBytes() {
+    return bytes_ ;
+  } // getBytes
+
+  public synchronized String toString() {
+    return "PrefixCache: " + entries_.size() + " entries, " + bytes_ + " bytes, " +
+           hits_ + " hits, " + misses_ + " misses (hit rate " + getHitRate() + ")" ;
+  } // toString
+} // PrefixCache
@@ -0,0 +1,163 @@
+package jmetal.problems.spam;
+
+import jmetal.core.RuleTable;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.encodings.variable.Permutation;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * This class writes a rule ordering as a SpamAssassin configuration file
+ * that can be loaded by the filters. SpamAssassin runs the rules by
+ * ascending priority, so the rule at position i of the ordering gets
+ * priority <code>basePriority + i</code>. The rules excluded from the
+ * optimization (score above 99 or below -30) decide the result of the scan
+ * on their own: they get the lowest priorities, and are marked as
+ * short-circuit rules ("spam" or "ham") for the Shortcircuit plugin.
+ *
+ * A solution of the archive can be chosen with <code>kneePoint</code>.
+ */
+public class PriorityExporter {
+
+  private RuleTable table_ ;
+
+  /**
+   * Constructor
+   * @param table The rules ordered by the solutions
+   */
+  public PriorityExporter(RuleTable table) {
+    table_ = table ;
+  } // PriorityExporter
+
+  /**
+   * Returns the index of the knee point of a front: the solution with the
+   * largest distance to the line joining the extreme solutions, once the
+   * objectives are normalized. For fronts of more than two objectives, or
+   * fronts with less than three solutions, the solution with the lowest sum
+   * of normalized objectives is returned.
+   * @param front The front
+   * @return The index of the knee solution, or -1 if the front is empty
+   */
+  public static int kneePoint(SolutionSet front) {
+    if (front.size() == 0)
+      return -1 ;
+
+    int objectives = front.get(0).getNumberOfObjectives() ;
+    double [] min = new double[objectives] ;
+    double [] max = new double[objectives] ;
+    for (int j = 0; j < objectives; j++) {
+      min[j] = Double.POSITIVE_INFINITY ;
+      max[j] = Double.NEGATIVE_INFINITY ;
+      for (int i = 0; i < front.size(); i++) {
+        min[j] = Math.min(min[j], front.get(i).getObjective(j)) ;
+        max[j] = Math.max(max[j], front.get(i).getObjective(j)) ;
+      }
+    } // for
+
+    double [][] point = new double[front.size()][objectives] ;
+    for (int i = 0; i < front.size(); i++)
+      for (int j = 0; j < objectives; j++)
+        point[i][j] = (max[j] > min[j]) ?
+                      (front.get(i).getObjective(j) - min[j]) / (max[j] - min[j]) : 0.0 ;
+
+    int best = 0 ;
+    if ((objectives == 2) && (front.size() > 2)) {
+      // Extremes: the best solution for each objective
+      int first = 0 ;
+      int second = 0 ;
+      for (int i = 1; i < front.size(); i++) {
+        if (point[i][0] < point[first][0])
+          first = i ;
+        if (point[i][1] < point[second][1])
+          second = i ;
+      }
+      double dx = point[second][0] - point[first][0] ;
+      double dy = point[second][1] - point[first][1] ;
+      double norm = Math.sqrt(dx * dx + dy * dy) ;
+
+      double bestDistance = Double.NEGATIVE_INFINITY ;
+      for (int i = 0; i < front.size(); i++) {
+        // Signed distance, positive below the line (towards the ideal point)
+        double distance = (norm > 0) ?
+            (dx * (point[i][1] - point[first][1]) - dy * (point[i][0] - point[first][0])) / -norm : 0.0 ;
+        if (distance > bestDistance) {
+          bestDistance = distance ;
+          best = i ;
+        }
+      } // for
+    } else {
+      double bestSum = Double.POSITIVE_INFINITY ;
+      for (int i = 0; i < front.size(); i++) {
+        double sum = 0.0 ;
+        for (int j = 0; j < objectives; j++)
+          sum += point[i][j] ;
+        if (sum < bestSum) {
+          bestSum = sum ;
+          best = i ;
+        }
+      } // for
+    } // else
+    return best ;
+  } // kneePoint
+
+  /**
+   * Writes the configuration of a solution
+   * @param path The configuration file
+   * @param solution The solution; its first variable must be a Permutation
+   * @param basePriority Priority of the first rule of the ordering
+   * @throws IOException
+   */
+  public void write(String path, Solution solution, int basePriority) throws IOException {
+    int [] order = ((Permutation) solution.getDecisionVariables()[0]).vector_ ;
+    PrintWriter writer = new PrintWriter(path) ;
+    try {
+      writer.print("# Rule ordering exported by jmetal.problems.spam.PriorityExporter; objectives:") ;
+      for (int j = 0; j < solution.getNumberOfObjectives(); j++)
+        writer.print(" " + solution.getObjective(j)) ;
+      writer.println() ;
+
+      int excluded = 0 ;
+      for (int x : order)
+        if (table_.isExcluded(x))
+          excluded++ ;
+
+      int priority = basePriority - excluded ;
+      for (int x : order)
+        if (table_.isExcluded(x))
+          writer.println("priority " + table_.getName(x) + " " + priority++) ;
+      for (int x : order)
+        if (!table_.isExcluded(x))
+          writer.println("priority " + table_.getName(x) + " " + priority++) ;
+
+      if (excluded > 0) {
+        writer.println() ;
+        writer.println("ifplugin Mail::SpamAssassin::Plugin::Shortcircuit") ;
+        for (int x : order)
+          if (table_.isExcluded(x))
+            writer.println("shortcircuit " + table_.getName(x) + " " +
+                           ((table_.getScore(x) > 0) ? "spam" : "ham")) ;
+        writer.println("endif") ;
+      }
+    } finally {
+      writer.close() ;
+    }
+  } // write
+
+  /**
+   * Writes the configuration of the knee point of a front
+   * @param path The configuration file
+   * @param front The front, e.g., the archive returned by AbYCSS
+   * @param basePriority Priority of the first rule of the ordering
+   * @return The solution written, or null if the front is empty
+   * @throws IOException
+   */
+  public Solution writeKneePoint(String path, SolutionSet front, int basePriority) throws IOException {
+    int knee = kneePoint(front) ;
+    if (knee < 0)
+      return null ;
+    write(path, front.get(knee), basePriority) ;
+    return front.get(knee) ;
+  } // writeKneePoint
+} // PriorityExporter
@@ -0,0 +1,239 @@
+package jmetal.problems.spam;
+
+import jmetal.util.Configuration;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Trace sink storing the traces as compact binary records in a bounded ring
+ * buffer. A background thread drains the buffer into a file through a single
+ * buffered channel, so the evaluations never wait for the disk unless the
+ * buffer is full. The writer is only woken when the buffer is half full, or
+ * every <code>FLUSH_INTERVAL</code> milliseconds, so the records are written
+ * in batches and the evaluations do not switch to the writer at each trace. When the buffer is full the records are either dropped
+ * (and counted) or the evaluation waits for the writer, depending on the
+ * configuration. The files can be converted to the text format with
+ * <code>TraceDecoder</code>.
+ *
+ * File format (big endian): the magic number and the version, followed by
+ * one record per trace: evaluation (long), total time (double), executed
+ * rules (int), total score (double), number of scanned positions n (int) and
+ * the n rules visited (int).
+ */
+public class RingBufferTraceSink implements ITraceSink {
+
+  /**
+   * Identifies the trace files
+   */
+  public static final int MAGIC   = 0x41425452 ; // "ABTR"
+  public static final int VERSION = 1 ;
+
+  /**
+   * Size in bytes of the fixed part of a record
+   */
+  static final int HEADER_SIZE = 8 + 8 + 4 + 8 + 4 ;
+
+  /**
+   * Maximum time in milliseconds a record stays in the buffer while it is
+   * less than half full
+   */
+  static final long FLUSH_INTERVAL = 100 ;
+
+  /**
+   * Stores the ring buffer; <code>written_</code> and <code>read_</code> are
+   * the number of bytes written to and read from it since its creation
+   */
+  private final byte [] buffer_ ;
+  private long written_ ;
+  private long read_ ;
+
+  /**
+   * Stores whether records are dropped when the buffer is full
+   */
+  private final boolean dropWhenFull_ ;
+
+  /**
+   * Stores the number of records dropped
+   */
+  private long dropped_ ;
+
+  /**
+   * Stores the number of evaluations waiting for room in the buffer
+   */
+  private int waiting_ ;
+
+  private boolean closed_ ;
+
+  private final FileChannel channel_ ;
+  private final Thread writer_ ;
+
+  /**
+   * Buffer used to encode the records of each thread before copying them to
+   * the ring buffer
+   */
+  private final ThreadLocal<ByteBuffer> record_ = new ThreadLocal<ByteBuffer>() ;
+
+  /**
+   * Constructor
+   * @param path Name of the trace file
+   * @param capacity Size in bytes of the ring buffer
+   * @param dropWhenFull If true, records not fitting in the buffer are
+   * dropped; otherwise, the evaluation waits until there is room for them
+   * @throws IOException
+   */
+  public RingBufferTraceSink(String path, int capacity, boolean dropWhenFull) throws IOException {
+    buffer_       = new byte[capacity] ;
+    written_      = 0 ;
+    read_         = 0 ;
+    dropWhenFull_ = dropWhenFull ;
+    dropped_      = 0 ;
+    waiting_      = 0 ;
+    closed_       = false ;
+
+    channel_ = new FileOutputStream(path).getChannel() ;
+    ByteBuffer header = ByteBuffer.allocate(8) ;
+    header.putInt(MAGIC).putInt(VERSION).flip() ;
+    while (header.hasRemaining())
+      channel_.write(header) ;
+
+    writer_ = new Thread(new Runnable() {
+      public void run() {
+        drain() ;
+      }
+    }, "RingBufferTraceSink") ;
+    writer_.setDaemon(true) ;
+    writer_.start() ;
+  } // RingBufferTraceSink
+
+  public void trace(long evaluation, int [] order, int scanned,
+                    double totalTime, int executedRules, double totalScore) {
+    int size = HEADER_SIZE + 4 * scanned ;
+    ByteBuffer record = record_.get() ;
+    if ((record == null) || (record.capacity() < size)) {
+      record = ByteBuffer.allocate(Math.max(size, 1024)) ;
+      record_.set(record) ;
+    }
+    record.clear() ;
+    record.putLong(evaluation).putDouble(totalTime).putInt(executedRules)
+          .putDouble(totalScore).putInt(scanned) ;
+    for (int i = 0; i < scanned; i++)
+      record.putInt(order[i]) ;
+
+    synchronized (this) {
+      if (closed_ || (size > buffer_.length)) {
+        dropped_++ ;
+        return ;
+      }
+      while (buffer_.length - (written_ - read_) < size) {
+        if (dropWhenFull_) {
+          dropped_++ ;
+          return ;
+        }
+        if (waiting_++ == 0)
+          notifyAll() ;
+        try {
+          wait() ;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt() ;
+          dropped_++ ;
+          return ;
+        } finally {
+          waiting_-- ;
+        }
+      } // while
+
+      int start = (int) (written_ % buffer_.length) ;
+      int first = Math.min(size, buffer_.length - start) ;
+      System.arraycopy(record.array(), 0, buffer_, start, first) ;
+      System.arraycopy(record.array(), first, buffer_, 0, size - first) ;
+      written_ += size ;
+      if (written_ - read_ >= buffer_.length / 2)
+        notifyAll() ;
+    } // synchronized
+  } // trace
+
+  /**
+   * Body of the writer thread: copies the contents of the ring buffer to the
+   * file until the sink is closed and the buffer is empty
+   */
+  private void drain() {
+    ByteBuffer output = ByteBuffer.allocateDirect(1 << 20) ;
+    try {
+      while (true) {
+        synchronized (this) {
+          long deadline = System.currentTimeMillis() + FLUSH_INTERVAL ;
+          long remaining = FLUSH_INTERVAL ;
+          while ((written_ - read_ < buffer_.length / 2) && (waiting_ == 0) && !closed_ && (remaining > 0)) {
+            wait(remaining) ;
+            remaining = deadline - System.currentTimeMillis() ;
+          }
+          if ((written_ == read_) && closed_)
+            break ;
+          if (written_ == read_)
+            continue ;
+
+          int available = (int) Math.min(written_ - read_, output.capacity()) ;
+          int start = (int) (read_ % buffer_.length) ;
+          int first = Math.min(available, buffer_.length - start) ;
+          output.clear() ;
+          output.put(buffer_, start, first) ;
+          output.put(buffer_, 0, available - first) ;
+          read_ += available ;
+          notifyAll() ;
+        } // synchronized
+
+        output.flip() ;
+        while (output.hasRemaining())
+          channel_.write(output) ;
+      } // while
+    } catch (InterruptedException e) {
+      Configuration.logger_.severe("RingBufferTraceSink: writer interrupted") ;
+      discard() ;
+    } catch (IOException e) {
+      Configuration.logger_.severe("RingBufferTraceSink: error writing the trace: " + e) ;
+      discard() ;
+    } finally {
+      try {
+        channel_.close() ;
+      } catch (IOException e) {
+        Configuration.logger_.severe("RingBufferTraceSink: error closing the trace: " + e) ;
+      }
+    }
+  } // drain
+
+  /**
+   * Stops accepting records and discards the pending ones, when the writer
+   * thread stops before the sink is closed, so that the evaluations waiting
+   * for room in the buffer go on
+   */
+  private synchronized void discard() {
+    closed_ = true ;
+    read_   = written_ ;
+    notifyAll() ;
+  } // discard
+
+  /**
+   * Writes the pending records and closes the trace file
+   */
+  public void close() {
+    synchronized (this) {
+      closed_ = true ;
+      notifyAll() ;
+    }
+    try {
+      writer_.join() ;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+    }
+  } // close
+
+  /**
+   * Returns the number of records dropped because the buffer was full
+   */
+  public synchronized long getDroppedRecords() {
+    return dropped_ ;
+  } // getDroppedRecords
+} // RingBufferTraceSink
@@ -0,0 +1,335 @@
+package jmetal.problems.spam;
+
+import jmetal.util.Configuration;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * This class measures the cost of the SpamAssassin rules defined with a
+ * regular expression (header, body, rawbody, full and uri rules). The
+ * patterns are translated to <code>java.util.regex</code> and run over a
+ * corpus of messages (one message per file): after some warm-up rounds over
+ * the whole corpus, each rule is timed on every message during a number of
+ * measured rounds, and the mean and the 99th percentile of the time per
+ * message are written in a cost file, with a line per rule:
+ * <pre>
+ *   cost RULE_NAME mean_ns p99_ns
+ * </pre>
+ * The cost file is read by <code>SpamAssassinRules</code>. The rules that
+ * cannot be measured (eval and meta rules, or patterns that Java does not
+ * support) are not written.
+ * Usage: jmetal.problems.spam.RuleCostProfiler ruleDefinitions corpusDirectory costFile [warmupRounds measuredRounds]
+ */
+public class RuleCostProfiler {
+
+  /**
+   * A rule with its pattern and the part of the message it is matched on
+   */
+  static class ProfiledRule {
+    String name ;
+    String target ;  // header name, or "body", "rawbody", "full", "uri"
+    Pattern pattern ;
+
+    ProfiledRule(String name, String target, Pattern pattern) {
+      this.name    = name ;
+      this.target  = target ;
+      this.pattern = pattern ;
+    } // ProfiledRule
+  } // ProfiledRule
+
+  /**
+   * A message split in the parts the rules are matched on
+   */
+  static class Message {
+    String full ;
+    String body ;
+    HashMap<String, String> headers ;
+
+    Message(String text) {
+      full = text ;
+      int end = text.indexOf("\n\n") ;
+      String header = (end < 0) ? text : text.substring(0, end) ;
+      body = (end < 0) ? "" : text.substring(end + 2) ;
+
+      headers = new HashMap<String, String>() ;
+      headers.put("all", header) ;
+      String name = null ;
+      StringBuilder value = new StringBuilder() ;
+      for (String line : header.split("\n")) {
+        if ((line.length() > 0) && Character.isWhitespace(line.charAt(0)) && (name != null)) {
+          value.append(line) ; // folded line
+          continue ;
+        }
+        if (name != null)
+          add(name, value.toString()) ;
+        int colon = line.indexOf(':') ;
+        name = (colon > 0) ? line.substring(0, colon).trim().toLowerCase() : null ;
+        value.setLength(0) ;
+        if (name != null)
+          value.append(line.substring(colon + 1).trim()) ;
+      } // for
+      if (name != null)
+        add(name, value.toString()) ;
+    } // Message
+
+    private void add(String name, String value) {
+      String previous = headers.get(name) ;
+      headers.put(name, (previous == null) ? value : previous + "\n" + value) ;
+    } // add
+
+    String get(String target) {
+      if (target.equals("body") || target.equals("rawbody") || target.equals("uri"))
+        return body ;
+      if (target.equals("full"))
+        return full ;
+      String value = headers.get(target) ;
+      return (value == null) ? "" : value ;
+    } // get
+  } // Message
+
+  private ArrayList<ProfiledRule> rules_ ;
+  private ArrayList<Message> messages_ ;
+
+  /**
+   * Prevents the JIT compiler from discarding the matches
+   */
+  private int sink_ ;
+
+  /**
+   * Constructor
+   * @param definitions File with the rule definitions
+   * @param corpusDirectory Directory with a file per message
+   * @throws IOException
+   */
+  public RuleCostProfiler(String definitions, String corpusDirectory) throws IOException {
+    rules_    = readDefinitions(definitions) ;
+    messages_ = readCorpus(corpusDirectory) ;
+  } // RuleCostProfiler
+
+  /**
+   * Reads the rules defined with a regular expression
+   */
+  static ArrayList<ProfiledRule> readDefinitions(String file) throws IOException {
+    ArrayList<ProfiledRule> rules = new ArrayList<ProfiledRule>() ;
+    BufferedReader in = new BufferedReader(new FileReader(file)) ;
+    try {
+      String line ;
+      while ((line = in.readLine()) != null) {
+        String [] parts = line.trim().split("\\s+", 3) ;
+        if (parts.length < 3)
+          continue ;
+
+        String type = parts[0] ;
+        String target ;
+        String regex ;
+        if (type.equals("header")) {
+          String [] header = parts[2].split("\\s+", 3) ;
+          if ((header.length < 3) || !header[1].equals("=~"))
+            continue ;  // eval, exists: and negated rules
+          target = header[0].toLowerCase() ;
+          regex  = header[2] ;
+        } else if (type.equals("body") || type.equals("rawbody") ||
+                   type.equals("full") || type.equals("uri")) {
+          target = type ;
+          regex  = parts[2] ;
+        } else
+          continue ;
+        if (regex.startsWith("eval:"))
+          continue ;
+
+        Pattern pattern = toPattern(regex) ;
+        if (pattern == null)
+          Configuration.logger_.warning("RuleCostProfiler: pattern of " + parts[1] + " not supported") ;
+        else
+          rules.add(new ProfiledRule(parts[1], target, pattern)) ;
+      } // while
+    } finally {
+      in.close() ;
+    }
+    return rules ;
+  } // readDefinitions
+
+  /**
+   * Translates a Perl regular expression (/.../flags or m{...}flags) into a
+   * Java pattern
+   * @return The pattern, or null if it is not supported
+   */
+  static Pattern toPattern(String regex) {
+    regex = regex.trim() ;
+    int start ;
+    char close ;
+    if (regex.startsWith("/")) {
+      start = 1 ;
+      close = '/' ;
+    } else if (regex.startsWith("m") && (regex.length() > 1)) {
+      start = 2 ;
+      char open = regex.charAt(1) ;
+      close = (open == '{') ? '}' : (open == '(') ? ')' : (open == '[') ? ']' : (open == '<') ? '>' : open ;
+    } else
+      return null ;
+
+    int end = regex.lastIndexOf(close) ;
+    if (end < start)
+      return null ;
+
+    int flags = 0 ;
+    for (char c : regex.substring(end + 1).toCharArray()) {
+      if (c == 'i')
+        flags |= Pattern.CASE_INSENSITIVE ;
+      else if (c == 's')
+        flags |= Pattern.DOTALL ;
+      else if (c == 'm')
+        flags |= Pattern.MULTILINE ;
+      else if (c == 'x')
+        flags |= Pattern.COMMENTS ;
+      else if (!Character.isWhitespace(c))
+        return null ;
+    } // for
+
+    try {
+      return Pattern.compile(regex.substring(start, end), flags) ;
+    } catch (PatternSyntaxException e) {
+      return null ;
+    }
+  } // toPattern
+
+  /**
+   * Reads the messages of a corpus
+   */
+  static ArrayList<Message> readCorpus(String directory) throws IOException {
+    File [] files = new File(directory).listFiles() ;
+    if (files == null)
+      throw new IOException("RuleCostProfiler: " + directory + " is not a directory") ;
+    Arrays.sort(files) ;
+
+    ArrayList<Message> messages = new ArrayList<Message>() ;
+    for (File file : files) {
+      if (!file.isFile())
+        continue ;
+      byte [] bytes = new byte[(int) file.length()] ;
+      FileInputStream in = new FileInputStream(file) ;
+      try {
+        int read = 0 ;
+        while (read < bytes.length) {
+          int n = in.read(bytes, read, bytes.length - read) ;
+          if (n < 0)
+            break ;
+          read += n ;
+        }
+      } finally {
+        in.close() ;
+      }
+      messages.add(new Message(new String(bytes, "ISO-8859-1").replace("\r\n", "\n"))) ;
+    } // for
+    return messages ;
+  } // readCorpus
+
+  /**
+   * Measures the rules
+   * @param warmupRounds Number of rounds over the corpus before measuring
+   * @param measuredRounds Number of rounds measured
+   * @return The mean and the 99th percentile (ns per message) of each rule
+   */
+  public double [][] profile(int warmupRounds, int measuredRounds) {
+    int numberOfMessages = messages_.size() ;
+    double [][] costs = new double[rules_.size()][2] ;
+    long [] samples = new long[numberOfMessages * measuredRounds] ;
+    Matcher [] matchers = new Matcher[rules_.size()] ;
+    for (int r = 0; r < rules_.size(); r++)
+      matchers[r] = rules_.get(r).pattern.matcher("") ;
+
+    for (int round = 0; round < warmupRounds; round++)
+      for (int r = 0; r < rules_.size(); r++)
+        for (Message message : messages_)
+          match(matchers[r], message.get(rules_.get(r).target)) ;
+
+    long overhead = timerOverhead() ;
+    for (int r = 0; r < rules_.size(); r++) {
+      String target = rules_.get(r).target ;
+      int n = 0 ;
+      for (int round = 0; round < measuredRounds; round++) {
+        for (Message message : messages_) {
+          String text = message.get(target) ;
+          long start = System.nanoTime() ;
+          match(matchers[r], text) ;
+          samples[n++] = Math.max(0, System.nanoTime() - start - overhead) ;
+        }
+      } // for
+
+      double sum = 0.0 ;
+      for (int i = 0; i < n; i++)
+        sum += samples[i] ;
+      Arrays.sort(samples, 0, n) ;
+      costs[r][0] = (n > 0) ? sum / n : 0.0 ;
+      costs[r][1] = (n > 0) ? samples[Math.min(n - 1, (int) Math.ceil(0.99 * n) - 1)] : 0.0 ;
+    } // for
+    return costs ;
+  } // profile
+
+  private void match(Matcher matcher, String text) {
+    if (matcher.reset(text).find())
+      sink_++ ;
+  } // match
+
+  /**
+   * Estimates the time taken by a pair of calls to System.nanoTime
+   */
+  private static long timerOverhead() {
+    long [] samples = new long[10001] ;
+    for (int i = 0; i < samples.length; i++) {
+      long start = System.nanoTime() ;
+      samples[i] = System.nanoTime() - start ;
+    }
+    Arrays.sort(samples) ;
+    return samples[samples.length / 2] ;
+  } // timerOverhead
+
+  /**
+   * Writes the costs of the rules
+   * @param costFile The cost file
+   * @param costs The costs returned by <code>profile</code>
+   * @throws IOException
+   */
+  public void write(String costFile, double [][] costs) throws IOException {
+    PrintWriter writer = new PrintWriter(costFile) ;
+    try {
+      for (int r = 0; r < rules_.size(); r++)
+        writer.println("cost " + rules_.get(r).name + " " + costs[r][0] + " " + costs[r][1]) ;
+    } finally {
+      writer.close() ;
+    }
+  } // write
+
+  public int getNumberOfRules() {
+    return rules_.size() ;
+  } // getNumberOfRules
+
+  public int getNumberOfMessages() {
+    return messages_.size() ;
+  } // getNumberOfMessages
+
+  public static void main(String [] args) throws Exception {
+    if ((args.length != 3) && (args.length != 5)) {
+      System.out.println("Usage: jmetal.problems.spam.RuleCostProfiler ruleDefinitions corpusDirectory costFile [warmupRounds measuredRounds]") ;
+      System.exit(-1) ;
+    }
+    int warmupRounds   = (args.length == 5) ? Integer.parseInt(args[3]) : 5  ;
+    int measuredRounds = (args.length == 5) ? Integer.parseInt(args[4]) : 10 ;
+
+    RuleCostProfiler profiler = new RuleCostProfiler(args[0], args[1]) ;
+    Configuration.logger_.info("RuleCostProfiler: " + profiler.getNumberOfRules() + " rules, " +
+                               profiler.getNumberOfMessages() + " messages") ;
+    profiler.write(args[2], profiler.profile(warmupRounds, measuredRounds)) ;
+  } // main
+} // RuleCostProfiler
@@ -0,0 +1,301 @@
+package jmetal.problems.spam;
+
+import jmetal.core.RuleTable;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+
+/**
+ * This class evaluates orderings of SpamAssassin rules. The rules are visited
+ * in the order given by a permutation until the accumulated score exceeds the
+ * required score; the objectives are the time spent in the visited rules and
+ * the number of positions scanned.
+ *
+ * The evaluation can be incremental: the prefix sums of score and time up to
+ * the cut-off position are attached to the permutation, so that a permutation
+ * modified by a swap or an insertion is re-scored from the first modified
+ * position only, and moves located after the cut-off cost O(1). Moves before
+ * the cut-off which leave the sums at their last position unchanged cost
+ * the distance between the positions they touch.
+ */
+public class RuleOrderEvaluator {
+
+  /**
+   * Stores the rule table, and its score and cost (CPU + IO time) arrays, in
+   * which the excluded rules count as zero
+   */
+  private RuleTable table_ ;
+  private double [] score_ ;
+  private double [] cost_  ;
+
+  /**
+   * Stores the score a message has to reach to be classified as spam
+   */
+  private double scoreRequired_ ;
+
+  /**
+   * Maximum number of windows stacked on the full prefix sums before they
+   * are copied into a full array again
+   */
+  static final int MAX_DEPTH = 8 ;
+
+  /**
+   * Prefix sums attached to an evaluated permutation. Entry i holds the
+   * accumulated score and time after visiting position i; only the positions
+   * up to <code>length</code> - 1 are valid. The object is shared among the
+   * copies of the permutation, so it is never modified once attached.
+   *
+   * The sums are either full arrays (<code>base</code> is null), or a window
+   * of positions [<code>from</code>, <code>from</code> + stored) re-summed
+   * after a move, on top of the sums of the permutation before the move,
+   * which hold the other positions.
+   */
+  static class PrefixSums {
+    PrefixSums base ;
+    int from ;
+    double [] score ;
+    double [] time  ;
+    int length ;
+    int cut ;        // position where the required score is exceeded, or -1
+    int depth ;      // number of windows stacked on the full arrays
+
+    PrefixSums(int capacity) {
+      base   = null ;
+      from   = 0 ;
+      score  = new double[capacity] ;
+      time   = new double[capacity] ;
+      length = 0  ;
+      cut    = -1 ;
+      depth  = 0 ;
+    } // PrefixSums
+
+    /**
+     * Constructor of a window on top of other sums
+     */
+    PrefixSums(PrefixSums base, int from, int to) {
+      this.base   = base ;
+      this.from   = from ;
+      score       = new double[to - from + 1] ;
+      time        = new double[to - from + 1] ;
+      length      = base.length ;
+      cut         = base.cut ;
+      depth       = base.depth + 1 ;
+    } // PrefixSums
+
+    void ensureCapacity(int capacity) {
+      if (capacity > score.length) {
+        capacity = Math.max(capacity, 2 * score.length) ;
+        score = java.util.Arrays.copyOf(score, capacity) ;
+        time  = java.util.Arrays.copyOf(time, capacity) ;
+      }
+    } // ensureCapacity
+
+    /**
+     * Returns the sums holding a position
+     */
+    private PrefixSums holder(int position) {
+      PrefixSums sums = this ;
+      while ((sums.base != null) &&
+             ((position < sums.from) || (position >= sums.from + sums.score.length)))
+        sums = sums.base ;
+      return sums ;
+    } // holder
+
+    double score(int position) {
+      PrefixSums sums = holder(position) ;
+      return sums.score[position - sums.from] ;
+    } // score
+
+    double time(int position) {
+      PrefixSums sums = holder(position) ;
+      return sums.time[position - sums.from] ;
+    } // time
+
+    /**
+     * Copies the sums of the positions [0, to) into full arrays
+     */
+    void copyTo(PrefixSums target, int to) {
+      if (base == null) {
+        System.arraycopy(score, 0, target.score, 0, to) ;
+        System.arraycopy(time, 0, target.time, 0, to) ;
+      } else {
+        base.copyTo(target, to) ;
+        int count = Math.min(to, from + score.length) - from ;
+        if (count > 0) {
+          System.arraycopy(score, 0, target.score, from, count) ;
+          System.arraycopy(time, 0, target.time, from, count) ;
+        }
+      }
+    } // copyTo
+  } // PrefixSums
+
+  /**
+   * Constructor
+   * @param rules The rules to order
+   * @param scoreRequired Score a message has to reach to stop the scan
+   */
+  public RuleOrderEvaluator(SpamAssassinRules rules, double scoreRequired) {
+    this(rules.getTable(), scoreRequired) ;
+  } // RuleOrderEvaluator
+
+  /**
+   * Constructor
+   * @param table The table of the rules to order
+   * @param scoreRequired Score a message has to reach to stop the scan
+   */
+  public RuleOrderEvaluator(RuleTable table, double scoreRequired) {
+    table_         = table ;
+    score_         = table.getEffectiveScores() ;
+    cost_          = table.getEffectiveCosts() ;
+    scoreRequired_ = scoreRequired ;
+  } // RuleOrderEvaluator
+
+  /**
+   * Evaluates a permutation of rules from scratch, without using or attaching
+   * prefix sums. It does not allocate memory.
+   * @param order The order of the rules
+   * @param length Number of positions of the order to take into account
+   * @param result Array receiving the total time, the number of executed
+   * rules and the total score, in this order
+   */
+  public void evaluate(int [] order, int length, double [] result) {
+    table_.scan(order, length, scoreRequired_, result) ;
+  } // evaluate
+
+  /**
+   * Evaluates a permutation of rules, reusing the prefix sums attached to it
+   * when possible. The new prefix sums are attached to the permutation.
+   *
+   * When the modified positions [i, j] lie before the cut-off, only the sums
+   * of [i, j] are computed again; if they end with the same score and time
+   * as before the move, which happens when the move does not change their
+   * rounding, the sums after j and the cut-off are those of the permutation
+   * before the move, and the evaluation costs O(j - i). Otherwise, the sums
+   * are computed again from i up to the cut-off, so that the results are
+   * always those of an evaluation from scratch.
+   * @param permutation The permutation of rules
+   * @param length Number of positions of the permutation to take into account
+   * @param result Array receiving the total time, the number of executed
+   * rules and the total score, in this order
+   */
+  public void evaluate(Permutation permutation, int length, double [] result) {
+    int [] order = permutation.vector_ ;
+    Object state = permutation.getEvaluationState() ;
+    PrefixSums previous = (state instanceof PrefixSums) ? (PrefixSums) state : null ;
+    int from = permutation.getModifiedFrom() ;
+    int to   = permutation.getModifiedTo() ;
+
+    if ((previous != null) && (from >= previous.length)) {
+      // The modified positions lie after the cut-off: nothing changes
+      permutation.setEvaluationState(previous) ;
+    } else {
+      PrefixSums sums = null ;
+      if ((previous != null) && (to < previous.length - 1) && (previous.depth < MAX_DEPTH))
+        sums = window(order, from, to, previous) ;
+
+      if (sums == null) {
+        int capacity = 64 ;
+        if (previous == null)
+          from = 0 ;
+        else
+          capacity = previous.length ;
+
+        sums = new PrefixSums(Math.min(length, Math.max(capacity, from))) ;
+        if (from > 0)
+          previous.copyTo(sums, from) ;
+        scan(order, from, length, sums) ;
+      }
+      permutation.setEvaluationState(sums) ;
+      previous = sums ;
+    } // else
+
+    int last = previous.length - 1 ;
+    result[0] = (last >= 0) ? previous.time(last) : 0.0 ;
+    result[1] = (previous.cut >= 0) ? previous.cut + 1 : 0 ;
+    result[2] = (last >= 0) ? previous.score(last) : 0.0 ;
+  } // evaluate
+
+  /**
+   * Returns the number of positions the evaluation of a permutation is
+   * expected to scan: the cut-off of the prefix sums attached to it when the
+   * positions modified since lie before the cut-off, which only reorder the
+   * rules of the prefix, or the length otherwise. It bounds the prefixes
+   * worth looking up in a <code>PrefixCache</code>; the rounding of the sums
+   * may move the actual cut-off, in which case the lookup only misses.
+   * @param permutation The permutation of rules
+   * @param length Number of positions of the permutation to take into account
+   */
+  public int getCutOff(Permutation permutation, int length) {
+    Object state = permutation.getEvaluationState() ;
+    if (!(state instanceof PrefixSums))
+      return length ;
+    PrefixSums sums = (PrefixSums) state ;
+    return (permutation.getModifiedTo() < sums.length) ? Math.min(sums.length, length) : length ;
+  } // getCutOff
+
+  /**
+   * Computes again the sums of the modified positions [from, to], lying
+   * before the last position of the previous sums
+   * @return The sums of the permutation, or null if the required score is
+   * exceeded in [from, to] or the sums at <code>to</code> have changed
+   */
+  private PrefixSums window(int [] order, int from, int to, PrefixSums previous) {
+    double totalScore = (from > 0) ? previous.score(from - 1) : 0.0 ;
+    double totalTime  = (from > 0) ? previous.time(from - 1)  : 0.0 ;
+    PrefixSums sums = new PrefixSums(previous, from, to) ;
+    int x ;
+
+    for (int i = from; i <= to; i++) {
+      x = order[i] ;
+      totalTime  += cost_[x] ;
+      totalScore += score_[x] ;
+      sums.score[i - from] = totalScore ;
+      sums.time[i - from]  = totalTime ;
+      if ((totalScore > scoreRequired_) && !table_.isExcluded(x))
+        return null ;
+    } // for
+    if ((totalScore != previous.score(to)) || (totalTime != previous.time(to)))
+      return null ;
+    return sums ;
+  } // window
+
+  /**
+   * Computes the prefix sums from a given position until the required score
+   * is exceeded or the end of the permutation is reached
+   */
+  private void scan(int [] order, int from, int length, PrefixSums sums) {
+    double totalScore = (from > 0) ? sums.score[from - 1] : 0.0 ;
+    double totalTime  = (from > 0) ? sums.time[from - 1]  : 0.0 ;
+    int x ;
+
+    sums.cut = -1 ;
+    for (int i = from; i < length; i++) {
+      x = order[i] ;
+      totalTime  += cost_[x] ;
+      totalScore += score_[x] ;
+      sums.ensureCapacity(i + 1) ;
+      sums.score[i] = totalScore ;
+      sums.time[i]  = totalTime ;
+      if ((totalScore > scoreRequired_) && !table_.isExcluded(x)) {
+        sums.cut    = i ;
+        sums.length = i + 1 ;
+        return ;
+      }
+    } // for
+    sums.length = length ;
+  } // scan
+
+  /**
+   * Returns true if a rule is excluded from the evaluation
+   * @param rule The index of the rule
+   */
+  public boolean isExcluded(int rule) {
+    return table_.isExcluded(rule) ;
+  } // isExcluded
+
+  /**
+   * Returns the required score
+   */
+  public double getScoreRequired() {
+    return scoreRequired_ ;
+  } // getScoreRequired
+} // RuleOrderEvaluator
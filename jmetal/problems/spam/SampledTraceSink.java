@@ -0,0 +1,38 @@
+package jmetal.problems.spam;
+
+/**
+ * Trace sink forwarding to another sink only one out of every N evaluations
+ */
+public class SampledTraceSink implements ITraceSink {
+
+  /**
+   * Stores the sink receiving the sampled traces
+   */
+  private ITraceSink sink_ ;
+
+  /**
+   * Stores the sampling period
+   */
+  private long period_ ;
+
+  /**
+   * Constructor
+   * @param sink The sink receiving the sampled traces
+   * @param period Only the evaluations whose number is a multiple of the
+   * period are forwarded
+   */
+  public SampledTraceSink(ITraceSink sink, long period) {
+    sink_   = sink ;
+    period_ = (period > 0) ? period : 1 ;
+  } // SampledTraceSink
+
+  public void trace(long evaluation, int [] order, int scanned,
+                    double totalTime, int executedRules, double totalScore) {
+    if ((evaluation % period_) == 0)
+      sink_.trace(evaluation, order, scanned, totalTime, executedRules, totalScore) ;
+  } // trace
+
+  public void close() {
+    sink_.close() ;
+  } // close
+} // SampledTraceSink
@@ -0,0 +1,294 @@
+package jmetal.problems.spam;
+
+import jmetal.core.RuleTable;
+import jmetal.core.SpamAssassinRules;
+import jmetal.util.Configuration;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+
+/**
+ * Binary snapshot of a set of SpamAssassin rules and, optionally, of the hit
+ * matrix of a corpus. The snapshot is written once by the converter
+ * (<code>main</code>) and opened by mapping the file in memory, so that the
+ * problems do not parse text files at startup. The snapshots are cached by
+ * path: all the problems of a JVM opening the same file share the same
+ * read-only pages, which are also shared among processes by the operating
+ * system.
+ *
+ * File format (little endian; the sections are aligned to 8 bytes):
+ * <pre>
+ *   int magic, int version, int numberOfRules, int numberOfMessages
+ *   double [numberOfRules] scores, cpu times, io times
+ *   for each rule: int length, UTF-8 name (padded)
+ *   long [numberOfWords] spam labels
+ *   long [numberOfWords * numberOfRules] hits (see CorpusHitMatrix)
+ * </pre>
+ * Usage: jmetal.problems.spam.SpamSnapshot [-costs costFile] rulesFile snapshotFile [massCheckLog ...]
+ */
+public class SpamSnapshot {
+
+  /**
+   * Identifies the snapshot files
+   */
+  public static final int MAGIC   = 0x41425253 ; // "ABRS"
+  public static final int VERSION = 1 ;
+
+  /**
+   * Stores the snapshots opened, indexed by canonical path
+   */
+  private static HashMap<String, SpamSnapshot> snapshots_ = new HashMap<String, SpamSnapshot>() ;
+
+  private RuleTable table_ ;
+  private int numberOfMessages_ ;
+  private LongBuffer spam_ ;
+  private LongBuffer hits_ ;
+
+  private SpamSnapshot(RuleTable table, int numberOfMessages, LongBuffer spam, LongBuffer hits) {
+    table_            = table ;
+    numberOfMessages_ = numberOfMessages ;
+    spam_             = spam ;
+    hits_             = hits ;
+  } // SpamSnapshot
+
+  /**
+   * Opens a snapshot, or returns the snapshot already opened from the same
+   * file
+   * @param path The snapshot file
+   * @return The snapshot
+   * @throws IOException If the file cannot be read or is not a snapshot
+   */
+  public static synchronized SpamSnapshot open(String path) throws IOException {
+    String key = new File(path).getCanonicalPath() ;
+    SpamSnapshot snapshot = snapshots_.get(key) ;
+    if (snapshot == null) {
+      snapshot = map(path) ;
+      snapshots_.put(key, snapshot) ;
+    }
+    return snapshot ;
+  } // open
+
+  /**
+   * Maps a snapshot file in memory
+   */
+  private static SpamSnapshot map(String path) throws IOException {
+    RandomAccessFile file = new RandomAccessFile(path, "r") ;
+    MappedByteBuffer buffer ;
+    try {
+      if (file.length() > Integer.MAX_VALUE)
+        throw new IOException("SpamSnapshot: " + path + " is too large to be mapped") ;
+      buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length()) ;
+    } finally {
+      file.close() ; // the mapping remains valid
+    }
+    buffer.order(ByteOrder.LITTLE_ENDIAN) ;
+
+    if ((buffer.remaining() < 16) || (buffer.getInt() != MAGIC))
+      throw new IOException("SpamSnapshot: " + path + " is not a snapshot file") ;
+    int version = buffer.getInt() ;
+    if (version != VERSION)
+      throw new IOException("SpamSnapshot: version " + version + " of " + path + " not supported") ;
+
+    int numberOfRules    = buffer.getInt() ;
+    int numberOfMessages = buffer.getInt() ;
+    if ((numberOfRules < 0) || (numberOfMessages < 0) ||
+        (24L * numberOfRules > buffer.remaining()))
+      throw new IOException("SpamSnapshot: corrupted snapshot file " + path) ;
+    int numberOfWords    = (numberOfMessages + 63) >>> 6 ;
+
+    double [] score = new double[numberOfRules] ;
+    double [] cpu   = new double[numberOfRules] ;
+    double [] io    = new double[numberOfRules] ;
+    buffer.asDoubleBuffer().get(score) ;
+    buffer.position(buffer.position() + 8 * numberOfRules) ;
+    buffer.asDoubleBuffer().get(cpu) ;
+    buffer.position(buffer.position() + 8 * numberOfRules) ;
+    buffer.asDoubleBuffer().get(io) ;
+    buffer.position(buffer.position() + 8 * numberOfRules) ;
+
+    String [] name = new String[numberOfRules] ;
+    for (int i = 0; i < numberOfRules; i++) {
+      byte [] bytes = new byte[buffer.getInt()] ;
+      buffer.get(bytes) ;
+      name[i] = new String(bytes, "UTF-8") ;
+      align(buffer) ;
+    } // for
+
+    LongBuffer spam = slice(buffer, numberOfWords) ;
+    LongBuffer hits = slice(buffer, (long) numberOfWords * numberOfRules) ;
+
+    return new SpamSnapshot(new RuleTable(name, score, cpu, io), numberOfMessages, spam, hits) ;
+  } // map
+
+  /**
+   * Returns a view of the next longs of a buffer, and skips them
+   */
+  private static LongBuffer slice(ByteBuffer buffer, long longs) throws IOException {
+    // The buffer holds less than 2^31 bytes, so the sizes below fit in an int
+    if (buffer.remaining() < 8L * longs)
+      throw new IOException("SpamSnapshot: truncated snapshot file") ;
+    ByteBuffer section = buffer.slice().order(ByteOrder.LITTLE_ENDIAN) ;
+    section.limit((int) (8 * longs)) ;
+    buffer.position(buffer.position() + (int) (8 * longs)) ;
+    return section.asLongBuffer() ;
+  } // slice
+
+  /**
+   * Moves the position of a buffer to the next multiple of 8
+   */
+  private static void align(ByteBuffer buffer) {
+    buffer.position((buffer.position() + 7) & ~7) ;
+  } // align
+
+  /**
+   * Writes a snapshot
+   * @param path The snapshot file
+   * @param table The rules
+   * @param corpus The hit matrix, computed over the same rules, or null
+   * @throws IOException
+   */
+  public static void write(String path, RuleTable table, CorpusHitMatrix corpus) throws IOException {
+    int numberOfRules    = table.size() ;
+    int numberOfMessages = (corpus == null) ? 0 : corpus.getNumberOfMessages() ;
+    long numberOfWords   = (numberOfMessages + 63) >>> 6 ;
+    // The snapshots are mapped in a single buffer, limited to 2^31 - 1 bytes
+    long size = 16 + 40L * numberOfRules + 8 * numberOfWords * (1 + numberOfRules) ;
+    for (int i = 0; i < numberOfRules; i++)
+      size += table.getName(i).length() * 3L ;
+    if (size > Integer.MAX_VALUE)
+      throw new IOException("SpamSnapshot: " + numberOfRules + " rules and " + numberOfMessages +
+                            " messages do not fit in a snapshot") ;
+
+    FileChannel channel = new FileOutputStream(path).getChannel() ;
+    try {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN) ;
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(numberOfRules).putInt(numberOfMessages) ;
+
+      for (int i = 0; i < numberOfRules; i++)
+        put(channel, buffer, table.getScore(i)) ;
+      for (int i = 0; i < numberOfRules; i++)
+        put(channel, buffer, table.getCPU(i)) ;
+      for (int i = 0; i < numberOfRules; i++)
+        put(channel, buffer, table.getIO(i)) ;
+
+      for (int i = 0; i < numberOfRules; i++) {
+        byte [] bytes = table.getName(i).getBytes("UTF-8") ;
+        int padding = (-(4 + bytes.length)) & 7 ;
+        if (buffer.remaining() < 4 + bytes.length + padding)
+          flush(channel, buffer) ;
+        buffer.putInt(bytes.length).put(bytes) ;
+        for (int j = 0; j < padding; j++)
+          buffer.put((byte) 0) ;
+      } // for
+
+      if (corpus != null) {
+        LongBuffer spam = corpus.getSpamWords() ;
+        LongBuffer hits = corpus.getHitWords() ;
+        for (int i = 0; i < spam.limit(); i++)
+          put(channel, buffer, spam.get(i)) ;
+        for (int i = 0; i < hits.limit(); i++)
+          put(channel, buffer, hits.get(i)) ;
+      }
+      flush(channel, buffer) ;
+    } finally {
+      channel.close() ;
+    }
+  } // write
+
+  private static void put(FileChannel channel, ByteBuffer buffer, double value) throws IOException {
+    if (buffer.remaining() < 8)
+      flush(channel, buffer) ;
+    buffer.putDouble(value) ;
+  } // put
+
+  private static void put(FileChannel channel, ByteBuffer buffer, long value) throws IOException {
+    if (buffer.remaining() < 8)
+      flush(channel, buffer) ;
+    buffer.putLong(value) ;
+  } // put
+
+  private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip() ;
+    while (buffer.hasRemaining())
+      channel.write(buffer) ;
+    buffer.clear() ;
+  } // flush
+
+  /**
+   * Returns the rules of the snapshot
+   */
+  public RuleTable getTable() {
+    return table_ ;
+  } // getTable
+
+  /**
+   * Returns true if the snapshot contains a hit matrix
+   */
+  public boolean hasCorpus() {
+    return numberOfMessages_ > 0 ;
+  } // hasCorpus
+
+  /**
+   * Returns a hit matrix backed by the mapped pages of the snapshot
+   * @param threshold Score a message has to reach to stop running rules
+   */
+  public CorpusHitMatrix getCorpus(double threshold) {
+    return new CorpusHitMatrix(table_, threshold, numberOfMessages_, spam_, hits_) ;
+  } // getCorpus
+
+  /**
+   * Loads the hit matrix of a corpus for a set of rules, either from a
+   * snapshot (a single file with extension ".bin") or by reading mass-check
+   * logs
+   * @param table The rules
+   * @param threshold Score a message has to reach to stop running rules
+   * @param files The snapshot or the mass-check logs, separated by commas
+   * @throws IOException If the snapshot does not contain a corpus computed
+   * over the same rules
+   */
+  public static CorpusHitMatrix loadCorpus(RuleTable table, double threshold, String files) throws IOException {
+    if (!files.endsWith(".bin"))
+      return new CorpusHitMatrix(table, threshold, files.split(",")) ;
+
+    SpamSnapshot snapshot = open(files) ;
+    boolean sameRules = snapshot.table_.size() == table.size() ;
+    for (int i = 0; sameRules && (i < table.size()); i++)
+      sameRules = snapshot.table_.getName(i).equals(table.getName(i)) ;
+    if (!snapshot.hasCorpus() || !sameRules)
+      throw new IOException("SpamSnapshot: " + files + " has no corpus for the rules of the problem") ;
+    return snapshot.getCorpus(threshold) ;
+  } // loadCorpus
+
+  public static void main(String [] args) throws Exception {
+    String costFile = null ;
+    int first = 0 ;
+    if ((args.length > 1) && args[0].equals("-costs")) {
+      costFile = args[1] ;
+      first    = 2 ;
+    }
+    if (args.length - first < 2) {
+      System.out.println("Usage: jmetal.problems.spam.SpamSnapshot [-costs costFile] rulesFile snapshotFile [massCheckLog ...]") ;
+      System.exit(-1) ;
+    }
+    SpamAssassinRules rules = (costFile == null) ? new SpamAssassinRules(args[first]) :
+                                                   new SpamAssassinRules(args[first], costFile) ;
+    RuleTable table = rules.getTable() ;
+    CorpusHitMatrix corpus = null ;
+    if (args.length - first > 2) {
+      String [] logs = new String[args.length - first - 2] ;
+      System.arraycopy(args, first + 2, logs, 0, logs.length) ;
+      corpus = new CorpusHitMatrix(table, CorpusHitMatrix.DEFAULT_THRESHOLD, logs) ;
+    }
+    write(args[first + 1], table, corpus) ;
+    Configuration.logger_.info("SpamSnapshot: " + table.size() + " rules and " +
+        ((corpus == null) ? 0 : corpus.getNumberOfMessages()) + " messages written to " + args[first + 1]) ;
+  } // main
+} // SpamSnapshot
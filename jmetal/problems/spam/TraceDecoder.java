@@ -0,0 +1,87 @@
+package jmetal.problems.spam;
+
+import jmetal.core.RuleTable;
+import jmetal.core.SpamAssassinRules;
+import jmetal.util.JMException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * This class converts the binary traces written by
+ * <code>RingBufferTraceSink</code> into the text format of the spam problems:
+ * one file per evaluation, named after the evaluation number, containing a
+ * line per visited rule and a summary line.
+ * Usage: jmetal.problems.spam.TraceDecoder traceFile rulesFile outputDirectory
+ */
+public class TraceDecoder {
+
+  private RuleTable table_ ;
+
+  /**
+   * Constructor
+   * @param rules The rules used when the trace was written
+   */
+  public TraceDecoder(SpamAssassinRules rules) {
+    table_ = rules.getTable() ;
+  } // TraceDecoder
+
+  /**
+   * Decodes a trace file
+   * @param traceFile The binary trace file
+   * @param outputDirectory Directory where the text files are written
+   * @return The number of records decoded
+   * @throws IOException
+   * @throws JMException If the file is not a trace file
+   */
+  public long decode(String traceFile, String outputDirectory) throws IOException, JMException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(traceFile), 1 << 16)) ;
+    long records = 0 ;
+    try {
+      if ((in.readInt() != RingBufferTraceSink.MAGIC) || (in.readInt() != RingBufferTraceSink.VERSION))
+        throw new JMException("TraceDecoder: " + traceFile + " is not a trace file") ;
+
+      while (true) {
+        long evaluation ;
+        try {
+          evaluation = in.readLong() ;
+        } catch (EOFException e) {
+          break ;
+        }
+        double totalTime   = in.readDouble() ;
+        int executedRules  = in.readInt() ;
+        double totalScore  = in.readDouble() ;
+        int scanned        = in.readInt() ;
+
+        PrintWriter writer = new PrintWriter(new FileOutputStream(new File(outputDirectory, evaluation + ".txt"), true)) ;
+        for (int i = 0; i < scanned; i++) {
+          int x = in.readInt() ;
+          if (table_.isExcluded(x)) continue ;
+          writer.println(i + 1 + " [" + x + "] " + table_.getName(x) + " has a score of " + table_.getScore(x)) ;
+        }
+        writer.println("totalTime: " + totalTime + " | executedRules: " + executedRules + " | totalScore: " + totalScore + "\n") ;
+        writer.close() ;
+        records++ ;
+      } // while
+    } finally {
+      in.close() ;
+    }
+    return records ;
+  } // decode
+
+  public static void main(String [] args) throws Exception {
+    if (args.length != 3) {
+      System.out.println("Usage: jmetal.problems.spam.TraceDecoder traceFile rulesFile outputDirectory") ;
+      System.exit(-1) ;
+    }
+    TraceDecoder decoder = new TraceDecoder(new SpamAssassinRules(args[1])) ;
+    long records = decoder.decode(args[0], args[2]) ;
+    System.out.println(records + " evaluations decoded") ;
+  } // main
+} // TraceDecoder
@@ -25,10 +25,13 @@ import jmetal.core.Problem;
 import jmetal.core.SolutionSet;
 
 /**
- * QualityIndicator class
+ * QualityIndicator class. The objectives of the true Pareto front are
+ * copied once, in the constructor; those of the solution sets are copied at
+ * each call, so the solution sets are only read.
  */
 public class QualityIndicator {
   SolutionSet trueParetoFront_ ;
+  double [][] trueParetoFrontMatrix_ ;
   double      trueParetoFrontHypervolume_ ;
   Problem     problem_ ; 
   public jmetal.qualityIndicator.util.MetricsUtil utils_  ;
@@ -42,9 +45,10 @@ public class QualityIndicator {
     problem_ = problem ;
     utils_ = new jmetal.qualityIndicator.util.MetricsUtil() ;
     trueParetoFront_ = utils_.readNonDominatedSolutionSet(paretoFrontFile);
+    trueParetoFrontMatrix_ = trueParetoFront_.writeObjectivesToMatrix();
     trueParetoFrontHypervolume_ = new Hypervolume().hypervolume(
-                 trueParetoFront_.writeObjectivesToMatrix(),   
-                 trueParetoFront_.writeObjectivesToMatrix(),
+                 trueParetoFrontMatrix_,   
+                 trueParetoFrontMatrix_,
                  problem_.getNumberOfObjectives());
   } // Constructor 
   
@@ -55,7 +59,7 @@ public class QualityIndicator {
    */
   public double getHypervolume(SolutionSet solutionSet) {
     return new Hypervolume().hypervolume(solutionSet.writeObjectivesToMatrix(),
-                                         trueParetoFront_.writeObjectivesToMatrix(),
+                                         trueParetoFrontMatrix_,
                                          problem_.getNumberOfObjectives());
   } // getHypervolume
 
@@ -76,7 +80,7 @@ public class QualityIndicator {
   public double getIGD(SolutionSet solutionSet) {
     return new InvertedGenerationalDistance().invertedGenerationalDistance(
                     solutionSet.writeObjectivesToMatrix(),
-                    trueParetoFront_.writeObjectivesToMatrix(),
+                    trueParetoFrontMatrix_,
                     problem_.getNumberOfObjectives());
   } // getIGD
   
@@ -88,7 +92,7 @@ public class QualityIndicator {
   public double getGD(SolutionSet solutionSet) {
     return new GenerationalDistance().generationalDistance(
                     solutionSet.writeObjectivesToMatrix(),
-                    trueParetoFront_.writeObjectivesToMatrix(),
+                    trueParetoFrontMatrix_,
                     problem_.getNumberOfObjectives());
   } // getGD
   
@@ -99,7 +103,7 @@ public class QualityIndicator {
    */
   public double getSpread(SolutionSet solutionSet) {
     return new Spread().spread(solutionSet.writeObjectivesToMatrix(),
-                               trueParetoFront_.writeObjectivesToMatrix(),
+                               trueParetoFrontMatrix_,
                                problem_.getNumberOfObjectives());
   } // getGD
   
@@ -110,7 +114,7 @@ public class QualityIndicator {
    */
   public double getEpsilon(SolutionSet solutionSet) {
     return new Epsilon().epsilon(solutionSet.writeObjectivesToMatrix(),
-                                 trueParetoFront_.writeObjectivesToMatrix(),
+                                 trueParetoFrontMatrix_,
                                  problem_.getNumberOfObjectives());
   } // getEpsilon
 } // QualityIndicator
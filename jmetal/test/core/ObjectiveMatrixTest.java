@@ -0,0 +1,114 @@
+package jmetal.test.core;
+
+import jmetal.core.ObjectiveMatrix;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Distance;
+import jmetal.util.Ranking;
+import jmetal.util.comparators.ObjectiveComparator;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the view of the objectives of a solution set keeps up with
+ * the changes of the set and of its solutions
+ */
+public class ObjectiveMatrixTest {
+
+  private Solution solution(Random random, int objectives) {
+    Solution solution = new Solution(objectives) ;
+    for (int j = 0 ; j < objectives ; j++)
+      solution.setObjective(j, random.nextInt(10)) ;
+    return solution ;
+  }
+
+  private void assertUpToDate(String message, SolutionSet solutionSet, ObjectiveMatrix matrix, boolean rows) {
+    double [][] expected = solutionSet.writeObjectivesToMatrix() ;
+    int size = solutionSet.size() ;
+    assertEquals(message, size, matrix.size()) ;
+    if (rows) {
+      double [][] values = matrix.getRows() ;
+      assertEquals(message, size, values.length) ;
+      for (int i = 0 ; i < size ; i++)
+        assertArrayEquals(message, expected[i], values[i], 0.0) ;
+    } else {
+      double [][] columns = matrix.getColumns() ;
+      for (int i = 0 ; i < size ; i++)
+        for (int j = 0 ; j < expected[i].length ; j++)
+          assertEquals(message, expected[i][j], columns[j][i], 0.0) ;
+    }
+  }
+
+  @Test
+  public void testUpToDateAfterChanges() {
+    Random random = new Random(1) ;
+    SolutionSet solutionSet = new SolutionSet(1000) ;
+    ObjectiveMatrix matrix = solutionSet.getObjectiveMatrix() ;
+    for (int step = 0 ; step < 2000 ; step++) {
+      int size = solutionSet.size() ;
+      switch (random.nextInt(8)) {
+        case 0:
+        case 1:
+          solutionSet.add(solution(random, 3)) ;
+          break ;
+        case 2:
+          solutionSet.add(random.nextInt(size + 1), solution(random, 3)) ;
+          break ;
+        case 3:
+          if (size > 0)
+            solutionSet.remove(random.nextInt(size)) ;
+          break ;
+        case 4:
+          if (size > 0)
+            solutionSet.replace(random.nextInt(size), solution(random, 3)) ;
+          break ;
+        case 5:
+          solutionSet.sort(new ObjectiveComparator(random.nextInt(3))) ;
+          break ;
+        case 6:
+          if (size > 0)
+            solutionSet.get(random.nextInt(size)).setObjective(random.nextInt(3), random.nextDouble()) ;
+          break ;
+        default:
+          if (random.nextInt(50) == 0)
+            solutionSet.clear() ;
+      }
+      assertUpToDate("ObjectiveMatrixTest: step " + step, solutionSet, matrix, random.nextBoolean()) ;
+    }
+  }
+
+  /**
+   * Test: the crowding distances and the ranks must be the same with and
+   * without the view
+   */
+  @Test
+  public void testSameResultsWithTheMatrix() {
+    Random random = new Random(2) ;
+    Distance distance = new Distance() ;
+    for (int trial = 0 ; trial < 20 ; trial++) {
+      SolutionSet plain = new SolutionSet(100) ;
+      SolutionSet viewed = new SolutionSet(100) ;
+      viewed.getObjectiveMatrix() ;
+      for (int i = 0 ; i < 100 ; i++) {
+        Solution solution = solution(random, 2 + trial % 3) ;
+        Solution copy = new Solution(solution.getNumberOfObjectives()) ;
+        for (int j = 0 ; j < solution.getNumberOfObjectives() ; j++)
+          copy.setObjective(j, solution.getObjective(j)) ;
+        plain.add(solution) ;
+        viewed.add(copy) ;
+      }
+      new Ranking(plain) ;
+      new Ranking(viewed) ;
+      distance.crowdingDistanceAssignment(plain, plain.get(0).getNumberOfObjectives()) ;
+      distance.crowdingDistanceAssignment(viewed, viewed.get(0).getNumberOfObjectives()) ;
+      for (int i = 0 ; i < 100 ; i++) {
+        assertEquals("ObjectiveMatrixTest", plain.get(i).getRank(), viewed.get(i).getRank()) ;
+        assertEquals("ObjectiveMatrixTest", plain.get(i).getCrowdingDistance(), viewed.get(i).getCrowdingDistance(), 0.0) ;
+      }
+    }
+  }
+}
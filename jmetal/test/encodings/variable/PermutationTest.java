@@ -0,0 +1,65 @@
+package jmetal.test.encodings.variable;
+
+import jmetal.encodings.variable.Permutation;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks that the hash of a permutation updated by its moves is the hash of
+ * the permutation computed from scratch
+ */
+public class PermutationTest {
+  int length_ = 200 ;
+
+  /**
+   * Returns a permutation with the same values and no hash computed
+   */
+  private Permutation fresh(Permutation permutation) {
+    Permutation copy = new Permutation() ;
+    copy.size_   = permutation.size_ ;
+    copy.vector_ = permutation.vector_.clone() ;
+    return copy ;
+  }
+
+  /**
+   * Test: a chain of swap and insertion moves must update the hash as if it
+   * was computed from scratch
+   */
+  @Test
+  public void testIncrementalHashMatchesFullHash() {
+    Random random = new Random(3) ;
+    Permutation permutation = new Permutation(length_) ;
+    permutation.hash() ;
+    for (int i = 0 ; i < 10000 ; i++) {
+      int pos1 = random.nextInt(length_) ;
+      int pos2 = random.nextInt(length_) ;
+      if (random.nextBoolean())
+        permutation.swap(pos1, pos2) ;
+      else
+        permutation.insert(pos1, pos2) ;
+      assertEquals("PermutationTest", fresh(permutation).hash(), permutation.hash()) ;
+    }
+  }
+
+  /**
+   * Test: the hash must be recomputed after the vector is modified directly
+   */
+  @Test
+  public void testHashAfterMarkModified() {
+    Permutation permutation = new Permutation(length_) ;
+    long hash = permutation.hash() ;
+    Permutation copy = new Permutation(permutation) ;
+    assertEquals("PermutationTest", hash, copy.hash()) ;
+
+    int temp = copy.vector_[0] ;
+    copy.vector_[0] = copy.vector_[1] ;
+    copy.vector_[1] = temp ;
+    copy.markModified(0, 1) ;
+    assertFalse("PermutationTest", hash == copy.hash()) ;
+    assertEquals("PermutationTest", fresh(copy).hash(), copy.hash()) ;
+  }
+}
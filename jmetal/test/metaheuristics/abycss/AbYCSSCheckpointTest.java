@@ -0,0 +1,135 @@
+package jmetal.test.metaheuristics.abycss;
+
+import jmetal.core.Algorithm;
+import jmetal.core.SolutionSet;
+import jmetal.core.SpamAssassinRules;
+import jmetal.experiments.settings.AbYCSS_Settings;
+import jmetal.problems.SSpamProblem2DAbYCSS;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that AbYCSS resumes from its checkpoints in the same state
+ */
+public class AbYCSSCheckpointTest {
+  int numberOfRules_ = 60 ;
+  SSpamProblem2DAbYCSS problem_ ;
+  File checkpointFile_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    Random random = new Random(1) ;
+    File rulesFile = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile) ;
+    for (int i = 0 ; i < numberOfRules_ ; i++)
+      writer.println("score RULE_" + i + " " + (random.nextDouble() * 4 - 1)) ;
+    writer.close() ;
+    problem_ = new SSpamProblem2DAbYCSS("Permutation", new SpamAssassinRules(rulesFile.getPath())) ;
+    rulesFile.delete() ;
+
+    checkpointFile_ = File.createTempFile("abycss", ".ckpt") ;
+    checkpointFile_.delete() ;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    checkpointFile_.delete() ;
+    new File(checkpointFile_.getPath() + ".tmp").delete() ;
+    PseudoRandom.setRandomGenerator(null) ;
+  }
+
+  private Algorithm abycss(Properties extra) throws Exception {
+    Properties configuration = new Properties() ;
+    configuration.setProperty("populationSize", "20") ;
+    configuration.setProperty("archiveSize", "20") ;
+    configuration.setProperty("refSet1Size", "5") ;
+    configuration.setProperty("refSet2Size", "5") ;
+    configuration.setProperty("maxEvaluations", "3000") ;
+    configuration.setProperty("checkpointFile", checkpointFile_.getPath()) ;
+    configuration.putAll(extra) ;
+    return new AbYCSS_Settings(problem_).configure(configuration) ;
+  }
+
+  /**
+   * Runs an algorithm on a thread with its own random generator
+   * @return The generator of the thread after the run
+   */
+  private IRandomGenerator runOnThread(final Algorithm algorithm, final long seed) throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor() ;
+    try {
+      return executor.submit(new Callable<IRandomGenerator>() {
+        public IRandomGenerator call() throws Exception {
+          PseudoRandom.setThreadRandomGenerator(new RandomGenerator(seed, 0)) ;
+          try {
+            algorithm.execute() ;
+            return PseudoRandom.getRandomGenerator() ;
+          } finally {
+            PseudoRandom.setThreadRandomGenerator(null) ;
+          }
+        }
+      }).get() ;
+    } finally {
+      executor.shutdown() ;
+    }
+  }
+
+  /**
+   * Test: a run with a generator of its own thread must restore that
+   * generator from the checkpoint, and leave the shared one alone
+   */
+  @Test
+  public void testResumeRestoresTheGeneratorOfTheThread() throws Exception {
+    runOnThread(abycss(new Properties()), 1) ;
+    assertTrue("AbYCSSCheckpointTest", checkpointFile_.isFile()) ;
+
+    IRandomGenerator shared = new RandomGenerator(2L, 0) ;
+    PseudoRandom.setRandomGenerator(shared) ;
+    IRandomGenerator restored = runOnThread(abycss(new Properties()), 3) ;
+    assertTrue("AbYCSSCheckpointTest", restored instanceof RandomGenerator) ;
+    assertTrue("AbYCSSCheckpointTest", PseudoRandom.getRandomGenerator() == shared) ;
+  }
+
+  /**
+   * Test: a run resumed from the last checkpoint of a run stopped by the
+   * stagnation of the archive must stop at the same round, with the same
+   * archive
+   */
+  @Test
+  public void testResumedRunStopsAsUninterruptedRun() throws Exception {
+    Properties stagnation = new Properties() ;
+    stagnation.setProperty("maxEvaluations", "1000000") ;
+    stagnation.setProperty("maxStagnantRounds", "3") ;
+    stagnation.setProperty("maxTime", "600000") ;
+
+    PseudoRandom.setRandomGenerator(new RandomGenerator(1L, 0)) ;
+    Algorithm uninterrupted = abycss(stagnation) ;
+    SolutionSet expected = uninterrupted.execute() ;
+    assertEquals("AbYCSSCheckpointTest", "maxStagnantRounds", uninterrupted.getOutputParameter("stopCondition")) ;
+
+    PseudoRandom.setRandomGenerator(new RandomGenerator(2L, 0)) ;
+    Algorithm resumed = abycss(stagnation) ;
+    SolutionSet obtained = resumed.execute() ;
+    assertEquals("AbYCSSCheckpointTest", "maxStagnantRounds", resumed.getOutputParameter("stopCondition")) ;
+    assertEquals("AbYCSSCheckpointTest", uninterrupted.getOutputParameter("evaluations"),
+                                         resumed.getOutputParameter("evaluations")) ;
+    assertEquals("AbYCSSCheckpointTest", expected.size(), obtained.size()) ;
+    for (int i = 0 ; i < expected.size() ; i++)
+      for (int k = 0 ; k < problem_.getNumberOfObjectives() ; k++)
+        assertEquals("AbYCSSCheckpointTest", expected.get(i).getObjective(k), obtained.get(i).getObjective(k), 0.0) ;
+  }
+}
@@ -0,0 +1,92 @@
+package jmetal.test.metaheuristics.abycss;
+
+import jmetal.core.Algorithm;
+import jmetal.core.SolutionSet;
+import jmetal.core.SpamAssassinRules;
+import jmetal.experiments.settings.AbYCSS_Settings;
+import jmetal.problems.SSpamProblem2DAbYCSS;
+import jmetal.problems.spam.PrefixCache;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that AbYCSS with a parallel evaluator charges the evaluations of a
+ * problem caching them as the sequential evaluation does
+ */
+public class AbYCSSParallelTest {
+  int numberOfRules_ = 60 ;
+  SpamAssassinRules rules_ ;
+  Object evaluations_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    Random random = new Random(1) ;
+    File rulesFile = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile) ;
+    for (int i = 0 ; i < numberOfRules_ ; i++)
+      writer.println("score RULE_" + i + " " + (random.nextDouble() * 4 - 1)) ;
+    writer.close() ;
+    rules_ = new SpamAssassinRules(rulesFile.getPath()) ;
+    rulesFile.delete() ;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    PseudoRandom.setRandomGenerator(null) ;
+  }
+
+  /**
+   * Runs AbYCSS on a problem with a cache of evaluations, storing the number
+   * of evaluations charged in <code>evaluations_</code>
+   * @param threads Number of threads evaluating the offspring
+   * @return The archive found
+   */
+  private SolutionSet abycss(int threads) throws Exception {
+    SSpamProblem2DAbYCSS problem = new SSpamProblem2DAbYCSS("Permutation", rules_) ;
+    problem.setEvaluationCache(new PrefixCache(1 << 20)) ;
+    Properties configuration = new Properties() ;
+    configuration.setProperty("populationSize", "20") ;
+    configuration.setProperty("archiveSize", "20") ;
+    configuration.setProperty("refSet1Size", "5") ;
+    configuration.setProperty("refSet2Size", "5") ;
+    configuration.setProperty("maxEvaluations", "3000") ;
+    configuration.setProperty("numberOfThreads", String.valueOf(threads)) ;
+    Algorithm algorithm = new AbYCSS_Settings(problem).configure(configuration) ;
+    algorithm.setInputParameter("improvementThreads", 1) ;
+
+    PseudoRandom.setRandomGenerator(new RandomGenerator(1L, 0)) ;
+    SolutionSet archive = algorithm.execute() ;
+    evaluations_ = algorithm.getOutputParameter("evaluations") ;
+    return archive ;
+  }
+
+  /**
+   * Test: with a cached problem, the run with a parallel evaluator must
+   * charge the same evaluations and find the same archive as the sequential
+   * run
+   */
+  @Test
+  public void testCachedProblemIsChargedAsSequentially() throws Exception {
+    SolutionSet expected = abycss(1) ;
+    Object evaluations = evaluations_ ;
+    SolutionSet obtained = abycss(2) ;
+
+    assertEquals("AbYCSSParallelTest", evaluations, evaluations_) ;
+    assertTrue("AbYCSSParallelTest", expected.size() > 0) ;
+    assertEquals("AbYCSSParallelTest", expected.size(), obtained.size()) ;
+    for (int i = 0 ; i < expected.size() ; i++)
+      for (int k = 0 ; k < 2 ; k++)
+        assertEquals("AbYCSSParallelTest", expected.get(i).getObjective(k), obtained.get(i).getObjective(k), 0.0) ;
+  }
+}
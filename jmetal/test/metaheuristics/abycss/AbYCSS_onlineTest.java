@@ -0,0 +1,229 @@
+package jmetal.test.metaheuristics.abycss;
+
+import jmetal.core.RuleTable;
+import jmetal.core.Solution;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.metaheuristics.abycss.AbYCSS;
+import jmetal.metaheuristics.abycss.AbYCSS_online;
+import jmetal.problems.SSpamProblem2DAbYCSS;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the orderings of a previous run are mapped to the new rules by
+ * name, and that a new ordering is only published when it improves the
+ * published one by the margin
+ */
+public class AbYCSS_onlineTest {
+  File dropDirectory_ ;
+  File priorityFile_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    dropDirectory_ = File.createTempFile("drop", "") ;
+    dropDirectory_.delete() ;
+    dropDirectory_.mkdir() ;
+    priorityFile_ = File.createTempFile("priorities", ".cf") ;
+    priorityFile_.delete() ;
+    PseudoRandom.setRandomGenerator(new RandomGenerator(1L, 0)) ;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (File file : dropDirectory_.listFiles())
+      file.delete() ;
+    dropDirectory_.delete() ;
+    priorityFile_.delete() ;
+    PseudoRandom.setRandomGenerator(null) ;
+  }
+
+  /**
+   * Writes a scores file with the given rules
+   */
+  private File scores(File file, String [] names) throws Exception {
+    Random random = new Random(1) ;
+    PrintWriter writer = new PrintWriter(file) ;
+    for (String name : names)
+      writer.println("score " + name + " " + (random.nextDouble() * 4 - 1)) ;
+    writer.close() ;
+    return file ;
+  }
+
+  private SSpamProblem2DAbYCSS problem(String ... names) throws Exception {
+    File rulesFile = scores(File.createTempFile("rules", ".cf"), names) ;
+    SSpamProblem2DAbYCSS problem = new SSpamProblem2DAbYCSS("Permutation", new SpamAssassinRules(rulesFile.getPath())) ;
+    rulesFile.delete() ;
+    return problem ;
+  }
+
+  private String [] names(String prefix, int size) {
+    String [] names = new String[size] ;
+    for (int i = 0 ; i < size ; i++)
+      names[i] = prefix + i ;
+    return names ;
+  }
+
+  private String [] ordering(SSpamProblem2DAbYCSS problem, Solution solution) {
+    RuleTable table = problem.getRules().getTable() ;
+    int [] vector = ((Permutation) solution.getDecisionVariables()[0]).vector_ ;
+    String [] names = new String[vector.length] ;
+    for (int i = 0 ; i < vector.length ; i++)
+      names[i] = table.getName(vector[i]) ;
+    return names ;
+  }
+
+  /**
+   * Test: an ordering restated in a problem whose rules were reordered,
+   * removed and added must keep the order of the remaining rules by name,
+   * and end with the new rules
+   */
+  @Test
+  public void testRestateMapsRulesByName() throws Exception {
+    SSpamProblem2DAbYCSS previous = problem("A", "B", "C", "D", "E") ;
+    Solution solution = new Solution(previous) ;
+    Permutation permutation = (Permutation) solution.getDecisionVariables()[0] ;
+    permutation.vector_ = new int[] {3, 0, 4, 1, 2} ; // D A E B C
+    permutation.setEvaluationState(new Object()) ;
+
+    SSpamProblem2DAbYCSS problem = problem("F", "E", "C", "A", "D", "G") ;
+    Solution restated = AbYCSS.restate(problem, solution) ;
+    assertNotNull("AbYCSS_onlineTest", restated) ;
+    assertTrue("AbYCSS_onlineTest", restated.getProblem() == problem) ;
+    Permutation remapped = (Permutation) restated.getDecisionVariables()[0] ;
+    assertEquals("AbYCSS_onlineTest", 6, remapped.getLength()) ;
+    assertNull("AbYCSS_onlineTest", remapped.getEvaluationState()) ;
+    assertArrayEquals("AbYCSS_onlineTest", new String[] {"D", "A", "E", "C", "F", "G"}, ordering(problem, restated)) ;
+    problem.evaluate(restated) ;
+
+    // Within the same problem the ordering is copied unchanged
+    Solution copy = AbYCSS.restate(previous, solution) ;
+    assertArrayEquals("AbYCSS_onlineTest", permutation.vector_, ((Permutation) copy.getDecisionVariables()[0]).vector_) ;
+    assertTrue("AbYCSS_onlineTest", ((Permutation) copy.getDecisionVariables()[0]).vector_ != permutation.vector_) ;
+  }
+
+  /**
+   * Test: the improvement is the mean relative reduction of the objectives
+   * which are not 0 in the reference solution
+   */
+  @Test
+  public void testImprovement() throws Exception {
+    SSpamProblem2DAbYCSS problem = problem("A", "B") ;
+    Solution reference = new Solution(problem) ;
+    Solution solution  = new Solution(problem) ;
+    reference.setObjective(0, 200) ;
+    reference.setObjective(1, 10) ;
+    solution.setObjective(0, 150) ;
+    solution.setObjective(1, 12) ;
+    assertEquals("AbYCSS_onlineTest", (0.25 - 0.2) / 2, AbYCSS_online.improvement(reference, solution), 1e-12) ;
+
+    reference.setObjective(1, 0) ;
+    assertEquals("AbYCSS_onlineTest", 0.25, AbYCSS_online.improvement(reference, solution), 1e-12) ;
+    reference.setObjective(0, 0) ;
+    assertEquals("AbYCSS_onlineTest", 0.0, AbYCSS_online.improvement(reference, solution), 0.0) ;
+  }
+
+  /**
+   * Test: the first ordering is published; the next ones are only published
+   * if they improve it by the margin, also when rules are added or removed
+   */
+  @Test
+  public void testMarginAndPublication() throws Exception {
+    Properties configuration = new Properties() ;
+    configuration.setProperty("populationSize", "20") ;
+    configuration.setProperty("archiveSize", "20") ;
+    configuration.setProperty("refSet1Size", "5") ;
+    configuration.setProperty("refSet2Size", "5") ;
+    configuration.setProperty("maxEvaluations", "1000") ;
+    File scoresFile = new File(dropDirectory_, "scores.cf") ;
+
+    // An improvement of the objectives can not reach 2
+    scores(scoresFile, names("RULE_", 40)) ;
+    AbYCSS_online online = new AbYCSS_online(dropDirectory_.getPath(), priorityFile_.getPath(), 2.0, configuration) ;
+    assertTrue("AbYCSS_onlineTest", online.reoptimize()) ;
+    byte [] published = Files.readAllBytes(priorityFile_.toPath()) ;
+    assertFalse("AbYCSS_onlineTest", online.reoptimize()) ;
+
+    String [] changed = names("RULE_", 50) ;
+    for (int i = 0 ; i < 10 ; i++)
+      changed[i] = "NEW_" + i ;
+    scores(scoresFile, changed) ;
+    assertFalse("AbYCSS_onlineTest", online.reoptimize()) ;
+    assertArrayEquals("AbYCSS_onlineTest", published, Files.readAllBytes(priorityFile_.toPath())) ;
+
+    // Any ordering is published with an unbounded margin
+    scores(scoresFile, names("RULE_", 40)) ;
+    online = new AbYCSS_online(dropDirectory_.getPath(), priorityFile_.getPath(), Double.NEGATIVE_INFINITY, configuration) ;
+    assertTrue("AbYCSS_onlineTest", online.reoptimize()) ;
+    scores(scoresFile, changed) ;
+    assertTrue("AbYCSS_onlineTest", online.reoptimize()) ;
+    String priorities = new String(Files.readAllBytes(priorityFile_.toPath()), "UTF-8") ;
+    assertTrue("AbYCSS_onlineTest", priorities.contains("priority NEW_0 ")) ;
+    assertFalse("AbYCSS_onlineTest", priorities.contains("priority RULE_0 ")) ;
+  }
+
+  /**
+   * Test: the service must go on polling after a re-optimization fails, and
+   * publish an ordering once the statistics are fixed
+   */
+  @Test
+  public void testServiceSurvivesMalformedStatistics() throws Exception {
+    Properties configuration = new Properties() ;
+    configuration.setProperty("populationSize", "20") ;
+    configuration.setProperty("archiveSize", "20") ;
+    configuration.setProperty("refSet1Size", "5") ;
+    configuration.setProperty("refSet2Size", "5") ;
+    configuration.setProperty("maxEvaluations", "500") ;
+    scores(new File(dropDirectory_, "scores.cf"), names("RULE_", 20)) ;
+    File costsFile = new File(dropDirectory_, "costs.cf") ;
+    PrintWriter writer = new PrintWriter(costsFile) ;
+    writer.println("cost RULE_0 not-a-number") ;
+    writer.close() ;
+
+    final AbYCSS_online online = new AbYCSS_online(dropDirectory_.getPath(), priorityFile_.getPath(), 0.0, configuration) ;
+    final Exception [] failure = new Exception[1] ;
+    Thread service = new Thread(new Runnable() {
+      public void run() {
+        try {
+          online.run(20) ;
+        } catch (Exception e) {
+          failure[0] = e ;
+        }
+      }
+    }) ;
+    service.start() ;
+    try {
+      Thread.sleep(500) ;
+      assertTrue("AbYCSS_onlineTest", service.isAlive()) ;
+      assertFalse("AbYCSS_onlineTest", priorityFile_.exists()) ;
+
+      writer = new PrintWriter(costsFile) ;
+      writer.println("cost RULE_0 2.5") ;
+      writer.close() ;
+      costsFile.setLastModified(System.currentTimeMillis() + 10000) ;
+      for (int i = 0 ; (i < 300) && !priorityFile_.exists() ; i++)
+        Thread.sleep(100) ;
+      assertTrue("AbYCSS_onlineTest", priorityFile_.exists()) ;
+    } finally {
+      service.interrupt() ;
+      service.join() ;
+    }
+    assertNull("AbYCSS_onlineTest", failure[0]) ;
+  }
+}
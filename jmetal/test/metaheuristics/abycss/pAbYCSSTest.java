@@ -0,0 +1,149 @@
+package jmetal.test.metaheuristics.abycss;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.experiments.settings.pAbYCSS_Settings;
+import jmetal.metaheuristics.abycss.AbYCSS;
+import jmetal.metaheuristics.abycss.Migration;
+import jmetal.metaheuristics.abycss.pAbYCSS;
+import jmetal.problems.SSpamProblem2DAbYCSS;
+import jmetal.util.PseudoRandom;
+import jmetal.util.RandomGenerator;
+import jmetal.util.comparators.DominanceComparator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the exchange of solutions between two islands and the merge of
+ * their archives
+ */
+public class pAbYCSSTest {
+  int numberOfRules_ = 60 ;
+  SSpamProblem2DAbYCSS problem_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    Random random = new Random(1) ;
+    File rulesFile = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile) ;
+    for (int i = 0 ; i < numberOfRules_ ; i++)
+      writer.println("score RULE_" + i + " " + (random.nextDouble() * 4 - 1)) ;
+    writer.close() ;
+    problem_ = new SSpamProblem2DAbYCSS("Permutation", new SpamAssassinRules(rulesFile.getPath())) ;
+    rulesFile.delete() ;
+    PseudoRandom.setRandomGenerator(new RandomGenerator(1L, 0)) ;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    PseudoRandom.setRandomGenerator(null) ;
+  }
+
+  private SolutionSet solutions(int size) throws Exception {
+    SolutionSet solutions = new SolutionSet(size) ;
+    for (int i = 0 ; i < size ; i++) {
+      Solution solution = new Solution(problem_) ;
+      problem_.evaluate(solution) ;
+      solutions.add(solution) ;
+    }
+    return solutions ;
+  }
+
+  /**
+   * Test: each island must receive copies of the first solutions sent by
+   * the other one, once, and only at the migration rounds
+   */
+  @Test
+  public void testRingExchangeBetweenTwoIslands() throws Exception {
+    Migration migration = new Migration(2, 2, 3) ;
+    assertFalse("pAbYCSSTest", migration.isMigrationRound(1)) ;
+    assertTrue("pAbYCSSTest", migration.isMigrationRound(2)) ;
+    assertTrue("pAbYCSSTest", migration.isMigrationRound(4)) ;
+
+    SolutionSet archive0 = solutions(5) ;
+    SolutionSet archive1 = solutions(2) ;
+    migration.emigrate(0, archive0) ;
+    assertEquals("pAbYCSSTest", 0, migration.immigrate(0).size()) ;
+
+    List<Solution> immigrants = migration.immigrate(1) ;
+    assertEquals("pAbYCSSTest", 3, immigrants.size()) ;
+    for (int i = 0 ; i < 3 ; i++) {
+      Solution sent = archive0.get(i) ;
+      Solution received = immigrants.get(i) ;
+      assertTrue("pAbYCSSTest", sent != received) ;
+      assertEquals("pAbYCSSTest", sent.getObjective(0), received.getObjective(0), 0.0) ;
+      assertEquals("pAbYCSSTest", sent.getObjective(1), received.getObjective(1), 0.0) ;
+      assertArrayEquals("pAbYCSSTest", ((Permutation) sent.getDecisionVariables()[0]).vector_,
+                                       ((Permutation) received.getDecisionVariables()[0]).vector_) ;
+    }
+    assertEquals("pAbYCSSTest", 0, migration.immigrate(1).size()) ;
+
+    migration.emigrate(1, archive1) ;
+    migration.emigrate(1, archive1) ;
+    assertEquals("pAbYCSSTest", 4, migration.immigrate(0).size()) ;
+    assertEquals("pAbYCSSTest", 0, migration.immigrate(1).size()) ;
+  }
+
+  /**
+   * Test: two islands, configured with several threads, must run
+   * sequentially, spend their budgets and return a non-dominated front
+   */
+  @Test
+  public void testTwoIslands() throws Exception {
+    Properties configuration = new Properties() ;
+    configuration.setProperty("numberOfIslands", "2") ;
+    configuration.setProperty("migrationInterval", "1") ;
+    configuration.setProperty("migrants", "3") ;
+    configuration.setProperty("numberOfThreads", "4") ;
+    configuration.setProperty("populationSize", "20") ;
+    configuration.setProperty("archiveSize", "20") ;
+    configuration.setProperty("refSet1Size", "5") ;
+    configuration.setProperty("refSet2Size", "5") ;
+    configuration.setProperty("maxEvaluations", "4000") ;
+    pAbYCSS algorithm = (pAbYCSS) new pAbYCSS_Settings(problem_).configure(configuration) ;
+
+    AbYCSS [] islands = algorithm.getIslands() ;
+    assertEquals("pAbYCSSTest", 2, islands.length) ;
+    for (AbYCSS island : islands) {
+      assertEquals("pAbYCSSTest", 1, ((Integer) island.getInputParameter("improvementThreads")).intValue()) ;
+      assertEquals("pAbYCSSTest", 2000, ((Integer) island.getInputParameter("maxEvaluations")).intValue()) ;
+    }
+
+    SolutionSet front = algorithm.execute() ;
+    int evaluations = 0 ;
+    for (AbYCSS island : islands) {
+      int islandEvaluations = (Integer) island.getOutputParameter("evaluations") ;
+      assertTrue("pAbYCSSTest", islandEvaluations >= 2000) ;
+      evaluations += islandEvaluations ;
+    }
+    assertEquals("pAbYCSSTest", evaluations, ((Integer) algorithm.getOutputParameter("evaluations")).intValue()) ;
+
+    assertTrue("pAbYCSSTest", front.size() > 0) ;
+    assertTrue("pAbYCSSTest", front.size() <= 20) ;
+    DominanceComparator dominance = new DominanceComparator() ;
+    for (int i = 0 ; i < front.size() ; i++) {
+      int [] vector = ((Permutation) front.get(i).getDecisionVariables()[0]).vector_ ;
+      boolean [] seen = new boolean[numberOfRules_] ;
+      for (int rule : vector) {
+        assertFalse("pAbYCSSTest", seen[rule]) ;
+        seen[rule] = true ;
+      }
+      for (int j = 0 ; j < front.size() ; j++)
+        assertTrue("pAbYCSSTest", (i == j) || (dominance.compare(front.get(i), front.get(j)) != -1)) ;
+    }
+  }
+}
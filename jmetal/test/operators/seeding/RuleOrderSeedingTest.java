@@ -0,0 +1,105 @@
+package jmetal.test.operators.seeding;
+
+import jmetal.core.Algorithm;
+import jmetal.core.SolutionSet;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.experiments.settings.AbYCSS_Settings;
+import jmetal.operators.seeding.RuleOrderSeeding;
+import jmetal.problems.SSpamProblem2DAbYCSS;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the seeds are valid permutations following the greedy
+ * orderings, whatever the size of the rule table, and that the seeding is
+ * only used when requested
+ */
+public class RuleOrderSeedingTest {
+
+  private SpamAssassinRules rules(int numberOfRules, long seed) throws Exception {
+    Random random = new Random(seed) ;
+    File rulesFile = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile) ;
+    for (int i = 0 ; i < numberOfRules ; i++)
+      writer.println("score RULE_" + i + " " + (random.nextDouble() * 4 - 1)) ;
+    writer.close() ;
+    SpamAssassinRules rules = new SpamAssassinRules(rulesFile.getPath()) ;
+    rulesFile.delete() ;
+    return rules ;
+  }
+
+  private SolutionSet seeds(SSpamProblem2DAbYCSS problem, SpamAssassinRules rules, int numberOfSeeds) throws Exception {
+    HashMap<String, Object> parameters = new HashMap<String, Object>() ;
+    parameters.put("problem", problem) ;
+    parameters.put("ruleTable", rules.getTable()) ;
+    parameters.put("perturbationSwaps", 0) ;
+    return (SolutionSet) new RuleOrderSeeding(parameters).execute(numberOfSeeds) ;
+  }
+
+  /**
+   * Test: with a rule table smaller or larger than the permutations, the
+   * seeds must be permutations whose first rules follow the constructed
+   * ordering
+   */
+  @Test
+  public void testSeedsArePermutations() throws Exception {
+    SSpamProblem2DAbYCSS problem = new SSpamProblem2DAbYCSS("Permutation", rules(50, 1)) ;
+    for (int tableSize : new int[] {30, 50, 80}) {
+      SpamAssassinRules table = rules(tableSize, 2) ;
+      HashMap<String, Object> parameters = new HashMap<String, Object>() ;
+      parameters.put("problem", problem) ;
+      parameters.put("ruleTable", table.getTable()) ;
+      int [] constructed = new RuleOrderSeeding(parameters).construct(0.0) ;
+
+      SolutionSet seeds = seeds(problem, table, 10) ;
+      assertEquals("RuleOrderSeedingTest", 10, seeds.size()) ;
+      for (int s = 0 ; s < seeds.size() ; s++) {
+        int [] vector = ((Permutation) seeds.get(s).getDecisionVariables()[0]).vector_ ;
+        assertEquals("RuleOrderSeedingTest", 50, vector.length) ;
+        boolean [] seen = new boolean[50] ;
+        for (int rule : vector) {
+          assertTrue("RuleOrderSeedingTest: " + tableSize, !seen[rule]) ;
+          seen[rule] = true ;
+        }
+      }
+
+      int [] first = ((Permutation) seeds.get(0).getDecisionVariables()[0]).vector_ ;
+      int n = 0 ;
+      for (int rule : constructed)
+        if (rule < 50)
+          assertEquals("RuleOrderSeedingTest", rule, first[n++]) ;
+      for (int index = n + 1 ; index < 50 ; index++)
+        assertTrue("RuleOrderSeedingTest", first[index - 1] < first[index]) ;
+    }
+  }
+
+  /**
+   * Test: the seeding operator must only be added when the "seeding"
+   * property is true
+   */
+  @Test
+  public void testSeedingIsOptIn() throws Exception {
+    SSpamProblem2DAbYCSS problem = new SSpamProblem2DAbYCSS("Permutation", rules(50, 1)) ;
+    Algorithm algorithm = new AbYCSS_Settings(problem).configure() ;
+    assertNull("RuleOrderSeedingTest", algorithm.getOperator("seeding")) ;
+
+    Properties configuration = new Properties() ;
+    algorithm = new AbYCSS_Settings(problem).configure(configuration) ;
+    assertNull("RuleOrderSeedingTest", algorithm.getOperator("seeding")) ;
+
+    configuration.setProperty("seeding", "true") ;
+    algorithm = new AbYCSS_Settings(problem).configure(configuration) ;
+    assertNotNull("RuleOrderSeedingTest", algorithm.getOperator("seeding")) ;
+  }
+}
@@ -0,0 +1,102 @@
+package jmetal.test.problems;
+
+import jmetal.core.Solution;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.problems.SSpamProblem2D;
+import jmetal.problems.spam.ITraceSink;
+import jmetal.util.parallel.MultithreadedEvaluator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that SSpamProblem2D gives the same results when the solutions are
+ * evaluated concurrently with a MultithreadedEvaluator and sequentially
+ */
+public class SSpamProblem2DConcurrencyTest {
+  int numberOfRules_ = 900 ;
+  int numberOfSolutions_ = 10000 ;
+  int numberOfRounds_ = 100 ;
+  File rulesFile_ ;
+  SpamAssassinRules rules_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    Random random = new Random(1) ;
+    rulesFile_ = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile_) ;
+    for (int i = 0 ; i < numberOfRules_ ; i++) {
+      double score = (random.nextInt(20) == 0) ? 100 : random.nextDouble() * 4 - 1 ;
+      writer.println("score RULE_" + i + " " + score) ;
+    }
+    writer.close() ;
+    rules_ = new SpamAssassinRules(rulesFile_.getPath()) ;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    rulesFile_.delete() ;
+  }
+
+  /**
+   * Test: one million evaluations using all the cores must give the results
+   * of the sequential evaluation, and each evaluation must get a different
+   * number
+   */
+  @Test
+  public void testParallelEvaluationMatchesSequentialEvaluation() throws Exception {
+    final AtomicIntegerArray traced = new AtomicIntegerArray(numberOfSolutions_ * numberOfRounds_ + 1) ;
+    SSpamProblem2D problem = new SSpamProblem2D("Permutation", rules_) ;
+    SSpamProblem2D sequential = new SSpamProblem2D("Permutation", rules_) ;
+    problem.setTraceSink(new ITraceSink() {
+      public void trace(long evaluation, int [] order, int scanned,
+                        double totalTime, int executedRules, double totalScore) {
+        traced.incrementAndGet((int) evaluation) ;
+      }
+      public void close() {
+      }
+    }) ;
+
+    Random random = new Random(2) ;
+    Solution [] solutions = new Solution[numberOfSolutions_] ;
+    for (int i = 0 ; i < numberOfSolutions_ ; i++)
+      solutions[i] = new Solution(problem) ;
+
+    MultithreadedEvaluator evaluator = new MultithreadedEvaluator(0) ;
+    evaluator.startEvaluator(problem) ;
+    try {
+      for (int round = 0 ; round < numberOfRounds_ ; round++) {
+        for (Solution solution : solutions) {
+          ((Permutation) solution.getDecisionVariables()[0]).swap(random.nextInt(numberOfRules_),
+                                                                 random.nextInt(numberOfRules_)) ;
+          evaluator.addSolutionForEvaluation(solution) ;
+        }
+        List<Solution> evaluated = evaluator.parallelEvaluation() ;
+        assertEquals("SSpamProblem2DConcurrencyTest", numberOfSolutions_, evaluated.size()) ;
+
+        for (int i = 0 ; i < numberOfSolutions_ ; i++) {
+          Solution copy = new Solution(solutions[i]) ;
+          ((Permutation) copy.getDecisionVariables()[0]).setEvaluationState(null) ;
+          sequential.evaluate(copy) ;
+          assertEquals("SSpamProblem2DConcurrencyTest", copy.getObjective(0), evaluated.get(i).getObjective(0), 0.0) ;
+          assertEquals("SSpamProblem2DConcurrencyTest", copy.getObjective(1), evaluated.get(i).getObjective(1), 0.0) ;
+        }
+      }
+    } finally {
+      evaluator.stopEvaluator() ;
+    }
+
+    assertEquals("SSpamProblem2DConcurrencyTest", 0, traced.get(0)) ;
+    for (int i = 1 ; i < traced.length() ; i++)
+      assertEquals("SSpamProblem2DConcurrencyTest", 1, traced.get(i)) ;
+  }
+}
@@ -0,0 +1,138 @@
+package jmetal.test.problems.spam;
+
+import jmetal.core.RuleTable;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.problems.spam.CorpusHitMatrix;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the batched evaluation of rule orderings over a corpus against a
+ * message by message evaluation
+ */
+public class CorpusHitMatrixTest {
+  int numberOfRules_ = 100 ;
+  int numberOfMessages_ = 150 ;
+  File rulesFile_ ;
+  File logFile_ ;
+  SpamAssassinRules rules_ ;
+  boolean [][] hits_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    Random random = new Random(1) ;
+    rulesFile_ = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile_) ;
+    for (int i = 0 ; i < numberOfRules_ ; i++) {
+      double score = (random.nextInt(20) == 0) ? 100 : random.nextDouble() * 3 - 0.5 ;
+      writer.println("score RULE_" + i + " " + score) ;
+    }
+    writer.close() ;
+    rules_ = new SpamAssassinRules(rulesFile_.getPath()) ;
+
+    hits_ = new boolean[numberOfMessages_][numberOfRules_] ;
+    logFile_ = File.createTempFile("spam", ".log") ;
+    writer = new PrintWriter(logFile_) ;
+    writer.println("# mass-check results") ;
+    for (int m = 0 ; m < numberOfMessages_ ; m++) {
+      StringBuilder tests = new StringBuilder() ;
+      for (int i = 0 ; i < numberOfRules_ ; i++) {
+        if (random.nextInt(10) == 0) {
+          hits_[m][i] = true ;
+          tests.append(tests.length() == 0 ? "" : ",").append("RULE_").append(i) ;
+        }
+      }
+      String prefix = (m % 2 == 0) ? "tests=" : "" ;
+      writer.println((m % 3 == 0 ? "." : "Y") + "  7 /corpus/" + m + " " + prefix + tests + ",UNKNOWN time=1") ;
+    }
+    writer.close() ;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    rulesFile_.delete() ;
+    logFile_.delete() ;
+  }
+
+  /**
+   * Test: the mean time and number of rules run per message must be those of
+   * running the rules on each message until the threshold is reached
+   */
+  @Test
+  public void testBatchedEvaluationMatchesPerMessageEvaluation() throws Exception {
+    RuleTable table = rules_.getTable() ;
+    CorpusHitMatrix corpus = new CorpusHitMatrix(table, CorpusHitMatrix.DEFAULT_THRESHOLD, logFile_.getPath()) ;
+    assertEquals("CorpusHitMatrixTest", numberOfMessages_, corpus.getNumberOfMessages()) ;
+    assertTrue("CorpusHitMatrixTest", corpus.isSpam(1)) ;
+    assertTrue("CorpusHitMatrixTest", !corpus.isSpam(3)) ;
+
+    double [] result = new double[3] ;
+    for (int k = 0 ; k < 100 ; k++) {
+      int [] order = new Permutation(numberOfRules_).vector_ ;
+      double time = 0 ;
+      long executed = 0 ;
+      long reached = 0 ;
+      for (int m = 0 ; m < numberOfMessages_ ; m++) {
+        double score = 0 ;
+        for (int i = 0 ; i < numberOfRules_ ; i++) {
+          int x = order[i] ;
+          if (table.isExcluded(x))
+            continue ;
+          assertEquals("CorpusHitMatrixTest", hits_[m][x], corpus.hits(m, x)) ;
+          time += table.getCPU(x) + table.getIO(x) ;
+          executed++ ;
+          if (hits_[m][x])
+            score += table.getScore(x) ;
+          if (score >= CorpusHitMatrix.DEFAULT_THRESHOLD) {
+            reached++ ;
+            break ;
+          }
+        }
+      }
+
+      corpus.evaluate(order, numberOfRules_, result) ;
+      assertEquals("CorpusHitMatrixTest", time / numberOfMessages_, result[0], 1e-9) ;
+      assertEquals("CorpusHitMatrixTest", (double) executed / numberOfMessages_, result[1], 1e-12) ;
+      assertEquals("CorpusHitMatrixTest", (double) reached / numberOfMessages_, result[2], 1e-12) ;
+    }
+  }
+
+  /**
+   * Test: a rule listed twice in a line must be counted once, and a message
+   * whose score equals the threshold must stop
+   */
+  @Test
+  public void testRepeatedRulesAreCountedOnce() throws Exception {
+    File rulesFile = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile) ;
+    writer.println("score A 2.5") ;
+    writer.println("score B 2.5") ;
+    writer.close() ;
+    RuleTable table = new SpamAssassinRules(rulesFile.getPath()).getTable() ;
+    rulesFile.delete() ;
+
+    File logFile = File.createTempFile("spam", ".log") ;
+    writer = new PrintWriter(logFile) ;
+    writer.println("Y 5 /msg tests=A,B,A") ;
+    writer.println("Y 5 /msg2 A,A") ;
+    writer.close() ;
+    CorpusHitMatrix corpus = new CorpusHitMatrix(table, CorpusHitMatrix.DEFAULT_THRESHOLD, logFile.getPath()) ;
+    logFile.delete() ;
+
+    assertEquals("CorpusHitMatrixTest", 2, corpus.getNumberOfMessages()) ;
+    double [] result = new double[3] ;
+    corpus.evaluate(new int[] {0, 1}, 2, result) ;
+    // The first message reaches 5.0 after both rules; the second one only 2.5
+    assertEquals("CorpusHitMatrixTest", 2.0, result[1], 0.0) ;
+    assertEquals("CorpusHitMatrixTest", 0.5, result[2], 0.0) ;
+  }
+}
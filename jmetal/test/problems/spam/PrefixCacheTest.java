@@ -0,0 +1,122 @@
+package jmetal.test.problems.spam;
+
+import jmetal.core.Solution;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.problems.SSpamProblem2D;
+import jmetal.problems.spam.PrefixCache;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the lookups and the evictions of the cache of evaluations, and that
+ * the evaluations found in the cache are not charged
+ */
+public class PrefixCacheTest {
+
+  private int [] order(int ... values) {
+    return values ;
+  }
+
+  /**
+   * Test: an ordering starting with a stored prefix must be found, with the
+   * stored results; the other orderings must not
+   */
+  @Test
+  public void testHits() {
+    PrefixCache cache = new PrefixCache(1 << 20) ;
+    double [] result = new double[3] ;
+    cache.store(order(4, 2, 7, 1, 0, 3, 5, 6), 3, new double[] {1.5, 3, 7}) ;
+
+    assertTrue("PrefixCacheTest", cache.lookup(order(4, 2, 7, 0, 1, 6, 5, 3), 8, result)) ;
+    assertArrayEquals("PrefixCacheTest", new double[] {1.5, 3, 7}, result, 0.0) ;
+    assertFalse("PrefixCacheTest", cache.lookup(order(4, 7, 2, 1, 0, 3, 5, 6), 8, result)) ;
+    assertFalse("PrefixCacheTest", cache.lookup(order(4, 2, 6, 1, 0, 3, 5, 7), 8, result)) ;
+    // Only the first positions of the ordering are taken into account
+    assertFalse("PrefixCacheTest", cache.lookup(order(4, 2, 7, 1, 0, 3, 5, 6), 2, result)) ;
+
+    assertEquals("PrefixCacheTest", 1, cache.getHits()) ;
+    assertEquals("PrefixCacheTest", 3, cache.getMisses()) ;
+    assertEquals("PrefixCacheTest", 0.25, cache.getHitRate(), 0.0) ;
+  }
+
+  /**
+   * Test: the estimated size of the entries must never exceed the budget,
+   * and the entries used recently must be kept
+   */
+  @Test
+  public void testEvictionUnderMemoryBound() {
+    Random random = new Random(1) ;
+    PrefixCache cache = new PrefixCache(4096) ;
+    double [] result = new double[3] ;
+    int [] recent = order(99, 98, 97, 96) ;
+    cache.store(recent, 4, new double[] {1, 2, 3}) ;
+    for (int i = 0 ; i < 1000 ; i++) {
+      int [] order = new Permutation(20).vector_ ;
+      cache.store(order, 1 + random.nextInt(20), new double[] {i, i, i}) ;
+      assertTrue("PrefixCacheTest", cache.getBytes() <= 4096) ;
+      assertTrue("PrefixCacheTest", cache.lookup(recent, 4, result)) ;
+    }
+    assertTrue("PrefixCacheTest", cache.size() > 1) ;
+    assertTrue("PrefixCacheTest", cache.size() < 1000) ;
+
+    // An entry larger than the budget is not stored
+    PrefixCache small = new PrefixCache(64) ;
+    small.store(recent, 4, result) ;
+    assertEquals("PrefixCacheTest", 0, small.size()) ;
+    assertEquals("PrefixCacheTest", 0, small.getBytes()) ;
+  }
+
+  /**
+   * Test: the problem must charge the evaluations computed, but not those
+   * found in the cache, which must give the same objectives
+   */
+  @Test
+  public void testEvaluationsFoundAreNotCharged() throws Exception {
+    Random random = new Random(2) ;
+    File rulesFile = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile) ;
+    for (int i = 0 ; i < 200 ; i++)
+      writer.println("score RULE_" + i + " " + (random.nextDouble() * 4 - 1)) ;
+    writer.close() ;
+    SpamAssassinRules rules = new SpamAssassinRules(rulesFile.getPath()) ;
+    rulesFile.delete() ;
+
+    SSpamProblem2D problem = new SSpamProblem2D("Permutation", rules) ;
+    SSpamProblem2D uncached = new SSpamProblem2D("Permutation", rules) ;
+    PrefixCache cache = new PrefixCache(1 << 20) ;
+    problem.setEvaluationCache(cache) ;
+
+    Solution solution = new Solution(problem) ;
+    Solution copy = new Solution(problem) ;
+    Permutation permutation = (Permutation) solution.getDecisionVariables()[0] ;
+    Permutation copied = (Permutation) copy.getDecisionVariables()[0] ;
+    copied.vector_ = permutation.vector_.clone() ;
+
+    assertEquals("PrefixCacheTest", 1, problem.evaluateCharged(solution)) ;
+    assertEquals("PrefixCacheTest", 0, problem.evaluateCharged(copy)) ;
+    assertEquals("PrefixCacheTest", solution.getObjective(0), copy.getObjective(0), 0.0) ;
+    assertEquals("PrefixCacheTest", solution.getObjective(1), copy.getObjective(1), 0.0) ;
+
+    // Moving the rules after the effective prefix leaves the evaluation unchanged
+    int scanned = (int) solution.getObjective(1) ;
+    assertTrue("PrefixCacheTest", scanned < 198) ;
+    copied.swap(198, 199) ;
+    assertEquals("PrefixCacheTest", 0, problem.evaluateCharged(copy)) ;
+    assertEquals("PrefixCacheTest", 1, uncached.evaluateCharged(copy)) ;
+    assertEquals("PrefixCacheTest", solution.getObjective(0), copy.getObjective(0), 0.0) ;
+
+    copied.swap(0, 199) ;
+    assertEquals("PrefixCacheTest", 1, problem.evaluateCharged(copy)) ;
+    assertEquals("PrefixCacheTest", 2, cache.getHits()) ;
+    assertEquals("PrefixCacheTest", 2, cache.getMisses()) ;
+  }
+}
@@ -0,0 +1,205 @@
+package jmetal.test.problems.spam;
+
+import jmetal.core.Solution;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.problems.SSpamProblem2DAbYCSS;
+import jmetal.problems.spam.ITraceSink;
+import jmetal.problems.spam.RingBufferTraceSink;
+import jmetal.problems.spam.SampledTraceSink;
+import jmetal.problems.spam.TraceDecoder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the traces written by the ring buffer sink are decoded into
+ * the text traces of the spam problems, whether the records are dropped or
+ * wait when the buffer is full, and the sampling of the traces
+ */
+public class RingBufferTraceSinkTest {
+  int numberOfRules_ = 60 ;
+  SpamAssassinRules rules_ ;
+  File traceFile_ ;
+  File outputDirectory_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    Random random = new Random(1) ;
+    File rulesFile = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile) ;
+    for (int i = 0 ; i < numberOfRules_ ; i++) {
+      double score = (random.nextInt(20) == 0) ? 100 : random.nextDouble() * 4 - 0.5 ;
+      writer.println("score RULE_" + i + " " + score) ;
+    }
+    writer.close() ;
+    rules_ = new SpamAssassinRules(rulesFile.getPath()) ;
+    rulesFile.delete() ;
+
+    traceFile_ = File.createTempFile("trace", ".bin") ;
+    outputDirectory_ = File.createTempFile("traces", "") ;
+    outputDirectory_.delete() ;
+    outputDirectory_.mkdir() ;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    traceFile_.delete() ;
+    for (File file : outputDirectory_.listFiles())
+      file.delete() ;
+    outputDirectory_.delete() ;
+  }
+
+  /**
+   * Returns the text trace of an evaluation, as written by the spam problems
+   * before the binary traces: the rules run until the score exceeds 50
+   */
+  private String textTrace(int [] order) {
+    StringWriter text = new StringWriter() ;
+    PrintWriter writer = new PrintWriter(text) ;
+    double totalScore = 0 ;
+    double totalTime = 0 ;
+    int executedRules = 0 ;
+    for (int i = 0 ; i < order.length ; i++) {
+      int x = order[i] ;
+      if (rules_.getRule(x).getScore() > 99 || rules_.getRule(x).getScore() < -30) continue ;
+      totalTime += rules_.getRule(x).getCPU() + rules_.getRule(x).getIO() ;
+      writer.println(i + 1 + " [" + x + "] " + rules_.getRule(x).getName() + " has a score of " + rules_.getRule(x).getScore()) ;
+      totalScore += rules_.getRule(x).getScore() ;
+      if (totalScore > 50) {
+        executedRules = i + 1 ;
+        break ;
+      }
+    }
+    writer.println("totalTime: " + totalTime + " | executedRules: " + executedRules + " | totalScore: " + totalScore + "\n") ;
+    writer.close() ;
+    return text.toString() ;
+  }
+
+  private String decoded(long evaluation) throws Exception {
+    return new String(Files.readAllBytes(new File(outputDirectory_, evaluation + ".txt").toPath()), "UTF-8") ;
+  }
+
+  /**
+   * Test: the decoded traces of the evaluations of a problem must be the
+   * text traces of the orderings evaluated
+   */
+  @Test
+  public void testDecodedTracesMatchTextTraces() throws Exception {
+    SSpamProblem2DAbYCSS problem = new SSpamProblem2DAbYCSS("Permutation", rules_) ;
+    RingBufferTraceSink sink = new RingBufferTraceSink(traceFile_.getPath(), 1 << 16, false) ;
+    problem.setTraceSink(sink) ;
+    List<int []> orders = new ArrayList<int []>() ;
+    for (int k = 0 ; k < 200 ; k++) {
+      Solution solution = new Solution(problem) ;
+      orders.add(((Permutation) solution.getDecisionVariables()[0]).vector_.clone()) ;
+      problem.evaluate(solution) ;
+    }
+    sink.close() ;
+    assertEquals("RingBufferTraceSinkTest", 0, sink.getDroppedRecords()) ;
+
+    long records = new TraceDecoder(rules_).decode(traceFile_.getPath(), outputDirectory_.getPath()) ;
+    assertEquals("RingBufferTraceSinkTest", 200, records) ;
+    boolean reached = false ;
+    for (int k = 0 ; k < 200 ; k++) {
+      String expected = textTrace(orders.get(k)) ;
+      assertEquals("RingBufferTraceSinkTest", expected, decoded(k + 1)) ;
+      reached |= !expected.contains("executedRules: 0 |") ;
+    }
+    assertTrue("RingBufferTraceSinkTest", reached) ;
+  }
+
+  /**
+   * Writes traces of random orderings from several threads
+   * @return The orderings traced, by evaluation number
+   */
+  private int [][] trace(final ITraceSink sink, int threads, final int tracesPerThread) throws Exception {
+    final int [][] orders = new int[threads * tracesPerThread][] ;
+    Random random = new Random(2) ;
+    for (int e = 0 ; e < orders.length ; e++) {
+      orders[e] = new int[1 + random.nextInt(20)] ;
+      for (int i = 0 ; i < orders[e].length ; i++)
+        orders[e][i] = random.nextInt(numberOfRules_) ;
+    }
+    Thread [] writers = new Thread[threads] ;
+    for (int t = 0 ; t < threads ; t++) {
+      final int first = t * tracesPerThread ;
+      writers[t] = new Thread(new Runnable() {
+        public void run() {
+          for (int e = first ; e < first + tracesPerThread ; e++)
+            sink.trace(e, orders[e], orders[e].length, e * 0.5, e % 7, e * 0.25) ;
+        }
+      }) ;
+      writers[t].start() ;
+    }
+    for (Thread writer : writers)
+      writer.join() ;
+    sink.close() ;
+    return orders ;
+  }
+
+  /**
+   * Test: with a buffer smaller than the traces written, the records must
+   * either be written or counted as dropped, and a record larger than the
+   * buffer must be dropped
+   */
+  @Test
+  public void testRecordsAreDroppedWhenFull() throws Exception {
+    RingBufferTraceSink sink = new RingBufferTraceSink(traceFile_.getPath(), 256, true) ;
+    sink.trace(-1, new int[60], 60, 0, 0, 0) ;
+    assertEquals("RingBufferTraceSinkTest", 1, sink.getDroppedRecords()) ;
+
+    int [][] orders = trace(sink, 4, 500) ;
+    long records = new TraceDecoder(rules_).decode(traceFile_.getPath(), outputDirectory_.getPath()) ;
+    assertEquals("RingBufferTraceSinkTest", orders.length + 1, records + sink.getDroppedRecords()) ;
+    assertEquals("RingBufferTraceSinkTest", records, outputDirectory_.listFiles().length) ;
+  }
+
+  /**
+   * Test: with a buffer smaller than the traces written, the threads must
+   * wait for the writer and no record must be lost
+   */
+  @Test
+  public void testRecordsWaitWhenFull() throws Exception {
+    RingBufferTraceSink sink = new RingBufferTraceSink(traceFile_.getPath(), 256, false) ;
+    int [][] orders = trace(sink, 4, 500) ;
+    assertEquals("RingBufferTraceSinkTest", 0, sink.getDroppedRecords()) ;
+    long records = new TraceDecoder(rules_).decode(traceFile_.getPath(), outputDirectory_.getPath()) ;
+    assertEquals("RingBufferTraceSinkTest", orders.length, records) ;
+
+    int e = 1234 ;
+    String trace = decoded(e) ;
+    assertTrue("RingBufferTraceSinkTest", trace.endsWith("totalTime: " + (e * 0.5) + " | executedRules: " + (e % 7) +
+                                                         " | totalScore: " + (e * 0.25) + "\n" + System.lineSeparator())) ;
+    for (int i = 0 ; i < orders[e].length ; i++) {
+      int x = orders[e][i] ;
+      String line = i + 1 + " [" + x + "] RULE_" + x + " has a score of " + rules_.getRule(x).getScore() ;
+      assertEquals("RingBufferTraceSinkTest", !rules_.getTable().isExcluded(x), trace.contains(line)) ;
+    }
+  }
+
+  /**
+   * Test: only the evaluations whose number is a multiple of the period must
+   * be forwarded
+   */
+  @Test
+  public void testSampling() throws Exception {
+    RingBufferTraceSink sink = new RingBufferTraceSink(traceFile_.getPath(), 1 << 16, false) ;
+    int [][] orders = trace(new SampledTraceSink(sink, 10), 1, 95) ;
+    long records = new TraceDecoder(rules_).decode(traceFile_.getPath(), outputDirectory_.getPath()) ;
+    assertEquals("RingBufferTraceSinkTest", 10, records) ;
+    for (int e = 0 ; e < orders.length ; e++)
+      assertEquals("RingBufferTraceSinkTest", (e % 10) == 0, new File(outputDirectory_, e + ".txt").isFile()) ;
+  }
+}
@@ -0,0 +1,103 @@
+package jmetal.test.problems.spam;
+
+import jmetal.core.RuleTable;
+import jmetal.core.SpamAssassinRules;
+import jmetal.problems.spam.RuleCostProfiler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the costs measured by the profiler are the ones read by
+ * SpamAssassinRules
+ */
+public class RuleCostProfilerTest {
+  File definitionsFile_ ;
+  File rulesFile_ ;
+  File costFile_ ;
+  File corpusDirectory_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    definitionsFile_ = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(definitionsFile_) ;
+    writer.println("header SUBJ_FREE    Subject =~ /\\bfree\\b/i") ;
+    writer.println("body   BODY_MONEY   /money\\s+back/") ;
+    writer.println("uri    URI_CLICK    m{click\\.example\\.com}i") ;
+    writer.println("header FROM_EVAL    eval:check_from()") ;
+    writer.println("body   BODY_PERL    /casino/e") ;
+    writer.println("meta   META_RULE    (SUBJ_FREE && BODY_MONEY)") ;
+    writer.close() ;
+
+    // The scores of the same rules, as read by SpamAssassinRules
+    rulesFile_ = File.createTempFile("scores", ".cf") ;
+    writer = new PrintWriter(rulesFile_) ;
+    writer.println("score SUBJ_FREE 1.5") ;
+    writer.println("score BODY_MONEY 2.0") ;
+    writer.println("score URI_CLICK 0.5") ;
+    writer.println("score FROM_EVAL 1.0") ;
+    writer.println("score BODY_PERL 3.0") ;
+    writer.println("score META_RULE 4.0") ;
+    writer.close() ;
+
+    costFile_ = File.createTempFile("costs", ".cf") ;
+
+    corpusDirectory_ = File.createTempFile("corpus", "") ;
+    corpusDirectory_.delete() ;
+    corpusDirectory_.mkdir() ;
+    for (int m = 0 ; m < 5 ; m++) {
+      writer = new PrintWriter(new File(corpusDirectory_, "msg" + m)) ;
+      writer.print("From: someone@example.com\r\nSubject: " + (m % 2 == 0 ? "Free offer" : "Meeting") + "\r\n" +
+                   "\r\nMoney back guaranteed, see http://click.example.com/" + m + "\r\n") ;
+      writer.close() ;
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    definitionsFile_.delete() ;
+    rulesFile_.delete() ;
+    costFile_.delete() ;
+    for (File file : corpusDirectory_.listFiles())
+      file.delete() ;
+    corpusDirectory_.delete() ;
+  }
+
+  /**
+   * Test: the rules with a supported pattern are measured, and their mean
+   * costs become the costs of the rule table; the other rules take the mean
+   * of the measured costs
+   */
+  @Test
+  public void testCostsAreReadBySpamAssassinRules() throws Exception {
+    RuleCostProfiler profiler = new RuleCostProfiler(definitionsFile_.getPath(), corpusDirectory_.getPath()) ;
+    assertEquals("RuleCostProfilerTest", 3, profiler.getNumberOfRules()) ;
+    assertEquals("RuleCostProfilerTest", 5, profiler.getNumberOfMessages()) ;
+
+    double [][] costs = profiler.profile(2, 3) ;
+    assertEquals("RuleCostProfilerTest", 3, costs.length) ;
+    for (double [] cost : costs) {
+      assertTrue("RuleCostProfilerTest", cost[0] >= 0.0) ;
+      assertTrue("RuleCostProfilerTest", cost[1] >= 0.0) ;
+    }
+    profiler.write(costFile_.getPath(), costs) ;
+
+    RuleTable table = new SpamAssassinRules(rulesFile_.getPath(), costFile_.getPath()).getTable() ;
+    assertEquals("RuleCostProfilerTest", 6, table.size()) ;
+    double mean = (costs[0][0] + costs[1][0] + costs[2][0]) / 3 ;
+    for (int i = 0 ; i < table.size() ; i++) {
+      String name = table.getName(i) ;
+      double expected = name.equals("SUBJ_FREE")  ? costs[0][0] :
+                        name.equals("BODY_MONEY") ? costs[1][0] :
+                        name.equals("URI_CLICK")  ? costs[2][0] : mean ;
+      assertEquals("RuleCostProfilerTest: " + name, expected, table.getCPU(i), 0.0) ;
+      assertEquals("RuleCostProfilerTest: " + name, 0.0, table.getIO(i), 0.0) ;
+    }
+  }
+}
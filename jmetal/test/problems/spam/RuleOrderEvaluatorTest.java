@@ -0,0 +1,168 @@
+package jmetal.test.problems.spam;
+
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.problems.spam.RuleOrderEvaluator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the incremental evaluation of rule orderings produces the same
+ * objective values as a full evaluation
+ */
+public class RuleOrderEvaluatorTest {
+  int numberOfRules_ = 300 ;
+  File rulesFile_ ;
+  SpamAssassinRules rules_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    Random random = new Random(1) ;
+    rulesFile_ = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile_) ;
+    for (int i = 0 ; i < numberOfRules_ ; i++) {
+      double score = (random.nextInt(20) == 0) ? 100 : random.nextDouble() * 4 - 1 ;
+      writer.println("score RULE_" + i + " " + score) ;
+    }
+    writer.close() ;
+    rules_ = new SpamAssassinRules(rulesFile_.getPath()) ;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    rulesFile_.delete() ;
+  }
+
+  /**
+   * Test: a chain of swap and insertion moves evaluated incrementally must
+   * give the same results as the evaluation of the same orderings from scratch
+   */
+  @Test
+  public void testIncrementalEvaluationMatchesFullEvaluation() {
+    Random random = new Random(2) ;
+    RuleOrderEvaluator incremental = new RuleOrderEvaluator(rules_, 50) ;
+    RuleOrderEvaluator full = new RuleOrderEvaluator(rules_, 50) ;
+    double [] expected = new double[3] ;
+    double [] obtained = new double[3] ;
+
+    Permutation permutation = new Permutation(numberOfRules_) ;
+    for (int i = 0 ; i < 10000 ; i++) {
+      Permutation moved = new Permutation(permutation) ;
+      int pos1 = random.nextInt(numberOfRules_) ;
+      int pos2 = random.nextInt(numberOfRules_) ;
+      if (random.nextBoolean())
+        moved.swap(pos1, pos2) ;
+      else
+        moved.insert(pos1, pos2) ;
+
+      Permutation copy = new Permutation() ;
+      copy.size_   = numberOfRules_ ;
+      copy.vector_ = moved.vector_.clone() ;
+
+      incremental.evaluate(moved, numberOfRules_, obtained) ;
+      full.evaluate(copy, numberOfRules_, expected) ;
+      assertArrayEquals("RuleOrderEvaluatorTest", expected, obtained, 0.0) ;
+
+      if (random.nextBoolean())
+        permutation = moved ;
+    }
+  }
+
+  /**
+   * Test: with scores and costs summed without rounding, the moves before the
+   * cut-off only re-sum the positions they touch; long chains of such moves
+   * must still give the results of an evaluation from scratch
+   */
+  @Test
+  public void testWindowedEvaluationMatchesFullEvaluation() throws Exception {
+    Random random = new Random(3) ;
+    File rulesFile = File.createTempFile("rules", ".cf") ;
+    File costFile  = File.createTempFile("costs", ".cf") ;
+    PrintWriter rules = new PrintWriter(rulesFile) ;
+    PrintWriter costs = new PrintWriter(costFile) ;
+    for (int i = 0 ; i < numberOfRules_ ; i++) {
+      rules.println("score RULE_" + i + " " + (random.nextInt(16) - 2) * 0.25) ;
+      costs.println("cost RULE_" + i + " " + (1 + random.nextInt(1000))) ;
+    }
+    rules.close() ;
+    costs.close() ;
+    SpamAssassinRules exactRules = new SpamAssassinRules(rulesFile.getPath(), costFile.getPath()) ;
+    rulesFile.delete() ;
+    costFile.delete() ;
+
+    RuleOrderEvaluator incremental = new RuleOrderEvaluator(exactRules, 60) ;
+    RuleOrderEvaluator full = new RuleOrderEvaluator(exactRules, 60) ;
+    double [] expected = new double[3] ;
+    double [] obtained = new double[3] ;
+
+    Permutation permutation = new Permutation(numberOfRules_) ;
+    incremental.evaluate(permutation, numberOfRules_, obtained) ;
+    for (int i = 0 ; i < 10000 ; i++) {
+      int cut = (int) obtained[1] ;
+      int pos1 = random.nextInt(Math.max(1, cut)) ;
+      int pos2 = random.nextInt(Math.max(1, cut)) ;
+      if (random.nextBoolean())
+        permutation.swap(pos1, pos2) ;
+      else
+        permutation.insert(pos1, pos2) ;
+
+      Permutation copy = new Permutation() ;
+      copy.size_   = numberOfRules_ ;
+      copy.vector_ = permutation.vector_.clone() ;
+
+      incremental.evaluate(permutation, numberOfRules_, obtained) ;
+      full.evaluate(copy, numberOfRules_, expected) ;
+      assertArrayEquals("RuleOrderEvaluatorTest", expected, obtained, 0.0) ;
+    }
+  }
+
+  /**
+   * Test: the cut-off of a permutation is that of its prefix sums while the
+   * moves stay before it, and the length once a move reaches past it
+   */
+  @Test
+  public void testCutOff() {
+    RuleOrderEvaluator evaluator = new RuleOrderEvaluator(rules_, 50) ;
+    double [] result = new double[3] ;
+    Permutation permutation = new Permutation(numberOfRules_) ;
+    assertEquals("RuleOrderEvaluatorTest", numberOfRules_, evaluator.getCutOff(permutation, numberOfRules_)) ;
+
+    evaluator.evaluate(permutation, numberOfRules_, result) ;
+    int cut = (int) result[1] ;
+    assertTrue("RuleOrderEvaluatorTest", (cut > 1) && (cut < numberOfRules_)) ;
+    assertEquals("RuleOrderEvaluatorTest", cut, evaluator.getCutOff(permutation, numberOfRules_)) ;
+    assertEquals("RuleOrderEvaluatorTest", cut - 1, evaluator.getCutOff(permutation, cut - 1)) ;
+
+    permutation.swap(0, cut - 1) ;
+    assertEquals("RuleOrderEvaluatorTest", cut, evaluator.getCutOff(permutation, numberOfRules_)) ;
+    permutation.swap(0, numberOfRules_ - 1) ;
+    assertEquals("RuleOrderEvaluatorTest", numberOfRules_, evaluator.getCutOff(permutation, numberOfRules_)) ;
+  }
+
+  /**
+   * Test: the scoring kernel of the rule table must give the same results as
+   * the evaluation with prefix sums
+   */
+  @Test
+  public void testTableKernelMatchesEvaluator() {
+    RuleOrderEvaluator evaluator = new RuleOrderEvaluator(rules_, 50) ;
+    double [] expected = new double[3] ;
+    double [] obtained = new double[3] ;
+
+    for (int i = 0 ; i < 1000 ; i++) {
+      Permutation permutation = new Permutation(numberOfRules_) ;
+      evaluator.evaluate(permutation, numberOfRules_, expected) ;
+      rules_.getTable().scan(permutation.vector_, numberOfRules_, 50, obtained) ;
+      assertArrayEquals("RuleOrderEvaluatorTest", expected, obtained, 0.0) ;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package jmetal.test.problems.spam;
+
+import jmetal.core.RuleTable;
+import jmetal.core.SpamAssassinRules;
+import jmetal.encodings.variable.Permutation;
+import jmetal.problems.spam.CorpusHitMatrix;
+import jmetal.problems.spam.SpamSnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that a snapshot written to a file is read back, once mapped, with
+ * the same rules and the same corpus
+ */
+public class SpamSnapshotTest {
+  int numberOfRules_ = 70 ;
+  int numberOfMessages_ = 200 ;
+  File rulesFile_ ;
+  File logFile_ ;
+  File snapshotFile_ ;
+  RuleTable table_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    Random random = new Random(1) ;
+    rulesFile_ = File.createTempFile("rules", ".cf") ;
+    PrintWriter writer = new PrintWriter(rulesFile_) ;
+    for (int i = 0 ; i < numberOfRules_ ; i++)
+      writer.println("score RULE_\u00e9" + i + " " + (random.nextDouble() * 3 - 0.5)) ;
+    writer.close() ;
+    table_ = new SpamAssassinRules(rulesFile_.getPath()).getTable() ;
+
+    logFile_ = File.createTempFile("spam", ".log") ;
+    writer = new PrintWriter(logFile_) ;
+    for (int m = 0 ; m < numberOfMessages_ ; m++) {
+      StringBuilder tests = new StringBuilder() ;
+      for (int i = 0 ; i < numberOfRules_ ; i++)
+        if (random.nextInt(8) == 0)
+          tests.append(tests.length() == 0 ? "" : ",").append("RULE_\u00e9").append(i) ;
+      writer.println((m % 3 == 0 ? "." : "Y") + "  7 /corpus/" + m + " tests=" + tests) ;
+    }
+    writer.close() ;
+
+    // Distinct names, since the snapshots are cached by path
+    snapshotFile_ = File.createTempFile("snapshot", ".bin") ;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    rulesFile_.delete() ;
+    logFile_.delete() ;
+    snapshotFile_.delete() ;
+  }
+
+  /**
+   * Test: the rules and the corpus of a snapshot must be those written, and
+   * the orderings must be evaluated as with the corpus read from the logs
+   */
+  @Test
+  public void testWriteMapRead() throws Exception {
+    CorpusHitMatrix corpus = new CorpusHitMatrix(table_, CorpusHitMatrix.DEFAULT_THRESHOLD, logFile_.getPath()) ;
+    SpamSnapshot.write(snapshotFile_.getPath(), table_, corpus) ;
+
+    SpamSnapshot snapshot = SpamSnapshot.open(snapshotFile_.getPath()) ;
+    RuleTable table = snapshot.getTable() ;
+    assertEquals("SpamSnapshotTest", table_.size(), table.size()) ;
+    for (int i = 0 ; i < table_.size() ; i++) {
+      assertEquals("SpamSnapshotTest", table_.getName(i), table.getName(i)) ;
+      assertEquals("SpamSnapshotTest", table_.getScore(i), table.getScore(i), 0.0) ;
+      assertEquals("SpamSnapshotTest", table_.getCPU(i), table.getCPU(i), 0.0) ;
+      assertEquals("SpamSnapshotTest", table_.getIO(i), table.getIO(i), 0.0) ;
+    }
+
+    assertTrue("SpamSnapshotTest", snapshot.hasCorpus()) ;
+    CorpusHitMatrix mapped = SpamSnapshot.loadCorpus(table_, CorpusHitMatrix.DEFAULT_THRESHOLD, snapshotFile_.getPath()) ;
+    assertEquals("SpamSnapshotTest", numberOfMessages_, mapped.getNumberOfMessages()) ;
+    for (int m = 0 ; m < numberOfMessages_ ; m++) {
+      assertEquals("SpamSnapshotTest", corpus.isSpam(m), mapped.isSpam(m)) ;
+      for (int i = 0 ; i < numberOfRules_ ; i++)
+        assertEquals("SpamSnapshotTest", corpus.hits(m, i), mapped.hits(m, i)) ;
+    }
+
+    double [] expected = new double[3] ;
+    double [] obtained = new double[3] ;
+    for (int k = 0 ; k < 20 ; k++) {
+      int [] order = new Permutation(numberOfRules_).vector_ ;
+      corpus.evaluate(order, numberOfRules_, expected) ;
+      mapped.evaluate(order, numberOfRules_, obtained) ;
+      assertArrayEquals("SpamSnapshotTest", expected, obtained, 0.0) ;
+    }
+  }
+
+  /**
+   * Test: a snapshot of a different version, or truncated, must be rejected
+   */
+  @Test
+  public void testRejectsOtherVersionsAndTruncatedFiles() throws Exception {
+    CorpusHitMatrix corpus = new CorpusHitMatrix(table_, CorpusHitMatrix.DEFAULT_THRESHOLD, logFile_.getPath()) ;
+    SpamSnapshot.write(snapshotFile_.getPath(), table_, corpus) ;
+
+    RandomAccessFile file = new RandomAccessFile(snapshotFile_, "rw") ;
+    file.seek(4) ;
+    file.write(new byte[] {(byte) (SpamSnapshot.VERSION + 1), 0, 0, 0}) ;
+    file.close() ;
+    try {
+      SpamSnapshot.open(snapshotFile_.getPath()) ;
+      fail("SpamSnapshotTest: other version accepted") ;
+    } catch (IOException e) {
+      assertTrue("SpamSnapshotTest", e.getMessage().contains("version")) ;
+    }
+
+    SpamSnapshot.write(snapshotFile_.getPath(), table_, corpus) ;
+    file = new RandomAccessFile(snapshotFile_, "rw") ;
+    file.setLength(file.length() - 8) ;
+    file.close() ;
+    try {
+      SpamSnapshot.open(snapshotFile_.getPath()) ;
+      fail("SpamSnapshotTest: truncated file accepted") ;
+    } catch (IOException e) {
+      assertTrue("SpamSnapshotTest", e.getMessage().contains("truncated")) ;
+    }
+  }
+}
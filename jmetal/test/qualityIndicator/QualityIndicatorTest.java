@@ -0,0 +1,61 @@
+package jmetal.test.qualityIndicator;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.problems.ZDT.ZDT1;
+import jmetal.qualityIndicator.QualityIndicator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks that the quality indicators only read the solution sets
+ */
+public class QualityIndicatorTest {
+  double [][] front_ = {{0.0, 1.0}, {0.25, 0.5}, {0.5, 0.25}, {1.0, 0.0}} ;
+  File frontFile_ ;
+
+  @Before
+  public void setUp() throws Exception {
+    frontFile_ = File.createTempFile("front", ".pf") ;
+    PrintWriter writer = new PrintWriter(frontFile_) ;
+    for (double [] point : front_)
+      writer.println(point[0] + " " + point[1]) ;
+    writer.close() ;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    frontFile_.delete() ;
+  }
+
+  /**
+   * Test: the indicators of the true Pareto front must be those of a perfect
+   * front, and the view of the objectives of the set must not be created
+   */
+  @Test
+  public void testIndicatorsOnlyReadTheSolutionSet() throws Exception {
+    QualityIndicator indicators = new QualityIndicator(new ZDT1("Real"), frontFile_.getPath()) ;
+    SolutionSet solutionSet = new SolutionSet(front_.length) ;
+    for (double [] point : front_) {
+      Solution solution = new Solution(2) ;
+      solution.setObjective(0, point[0]) ;
+      solution.setObjective(1, point[1]) ;
+      solutionSet.add(solution) ;
+    }
+
+    assertEquals("QualityIndicatorTest", indicators.getTrueParetoFrontHypervolume(),
+                                         indicators.getHypervolume(solutionSet), 0.0) ;
+    assertEquals("QualityIndicatorTest", 0.0, indicators.getGD(solutionSet), 0.0) ;
+    assertEquals("QualityIndicatorTest", 0.0, indicators.getIGD(solutionSet), 0.0) ;
+    assertEquals("QualityIndicatorTest", 0.0, indicators.getEpsilon(solutionSet), 0.0) ;
+    indicators.getSpread(solutionSet) ;
+    assertFalse("QualityIndicatorTest", solutionSet.hasObjectiveMatrix()) ;
+  }
+}
@@ -0,0 +1,97 @@
+package jmetal.test.util;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.CrowdingDistance;
+import jmetal.util.Distance;
+import jmetal.util.comparators.ObjectiveComparator;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the crowding distance computed on arrays against the original
+ * implementation, which sorted the solutions with ObjectiveComparator
+ */
+public class CrowdingDistanceTest {
+
+  /**
+   * The original implementation of Distance.crowdingDistanceAssignment, for
+   * sets of more than two solutions
+   */
+  private double [] expectedDistances(SolutionSet solutionSet, int nObjs) {
+    int size = solutionSet.size() ;
+    SolutionSet front = new SolutionSet(size) ;
+    for (int i = 0 ; i < size ; i++) {
+      front.add(solutionSet.get(i)) ;
+      solutionSet.get(i).setCrowdingDistance(0.0) ;
+    }
+    for (int i = 0 ; i < nObjs ; i++) {
+      front.sort(new ObjectiveComparator(i)) ;
+      double min = front.get(0).getObjective(i) ;
+      double max = front.get(size - 1).getObjective(i) ;
+      front.get(0).setCrowdingDistance(Double.POSITIVE_INFINITY) ;
+      front.get(size - 1).setCrowdingDistance(Double.POSITIVE_INFINITY) ;
+      for (int j = 1 ; j < size - 1 ; j++) {
+        double distance = front.get(j + 1).getObjective(i) - front.get(j - 1).getObjective(i) ;
+        distance = distance / (max - min) ;
+        distance += front.get(j).getCrowdingDistance() ;
+        front.get(j).setCrowdingDistance(distance) ;
+      }
+    }
+    double [] distance = new double[size] ;
+    for (int i = 0 ; i < size ; i++)
+      distance[i] = solutionSet.get(i).getCrowdingDistance() ;
+    return distance ;
+  }
+
+  private SolutionSet solutionSet(Random random, int size, int objectives, int values) {
+    SolutionSet solutionSet = new SolutionSet(size) ;
+    for (int i = 0 ; i < size ; i++) {
+      Solution solution = new Solution(objectives) ;
+      for (int j = 0 ; j < objectives ; j++)
+        solution.setObjective(j, (values > 0) ? random.nextInt(values) : random.nextDouble()) ;
+      solutionSet.add(solution) ;
+    }
+    return solutionSet ;
+  }
+
+  @Test
+  public void testSameDistances() {
+    Random random = new Random(1) ;
+    Distance distance = new Distance() ;
+    CrowdingDistance crowding = new CrowdingDistance() ;
+    for (int trial = 0 ; trial < 200 ; trial++) {
+      int size = 3 + random.nextInt(300) ;
+      int objectives = 1 + random.nextInt(4) ;
+      SolutionSet solutionSet = solutionSet(random, size, objectives, (trial % 2 == 0) ? 2 + random.nextInt(20) : 0) ;
+      double [] expected = expectedDistances(solutionSet, objectives) ;
+
+      distance.crowdingDistanceAssignment(solutionSet, objectives) ;
+      for (int i = 0 ; i < size ; i++)
+        assertEquals("CrowdingDistanceTest: trial " + trial, expected[i], solutionSet.get(i).getCrowdingDistance(), 0.0) ;
+
+      double [][] columns = new double[objectives][size] ;
+      for (int j = 0 ; j < objectives ; j++)
+        for (int i = 0 ; i < size ; i++)
+          columns[j][i] = solutionSet.get(i).getObjective(j) ;
+      double [] result = new double[size] ;
+      crowding.assign(columns, size, result) ;
+      for (int i = 0 ; i < size ; i++)
+        assertEquals("CrowdingDistanceTest: trial " + trial, expected[i], result[i], 0.0) ;
+    }
+  }
+
+  @Test
+  public void testSmallSets() {
+    Distance distance = new Distance() ;
+    for (int size = 1 ; size <= 2 ; size++) {
+      SolutionSet solutionSet = solutionSet(new Random(size), size, 2, 0) ;
+      distance.crowdingDistanceAssignment(solutionSet, 2) ;
+      for (int i = 0 ; i < size ; i++)
+        assertEquals("CrowdingDistanceTest", Double.POSITIVE_INFINITY, solutionSet.get(i).getCrowdingDistance(), 0.0) ;
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package jmetal.test.util;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Ranking;
+import jmetal.util.comparators.DominanceComparator;
+import jmetal.util.ranking.DebNondominatedSorter;
+import jmetal.util.ranking.DivideAndConquerNondominatedSorter;
+import jmetal.util.ranking.ENSNondominatedSorter;
+import jmetal.util.ranking.IncrementalRanking;
+import jmetal.util.ranking.NondominatedSorter;
+import jmetal.util.ranking.SweepNondominatedSorter;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the non-dominated sorters against the ranks given by
+ * DominanceComparator: the rank of a solution is the length of the longest
+ * chain of solutions dominating it
+ */
+public class RankingTest {
+  NondominatedSorter [] sorters_ = {
+      DebNondominatedSorter.getInstance(),
+      new ENSNondominatedSorter(false),
+      new ENSNondominatedSorter(true),
+      DivideAndConquerNondominatedSorter.getInstance()
+  } ;
+
+  /**
+   * Returns a solution set with random objectives; with few values, there
+   * are many ties and duplicated solutions
+   */
+  private SolutionSet solutionSet(Random random, int size, int objectives, int values, boolean constraints) {
+    SolutionSet solutionSet = new SolutionSet(size) ;
+    for (int i = 0 ; i < size ; i++) {
+      Solution solution = new Solution(objectives) ;
+      for (int j = 0 ; j < objectives ; j++)
+        solution.setObjective(j, (values > 0) ? random.nextInt(values) : random.nextDouble()) ;
+      if (constraints && random.nextInt(4) == 0)
+        solution.setOverallConstraintViolation(-random.nextInt(3) - 1) ;
+      solutionSet.add(solution) ;
+    }
+    return solutionSet ;
+  }
+
+  /**
+   * Returns the ranks given by DominanceComparator
+   */
+  private int [] expectedRanks(SolutionSet solutionSet) {
+    DominanceComparator dominance = new DominanceComparator() ;
+    int size = solutionSet.size() ;
+    int [] rank = new int[size] ;
+    boolean changed = true ;
+    while (changed) {
+      changed = false ;
+      for (int p = 0 ; p < size ; p++)
+        for (int q = 0 ; q < size ; q++)
+          if ((dominance.compare(solutionSet.get(q), solutionSet.get(p)) == -1) && (rank[p] < rank[q] + 1)) {
+            rank[p] = rank[q] + 1 ;
+            changed = true ;
+          }
+    }
+    return rank ;
+  }
+
+  private void check(Random random, int size, int objectives, int values, boolean constraints) {
+    SolutionSet solutionSet = solutionSet(random, size, objectives, values, constraints) ;
+    int [] expected = expectedRanks(solutionSet) ;
+    String message = "RankingTest: " + size + " solutions, " + objectives + " objectives" ;
+    for (NondominatedSorter sorter : sorters_)
+      assertArrayEquals(message + ", " + sorter.getClass().getSimpleName(), expected, sorter.sort(solutionSet)) ;
+    if (objectives <= 2)
+      assertArrayEquals(message + ", sweep", expected, SweepNondominatedSorter.getInstance().sort(solutionSet)) ;
+
+    Ranking ranking = new Ranking(solutionSet) ;
+    int count = 0 ;
+    for (int r = 0 ; r < ranking.getNumberOfSubfronts() ; r++)
+      for (int i = 0 ; i < ranking.getSubfront(r).size() ; i++) {
+        assertEquals(message, r, ranking.getSubfront(r).get(i).getRank()) ;
+        count++ ;
+      }
+    assertEquals(message, size, count) ;
+    for (int i = 0 ; i < size ; i++)
+      assertEquals(message, expected[i], solutionSet.get(i).getRank()) ;
+  }
+
+  @Test
+  public void testSortersWithTies() {
+    Random random = new Random(1) ;
+    for (int objectives = 1 ; objectives <= 5 ; objectives++)
+      for (int trial = 0 ; trial < 20 ; trial++)
+        check(random, 1 + random.nextInt(150), objectives, 2 + random.nextInt(6), false) ;
+  }
+
+  @Test
+  public void testSortersWithoutTies() {
+    Random random = new Random(2) ;
+    for (int objectives = 1 ; objectives <= 5 ; objectives++)
+      for (int trial = 0 ; trial < 10 ; trial++)
+        check(random, 1 + random.nextInt(300), objectives, 0, false) ;
+  }
+
+  @Test
+  public void testSortersWithConstraints() {
+    Random random = new Random(3) ;
+    for (int objectives = 2 ; objectives <= 4 ; objectives++)
+      for (int trial = 0 ; trial < 10 ; trial++)
+        check(random, 1 + random.nextInt(150), objectives, 5, true) ;
+  }
+
+  /**
+   * Test: the incremental ranking must give the ranks of a full sorting
+   * after each insertion and deletion
+   */
+  @Test
+  public void testIncrementalRanking() {
+    Random random = new Random(4) ;
+    for (int objectives = 2 ; objectives <= 4 ; objectives++) {
+      SolutionSet population = solutionSet(random, 50, objectives, 6, objectives == 3) ;
+      IncrementalRanking ranking = new IncrementalRanking(population, objectives, 200) ;
+      population.setCapacity(200) ;
+      for (int step = 0 ; step < 300 ; step++) {
+        SolutionSet solution = solutionSet(random, 1, objectives, 6, objectives == 3) ;
+        ranking.add(solution.get(0)) ;
+        if (random.nextBoolean())
+          ranking.removeWorst() ;
+        else {
+          SolutionSet front = ranking.getSubfront(random.nextInt(ranking.getNumberOfSubfronts())) ;
+          ranking.remove(front.get(random.nextInt(front.size()))) ;
+        }
+        if (random.nextInt(3) == 0)
+          ranking.add(solutionSet(random, 1, objectives, 6, objectives == 3).get(0)) ;
+
+        ranking.copyTo(population) ;
+        assertEquals("RankingTest", ranking.size(), population.size()) ;
+        int [] expected = expectedRanks(population) ;
+        for (int i = 0 ; i < population.size() ; i++)
+          assertEquals("RankingTest: step " + step, expected[i], population.get(i).getRank()) ;
+        for (int r = 0 ; r < ranking.getNumberOfSubfronts() ; r++) {
+          assertTrue("RankingTest", ranking.getSubfront(r).size() > 0) ;
+          for (int i = 0 ; i < ranking.getSubfront(r).size() ; i++)
+            assertEquals("RankingTest", r, ranking.getSubfront(r).get(i).getRank()) ;
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEmptySet() {
+    Ranking ranking = new Ranking(new SolutionSet(0)) ;
+    assertEquals("RankingTest", 0, ranking.getNumberOfSubfronts()) ;
+  }
+}
@@ -0,0 +1,84 @@
+package jmetal.test.util.archive;
+
+import jmetal.core.Solution;
+import jmetal.util.Distance;
+import jmetal.util.archive.BiObjectiveCrowdingArchive;
+import jmetal.util.archive.CrowdingArchive;
+import jmetal.util.comparators.CrowdingDistanceComparator;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that BiObjectiveCrowdingArchive keeps the same solutions, in the
+ * same order, as CrowdingArchive
+ */
+public class BiObjectiveCrowdingArchiveTest {
+
+  private Solution solution(Random random, int values, boolean constraints) {
+    Solution solution = new Solution(2) ;
+    double x = random.nextInt(values) ;
+    solution.setObjective(0, x) ;
+    solution.setObjective(1, values - x + random.nextInt(values / 4 + 1)) ;
+    if (constraints && random.nextInt(10) == 0)
+      solution.setOverallConstraintViolation(-random.nextInt(3) - 1) ;
+    return solution ;
+  }
+
+  private Solution copy(Solution solution) {
+    Solution copy = new Solution(2) ;
+    copy.setObjective(0, solution.getObjective(0)) ;
+    copy.setObjective(1, solution.getObjective(1)) ;
+    copy.setOverallConstraintViolation(solution.getOverallConstraintViolation()) ;
+    return copy ;
+  }
+
+  private void assertSameArchive(String message, CrowdingArchive expected, CrowdingArchive archive) {
+    assertEquals(message, expected.size(), archive.size()) ;
+    for (int i = 0 ; i < expected.size() ; i++)
+      for (int j = 0 ; j < 2 ; j++)
+        assertEquals(message, expected.get(i).getObjective(j), archive.get(i).getObjective(j), 0.0) ;
+  }
+
+  private void check(long seed, int maxSize, int values, boolean constraints) {
+    Random random = new Random(seed) ;
+    CrowdingArchive expected = new CrowdingArchive(maxSize, 2) ;
+    CrowdingArchive archive  = new BiObjectiveCrowdingArchive(maxSize) ;
+    Distance distance = new Distance() ;
+    for (int step = 0 ; step < 2000 ; step++) {
+      String message = "BiObjectiveCrowdingArchiveTest: seed " + seed + ", step " + step ;
+      Solution solution = solution(random, values, constraints) ;
+      assertEquals(message, expected.add(copy(solution)), archive.add(copy(solution))) ;
+      assertSameArchive(message, expected, archive) ;
+
+      // As AbYCSS does at each restart
+      if (random.nextInt(200) == 0) {
+        distance.crowdingDistanceAssignment(expected, 2) ;
+        distance.crowdingDistanceAssignment(archive, 2) ;
+        expected.sort(new CrowdingDistanceComparator()) ;
+        archive.sort(new CrowdingDistanceComparator()) ;
+        assertSameArchive(message, expected, archive) ;
+      }
+    }
+  }
+
+  @Test
+  public void testSameSolutions() {
+    for (long seed = 0 ; seed < 10 ; seed++)
+      check(seed, 1 + (int) seed * 10, 1000, false) ;
+  }
+
+  @Test
+  public void testSameSolutionsWithTies() {
+    for (long seed = 0 ; seed < 10 ; seed++)
+      check(seed, 5 + (int) seed, 40, false) ;
+  }
+
+  @Test
+  public void testSameSolutionsWithConstraints() {
+    for (long seed = 0 ; seed < 10 ; seed++)
+      check(seed, 20, 500, true) ;
+  }
+}
@@ -7,6 +7,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeSet;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNull;
@@ -499,6 +501,54 @@ public class AvlTreeTest {
     assertEquals("testSearchNode", tree, avlTree_.toString());
   }
 
+  @Test
+  public void testFindPredecessor() throws Exception {
+    int [] items = {20, 8, 22, 4, 12, 24, 10, 14} ;
+    for (int item : items)
+      avlTree_.insertAvlNode(new AvlNode<Integer>(item));
+
+    assertEquals("testFindPredecessor", avlTree_.search(8) , avlTree_.findPredecessor(avlTree_.search(10)));
+    assertEquals("testFindPredecessor", avlTree_.search(10) , avlTree_.findPredecessor(avlTree_.search(12)));
+    assertEquals("testFindPredecessor", avlTree_.search(14) , avlTree_.findPredecessor(avlTree_.search(20)));
+    assertEquals("testFindPredecessor", avlTree_.search(22) , avlTree_.findPredecessor(avlTree_.search(24)));
+    assertNull("testFindPredecessor", avlTree_.findPredecessor(avlTree_.search(4)));
+  }
+
+  /**
+   * Test: after random insertions and deletions, the nodes visited with
+   * findSuccessor and findPredecessor must be those of a sorted set
+   */
+  @Test
+  public void testSuccessorsAfterRotations() throws Exception {
+    Random random = new Random(1) ;
+    TreeSet<Integer> expected = new TreeSet<Integer>() ;
+    for (int step = 0; step < 2000; step++) {
+      Integer item = random.nextInt(200) ;
+      if (random.nextInt(3) == 0) {
+        avlTree_.delete(item);
+        expected.remove(item) ;
+      } else if (expected.add(item)) {
+        avlTree_.insert(item);
+      }
+
+      if (!expected.isEmpty()) {
+        AvlNode<Integer> node = avlTree_.search(expected.first()) ;
+        for (Integer i : expected) {
+          assertEquals("testSuccessorsAfterRotations", i, node.getItem());
+          node = avlTree_.findSuccessor(node) ;
+        }
+        assertNull("testSuccessorsAfterRotations", node);
+
+        node = avlTree_.search(expected.last()) ;
+        for (Integer i : expected.descendingSet()) {
+          assertEquals("testSuccessorsAfterRotations", i, node.getItem());
+          node = avlTree_.findPredecessor(node) ;
+        }
+        assertNull("testSuccessorsAfterRotations", node);
+      }
+    }
+  }
+
   @Test
   public void testDeletingLeafNodes() throws Exception {
     AvlNode<Integer> node1, node2, node3, node4, node5 ;
@@ -619,12 +669,12 @@ public class AvlTreeTest {
 
     avlTree_.delete(12);
     node = avlTree_.search(8) ;
-    assertEquals("testDeletingNodesWithTwoLeaves", 14, node.getRight().getItem());
+    assertEquals("testDeletingNodesWithTwoLeaves", (Integer)14, node.getRight().getItem());
     assertEquals("testDeletingNodesWithTwoLeaves", " | 20 | 8 | 4 | 14 | 10 | 22 | 24", avlTree_.toString());
 
 
     avlTree_.delete(8);
-    assertEquals("testDeletingNodesWithTwoLeaves", 10, avlTree_.getTop().getLeft().getItem());
+    assertEquals("testDeletingNodesWithTwoLeaves", (Integer)10, avlTree_.getTop().getLeft().getItem());
     assertEquals("testDeletingNodesWithTwoLeaves", " | 20 | 10 | 4 | 14 | 22 | 24", avlTree_.toString());
   }
 
@@ -0,0 +1,171 @@
+//  CrowdingDistance.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util;
+
+import jmetal.core.SolutionSet;
+
+/**
+ * This class computes the crowding distance of NSGA-II on primitive arrays:
+ * for each objective, a permutation of indexes is sorted by the column of
+ * the objective values, and the distances are accumulated in an array. The
+ * arrays are kept between calls and only grow, so an instance computes the
+ * distances without allocating once it has seen the largest set. An
+ * instance must not be used by several threads at the same time.
+ *
+ * The results are identical to those of the original implementation, which
+ * sorted the solutions with a stable sort for each objective, starting from
+ * the order of the previous objective: the permutation is sorted by a
+ * stable merge sort in the same way.
+ */
+public class CrowdingDistance {
+
+  private int [] index_ ;
+  private int [] buffer_ ;
+  private double [] column_ ;
+  private double [] distance_ ;
+
+  /**
+   * Constructor
+   */
+  public CrowdingDistance() {
+    index_    = new int[0] ;
+    buffer_   = new int[0] ;
+    column_   = new double[0] ;
+    distance_ = new double[0] ;
+  } // CrowdingDistance
+
+  /**
+   * Assigns the crowding distance to the solutions of a set, reading the
+   * objectives from its <code>ObjectiveMatrix</code> if it has one
+   * @param solutionSet The solutions
+   * @param nObjs Number of objectives
+   */
+  public void assign(SolutionSet solutionSet, int nObjs) {
+    int size = solutionSet.size() ;
+    if (size == 0)
+      return ;
+    if (size <= 2) {
+      for (int k = 0; k < size; k++)
+        solutionSet.get(k).setCrowdingDistance(Double.POSITIVE_INFINITY) ;
+      return ;
+    }
+
+    reset(size) ;
+    if (solutionSet.hasObjectiveMatrix()) {
+      double [][] columns = solutionSet.getObjectiveMatrix().getColumns() ;
+      for (int i = 0; i < nObjs; i++)
+        accumulate(columns[i], size) ;
+    } else {
+      for (int i = 0; i < nObjs; i++) {
+        for (int k = 0; k < size; k++)
+          column_[k] = solutionSet.get(k).getObjective(i) ;
+        accumulate(column_, size) ;
+      }
+    }
+    for (int k = 0; k < size; k++)
+      solutionSet.get(k).setCrowdingDistance(distance_[k]) ;
+  } // assign
+
+  /**
+   * Computes the crowding distances of a set of points given by columns
+   * @param columns columns[i][k] is the objective i of the point k
+   * @param size Number of points
+   * @param distance Array where the distance of each point is stored
+   */
+  public void assign(double [][] columns, int size, double [] distance) {
+    if (size <= 2) {
+      for (int k = 0; k < size; k++)
+        distance[k] = Double.POSITIVE_INFINITY ;
+      return ;
+    }
+
+    reset(size) ;
+    for (double [] column : columns)
+      accumulate(column, size) ;
+    System.arraycopy(distance_, 0, distance, 0, size) ;
+  } // assign
+
+  /**
+   * Prepares the arrays for a set of points
+   */
+  private void reset(int size) {
+    if (index_.length < size) {
+      index_    = new int[size] ;
+      buffer_   = new int[size] ;
+      column_   = new double[size] ;
+      distance_ = new double[size] ;
+    }
+    for (int k = 0; k < size; k++) {
+      index_[k]    = k ;
+      distance_[k] = 0.0 ;
+    }
+  } // reset
+
+  /**
+   * Adds the contribution of an objective to the distances
+   * @param column The values of the objective
+   * @param size Number of points
+   */
+  private void accumulate(double [] column, int size) {
+    sort(column, 0, size) ;
+
+    double objetiveMinn = column[index_[0]] ;
+    double objetiveMaxn = column[index_[size - 1]] ;
+    distance_[index_[0]]        = Double.POSITIVE_INFINITY ;
+    distance_[index_[size - 1]] = Double.POSITIVE_INFINITY ;
+
+    for (int j = 1; j < size - 1; j++) {
+      double distance = column[index_[j + 1]] - column[index_[j - 1]] ;
+      distance = distance / (objetiveMaxn - objetiveMinn) ;
+      distance += distance_[index_[j]] ;
+      distance_[index_[j]] = distance ;
+    }
+  } // accumulate
+
+  /**
+   * Sorts a range of the permutation by the values of a column, keeping the
+   * order of equal values (merge sort)
+   */
+  private void sort(double [] column, int from, int to) {
+    if (to - from < 16) {
+      for (int i = from + 1; i < to; i++) {
+        int value = index_[i] ;
+        int j = i - 1 ;
+        while ((j >= from) && (column[index_[j]] > column[value])) {
+          index_[j + 1] = index_[j] ;
+          j-- ;
+        }
+        index_[j + 1] = value ;
+      }
+      return ;
+    }
+
+    int middle = (from + to) >>> 1 ;
+    sort(column, from, middle) ;
+    sort(column, middle, to) ;
+    if (column[index_[middle - 1]] <= column[index_[middle]])
+      return ; // already in order
+
+    System.arraycopy(index_, from, buffer_, from, middle - from) ;
+    int i = from ;
+    int j = middle ;
+    int k = from ;
+    while ((i < middle) && (j < to))
+      index_[k++] = (column[index_[j]] < column[buffer_[i]]) ? index_[j++] : buffer_[i++] ;
+    while (i < middle)
+      index_[k++] = buffer_[i++] ;
+  } // sort
+} // CrowdingDistance
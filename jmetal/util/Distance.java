@@ -23,7 +23,6 @@ package jmetal.util;
 
 import jmetal.core.Solution;
 import jmetal.core.SolutionSet;
-import jmetal.util.comparators.ObjectiveComparator;
 import jmetal.util.wrapper.XReal;
 import jmetal.core.*;
 
@@ -32,6 +31,11 @@ import jmetal.core.*;
  */
 public class Distance {
 
+  /**
+   * Computes the crowding distances
+   */
+  private final CrowdingDistance crowding_ = new CrowdingDistance();
+
   /**
    * Constructor.
    */
@@ -123,22 +127,26 @@ public class Distance {
                                                      SolutionSet solutionSet, SolutionSet solutionSet2) throws JMException{
     //At start point the distance is the max
     double distance = 0d;
+    if (solutionSet.size() == 0)
+      return distance;
+
+    // The normalization does not depend on the solutions compared
+    Solution last = solutionSet2.get(solutionSet2.size() - 1);
+    double dif  = square(solutionSet.get(0).getObjective(0) - last.getObjective(0));
+    double dif2 = square(solutionSet.get(0).getObjective(1) - last.getObjective(1));
+    double objective0 = solution.getObjective(0);
+    double objective1 = solution.getObjective(1);
 
     // found the min distance respect to population
     for (int i = 0; i < solutionSet.size(); i++)
     {
-      double fit = Math.pow( solution.getObjective(0) - solutionSet.get(i).getObjective(0) , 2);
-      double dif = Math.pow( solutionSet.get(0).getObjective(0)  - solutionSet2.get( solutionSet2.size() - 1 ).getObjective(0) , 2 );
-      double fit2 = Math.pow( solution.getObjective(1) - solutionSet.get(i).getObjective(1) , 2);
-      double dif2 = Math.pow( solutionSet.get(0).getObjective(1)  - solutionSet2.get( solutionSet2.size() - 1 ).getObjective(1) , 2 );
-      
-      double aux = ( fit / dif ) + ( fit2 / dif2 );
-      if (aux > distance && aux != Double.NaN)
-        distance = (double) aux;
+      Solution other = solutionSet.get(i);
+      double aux = ( square(objective0 - other.getObjective(0)) / dif ) +
+                   ( square(objective1 - other.getObjective(1)) / dif2 );
+      if (aux > distance)
+        distance = aux;
    } // for
     //->Return the best distance
-      //System.out.println("distance " + distance);
-
     return distance;
   } // distanceToSolutionSetInSolutionSpaceAbYCSS
  
@@ -152,24 +160,30 @@ public class Distance {
   public double distanceBetweenSolutionsAbYCSS(Solution solutionI, Solution solutionJ, SolutionSet solutionSet1_, SolutionSet solutionSet2_)
           throws JMException{
     double distance = Double.MAX_VALUE;
+    if (solutionSet1_.size() == 0)
+      return distance;
+
+    Solution last = solutionSet2_.get(solutionSet2_.size() - 1);
+    double fit  = square(solutionI.getObjective(0) - solutionJ.getObjective(0));
+    double fit2 = square(solutionI.getObjective(1) - solutionJ.getObjective(1));
+    double aux2 = fit2 / square(solutionSet1_.get(0).getObjective(1) - last.getObjective(1));
     for (int i = 0; i < solutionSet1_.size(); i++)
     {
-      double fit = Math.pow( solutionI.getObjective(0) - solutionJ.getObjective(0) , 2);
-      double dif = Math.pow( solutionSet1_.get(i).getObjective(0)  - solutionSet2_.get( solutionSet2_.size() - 1 ).getObjective(0) , 2 );
-      
-      double aux = fit / dif;
+      double aux = fit / square(solutionSet1_.get(i).getObjective(0) - last.getObjective(0));
       if (aux < distance)
         distance = aux;
-
-      fit = Math.pow( solutionI.getObjective(1) - solutionJ.getObjective(1) , 2);
-      dif = Math.pow( solutionSet1_.get(0).getObjective(1)  - solutionSet2_.get( solutionSet2_.size() - 1 ).getObjective(1) , 2 );
-      
-      aux = fit / dif;
-      if (aux < distance)
-        distance += aux;
+      if (aux2 < distance)
+        distance += aux2;
     }
     return distance;
-}
+  } // distanceBetweenSolutionsAbYCSS
+
+  /**
+   * Returns the square of a value
+   */
+  public static double square(double value) {
+    return value * value;
+  } // square
 
 
   /** Returns the distance between two solutions in the search space.
@@ -256,56 +270,16 @@ public class Distance {
   }
 
   /** Assigns crowding distances to all solutions in a <code>SolutionSet</code>.
+   * The distances are computed by a <code>CrowdingDistance</code> kept by
+   * this object, so that its arrays are reused from call to call.
    * @param solutionSet The <code>SolutionSet</code>.
    * @param nObjs Number of objectives.
    */
   public void crowdingDistanceAssignment(SolutionSet solutionSet, int nObjs) {
-    int size = solutionSet.size();
-
-    if (size == 0)
-      return;
-
-    if (size == 1) {
-      solutionSet.get(0).setCrowdingDistance(Double.POSITIVE_INFINITY);
-      return;
-    } // if
-
-    if (size == 2) {
-      solutionSet.get(0).setCrowdingDistance(Double.POSITIVE_INFINITY);
-      solutionSet.get(1).setCrowdingDistance(Double.POSITIVE_INFINITY);
-      return;
-    } // if       
-
-    //Use a new SolutionSet to evite alter original solutionSet
-    SolutionSet front = new SolutionSet(size);
-    for (int i = 0; i < size; i++){
-      front.add(solutionSet.get(i));
+    // Some Distance objects are shared (e.g., static fields of operators)
+    synchronized (crowding_) {
+      crowding_.assign(solutionSet, nObjs);
     }
-
-    for (int i = 0; i < size; i++)
-      front.get(i).setCrowdingDistance(0.0);
-
-    double objetiveMaxn;
-    double objetiveMinn;
-    double distance;
-
-    for (int i = 0; i<nObjs; i++) {
-      // Sort the population by Obj n            
-      front.sort(new ObjectiveComparator(i));
-      objetiveMinn = front.get(0).getObjective(i);
-      objetiveMaxn = front.get(front.size()-1).getObjective(i);
-
-      //Set de crowding distance            
-      front.get(0).setCrowdingDistance(Double.POSITIVE_INFINITY);
-      front.get(size-1).setCrowdingDistance(Double.POSITIVE_INFINITY);
-
-      for (int j = 1; j < size-1; j++) {
-        distance = front.get(j+1).getObjective(i) - front.get(j-1).getObjective(i);
-        distance = distance / (objetiveMaxn - objetiveMinn);
-        distance += front.get(j).getCrowdingDistance();
-        front.get(j).setCrowdingDistance(distance);
-      } // for
-    } // for        
   } // crowdingDistanceAssing            
 } // Distance
 
@@ -31,6 +31,11 @@ public class PseudoRandom  {
    */
   private static IRandomGenerator random_ = null;
   private static RandomGenerator defaultGenerator_ = new RandomGenerator() ;
+
+  /**
+   * generator used by the current thread instead of random_, if any
+   */
+  private static final ThreadLocal<IRandomGenerator> threadGenerator_ = new ThreadLocal<IRandomGenerator>() ;
                
   /** 
    * Constructor.
@@ -46,28 +51,78 @@ public class PseudoRandom  {
   public static void setRandomGenerator(IRandomGenerator generator) {
   	random_ = generator ;
   }
+
+  /**
+   * Sets the generator used by the current thread, so that tasks running
+   * concurrently can draw independent and reproducible sequences.
+   * @param generator The generator, or null to use the shared one again
+   */
+  public static void setThreadRandomGenerator(IRandomGenerator generator) {
+    if (generator == null)
+      threadGenerator_.remove() ;
+    else
+      threadGenerator_.set(generator) ;
+  } // setThreadRandomGenerator
+
+  /**
+   * Returns the generator used by the current thread, e.g., to save its
+   * state
+   */
+  public static IRandomGenerator getRandomGenerator() {
+    return generator() ;
+  } // getRandomGenerator
+
+  /**
+   * Replaces the generator returned by getRandomGenerator, e.g., to restore
+   * a saved state: the generator of the current thread if it has one, the
+   * shared one otherwise
+   * @param generator The generator
+   */
+  public static void setCurrentRandomGenerator(IRandomGenerator generator) {
+    if (threadGenerator_.get() != null)
+      threadGenerator_.set(generator) ;
+    else
+      random_ = generator ;
+  } // setCurrentRandomGenerator
+
+  /**
+   * Returns the generator of the current thread
+   */
+  private static IRandomGenerator generator() {
+    IRandomGenerator generator = threadGenerator_.get() ;
+    if (generator != null)
+      return generator ;
+    if (random_ == null) {
+      random_ = defaultGenerator_ ;
+    }
+    return random_ ;
+  } // generator
   
   /** 
    * Returns a random int value using the Java random generator.
    * @return A random int value.
    */
   public static int randInt() {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return random_.nextInt(Integer.MAX_VALUE);
+    return generator().nextInt(Integer.MAX_VALUE);
   } // randInt
+
+  /**
+   * Returns a random long value, made of two random int values
+   * @return A random long value in [0, 2^62).
+   */
+  public static long randLong() {
+    IRandomGenerator generator = generator();
+    long high = generator.nextInt(Integer.MAX_VALUE);
+    return (high << 31) | generator.nextInt(Integer.MAX_VALUE);
+  } // randLong
     
   /** 
    * Returns a random double value using the PseudoRandom generator.
    * Returns A random double value.
    */
   public static double randDouble() {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
     //return random_.rndReal(0.0,1.0);
-    return random_.nextDouble();
+    return generator().nextDouble();
     //return randomJava.nextDouble();
   } // randDouble
     
@@ -79,10 +134,7 @@ public class PseudoRandom  {
    * Return A pseudo random int value between minBound and maxBound.
    */
   public static int randInt(int minBound, int maxBound) {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return minBound + random_.nextInt(maxBound-minBound);
+    return minBound + generator().nextInt(maxBound-minBound);
     //return minBound + randomJava.nextInt(maxBound-minBound+1);
   } // randInt
     
@@ -93,10 +145,7 @@ public class PseudoRandom  {
    * @return A pseudo random double value between minBound and maxBound
    */
   public static double randDouble(double minBound, double maxBound) {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return minBound + random_.nextDouble() * (maxBound-minBound);
+    return minBound + generator().nextDouble() * (maxBound-minBound);
     //return minBound + (maxBound - minBound)*randomJava.nextDouble();
   } // randDouble    
 } // PseudoRandom
@@ -21,6 +21,7 @@
 
 package jmetal.util;
 
+import java.io.Serializable;
 import java.util.Random;
 
  /**
@@ -30,7 +31,9 @@ import java.util.Random;
  *
  */
 
-public class RandomGenerator implements IRandomGenerator{
+public class RandomGenerator implements IRandomGenerator, Serializable {
+
+  private static final long serialVersionUID = 1L;
     
   /* Definition of random number generation routines */
   double seed;
@@ -45,6 +48,22 @@ public class RandomGenerator implements IRandomGenerator{
     this.randomize();
   } // RandomGenerator
 
+  /**
+   * Constructor. Gives independent generators for the tasks of a parallel
+   * computation: the seed of the generator is the output number stream + 1
+   * of a SplitMix64 sequence started at seed, mapped into (0, 1)
+   * @param seed The seed, e.g., drawn with PseudoRandom.randLong()
+   * @param stream The index of the task
+   */
+  public RandomGenerator(long seed, int stream){
+    long z = seed + (stream + 1L) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    z = z ^ (z >>> 31);
+    this.seed = ((z >>> 11) + 0.5) / (1L << 53);
+    this.randomize();
+  } // RandomGenerator
+
   /* Get seed number for random and start it up */
   void randomize(){
     int j1;
@@ -22,13 +22,7 @@
 package jmetal.util;
 
 import jmetal.core.SolutionSet;
-import jmetal.util.comparators.DominanceComparator;
-import jmetal.util.comparators.OverallConstraintViolationComparator;
-
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import jmetal.util.ranking.NondominatedSorter;
 
 /**
  * This class implements some facilities for ranking solutions.
@@ -38,6 +32,10 @@ import java.util.List;
  * numbering starts from 1); thus, subset 0 contains the non-dominated 
  * solutions, subset 1 contains the non-dominated solutions after removing those
  * belonging to subset 0, and so on.
+ * The solutions of each subset keep their order in the <code>SolutionSet</code>.
+ * The ranks are computed by a <code>NondominatedSorter</code>, by default
+ * the one suited to the number of objectives and solutions (see
+ * <code>NondominatedSorter.getSorter</code>).
  */
 public class Ranking {
   
@@ -50,137 +48,54 @@ public class Ranking {
    * An array containing all the fronts found during the search
    */
   private SolutionSet[] ranking_  ;
-  
-  /**
-   * stores a <code>Comparator</code> for dominance checking
-   */
-  private static final Comparator dominance_ = new DominanceComparator();
-  
+
   /**
-   * stores a <code>Comparator</code> for Overal Constraint Violation Comparator
-   * checking
+   * The sorter used by all the rankings, or null to choose it for each
+   * ranking
    */
-  private static final Comparator constraint_ = new OverallConstraintViolationComparator();
-    
+  private static NondominatedSorter sorter_ = null ;
+
   /** 
    * Constructor.
    * @param solutionSet The <code>SolutionSet</code> to be ranked.
    */       
   public Ranking(SolutionSet solutionSet) {        
-    solutionSet_ = solutionSet ;
-
-    // dominateMe[i] contains the number of solutions dominating i        
-    int [] dominateMe = new int[solutionSet_.size()];
-
-    // iDominate[k] contains the list of solutions dominated by k
-    List<Integer> [] iDominate = new List[solutionSet_.size()];
+    this(solutionSet, sorter_) ;
+  } // Ranking
 
-    // front[i] contains the list of individuals belonging to the front i
-    List<Integer> [] front = new List[solutionSet_.size()+1];
-        
-    // flagDominate is an auxiliar encodings.variable
-    int flagDominate;    
+  /** 
+   * Constructor.
+   * @param solutionSet The <code>SolutionSet</code> to be ranked.
+   * @param sorter The sorting algorithm, or null to choose it
+   */       
+  public Ranking(SolutionSet solutionSet, NondominatedSorter sorter) {
+    solutionSet_ = solutionSet ;
 
-    // Initialize the fronts 
-    for (int i = 0; i < front.length; i++)
-      front[i] = new LinkedList<Integer>();
-        
-    /*
-    //-> Fast non dominated sorting algorithm
-    for (int p = 0; p < solutionSet_.size(); p++) {
-    // Initialice the list of individuals that i dominate and the number
-    // of individuals that dominate me
-      iDominate[p] = new LinkedList<Integer>();
-      dominateMe[p] = 0;            
-      // For all q individuals , calculate if p dominates q or vice versa
-      for (int q = 0; q < solutionSet_.size(); q++) {
-        flagDominate =constraint_.compare(solutionSet.get(p),solutionSet.get(q));
-        if (flagDominate == 0) {
-          flagDominate =dominance_.compare(solutionSet.get(p),solutionSet.get(q));                                
-        }
-        
-        if (flagDominate == -1) {
-          iDominate[p].add(new Integer(q));
-        } else if (flagDominate == 1) {
-                    dominateMe[p]++;   
-        }
-      }
-            
-      // If nobody dominates p, p belongs to the first front
-      if (dominateMe[p] == 0) {
-        front[0].add(new Integer(p));
-        solutionSet.get(p).setRank(0);
-      }            
-    }
-    */
-    
-    //-> Fast non dominated sorting algorithm
-    // Contribution of Guillaume Jacquenot
-    for (int p = 0; p < solutionSet_.size(); p++) {
-    // Initialize the list of individuals that i dominate and the number
-    // of individuals that dominate me
-      iDominate[p] = new LinkedList<Integer>();
-      dominateMe[p] = 0;
+    if (sorter == null) {
+      int objectives = (solutionSet_.size() > 0) ? solutionSet_.get(0).getNumberOfObjectives() : 0 ;
+      sorter = NondominatedSorter.getSorter(objectives, solutionSet_.size()) ;
     }
-    for (int p = 0; p < (solutionSet_.size()-1); p++) {
-      // For all q individuals , calculate if p dominates q or vice versa
-      for (int q = p+1; q < solutionSet_.size(); q++) {
-        flagDominate =constraint_.compare(solutionSet.get(p),solutionSet.get(q));
-        if (flagDominate == 0) {
-          flagDominate =dominance_.compare(solutionSet.get(p),solutionSet.get(q));
-        }
-        if (flagDominate == -1)
-        {
-          iDominate[p].add(q);
-          dominateMe[q]++;
-        }
-        else if (flagDominate == 1)
-        {
-          iDominate[q].add(p);
-          dominateMe[p]++;
-        }
-      }
-      // If nobody dominates p, p belongs to the first front
-    }
-    for (int p = 0; p < solutionSet_.size(); p++) {
-      if (dominateMe[p] == 0) {
-        front[0].add(p);
-        solutionSet.get(p).setRank(0);
-      }
-    }    
-    
-    //Obtain the rest of fronts
-    int i = 0;
-    Iterator<Integer> it1, it2 ; // Iterators
-    while (front[i].size()!= 0) {
-      i++;
-      it1 = front[i-1].iterator();
-      while (it1.hasNext()) {
-        it2 = iDominate[it1.next()].iterator();
-        while (it2.hasNext()) {
-          int index = it2.next();
-          dominateMe[index]--;
-          if (dominateMe[index]==0) {
-            front[i].add(index);
-            solutionSet_.get(index).setRank(i);
-          }
-        }
-      }
-    }
-    //<-
-        
-    ranking_ = new SolutionSet[i];
-    //0,1,2,....,i-1 are front, then i fronts
-    for (int j = 0; j < i; j++) {
-      ranking_[j] = new SolutionSet(front[j].size());
-      it1 = front[j].iterator();
-      while (it1.hasNext()) {
-                ranking_[j].add(solutionSet.get(it1.next()));
+    int [] rank = sorter.sort(solutionSet_) ;
+    int [][] front = NondominatedSorter.fronts(rank) ;
+
+    ranking_ = new SolutionSet[front.length];
+    for (int j = 0; j < front.length; j++) {
+      ranking_[j] = new SolutionSet(front[j].length);
+      for (int i : front[j]) {
+        solutionSet_.get(i).setRank(j);
+        ranking_[j].add(solutionSet_.get(i));
       }
     }
-    
   } // Ranking
 
+  /**
+   * Sets the sorter used by the rankings built without one
+   * @param sorter The sorter, or null to choose it for each ranking
+   */
+  public static void setSorter(NondominatedSorter sorter) {
+    sorter_ = sorter ;
+  } // setSorter
+
   /**
    * Returns a <code>SolutionSet</code> containing the solutions of a given rank. 
    * @param rank The rank
@@ -0,0 +1,358 @@
+//  BiObjectiveCrowdingArchive.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.archive;
+
+import jmetal.core.Solution;
+import jmetal.util.avl.AvlNode;
+import jmetal.util.avl.AvlTree;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * This class implements the bounded archive of <code>CrowdingArchive</code>
+ * for problems with two objectives. The solutions of the archive are also
+ * kept in an AVL tree sorted by the first objective, so the second one
+ * decreases along the tree: a new solution is dominated only if its
+ * predecessor in the tree is, and the solutions it dominates are those
+ * following it while their second objective is not lower. The crowding
+ * distances are kept in a sorted set, and only those of the neighbors of a
+ * solution are computed again when it is inserted or removed; all of them
+ * are computed again when an extreme solution changes, as the distances are
+ * normalized by the range of the objectives.
+ *
+ * The contents and the order of the archive are the same as with
+ * <code>CrowdingArchive</code>, including the solution removed when the
+ * archive is full. When the archive contains infeasible solutions, or after
+ * its solutions are changed through other methods than <code>add</code>
+ * (e.g., <code>sort</code>), the methods of <code>CrowdingArchive</code> are
+ * used until the tree can be built again.
+ */
+public class BiObjectiveCrowdingArchive extends CrowdingArchive {
+
+  private static final long serialVersionUID = 1L ;
+
+  private static final Comparator<Entry> firstObjective_ = new Comparator<Entry>() {
+    public int compare(Entry entry1, Entry entry2) {
+      double value1 = entry1.solution_.getObjective(0) ;
+      double value2 = entry2.solution_.getObjective(0) ;
+      if (value1 < value2)
+        return -1 ;
+      else if (value1 > value2)
+        return 1 ;
+      return 0 ;
+    }
+  } ;
+
+  private static final Comparator<Entry> crowdingDistance_ = new Comparator<Entry>() {
+    public int compare(Entry entry1, Entry entry2) {
+      if (entry1.crowding_ < entry2.crowding_)
+        return -1 ;
+      else if (entry1.crowding_ > entry2.crowding_)
+        return 1 ;
+      return (entry1.sequence_ < entry2.sequence_) ? -1 : ((entry1.sequence_ > entry2.sequence_) ? 1 : 0) ;
+    }
+  } ;
+
+  /**
+   * Stores the maximum size of the archive
+   */
+  private int maxSize_ ;
+
+  /**
+   * Stores the solutions sorted by the first objective
+   */
+  private AvlTree<Entry> tree_ ;
+
+  /**
+   * Stores the solutions sorted by crowding distance, and by position in the
+   * archive for equal distances, if <code>crowdingValid_</code>
+   */
+  private TreeSet<Entry> crowding_ ;
+  private boolean crowdingValid_ ;
+
+  /**
+   * Stores the extreme solutions when the crowding distances were computed
+   */
+  private Entry first_ ;
+  private Entry last_ ;
+
+  /**
+   * True if the tree does not match the archive
+   */
+  private boolean stale_ ;
+
+  /**
+   * Stores the number of solutions inserted in the tree, which gives the
+   * order of the solutions in the archive
+   */
+  private long sequence_ ;
+
+  /**
+   * Constructor
+   * @param maxSize The maximum size of the archive
+   */
+  public BiObjectiveCrowdingArchive(int maxSize) {
+    super(maxSize, 2) ;
+    maxSize_       = maxSize ;
+    tree_          = new AvlTree<Entry>(firstObjective_) ;
+    crowding_      = new TreeSet<Entry>(crowdingDistance_) ;
+    crowdingValid_ = false ;
+    stale_         = false ;
+    sequence_      = 0 ;
+  } // BiObjectiveCrowdingArchive
+
+  /**
+   * Adds a <code>Solution</code> to the archive, as
+   * <code>CrowdingArchive.add</code> does
+   * @param solution The <code>Solution</code>
+   * @return true if the <code>Solution</code> has been inserted, false
+   * otherwise.
+   */
+  public boolean add(Solution solution) {
+    if (stale_)
+      rebuild() ;
+    if (!stale_ && (solution.getOverallConstraintViolation() < 0) && (size() > 0))
+      return false ; // Dominated by the feasible solutions of the archive
+    if (stale_ || (solution.getOverallConstraintViolation() != 0)) {
+      stale_ = true ;
+      return super.add(solution) ;
+    }
+
+    Entry entry = new Entry(solution) ;
+    double value = solution.getObjective(1) ;
+    AvlNode<Entry> previous = null ;
+    AvlNode<Entry> next     = null ;
+    if (!tree_.AvlIsEmpty()) {
+      AvlNode<Entry> node = new AvlNode<Entry>(entry) ;
+      int side = tree_.searchClosestNode(node) ;
+      AvlNode<Entry> closest = node.getClosestNode() ;
+      if (side > 0) {
+        previous = closest ;
+        next     = tree_.findSuccessor(closest) ;
+      } else {
+        // The solution dominates the one with the same first objective, or
+        // is dominated by it or equal to it
+        if ((side == 0) && (secondObjective(closest) <= value))
+          return false ;
+        previous = tree_.findPredecessor(closest) ;
+        next     = closest ;
+      }
+    }
+    if ((previous != null) && (secondObjective(previous) <= value))
+      return false ; // The solution to add is dominated
+
+    // Remove the solutions dominated by the new one
+    List<Entry> dominated = new ArrayList<Entry>() ;
+    for (AvlNode<Entry> node = next; (node != null) && (secondObjective(node) >= value);
+         node = tree_.findSuccessor(node))
+      dominated.add(node.getItem()) ;
+    for (Entry e : dominated)
+      delete(e) ;
+
+    // Insert the solution into the archive
+    entry.sequence_ = sequence_++ ;
+    tree_.insert(entry) ;
+    solutionsList_.add(solution) ;
+    updateNeighborhood(entry, true) ;
+
+    if (size() > maxSize_) { // The archive is full
+      if (!crowdingValid_)
+        computeCrowdingDistances() ;
+      Entry worst = crowding_.first() ;
+      updateNeighborhood(worst, false) ;
+    }
+    return true ;
+  } // add
+
+  public boolean add(int index, Solution solution) {
+    stale_ = true ;
+    return super.add(index, solution) ;
+  } // add
+
+  public void remove(int i) {
+    stale_ = true ;
+    super.remove(i) ;
+  } // remove
+
+  public void clear() {
+    stale_ = true ;
+    super.clear() ;
+  } // clear
+
+  @SuppressWarnings("rawtypes") // the signature of SolutionSet.sort
+  public void sort(Comparator comparator) {
+    stale_ = true ;
+    super.sort(comparator) ;
+  } // sort
+
+  public void replace(int position, Solution solution) {
+    stale_ = true ;
+    super.replace(position, solution) ;
+  } // replace
+
+  /**
+   * Removes a solution from the tree and from the archive
+   */
+  private void delete(Entry entry) {
+    tree_.delete(entry) ;
+    crowding_.remove(entry) ;
+    for (int i = solutionsList_.size() - 1; i >= 0; i--)
+      if (solutionsList_.get(i) == entry.solution_) {
+        solutionsList_.remove(i) ;
+        break ;
+      }
+  } // delete
+
+  /**
+   * Computes again the crowding distances of the neighbors of a solution
+   * just inserted into the tree, or to be deleted from it
+   * @param entry The solution
+   * @param inserted true if the solution has been inserted, false if it has
+   * to be deleted
+   */
+  private void updateNeighborhood(Entry entry, boolean inserted) {
+    AvlNode<Entry> node  = tree_.search(entry) ;
+    AvlNode<Entry> left  = tree_.findPredecessor(node) ;
+    AvlNode<Entry> right = tree_.findSuccessor(node) ;
+    Entry previous = (left == null) ? null : left.getItem() ;
+    Entry next     = (right == null) ? null : right.getItem() ;
+    if (inserted)
+      update(entry) ;
+    else
+      delete(entry) ;
+    if (previous != null)
+      update(previous) ;
+    if (next != null)
+      update(next) ;
+  } // updateNeighborhood
+
+  /**
+   * Computes again the crowding distance of a solution of the tree, or all
+   * of them if the extreme solutions have changed
+   */
+  private void update(Entry entry) {
+    if (!crowdingValid_)
+      return ;
+    if ((extreme(true) != first_) || (extreme(false) != last_)) {
+      crowdingValid_ = false ;
+      crowding_.clear() ;
+      return ;
+    }
+    crowding_.remove(entry) ;
+    entry.crowding_ = crowdingDistance(tree_.search(entry)) ;
+    crowding_.add(entry) ;
+  } // update
+
+  /**
+   * Computes the crowding distances of all the solutions
+   */
+  private void computeCrowdingDistances() {
+    first_ = extreme(true) ;
+    last_  = extreme(false) ;
+    crowding_.clear() ;
+    AvlNode<Entry> node = tree_.search(first_) ;
+    while (node != null) {
+      node.getItem().crowding_ = crowdingDistance(node) ;
+      crowding_.add(node.getItem()) ;
+      node = tree_.findSuccessor(node) ;
+    }
+    crowdingValid_ = true ;
+  } // computeCrowdingDistances
+
+  /**
+   * Returns the crowding distance of a solution, with the same operations
+   * as <code>Distance.crowdingDistanceAssignment</code>
+   */
+  private double crowdingDistance(AvlNode<Entry> node) {
+    AvlNode<Entry> previous = tree_.findPredecessor(node) ;
+    AvlNode<Entry> next     = tree_.findSuccessor(node) ;
+    if ((previous == null) || (next == null))
+      return Double.POSITIVE_INFINITY ;
+
+    double distance = next.getItem().solution_.getObjective(0) - previous.getItem().solution_.getObjective(0) ;
+    distance = distance / (last_.solution_.getObjective(0) - first_.solution_.getObjective(0)) ;
+    double crowding = distance ;
+    distance = secondObjective(previous) - secondObjective(next) ;
+    distance = distance / (first_.solution_.getObjective(1) - last_.solution_.getObjective(1)) ;
+    distance += crowding ;
+    return distance ;
+  } // crowdingDistance
+
+  /**
+   * Returns the first or the last solution of the tree
+   */
+  private Entry extreme(boolean first) {
+    AvlNode<Entry> node = tree_.getTop() ;
+    if (node == null)
+      return null ;
+    while (first ? node.hasLeft() : node.hasRight())
+      node = first ? node.getLeft() : node.getRight() ;
+    return node.getItem() ;
+  } // extreme
+
+  /**
+   * Builds the tree from the solutions of the archive, if all of them are
+   * feasible and non-dominated; otherwise, the tree is left stale
+   */
+  private void rebuild() {
+    tree_          = new AvlTree<Entry>(firstObjective_) ;
+    crowdingValid_ = false ;
+    crowding_.clear() ;
+    sequence_      = 0 ;
+    for (int i = 0; i < solutionsList_.size(); i++) {
+      Solution solution = solutionsList_.get(i) ;
+      if (solution.getOverallConstraintViolation() != 0)
+        return ;
+      Entry entry = new Entry(solution) ;
+      if (tree_.search(entry) != null)
+        return ;
+      entry.sequence_ = sequence_++ ;
+      tree_.insert(entry) ;
+    }
+
+    Entry first = extreme(true) ;
+    if (first != null) {
+      AvlNode<Entry> node = tree_.search(first) ;
+      for (AvlNode<Entry> next = tree_.findSuccessor(node); next != null; next = tree_.findSuccessor(next)) {
+        if (secondObjective(next) >= secondObjective(node))
+          return ;
+        node = next ;
+      }
+    }
+    stale_ = false ;
+  } // rebuild
+
+  private static double secondObjective(AvlNode<Entry> node) {
+    return node.getItem().solution_.getObjective(1) ;
+  } // secondObjective
+
+  /**
+   * A solution of the tree, with its crowding distance and the order of
+   * its insertion
+   */
+  private static class Entry {
+    Solution solution_ ;
+    double crowding_ ;
+    long sequence_ ;
+
+    Entry(Solution solution) {
+      solution_ = solution ;
+    }
+  } // Entry
+} // BiObjectiveCrowdingArchive
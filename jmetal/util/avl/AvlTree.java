@@ -34,7 +34,7 @@ import java.util.Comparator;
 public class AvlTree<T> {
 
   AvlNode<T> top_;
-  Comparator comparator_;
+  Comparator<T> comparator_;
 
 
   /**
@@ -42,7 +42,7 @@ public class AvlTree<T> {
    *
    * @param comparator_
    */
-  public AvlTree(Comparator comparator_) {
+  public AvlTree(Comparator<T> comparator_) {
     top_ = null;
     this.comparator_ = comparator_;
   }
@@ -53,7 +53,7 @@ public class AvlTree<T> {
     insertAvlNode(node);
   }
 
-  public void insertAvlNode(AvlNode node) {
+  public void insertAvlNode(AvlNode<T> node) {
     if (AvlIsEmpty()) {
       insertTop(node);
     } else {
@@ -161,14 +161,14 @@ public class AvlTree<T> {
   }
 
   public void deleteNodeWithALeftChild(AvlNode<T> node) {
-    node.setItem((T) node.getLeft().getItem());
+    node.setItem(node.getLeft().getItem());
     node.setLeft(null);
     node.updateHeight();
     rebalance(node);
   }
 
   public void deleteNodeWithARightChild(AvlNode<T> node) {
-    node.setItem((T) node.getRight().getItem());
+    node.setItem(node.getRight().getItem());
     node.setRight(null);
     node.updateHeight();
     rebalance(node);
@@ -181,7 +181,7 @@ public class AvlTree<T> {
    * @return -1 if node has to be inserted in the left, +1 if it must be
    *         inserted in the right, 0 otherwise
    */
-  public int searchClosestNode(AvlNode node) {
+  public int searchClosestNode(AvlNode<T> node) {
     AvlNode<T> currentNode;
     int result = 0;
 
@@ -237,6 +237,23 @@ public class AvlTree<T> {
     return result;
   }
 
+  public AvlNode<T> findPredecessor(AvlNode<T> node) {
+    AvlNode<T> result = null;
+
+    if (node.hasLeft()) {
+      AvlNode<T> tmp = node.getLeft();
+      while (tmp.hasRight())
+        tmp = tmp.getRight();
+      result = tmp;
+    } else {
+      while (node.hasParent() && (node.getParent().getLeft() == node)) {
+        node = node.getParent();
+      }
+      result = node.getParent();
+    }
+    return result;
+  }
+
   /**
    * Insert node in the left of its nearest node
    *
@@ -266,7 +283,7 @@ public class AvlTree<T> {
    * @param node2
    * @return -1 if node1 < node2, +1 if node1 > node2; 0 if node1 == node2
    */
-  public int compareNodes(AvlNode node1, AvlNode node2) {
+  public int compareNodes(AvlNode<T> node1, AvlNode<T> node2) {
     return comparator_.compare(node1.getItem(), node2.getItem());
   }
 
@@ -322,6 +339,8 @@ public class AvlTree<T> {
     }
 
     node.setLeft(node.getLeft().getRight());
+    if (node.hasLeft())
+      node.getLeft().setParent(node);
     leftNode.setRight(node);
     node.setParent(leftNode);
 
@@ -343,6 +362,8 @@ public class AvlTree<T> {
     }
 
     node.setRight(node.getRight().getLeft());
+    if (node.hasRight())
+      node.getRight().setParent(node);
     rightNode.setLeft(node);
     node.setParent(rightNode);
 
@@ -388,7 +409,7 @@ public class AvlTree<T> {
     return (top_ == null);
   }
 
-  public void insertTop(AvlNode node) {
+  public void insertTop(AvlNode<T> node) {
     top_ = node;
   }
 
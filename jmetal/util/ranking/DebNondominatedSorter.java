@@ -0,0 +1,133 @@
+//  DebNondominatedSorter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the fast non-dominated sorting of NSGA-II (K. Deb,
+ * A. Pratap, S. Agarwal, T. Meyarivan. A fast and elitist multiobjective
+ * genetic algorithm: NSGA-II. IEEE TEC 6(2), 2002), which compares all the
+ * pairs of points: O(M N^2). It is the reference the other sorters are
+ * checked against.
+ */
+public class DebNondominatedSorter extends NondominatedSorter {
+
+  private static final DebNondominatedSorter instance_ = new DebNondominatedSorter() ;
+
+  /**
+   * Returns the instance of the sorter
+   */
+  public static DebNondominatedSorter getInstance() {
+    return instance_ ;
+  } // getInstance
+
+  public int [] sort(double [][] points) {
+    return sort(points, null) ;
+  } // sort
+
+  /**
+   * Ranks a set of points with constraints, comparing them as
+   * <code>jmetal.util.comparators.DominanceComparator</code> does
+   * @param points The points
+   * @param violation The overall constraint violation of each point, or
+   * null if all of them are feasible
+   * @return The rank of each point
+   */
+  static int [] sort(double [][] points, double [] violation) {
+    int size = points.length ;
+
+    // dominateMe[i] contains the number of points dominating i, and
+    // iDominate[i][0..numberDominated[i]-1] the points dominated by i
+    int [] dominateMe     = new int[size] ;
+    int [][] iDominate    = new int[size][] ;
+    int [] numberDominated = new int[size] ;
+
+    for (int p = 0; p < size - 1; p++)
+      for (int q = p + 1; q < size; q++) {
+        int flag = (violation == null) ? compare(points[p], points[q], 0, 0) :
+                                         compare(points[p], points[q], violation[p], violation[q]) ;
+        if (flag == -1) {
+          iDominate[p] = add(iDominate[p], numberDominated[p]++, q) ;
+          dominateMe[q]++ ;
+        } else if (flag == 1) {
+          iDominate[q] = add(iDominate[q], numberDominated[q]++, p) ;
+          dominateMe[p]++ ;
+        }
+      } // for
+
+    int [] rank  = new int[size] ;
+    int [] front = new int[size] ;
+    int last = 0 ;
+    for (int p = 0; p < size; p++)
+      if (dominateMe[p] == 0)
+        front[last++] = p ;
+
+    // Obtain the rest of fronts, visiting the points front after front
+    for (int first = 0; first < last; first++) {
+      int p = front[first] ;
+      for (int i = 0; i < numberDominated[p]; i++) {
+        int q = iDominate[p][i] ;
+        if (--dominateMe[q] == 0) {
+          rank[q] = rank[p] + 1 ;
+          front[last++] = q ;
+        }
+      }
+    } // for
+    return rank ;
+  } // sort
+
+  /**
+   * Appends a value to a list, growing it if needed
+   */
+  private static int [] add(int [] list, int size, int value) {
+    if (list == null)
+      list = new int[4] ;
+    else if (size == list.length)
+      list = Arrays.copyOf(list, 2 * size) ;
+    list[size] = value ;
+    return list ;
+  } // add
+
+  /**
+   * Compares two points as DominanceComparator compares two solutions
+   * @return -1, or 0, or 1 if point1 dominates point2, both are
+   * non-dominated, or point1 is dominated by point2, respectively
+   */
+  private static int compare(double [] point1, double [] point2, double violation1, double violation2) {
+    if ((violation1 < 0) || (violation2 < 0)) {
+      if ((violation1 < 0) && (violation2 < 0))
+        return (violation1 > violation2) ? -1 : ((violation2 > violation1) ? 1 : 0) ;
+      else if ((violation1 == 0) && (violation2 < 0))
+        return -1 ;
+      else if ((violation1 < 0) && (violation2 == 0))
+        return 1 ;
+      return 0 ;
+    } // if
+
+    boolean dominate1 = false ;
+    boolean dominate2 = false ;
+    for (int j = 0; j < point1.length; j++) {
+      if (point1[j] < point2[j])
+        dominate1 = true ;
+      else if (point1[j] > point2[j])
+        dominate2 = true ;
+    }
+    if (dominate1 == dominate2)
+      return 0 ;
+    return dominate1 ? -1 : 1 ;
+  } // compare
+} // DebNondominatedSorter
@@ -0,0 +1,388 @@
+//  DivideAndConquerNondominatedSorter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+/**
+ * This class implements the divide and conquer non-dominated sorting of
+ * Jensen, as generalized by Fortin et al. to points with equal values (F.
+ * Fortin, S. Grenier, M. Parizeau. Generalizing the improved run-time
+ * complexity algorithm for non-dominated sorting. GECCO 2013), which runs
+ * in O(N log^(M-1) N).
+ *
+ * The points are sorted in lexicographic order and the duplicated points
+ * removed, so that a point can only be dominated by the points preceding
+ * it. The points are split by the median of the last objective considered:
+ * the low half is ranked first, then it updates the ranks of the high half
+ * with one objective less (helperB), and finally the high half is ranked.
+ * With two objectives left, the ranks are updated by a sweep.
+ */
+public class DivideAndConquerNondominatedSorter extends NondominatedSorter {
+
+  private static final DivideAndConquerNondominatedSorter instance_ = new DivideAndConquerNondominatedSorter() ;
+
+  /**
+   * Returns the instance of the sorter
+   */
+  public static DivideAndConquerNondominatedSorter getInstance() {
+    return instance_ ;
+  } // getInstance
+
+  public int [] sort(double [][] points) {
+    int size = points.length ;
+    int [] rank = new int[size] ;
+    if (size == 0)
+      return rank ;
+
+    int [] index = new int[size] ;
+    for (int i = 0; i < size; i++)
+      index[i] = i ;
+    sortLexicographically(index, points) ;
+
+    // The duplicated points take the rank of their first occurrence
+    int [] unique = new int[size] ;
+    int [] representative = new int[size] ;
+    int count = 0 ;
+    for (int k = 0; k < size; k++) {
+      int i = index[k] ;
+      if ((k > 0) && (compare(points[index[k - 1]], points[i]) == 0))
+        representative[i] = representative[index[k - 1]] ;
+      else {
+        representative[i] = i ;
+        unique[count++] = i ;
+      }
+    } // for
+
+    int objectives = points[0].length ;
+    if (objectives == 1) {
+      for (int k = 0; k < count; k++)
+        rank[unique[k]] = k ;
+    } else
+      new Run(points, rank, unique, count).helperA(0, count, objectives - 1) ;
+
+    for (int i = 0; i < size; i++)
+      rank[i] = rank[representative[i]] ;
+    return rank ;
+  } // sort
+
+  /**
+   * State of a sort. The points are handled by ranges of the array work_,
+   * kept in lexicographic order on entry and exit of each step.
+   */
+  private static class Run {
+    private double [][] points_ ;
+    private int [] rank_ ;
+    private int [] work_ ;
+    private int [] position_ ; // position of each point in lexicographic order
+    private int [] buffer_ ;
+    private double [] values_ ;
+
+    // Staircase of the sweeps: values strictly increasing, with ranks
+    // strictly increasing
+    private double [] stairValue_ ;
+    private int [] stairRank_ ;
+    private int stairSize_ ;
+
+    Run(double [][] points, int [] rank, int [] work, int count) {
+      points_     = points ;
+      rank_       = rank ;
+      work_       = work ;
+      position_   = new int[points.length] ;
+      for (int k = 0; k < count; k++)
+        position_[work[k]] = k ;
+      buffer_     = new int[count] ;
+      values_     = new double[count] ;
+      stairValue_ = new double[count] ;
+      stairRank_  = new int[count] ;
+      stairSize_  = 0 ;
+    } // Run
+
+    /**
+     * Ranks the points of a range, considering the objectives 0..k; the
+     * points are equal in the objectives after k
+     */
+    void helperA(int from, int to, int k) {
+      int size = to - from ;
+      if (size < 2)
+        return ;
+      if (size == 2) {
+        if (weaklyDominates(points_[work_[from]], points_[work_[from + 1]], 0, k))
+          update(work_[from + 1], work_[from]) ;
+        return ;
+      }
+      if (k == 1) {
+        sweepA(from, to) ;
+        return ;
+      }
+
+      double min = Double.POSITIVE_INFINITY ;
+      double max = Double.NEGATIVE_INFINITY ;
+      for (int i = from; i < to; i++) {
+        min = Math.min(min, points_[work_[i]][k]) ;
+        max = Math.max(max, points_[work_[i]][k]) ;
+      }
+      if (min == max) {
+        helperA(from, to, k - 1) ;
+        return ;
+      }
+
+      int n = 0 ;
+      for (int i = from; i < to; i++)
+        values_[n++] = points_[work_[i]][k] ;
+      double median = select(values_, n, n / 2) ;
+      int middle = partition(from, to, k, median, tiesLow(from, to, to, to, k, median)) ;
+
+      helperA(from, middle, k) ;
+      helperB(from, middle, middle, to, k - 1) ;
+      helperA(middle, to, k) ;
+      merge(from, middle, to) ;
+    } // helperA
+
+    /**
+     * Updates the ranks of the points of a range (high) with the ranks of
+     * the points of another range (low), considering the objectives 0..k;
+     * the points of low are not greater than those of high in the
+     * objectives after k
+     */
+    void helperB(int lowFrom, int lowTo, int highFrom, int highTo, int k) {
+      if ((lowFrom == lowTo) || (highFrom == highTo))
+        return ;
+      if ((lowTo - lowFrom == 1) || (highTo - highFrom == 1)) {
+        for (int h = highFrom; h < highTo; h++)
+          for (int l = lowFrom; l < lowTo; l++)
+            if (weaklyDominates(points_[work_[l]], points_[work_[h]], 0, k))
+              update(work_[h], work_[l]) ;
+        return ;
+      }
+      if (k == 1) {
+        sweepB(lowFrom, lowTo, highFrom, highTo) ;
+        return ;
+      }
+
+      double lowMin  = Double.POSITIVE_INFINITY ;
+      double lowMax  = Double.NEGATIVE_INFINITY ;
+      double highMin = Double.POSITIVE_INFINITY ;
+      double highMax = Double.NEGATIVE_INFINITY ;
+      for (int i = lowFrom; i < lowTo; i++) {
+        lowMin = Math.min(lowMin, points_[work_[i]][k]) ;
+        lowMax = Math.max(lowMax, points_[work_[i]][k]) ;
+      }
+      for (int i = highFrom; i < highTo; i++) {
+        highMin = Math.min(highMin, points_[work_[i]][k]) ;
+        highMax = Math.max(highMax, points_[work_[i]][k]) ;
+      }
+      if (lowMax <= highMin) {
+        helperB(lowFrom, lowTo, highFrom, highTo, k - 1) ;
+        return ;
+      }
+      if (lowMin > highMax)
+        return ;
+
+      int n = 0 ;
+      for (int i = lowFrom; i < lowTo; i++)
+        values_[n++] = points_[work_[i]][k] ;
+      for (int i = highFrom; i < highTo; i++)
+        values_[n++] = points_[work_[i]][k] ;
+      double median = select(values_, n, n / 2) ;
+      boolean tiesLow = tiesLow(lowFrom, lowTo, highFrom, highTo, k, median) ;
+      int lowMiddle  = partition(lowFrom, lowTo, k, median, tiesLow) ;
+      int highMiddle = partition(highFrom, highTo, k, median, tiesLow) ;
+
+      helperB(lowFrom, lowMiddle, highFrom, highMiddle, k) ;
+      helperB(lowFrom, lowMiddle, highMiddle, highTo, k - 1) ;
+      helperB(lowMiddle, lowTo, highMiddle, highTo, k) ;
+      merge(lowFrom, lowMiddle, lowTo) ;
+      merge(highFrom, highMiddle, highTo) ;
+    } // helperB
+
+    /**
+     * Ranks the points of a range in the objectives 0 and 1
+     */
+    private void sweepA(int from, int to) {
+      stairSize_ = 0 ;
+      for (int i = from; i < to; i++) {
+        int point = work_[i] ;
+        int rank = query(points_[point][1]) ;
+        if (rank + 1 > rank_[point])
+          rank_[point] = rank + 1 ;
+        insert(points_[point][1], rank_[point]) ;
+      }
+    } // sweepA
+
+    /**
+     * Updates the ranks of the points of high with those of low in the
+     * objectives 0 and 1
+     */
+    private void sweepB(int lowFrom, int lowTo, int highFrom, int highTo) {
+      stairSize_ = 0 ;
+      int l = lowFrom ;
+      for (int i = highFrom; i < highTo; i++) {
+        double [] point = points_[work_[i]] ;
+        while ((l < lowTo) && ((points_[work_[l]][0] < point[0]) ||
+               ((points_[work_[l]][0] == point[0]) && (points_[work_[l]][1] <= point[1])))) {
+          insert(points_[work_[l]][1], rank_[work_[l]]) ;
+          l++ ;
+        }
+        int rank = query(point[1]) ;
+        if (rank + 1 > rank_[work_[i]])
+          rank_[work_[i]] = rank + 1 ;
+      } // for
+    } // sweepB
+
+    /**
+     * Returns the highest rank of the staircase with a value not greater
+     * than a given one, or -1
+     */
+    private int query(double value) {
+      int position = upperBound(value) ;
+      return (position > 0) ? stairRank_[position - 1] : -1 ;
+    } // query
+
+    /**
+     * Adds a value with its rank to the staircase, removing the entries it
+     * makes useless
+     */
+    private void insert(double value, int rank) {
+      int position = upperBound(value) ;
+      if ((position > 0) && (stairRank_[position - 1] >= rank))
+        return ;
+      int start = ((position > 0) && (stairValue_[position - 1] == value)) ? position - 1 : position ;
+      int end = position ;
+      while ((end < stairSize_) && (stairRank_[end] <= rank))
+        end++ ;
+      System.arraycopy(stairValue_, end, stairValue_, start + 1, stairSize_ - end) ;
+      System.arraycopy(stairRank_, end, stairRank_, start + 1, stairSize_ - end) ;
+      stairSize_ = stairSize_ - (end - start) + 1 ;
+      stairValue_[start] = value ;
+      stairRank_[start]  = rank ;
+    } // insert
+
+    /**
+     * Returns the first position of the staircase with a value greater than
+     * a given one
+     */
+    private int upperBound(double value) {
+      int low  = 0 ;
+      int high = stairSize_ ;
+      while (low < high) {
+        int middle = (low + high) >>> 1 ;
+        if (stairValue_[middle] <= value)
+          low = middle + 1 ;
+        else
+          high = middle ;
+      }
+      return low ;
+    } // upperBound
+
+    private void update(int point, int dominator) {
+      if (rank_[dominator] + 1 > rank_[point])
+        rank_[point] = rank_[dominator] + 1 ;
+    } // update
+
+    /**
+     * Decides on which side of a split the values equal to the median go,
+     * so that both sides are non-empty and as balanced as possible
+     */
+    private boolean tiesLow(int from1, int to1, int from2, int to2, int k, double median) {
+      int less  = 0 ;
+      int equal = 0 ;
+      for (int i = from1; i < to1; i++)
+        if (points_[work_[i]][k] < median)
+          less++ ;
+        else if (points_[work_[i]][k] == median)
+          equal++ ;
+      for (int i = from2; i < to2; i++)
+        if (points_[work_[i]][k] < median)
+          less++ ;
+        else if (points_[work_[i]][k] == median)
+          equal++ ;
+      int size = (to1 - from1) + (to2 - from2) ;
+      int low1 = less + equal ;
+      int low2 = less ;
+      if ((low2 == 0) || (low2 == size))
+        return true ;
+      if ((low1 == 0) || (low1 == size))
+        return false ;
+      return Math.abs(2 * low1 - size) <= Math.abs(2 * low2 - size) ;
+    } // tiesLow
+
+    /**
+     * Moves the points of a range lower than the median (or equal, if
+     * tiesLow) to its beginning, keeping their order
+     * @return The end of the low points
+     */
+    private int partition(int from, int to, int k, double median, boolean tiesLow) {
+      int low  = from ;
+      int high = 0 ;
+      for (int i = from; i < to; i++) {
+        double value = points_[work_[i]][k] ;
+        if ((value < median) || (tiesLow && (value == median)))
+          work_[low++] = work_[i] ;
+        else
+          buffer_[high++] = work_[i] ;
+      }
+      System.arraycopy(buffer_, 0, work_, low, high) ;
+      return low ;
+    } // partition
+
+    /**
+     * Merges two consecutive ranges back into lexicographic order
+     */
+    private void merge(int from, int middle, int to) {
+      int i = from ;
+      int j = middle ;
+      int n = 0 ;
+      while ((i < middle) && (j < to))
+        buffer_[n++] = (position_[work_[i]] < position_[work_[j]]) ? work_[i++] : work_[j++] ;
+      while (i < middle)
+        buffer_[n++] = work_[i++] ;
+      while (j < to)
+        buffer_[n++] = work_[j++] ;
+      System.arraycopy(buffer_, 0, work_, from, n) ;
+    } // merge
+
+    /**
+     * Returns the k-th smallest of the first n values of an array, which is
+     * reordered
+     */
+    private static double select(double [] values, int n, int k) {
+      int low  = 0 ;
+      int high = n - 1 ;
+      while (low < high) {
+        double pivot = values[(low + high) >>> 1] ;
+        int i = low ;
+        int j = high ;
+        while (i <= j) {
+          while (values[i] < pivot)
+            i++ ;
+          while (values[j] > pivot)
+            j-- ;
+          if (i <= j) {
+            double temp = values[i] ;
+            values[i++] = values[j] ;
+            values[j--] = temp ;
+          }
+        }
+        if (k <= j)
+          high = j ;
+        else if (k >= i)
+          low = i ;
+        else
+          return values[k] ;
+      } // while
+      return values[k] ;
+    } // select
+  } // Run
+} // DivideAndConquerNondominatedSorter
@@ -0,0 +1,119 @@
+//  ENSNondominatedSorter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the efficient non-dominated sort (X. Zhang, Y. Tian,
+ * R. Cheng, Y. Jin. An efficient approach to nondominated sorting for
+ * evolutionary multiobjective optimization. IEEE TEC 19(2), 2015). The
+ * points are visited in lexicographic order, so a point can only be
+ * dominated by the points visited before it, which are already in their
+ * fronts. The front of a point is the first one without a point dominating
+ * it, searched sequentially (ENS-SS) or by binary search (ENS-BS).
+ */
+public class ENSNondominatedSorter extends NondominatedSorter {
+
+  private static final ENSNondominatedSorter instance_ = new ENSNondominatedSorter(true) ;
+
+  /**
+   * true for ENS-BS, false for ENS-SS
+   */
+  private boolean binarySearch_ ;
+
+  /**
+   * Returns the instance of the sorter with binary search
+   */
+  public static ENSNondominatedSorter getInstance() {
+    return instance_ ;
+  } // getInstance
+
+  /**
+   * Constructor
+   * @param binarySearch true to search the fronts by binary search (ENS-BS),
+   * false to search them sequentially (ENS-SS, faster when there are few
+   * fronts)
+   */
+  public ENSNondominatedSorter(boolean binarySearch) {
+    binarySearch_ = binarySearch ;
+  } // ENSNondominatedSorter
+
+  public int [] sort(double [][] points) {
+    int size = points.length ;
+    int [] rank = new int[size] ;
+    if (size == 0)
+      return rank ;
+
+    int [] index = new int[size] ;
+    for (int i = 0; i < size; i++)
+      index[i] = i ;
+    sortLexicographically(index, points) ;
+
+    // front[f][0..frontSize[f]-1] are the points of front f
+    int [][] front = new int[size][] ;
+    int [] frontSize = new int[size] ;
+    int fronts = 0 ;
+    int last = points[0].length - 1 ;
+    for (int k = 0; k < size; k++) {
+      int i = index[k] ;
+      if ((k > 0) && (compare(points[index[k - 1]], points[i]) == 0)) {
+        rank[i] = rank[index[k - 1]] ;
+        continue ;
+      }
+
+      int f ;
+      if (binarySearch_) {
+        int low  = 0 ;
+        int high = fronts ;
+        while (low < high) {
+          int middle = (low + high) >>> 1 ;
+          if (dominated(points, front[middle], frontSize[middle], points[i], last))
+            low = middle + 1 ;
+          else
+            high = middle ;
+        }
+        f = low ;
+      } else {
+        f = 0 ;
+        while ((f < fronts) && dominated(points, front[f], frontSize[f], points[i], last))
+          f++ ;
+      }
+
+      if (f == fronts) {
+        front[f] = new int[4] ;
+        fronts++ ;
+      } else if (frontSize[f] == front[f].length)
+        front[f] = Arrays.copyOf(front[f], 2 * frontSize[f]) ;
+      front[f][frontSize[f]++] = i ;
+      rank[i] = f ;
+    } // for
+    return rank ;
+  } // sort
+
+  /**
+   * Returns true if a point of a front dominates a point. The points of the
+   * front precede the point in lexicographic order, so they are not greater
+   * in the first objective; the last points of the front are checked first,
+   * as they are the most likely to dominate it.
+   */
+  private static boolean dominated(double [][] points, int [] front, int size, double [] point, int last) {
+    for (int k = size - 1; k >= 0; k--)
+      if (weaklyDominates(points[front[k]], point, 1, last))
+        return true ;
+    return false ;
+  } // dominated
+} // ENSNondominatedSorter
@@ -0,0 +1,305 @@
+//  IncrementalRanking.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Distance;
+import jmetal.util.Ranking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class keeps the non-dominated fronts of a population which changes
+ * by one solution at a time, as in steady-state algorithms, updating only
+ * the fronts affected by each change (K. Li, K. Deb, Q. Zhang, S. Kwong.
+ * Efficient non-domination level update approach for steady-state
+ * evolutionary multiobjective optimization. IEEE TEC 19(5), 2015).
+ *
+ * Adding a solution to front k moves the solutions of front k it dominates
+ * to front k+1, which moves the solutions of front k+1 they dominate to
+ * front k+2, and so on. Removing a solution from front k moves up the
+ * solutions of front k+1 which were dominated only by it, and so on. The
+ * solutions are compared as in <code>Ranking</code>, and their rank is kept
+ * up to date. The crowding distances are computed again, when asked, for
+ * the fronts which have changed only.
+ */
+public class IncrementalRanking {
+
+  private List<SolutionSet> fronts_ ;
+  private List<Boolean> changed_ ;
+  private int numberOfObjectives_ ;
+  private int capacity_ ;
+  private int size_ ;
+  private Distance distance_ ;
+
+  /**
+   * Constructor
+   * @param solutionSet The initial solutions
+   * @param numberOfObjectives Number of objectives of the solutions
+   * @param capacity Maximum number of solutions
+   */
+  public IncrementalRanking(SolutionSet solutionSet, int numberOfObjectives, int capacity) {
+    fronts_             = new ArrayList<SolutionSet>() ;
+    changed_            = new ArrayList<Boolean>() ;
+    numberOfObjectives_ = numberOfObjectives ;
+    capacity_           = capacity ;
+    size_               = solutionSet.size() ;
+    distance_           = new Distance() ;
+
+    Ranking ranking = new Ranking(solutionSet) ;
+    for (int i = 0; i < ranking.getNumberOfSubfronts(); i++) {
+      SolutionSet front = newFront() ;
+      for (int j = 0; j < ranking.getSubfront(i).size(); j++)
+        front.add(ranking.getSubfront(i).get(j)) ;
+      fronts_.add(front) ;
+      changed_.add(true) ;
+    }
+  } // IncrementalRanking
+
+  /**
+   * Returns the number of fronts
+   */
+  public int getNumberOfSubfronts() {
+    return fronts_.size() ;
+  } // getNumberOfSubfronts
+
+  /**
+   * Returns the solutions of a front
+   * @param rank The rank of the front
+   */
+  public SolutionSet getSubfront(int rank) {
+    return fronts_.get(rank) ;
+  } // getSubfront
+
+  /**
+   * Returns the number of solutions
+   */
+  public int size() {
+    return size_ ;
+  } // size
+
+  /**
+   * Adds a solution
+   * @param solution The solution
+   */
+  public void add(Solution solution) {
+    // The fronts with a solution dominating the new one come first
+    int low  = 0 ;
+    int high = fronts_.size() ;
+    while (low < high) {
+      int middle = (low + high) >>> 1 ;
+      if (dominated(fronts_.get(middle), solution))
+        low = middle + 1 ;
+      else
+        high = middle ;
+    }
+    size_++ ;
+
+    List<Solution> moved = new ArrayList<Solution>() ;
+    moved.add(solution) ;
+    for (int rank = low; !moved.isEmpty(); rank++) {
+      if (rank == fronts_.size()) {
+        fronts_.add(newFront()) ;
+        changed_.add(true) ;
+      }
+      SolutionSet front = fronts_.get(rank) ;
+
+      // The solutions dominated by the ones moved into the front leave it
+      List<Solution> next = new ArrayList<Solution>() ;
+      for (int i = front.size() - 1; i >= 0; i--)
+        if (dominatedBy(front.get(i), moved)) {
+          next.add(front.get(i)) ;
+          front.remove(i) ;
+        }
+      Collections.reverse(next) ;
+      for (Solution s : moved) {
+        s.setRank(rank) ;
+        front.add(s) ;
+      }
+      changed_.set(rank, true) ;
+
+      // If the whole front moves, the following ones move too
+      if ((front.size() == moved.size()) && (rank + 1 < fronts_.size()) && !next.isEmpty()) {
+        SolutionSet last = newFront() ;
+        for (Solution s : next) {
+          s.setRank(rank + 1) ;
+          last.add(s) ;
+        }
+        for (int i = rank + 1; i < fronts_.size(); i++)
+          for (int j = 0; j < fronts_.get(i).size(); j++)
+            fronts_.get(i).get(j).setRank(i + 1) ;
+        fronts_.add(rank + 1, last) ;
+        changed_.add(rank + 1, true) ;
+        return ;
+      }
+      moved = next ;
+    } // for
+  } // add
+
+  /**
+   * Removes a solution
+   * @param solution The solution; its rank must be up to date
+   */
+  public void remove(Solution solution) {
+    int rank = solution.getRank() ;
+    SolutionSet front = fronts_.get(rank) ;
+    for (int i = 0; i < front.size(); i++)
+      if (front.get(i) == solution) {
+        front.remove(i) ;
+        break ;
+      }
+    size_-- ;
+    changed_.set(rank, true) ;
+
+    List<Solution> removed = new ArrayList<Solution>() ;
+    removed.add(solution) ;
+    for (; !removed.isEmpty() && (rank + 1 < fronts_.size()); rank++) {
+      // The solutions of the next front dominated only by the ones removed
+      // from this front move up
+      SolutionSet upper = fronts_.get(rank) ;
+      SolutionSet lower = fronts_.get(rank + 1) ;
+      List<Solution> moved = new ArrayList<Solution>() ;
+      for (int i = 0; i < lower.size(); i++)
+        if (dominatedBy(lower.get(i), removed) && !dominated(upper, lower.get(i)))
+          moved.add(lower.get(i)) ;
+      for (Solution s : moved) {
+        for (int i = 0; i < lower.size(); i++)
+          if (lower.get(i) == s) {
+            lower.remove(i) ;
+            break ;
+          }
+        s.setRank(rank) ;
+        upper.add(s) ;
+      }
+      if (!moved.isEmpty()) {
+        changed_.set(rank, true) ;
+        changed_.set(rank + 1, true) ;
+      }
+      removed = moved ;
+    } // for
+
+    while (!fronts_.isEmpty() && (fronts_.get(fronts_.size() - 1).size() == 0)) {
+      fronts_.remove(fronts_.size() - 1) ;
+      changed_.remove(changed_.size() - 1) ;
+    }
+  } // remove
+
+  /**
+   * Computes the crowding distances of the fronts which have changed since
+   * the last call
+   */
+  public void updateCrowdingDistances() {
+    for (int i = 0; i < fronts_.size(); i++)
+      if (changed_.get(i)) {
+        distance_.crowdingDistanceAssignment(fronts_.get(i), numberOfObjectives_) ;
+        changed_.set(i, false) ;
+      }
+  } // updateCrowdingDistances
+
+  /**
+   * Removes the solution of the last front with the lowest crowding
+   * distance, as NSGA-II does when the population exceeds its size by one
+   * @return The solution removed
+   */
+  public Solution removeWorst() {
+    updateCrowdingDistances() ;
+    SolutionSet last = fronts_.get(fronts_.size() - 1) ;
+    int worst = 0 ;
+    for (int i = 1; i < last.size(); i++)
+      if (last.get(i).getCrowdingDistance() <= last.get(worst).getCrowdingDistance())
+        worst = i ;
+    Solution solution = last.get(worst) ;
+    remove(solution) ;
+    return solution ;
+  } // removeWorst
+
+  /**
+   * Copies the solutions into a solution set, front after front
+   * @param solutionSet The solution set, which is cleared first
+   */
+  public void copyTo(SolutionSet solutionSet) {
+    solutionSet.clear() ;
+    for (SolutionSet front : fronts_)
+      for (int i = 0; i < front.size(); i++)
+        solutionSet.add(front.get(i)) ;
+  } // copyTo
+
+  private SolutionSet newFront() {
+    SolutionSet front = new SolutionSet(capacity_) ;
+    // The crowding distances of the front read the objectives from its view,
+    // which copies only the solutions changed since the last computation
+    front.getObjectiveMatrix() ;
+    return front ;
+  } // newFront
+
+  /**
+   * Returns true if a solution of a front dominates a solution
+   */
+  private static boolean dominated(SolutionSet front, Solution solution) {
+    for (int i = front.size() - 1; i >= 0; i--)
+      if (compare(front.get(i), solution) < 0)
+        return true ;
+    return false ;
+  } // dominated
+
+  /**
+   * Returns true if a solution is dominated by one of a list
+   */
+  private static boolean dominatedBy(Solution solution, List<Solution> solutions) {
+    for (Solution s : solutions)
+      if (compare(s, solution) < 0)
+        return true ;
+    return false ;
+  } // dominatedBy
+
+  /**
+   * Compares two solutions as <code>DominanceComparator</code> does
+   * @return -1, or 0, or 1 if solution1 dominates solution2, both are
+   * non-dominated, or solution1 is dominated by solution2, respectively
+   */
+  private static int compare(Solution solution1, Solution solution2) {
+    double violation1 = solution1.getOverallConstraintViolation() ;
+    double violation2 = solution2.getOverallConstraintViolation() ;
+    if ((violation1 < 0) || (violation2 < 0)) {
+      if ((violation1 < 0) && (violation2 < 0))
+        return (violation1 > violation2) ? -1 : ((violation2 > violation1) ? 1 : 0) ;
+      else if ((violation1 == 0) && (violation2 < 0))
+        return -1 ;
+      else if ((violation1 < 0) && (violation2 == 0))
+        return 1 ;
+      return 0 ;
+    } // if
+
+    boolean dominate1 = false ;
+    boolean dominate2 = false ;
+    for (int j = 0; j < solution1.getNumberOfObjectives(); j++) {
+      double value1 = solution1.getObjective(j) ;
+      double value2 = solution2.getObjective(j) ;
+      if (value1 < value2)
+        dominate1 = true ;
+      else if (value1 > value2)
+        dominate2 = true ;
+      if (dominate1 && dominate2)
+        return 0 ;
+    }
+    if (dominate1 == dominate2)
+      return 0 ;
+    return dominate1 ? -1 : 1 ;
+  } // compare
+} // IncrementalRanking
@@ -0,0 +1,240 @@
+//  NondominatedSorter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+
+import java.util.Arrays;
+
+/**
+ * This abstract class is the base of the non-dominated sorting algorithms.
+ * They work on a matrix of objective values (one row per point, all the
+ * objectives minimized) and return the rank of each point: 0 for the
+ * non-dominated points, 1 for the points which are non-dominated once those
+ * of rank 0 are removed, and so on. Equal points have the same rank.
+ *
+ * The sorters have no state, so the same sorter can be used by several
+ * threads at the same time.
+ */
+public abstract class NondominatedSorter {
+
+  /**
+   * Number of points from which the divide and conquer sorter is preferred
+   * to ENS with three objectives
+   */
+  public static final int DIVIDE_AND_CONQUER_THRESHOLD = 10000 ;
+
+  private static final NondominatedSorter sequentialENS_ = new ENSNondominatedSorter(false) ;
+
+  /**
+   * Ranks a set of points
+   * @param points The points; all of them have the same number of objectives
+   * @return The rank of each point
+   */
+  public abstract int [] sort(double [][] points) ;
+
+  /**
+   * Ranks the solutions of a set as NSGA-II does (see
+   * <code>jmetal.util.comparators.DominanceComparator</code>): a solution
+   * with a lower overall constraint violation dominates the other, and the
+   * solutions with the same violation are compared by dominance only if
+   * both of them are feasible. The objectives are read from the
+   * <code>ObjectiveMatrix</code> of the set if it has one.
+   * @param solutionSet The solutions
+   * @return The rank of each solution
+   */
+  public int [] sort(SolutionSet solutionSet) {
+    int size = solutionSet.size() ;
+    boolean matrix = solutionSet.hasObjectiveMatrix() ;
+    double [][] points   = matrix ? solutionSet.getObjectiveMatrix().getRows() : new double[size][] ;
+    double [] violation  = new double[size] ;
+    int infeasible = 0 ;
+    boolean positive = false ;
+    for (int i = 0; i < size; i++) {
+      Solution solution = solutionSet.get(i) ;
+      if (!matrix) {
+        points[i] = new double[solution.getNumberOfObjectives()] ;
+        for (int j = 0; j < points[i].length; j++)
+          points[i][j] = solution.getObjective(j) ;
+      }
+      violation[i] = solution.getOverallConstraintViolation() ;
+      if (violation[i] < 0)
+        infeasible++ ;
+      else if (violation[i] > 0)
+        positive = true ;
+    } // for
+
+    if (infeasible == 0)
+      return sort(points) ;
+    // A positive violation is incomparable with a negative one
+    if (positive)
+      return DebNondominatedSorter.sort(points, violation) ;
+
+    // The feasible solutions are sorted by dominance, and the infeasible
+    // ones follow them, one front per value of the violation
+    int [] feasible = new int[size - infeasible] ;
+    double [] violations = new double[infeasible] ;
+    int f = 0 ;
+    int v = 0 ;
+    for (int i = 0; i < size; i++)
+      if (violation[i] < 0)
+        violations[v++] = violation[i] ;
+      else
+        feasible[f++] = i ;
+
+    int [] rank = new int[size] ;
+    int fronts = 0 ;
+    if (feasible.length > 0) {
+      double [][] feasiblePoints = new double[feasible.length][] ;
+      for (int i = 0; i < feasible.length; i++)
+        feasiblePoints[i] = points[feasible[i]] ;
+      int [] feasibleRank = sort(feasiblePoints) ;
+      for (int i = 0; i < feasible.length; i++) {
+        rank[feasible[i]] = feasibleRank[i] ;
+        fronts = Math.max(fronts, feasibleRank[i] + 1) ;
+      }
+    } // if
+
+    // Different violations, in decreasing order
+    Arrays.sort(violations) ;
+    double [] levels = new double[infeasible] ;
+    int numberOfLevels = 0 ;
+    for (int i = violations.length - 1; i >= 0; i--)
+      if ((numberOfLevels == 0) || (violations[i] != levels[numberOfLevels - 1]))
+        levels[numberOfLevels++] = violations[i] ;
+    for (int i = 0; i < size; i++)
+      if (violation[i] < 0)
+        rank[i] = fronts + level(levels, numberOfLevels, violation[i]) ;
+    return rank ;
+  } // sort
+
+  /**
+   * Returns the position of a violation in the decreasing list of the
+   * different violations
+   */
+  private static int level(double [] violations, int levels, double violation) {
+    int low  = 0 ;
+    int high = levels - 1 ;
+    while (low < high) {
+      int middle = (low + high) >>> 1 ;
+      if (violations[middle] > violation)
+        low = middle + 1 ;
+      else
+        high = middle ;
+    }
+    return low ;
+  } // level
+
+  /**
+   * Groups the points by rank
+   * @param rank The rank of each point
+   * @return The indexes of the points of each front, in increasing order
+   */
+  public static int [][] fronts(int [] rank) {
+    int fronts = 0 ;
+    for (int r : rank)
+      fronts = Math.max(fronts, r + 1) ;
+    int [] size = new int[fronts] ;
+    for (int r : rank)
+      size[r]++ ;
+    int [][] front = new int[fronts][] ;
+    for (int i = 0; i < fronts; i++)
+      front[i] = new int[size[i]] ;
+    Arrays.fill(size, 0) ;
+    for (int i = 0; i < rank.length; i++)
+      front[rank[i]][size[rank[i]]++] = i ;
+    return front ;
+  } // fronts
+
+  /**
+   * Returns the sorter suited to a problem size: the sweep for one or two
+   * objectives; with three objectives, ENS with binary search for small sets
+   * and the divide and conquer algorithm for large ones; with more
+   * objectives, ENS with sequential search, as there are fewer fronts
+   * @param numberOfObjectives Number of objectives
+   * @param size Number of points
+   */
+  public static NondominatedSorter getSorter(int numberOfObjectives, int size) {
+    if (numberOfObjectives <= 2)
+      return SweepNondominatedSorter.getInstance() ;
+    if (numberOfObjectives > 3)
+      return sequentialENS_ ;
+    if (size < DIVIDE_AND_CONQUER_THRESHOLD)
+      return ENSNondominatedSorter.getInstance() ;
+    return DivideAndConquerNondominatedSorter.getInstance() ;
+  } // getSorter
+
+  /**
+   * Sorts the indexes of points in lexicographic order of the points (merge
+   * sort, so the order of equal points is kept)
+   * @param index The indexes
+   * @param points The points
+   */
+  static void sortLexicographically(int [] index, double [][] points) {
+    int [] buffer = index.clone() ;
+    mergeSort(buffer, index, 0, index.length, points) ;
+  } // sortLexicographically
+
+  private static void mergeSort(int [] source, int [] target, int from, int to, double [][] points) {
+    if (to - from < 8) {
+      for (int i = from + 1; i < to; i++) {
+        int value = target[i] ;
+        int j = i - 1 ;
+        while ((j >= from) && (compare(points[target[j]], points[value]) > 0)) {
+          target[j + 1] = target[j] ;
+          j-- ;
+        }
+        target[j + 1] = value ;
+      }
+      return ;
+    }
+    int middle = (from + to) >>> 1 ;
+    mergeSort(target, source, from, middle, points) ;
+    mergeSort(target, source, middle, to, points) ;
+    int i = from ;
+    int j = middle ;
+    for (int k = from; k < to; k++)
+      if ((j >= to) || ((i < middle) && (compare(points[source[i]], points[source[j]]) <= 0)))
+        target[k] = source[i++] ;
+      else
+        target[k] = source[j++] ;
+  } // mergeSort
+
+  /**
+   * Compares two points in lexicographic order
+   */
+  static int compare(double [] point1, double [] point2) {
+    for (int j = 0; j < point1.length; j++) {
+      if (point1[j] < point2[j])
+        return -1 ;
+      if (point1[j] > point2[j])
+        return 1 ;
+    }
+    return 0 ;
+  } // compare
+
+  /**
+   * Returns true if a point is lower than or equal to another one in the
+   * objectives from <code>from</code> to <code>to</code> (both included)
+   */
+  static boolean weaklyDominates(double [] point1, double [] point2, int from, int to) {
+    for (int j = from; j <= to; j++)
+      if (point1[j] > point2[j])
+        return false ;
+    return true ;
+  } // weaklyDominates
+} // NondominatedSorter
@@ -0,0 +1,78 @@
+//  SweepNondominatedSorter.java
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+/**
+ * This class sorts points of one or two objectives in O(N log N) (M. T.
+ * Jensen. Reducing the run-time complexity of multiobjective EAs: the
+ * NSGA-II and other algorithms. IEEE TEC 7(5), 2003). The points are
+ * visited in lexicographic order, so each point can only be dominated by
+ * the points visited before it; the last point added to each front has the
+ * lowest second objective of the front, and these values increase from
+ * front to front, so the front of a point is found by binary search.
+ */
+public class SweepNondominatedSorter extends NondominatedSorter {
+
+  private static final SweepNondominatedSorter instance_ = new SweepNondominatedSorter() ;
+
+  /**
+   * Returns the instance of the sorter
+   */
+  public static SweepNondominatedSorter getInstance() {
+    return instance_ ;
+  } // getInstance
+
+  public int [] sort(double [][] points) {
+    int size = points.length ;
+    int [] rank = new int[size] ;
+    if (size == 0)
+      return rank ;
+    if (points[0].length > 2)
+      throw new IllegalArgumentException("SweepNondominatedSorter.sort: " +
+          points[0].length + " objectives") ;
+
+    int [] index = new int[size] ;
+    for (int i = 0; i < size; i++)
+      index[i] = i ;
+    sortLexicographically(index, points) ;
+
+    // last[f] is the second objective of the last point added to front f
+    double [] last = new double[size] ;
+    int fronts = 0 ;
+    for (int k = 0; k < size; k++) {
+      int i = index[k] ;
+      if ((k > 0) && (compare(points[index[k - 1]], points[i]) == 0)) {
+        rank[i] = rank[index[k - 1]] ;
+        continue ;
+      }
+      double y = (points[i].length > 1) ? points[i][1] : 0.0 ;
+      int low  = 0 ;
+      int high = fronts ;
+      while (low < high) {
+        int middle = (low + high) >>> 1 ;
+        if (last[middle] <= y)
+          low = middle + 1 ;
+        else
+          high = middle ;
+      }
+      rank[i]   = low ;
+      last[low] = y ;
+      if (low == fronts)
+        fronts++ ;
+    } // for
+    return rank ;
+  } // sort
+} // SweepNondominatedSorter